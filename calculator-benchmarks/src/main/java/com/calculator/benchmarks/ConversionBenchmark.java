@@ -0,0 +1,154 @@
+package com.calculator.benchmarks;
+
+import com.calculator.conversion.UnitConverter;
+import com.calculator.programmer.ProgrammerCalculator;
+import com.calculator.programmer.ProgrammerCalculator.NumberSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link UnitConverter}, one per category, and of the
+ * {@link ProgrammerCalculator} number-system conversions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class ConversionBenchmark {
+    private static final int INPUT_COUNT = 1024;
+
+    private double[] values;
+    private long[] numbers;
+    private String[] decimals;
+    private String[] hexadecimals;
+    private String[] binaries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        values = new double[INPUT_COUNT];
+        numbers = new long[INPUT_COUNT];
+        decimals = new String[INPUT_COUNT];
+        hexadecimals = new String[INPUT_COUNT];
+        binaries = new String[INPUT_COUNT];
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            values[i] = (i * 7919 % 10_000) / 100.0 + 0.25;
+            numbers[i] = (i + 1) * 0x9E3779B97F4A7C15L >>> (i % 48);
+            decimals[i] = Long.toString(numbers[i]);
+            hexadecimals[i] = Long.toHexString(numbers[i]).toUpperCase();
+            binaries[i] = Long.toBinaryString(numbers[i]);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (INPUT_COUNT - 1);
+        return next;
+    }
+
+    // Unit conversions
+
+    @Benchmark
+    public double convertLength() {
+        return UnitConverter.convertLength(values[nextIndex()], "mi", "km");
+    }
+
+    @Benchmark
+    public double convertWeight() {
+        return UnitConverter.convertWeight(values[nextIndex()], "lb", "kg");
+    }
+
+    @Benchmark
+    public double convertVolume() {
+        return UnitConverter.convertVolume(values[nextIndex()], "gal", "l");
+    }
+
+    @Benchmark
+    public double convertArea() {
+        return UnitConverter.convertArea(values[nextIndex()], "ac", "m²");
+    }
+
+    @Benchmark
+    public double convertTemperature() {
+        return UnitConverter.celsiusToFahrenheit(values[nextIndex()]);
+    }
+
+    @Benchmark
+    public double convertTime() {
+        return UnitConverter.convertTime(values[nextIndex()], "h", "s");
+    }
+
+    @Benchmark
+    public double convertSpeed() {
+        return UnitConverter.convertSpeed(values[nextIndex()], "km", "h", "mi", "h");
+    }
+
+    @Benchmark
+    public double convertPressure() {
+        return UnitConverter.convertPressure(values[nextIndex()], "psi", "kPa");
+    }
+
+    @Benchmark
+    public double convertEnergy() {
+        return UnitConverter.convertEnergy(values[nextIndex()], "kWh", "BTU");
+    }
+
+    @Benchmark
+    public double convertDigitalStorage() {
+        return UnitConverter.convertDigitalStorage(values[nextIndex()], "GB", "MB");
+    }
+
+    @Benchmark
+    public double convertAngle() {
+        return UnitConverter.convertAngle(values[nextIndex()], "deg", "rad");
+    }
+
+    @Benchmark
+    public double convertFrequency() {
+        return UnitConverter.convertFrequency(values[nextIndex()], "MHz", "kHz");
+    }
+
+    // Number systems
+
+    @Benchmark
+    public String decimalToHexadecimal() {
+        return ProgrammerCalculator.convertNumber(decimals[nextIndex()], NumberSystem.DECIMAL,
+            NumberSystem.HEXADECIMAL);
+    }
+
+    @Benchmark
+    public String hexadecimalToBinary() {
+        return ProgrammerCalculator.convertNumber(hexadecimals[nextIndex()], NumberSystem.HEXADECIMAL,
+            NumberSystem.BINARY);
+    }
+
+    @Benchmark
+    public String binaryToDecimal() {
+        return ProgrammerCalculator.convertNumber(binaries[nextIndex()], NumberSystem.BINARY,
+            NumberSystem.DECIMAL);
+    }
+
+    /**
+     * Grouped binary display as shown by the programmer view.
+     */
+    @Benchmark
+    public String toBinaryString() {
+        return ProgrammerCalculator.toBinaryString(numbers[nextIndex()], 4);
+    }
+
+    @Benchmark
+    public String toHexString() {
+        return ProgrammerCalculator.toHexString(numbers[nextIndex()], true);
+    }
+}
@@ -0,0 +1,103 @@
+package com.calculator.benchmarks;
+
+import com.calculator.financial.FinancialCalculator;
+import com.calculator.financial.FinancialCalculator.BondAnalysis;
+import com.calculator.financial.FinancialCalculator.MortgageDetails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link FinancialCalculator} analyses.
+ *
+ * <p>Bond and mortgage results go through the calculator's result cache; {@code cacheSize=0}
+ * measures the computation itself, the default size measures cache hits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class FinancialBenchmark {
+
+    /**
+     * Rates cycled through by the bond and mortgage benchmarks, and the cache size.
+     */
+    @State(Scope.Thread)
+    public static class Terms {
+        private static final int RATE_COUNT = 64;
+
+        @Param({"4096", "0"})
+        public String cacheSize;
+
+        /** Years to maturity of the bond and term of the mortgage. */
+        @Param({"10", "30"})
+        public int years;
+
+        private final double[] rates = new double[RATE_COUNT];
+        private int next;
+
+        @Setup
+        public void setUp() {
+            // Read once, when the cache class is initialized; every parameter set runs in a new fork
+            System.setProperty("calculator.cache.size", cacheSize);
+            for (int i = 0; i < RATE_COUNT; i++) {
+                rates[i] = 3.0 + i / 16.0;
+            }
+        }
+
+        double nextRate() {
+            next = (next + 1) & (RATE_COUNT - 1);
+            return rates[next];
+        }
+    }
+
+    /**
+     * Daily stock and market returns for calculateBeta.
+     */
+    @State(Scope.Thread)
+    public static class ReturnSeries {
+        @Param({"250", "2500"})
+        public int length;
+
+        double[] stockReturns;
+        double[] marketReturns;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            stockReturns = new double[length];
+            marketReturns = new double[length];
+            for (int i = 0; i < length; i++) {
+                marketReturns[i] = random.nextGaussian() * 0.01;
+                stockReturns[i] = 1.2 * marketReturns[i] + random.nextGaussian() * 0.005;
+            }
+        }
+    }
+
+    @Benchmark
+    public BondAnalysis analyzeBond(Terms terms) {
+        return FinancialCalculator.analyzeBond(1000, 0.05, terms.nextRate() / 100, terms.years, 2);
+    }
+
+    @Benchmark
+    public MortgageDetails calculateMortgage(Terms terms) {
+        return FinancialCalculator.calculateMortgage(350_000, terms.nextRate(), terms.years, 70_000);
+    }
+
+    @Benchmark
+    public double calculateBeta(ReturnSeries series) {
+        return FinancialCalculator.calculateBeta(series.stockReturns, series.marketReturns);
+    }
+}
@@ -0,0 +1,139 @@
+package com.calculator.benchmarks;
+
+import com.calculator.CalculatorModel;
+import com.calculator.utils.NumberFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link CalculatorModel}: keystroke and operator sequences as the
+ * controller issues them, scientific functions, and result formatting.
+ *
+ * <p>Function results go through the shared result cache: {@code applyFunction} measures
+ * cache hits and {@code applyFunctionUncached} the computation itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class ModelBenchmark {
+    private static final int INPUT_COUNT = 1024;
+
+    private CalculatorModel model;
+    private String[] inputs;
+    private double[] values;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        model = new CalculatorModel();
+        inputs = new String[INPUT_COUNT];
+        values = new double[INPUT_COUNT];
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            values[i] = (i * 7919 % 10_000) / 100.0 + 0.25;
+            inputs[i] = NumberFormatter.toShortestString(values[i]);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (INPUT_COUNT - 1);
+        return next;
+    }
+
+    /**
+     * Types "12.5 × 3 + 7 =" one key at a time.
+     */
+    @Benchmark
+    public String keystrokeSequence() {
+        model.clear();
+        model.appendNumber("1");
+        model.appendNumber("2");
+        model.appendNumber(".");
+        model.appendNumber("5");
+        model.setOperator("×");
+        model.appendNumber("3");
+        model.setOperator("+");
+        model.appendNumber("7");
+        model.calculateResult();
+        return model.getCurrentDisplay();
+    }
+
+    /**
+     * Chains sixteen operators, each evaluating the pending one.
+     */
+    @Benchmark
+    public String operatorChain() {
+        model.clear();
+        model.appendNumber(inputs[nextIndex()]);
+        for (int i = 0; i < 4; i++) {
+            model.setOperator("+");
+            model.appendNumber(inputs[nextIndex()]);
+            model.setOperator("×");
+            model.appendNumber("1.5");
+            model.setOperator("-");
+            model.appendNumber(inputs[nextIndex()]);
+            model.setOperator("÷");
+            model.appendNumber("3");
+        }
+        model.calculateResult();
+        return model.getLastCalculation();
+    }
+
+    /**
+     * The function to apply.
+     */
+    @State(Scope.Thread)
+    public static class FunctionState {
+        @Param({"sin", "ln", "√", "!"})
+        public String function;
+    }
+
+    @Benchmark
+    public String applyFunction(FunctionState state) {
+        model.clear();
+        model.appendNumber(inputs[nextIndex()]);
+        model.applyFunction(state.function);
+        return model.getCurrentDisplay();
+    }
+
+    /**
+     * As {@link #applyFunction}, in a fork whose result cache is disabled. The size must be set
+     * on the command line: JMH sets up this class's state, which creates a model and with it
+     * the cache, before any parameter state.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dcalculator.cache.size=0"})
+    public String applyFunctionUncached(FunctionState state) {
+        return applyFunction(state);
+    }
+
+    /**
+     * Shows a result on the display, as after every operation.
+     */
+    @Benchmark
+    public String displayResult() {
+        model.setResult(values[nextIndex()] / 7);
+        return model.getCurrentDisplay();
+    }
+
+    /**
+     * The model's history formatting, up to ten decimals.
+     */
+    @Benchmark
+    public String formatNumber() {
+        return NumberFormatter.toFixedString(values[nextIndex()] / 7, 10);
+    }
+}
@@ -0,0 +1,151 @@
+package com.calculator.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cold-start benchmark of the packaged calculator. Each run launches a new JVM with the
+ * {@code --startup-probe} option, which makes the application print the times it entered
+ * main, rendered its first frame and showed its first result, then exit. Times are reported
+ * in milliseconds from process creation, for three class-data sharing setups: none, the JDK's
+ * default archive, and the application archive built by the {@code appcds} profile.
+ *
+ * <p>Runs of the three setups are interleaved so that drift in machine load affects them
+ * equally. A display is required.
+ *
+ * <p>Usage: {@code StartupBenchmark [--jar path] [--archive path] [--runs n] [--warmup n]}
+ */
+public final class StartupBenchmark {
+    private static final String[] MILESTONES = {"main", "firstFrame", "firstResult"};
+
+    private final Path jar;
+    private final Map<String, List<String>> setups = new LinkedHashMap<>();
+
+    private StartupBenchmark(Path jar, Path archive) {
+        this.jar = jar;
+        setups.put("no CDS", List.of("-Xshare:off"));
+        setups.put("JDK CDS", List.of("-Xshare:auto"));
+        setups.put("AppCDS", List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:auto"));
+    }
+
+    /**
+     * Launches the calculator once and returns the milliseconds from process creation to
+     * each milestone.
+     */
+    private double[] launch(List<String> jvmOptions) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("--add-modules", "jdk.incubator.vector",
+            "-cp", jar.toString(), "com.calculator.Launcher", "--startup-probe"));
+
+        long spawnMicros = epochMicros();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Map<String, Long> reported = new HashMap<>();
+        Deque<String> lastLines = new ArrayDeque<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('=');
+                if (line.startsWith("startup.") && separator > 0 && !line.startsWith("startup.result")) {
+                    reported.put(line.substring("startup.".length(), separator),
+                        Long.parseLong(line.substring(separator + 1)));
+                }
+                lastLines.addLast(line);
+                if (lastLines.size() > 10) {
+                    lastLines.removeFirst();
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+
+        double[] millis = new double[MILESTONES.length];
+        for (int i = 0; i < MILESTONES.length; i++) {
+            Long micros = reported.get(MILESTONES[i]);
+            if (exitCode != 0 || micros == null) {
+                throw new IOException("Calculator exited with " + exitCode + " without reporting "
+                    + MILESTONES[i] + ":\n" + String.join("\n", lastLines));
+            }
+            millis[i] = (micros - spawnMicros) / 1000.0;
+        }
+        return millis;
+    }
+
+    private void run(int runs, int warmup) throws IOException, InterruptedException {
+        Map<String, List<double[]>> results = new LinkedHashMap<>();
+        for (int i = 0; i < warmup + runs; i++) {
+            for (Map.Entry<String, List<String>> setup : setups.entrySet()) {
+                double[] millis = launch(setup.getValue());
+                if (i >= warmup) {
+                    results.computeIfAbsent(setup.getKey(), key -> new ArrayList<>()).add(millis);
+                }
+            }
+        }
+
+        System.out.printf("%-8s %-12s %9s %9s %9s%n", "CDS", "milestone", "min ms", "median ms", "p90 ms");
+        results.forEach((name, samples) -> {
+            for (int m = 0; m < MILESTONES.length; m++) {
+                double[] values = new double[samples.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = samples.get(i)[m];
+                }
+                Arrays.sort(values);
+                System.out.printf("%-8s %-12s %9.1f %9.1f %9.1f%n", name, MILESTONES[m],
+                    values[0], percentile(values, 0.5), percentile(values, 0.9));
+            }
+        });
+    }
+
+    private static double percentile(double[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static long epochMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1000;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path target = Paths.get("..", "target");
+        Path jar = target.resolve("advanced-calculator-1.0-SNAPSHOT-jar-with-dependencies.jar");
+        Path archive = target.resolve("calculator.jsa");
+        int runs = 10;
+        int warmup = 2;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--jar" -> jar = Paths.get(args[i + 1]);
+                case "--archive" -> archive = Paths.get(args[i + 1]);
+                case "--runs" -> runs = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmup = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (runs < 1 || warmup < 0) {
+            throw new IllegalArgumentException("Runs must be positive and warmup non-negative");
+        }
+        if (!Files.isRegularFile(jar) || !Files.isRegularFile(archive)) {
+            System.err.println("Build the calculator first: mvn package in the parent directory");
+            System.exit(2);
+        }
+
+        // The archive only matches the class path it was built with, which is absolute
+        new StartupBenchmark(jar.toAbsolutePath().normalize(), archive.toAbsolutePath().normalize())
+            .run(runs, warmup);
+    }
+}
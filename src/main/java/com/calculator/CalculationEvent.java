@@ -0,0 +1,52 @@
+package com.calculator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for an operator or function evaluated by {@link CalculatorModel}.
+ *
+ * <p>Only calculations slower than the threshold are committed; the settings in
+ * {@code calculator.jfc} at the project root record every one.
+ */
+@Name("com.calculator.Calculation")
+@Label("Calculation")
+@Category({"Calculator", "Model"})
+@Description("Operator or function evaluated by the calculator model")
+@StackTrace(false)
+@Threshold("100 us")
+final class CalculationEvent extends Event {
+    @Label("Kind")
+    @Description("operator or function")
+    String kind;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Precise")
+    @Description("Whether the calculation used arbitrary-precision decimals")
+    boolean precise;
+
+    @Label("Precision Digits")
+    @Description("Significant digits of the decimal context, or 0 for double arithmetic")
+    int precisionDigits;
+
+    @Label("Operand Length")
+    @Description("Characters in the entry the operation consumed")
+    int operandLength;
+
+    @Label("Result Length")
+    @Description("Characters in the displayed result")
+    int resultLength;
+
+    @Label("Status")
+    String status;
+
+    @Label("Error")
+    String error;
+}
@@ -1,6 +1,11 @@
 package com.calculator;
 
+import com.calculator.batch.BatchEvaluator;
+import com.calculator.metrics.OperationMetrics;
+import com.calculator.utils.AnimationUtils;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -14,20 +19,41 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
-import javafx.animation.TranslateTransition;
-import javafx.animation.ParallelTransition;
 import javafx.util.Duration;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Main application class for the calculator
  */
 public class CalculatorApp extends Application {
+    /**
+     * Option that makes the application report its startup milestones and exit after the
+     * first result, for startup benchmarks and class-data sharing training runs.
+     */
+    public static final String STARTUP_PROBE = "--startup-probe";
+
+    // Wall-clock time main was entered, in microseconds since the epoch
+    private static long mainMicros;
+
     private CalculatorController controller;
     private VBox root;
     private TextField display;
     private Label historyLabel;
     private VBox historyContainer;
     private ScrollPane historyScroll;
+    private ScrollPane rightScroll;
+    private VBox rightSide;
+    private LazySection[] sections;
+    private final ExecutorService sectionBuilder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "section-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @Override
     public void start(Stage primaryStage) {
@@ -55,83 +81,51 @@ public class CalculatorApp extends Application {
         containerScale.setToY(1);
         containerScale.play();
         
-        // Left side with display and number pad
+        // Left side with display and number pad, shown without staggered fades so it is
+        // usable from the first frame
         VBox leftSide = new VBox(10);
         leftSide.getStyleClass().add("left-side");
         
-        // Display area with history
         VBox displayArea = createDisplayArea();
-        FadeTransition displayFade = new FadeTransition(Duration.seconds(0.5), displayArea);
-        displayFade.setFromValue(0);
-        displayFade.setToValue(1);
-        displayFade.setDelay(Duration.seconds(0.2));
-        displayFade.play();
-        
-        // Memory buttons with animation
         HBox memoryButtons = createMemoryButtons();
         memoryButtons.setAlignment(Pos.CENTER);
-        FadeTransition memoryFade = new FadeTransition(Duration.seconds(0.5), memoryButtons);
-        memoryFade.setFromValue(0);
-        memoryFade.setToValue(1);
-        memoryFade.setDelay(Duration.seconds(0.3));
-        memoryFade.play();
-        
-        // Button grid with animation
         GridPane buttonGrid = createButtonGrid();
-        FadeTransition gridFade = new FadeTransition(Duration.seconds(0.5), buttonGrid);
-        gridFade.setFromValue(0);
-        gridFade.setToValue(1);
-        gridFade.setDelay(Duration.seconds(0.4));
-        gridFade.play();
         
-        // Theme toggle button with animation
+        // Theme toggle button
         Button themeButton = new Button("Dark Mode");
         themeButton.getStyleClass().add("theme-button");
         themeButton.setOnAction(e -> toggleTheme());
         themeButton.setMaxWidth(Double.MAX_VALUE);
         controller.addTooltip(themeButton, "Toggle between light and dark mode (Alt+T)");
-        FadeTransition themeFade = new FadeTransition(Duration.seconds(0.5), themeButton);
-        themeFade.setFromValue(0);
-        themeFade.setToValue(1);
-        themeFade.setDelay(Duration.seconds(0.5));
-        themeFade.play();
         
         leftSide.getChildren().addAll(displayArea, memoryButtons, buttonGrid, themeButton);
         
         // Right side with advanced functions
-        ScrollPane rightScroll = new ScrollPane();
+        rightScroll = new ScrollPane();
         rightScroll.setFitToWidth(true);
         rightScroll.getStyleClass().add("calculator-scroll");
         HBox.setHgrow(rightScroll, Priority.ALWAYS);
         
-        VBox rightSide = new VBox(15);
+        rightSide = new VBox(15);
         rightSide.getStyleClass().add("right-side");
         rightSide.setAlignment(Pos.TOP_CENTER);
         
-        // Add calculator sections with sequential animations
-        VBox[] sections = {
-            createScientificSection(),
-            createFinancialSection(),
-            createProgrammerSection(),
-            createConverterSection()
+        // Sections build their buttons when scrolled into view or expanded
+        sections = new LazySection[] {
+            new LazySection("Scientific Calculator", "scientific-title", 6,
+                this::createScientificGroups, sectionBuilder),
+            new LazySection("Financial Calculator", "financial-title", 5,
+                this::createFinancialGroups, sectionBuilder),
+            new LazySection("Programmer Calculator", "programmer-title", 5,
+                this::createProgrammerGroups, sectionBuilder),
+            new LazySection("Unit Converter", "converter-title", 8,
+                this::createConverterGroups, sectionBuilder)
         };
+        rightSide.getChildren().addAll(sections);
         
-        for (int i = 0; i < sections.length; i++) {
-            VBox section = sections[i];
-            rightSide.getChildren().add(section);
-            
-            FadeTransition sectionFade = new FadeTransition(Duration.seconds(0.5), section);
-            sectionFade.setFromValue(0);
-            sectionFade.setToValue(1);
-            sectionFade.setDelay(Duration.seconds(0.1 * (i + 1)));
-            sectionFade.play();
-            
-            TranslateTransition sectionSlide = new TranslateTransition(Duration.seconds(0.5), section);
-            sectionSlide.setFromY(20);
-            sectionSlide.setToY(0);
-            sectionSlide.setDelay(Duration.seconds(0.1 * (i + 1)));
-            sectionSlide.play();
-        }
+        rightScroll.vvalueProperty().addListener((obs, oldValue, newValue) -> materializeVisibleSections());
+        rightScroll.viewportBoundsProperty().addListener((obs, oldValue, newValue) -> materializeVisibleSections());
+        rightSide.heightProperty().addListener((obs, oldValue, newValue) -> materializeVisibleSections());
         
         rightScroll.setContent(rightSide);
         
@@ -152,6 +146,72 @@ public class CalculatorApp extends Application {
         
         // Initialize controller with UI components
         controller.initialize(display, historyLabel, historyContainer, historyScroll);
+        
+        if (getParameters().getRaw().contains(STARTUP_PROBE)) {
+            probeStartup(scene);
+        }
+    }
+
+    /**
+     * Prints the wall-clock times of main, the first frame and the first result, in
+     * microseconds since the epoch, then exits. The first result is a calculation entered
+     * through the controller, as from the keypad.
+     */
+    private void probeStartup(Scene scene) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            private boolean done;
+
+            @Override
+            public void run() {
+                if (done) {
+                    return;
+                }
+                done = true;
+                // The frame is rendered after layout in the same pulse, so stamp it once the pulse is over
+                Platform.runLater(() -> {
+                    long firstFrameMicros = epochMicros();
+                    controller.handleNumber("6");
+                    controller.handleOperator("×");
+                    controller.handleNumber("7");
+                    controller.handleEquals();
+                    long firstResultMicros = epochMicros();
+                    System.out.println("startup.main=" + mainMicros);
+                    System.out.println("startup.firstFrame=" + firstFrameMicros);
+                    System.out.println("startup.firstResult=" + firstResultMicros);
+                    System.out.println("startup.result=" + display.getText());
+                    Platform.exit();
+                });
+            }
+        });
+    }
+
+    static long epochMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1000;
+    }
+
+    @Override
+    public void stop() {
+        sectionBuilder.shutdownNow();
+    }
+
+    /**
+     * Starts building the sections that overlap the visible part of the scroll pane or the
+     * screen below it, so they are usually ready by the time they are scrolled to.
+     */
+    private void materializeVisibleSections() {
+        double viewportHeight = rightScroll.getViewportBounds().getHeight();
+        if (viewportHeight <= 0) {
+            return; // Not laid out yet
+        }
+        double top = rightScroll.getVvalue() * Math.max(0, rightSide.getHeight() - viewportHeight);
+        double bottom = top + 2 * viewportHeight;
+        for (LazySection section : sections) {
+            Bounds bounds = section.getBoundsInParent();
+            if (!section.isMaterialized() && bounds.getMinY() < bottom && bounds.getMaxY() > top) {
+                section.materialize();
+            }
+        }
     }
 
     private VBox createDisplayArea() {
@@ -255,15 +315,9 @@ public class CalculatorApp extends Application {
         return grid;
     }
 
-    private VBox createScientificSection() {
+    private VBox createScientificGroups() {
         VBox scientificArea = new VBox(10);
 
-        Label scientificTitle = new Label("Scientific Calculator");
-        scientificTitle.getStyleClass().addAll("section-title", "scientific-title");
-        
-        Region separator = new Region();
-        separator.getStyleClass().add("separator");
-
         // Basic trigonometry
         VBox trigGroup = createFunctionGroup("Trigonometry", 
             new String[]{"sin", "cos", "tan", "sec", "csc", "cot"});
@@ -289,8 +343,6 @@ public class CalculatorApp extends Application {
             new String[]{"abs", "ceil", "floor", "rand", "fact", "mod"});
 
         scientificArea.getChildren().addAll(
-            scientificTitle,
-            separator,
             trigGroup,
             createGroupSeparator(),
             invTrigGroup,
@@ -307,15 +359,9 @@ public class CalculatorApp extends Application {
         return scientificArea;
     }
 
-    private VBox createFinancialSection() {
+    private VBox createFinancialGroups() {
         VBox financialArea = new VBox(10);
 
-        Label financialTitle = new Label("Financial Calculator");
-        financialTitle.getStyleClass().addAll("section-title", "financial-title");
-        
-        Region separator = new Region();
-        separator.getStyleClass().add("separator");
-
         // Loan calculations
         VBox loanGroup = createFunctionGroup("Loan Calculator", 
             new String[]{"PMT", "LOAN", "TERM", "RATE", "NPER", "IPMT"});
@@ -337,8 +383,6 @@ public class CalculatorApp extends Application {
             new String[]{"P/E", "P/B", "D/E", "ROE", "ROA", "CR"});
 
         financialArea.getChildren().addAll(
-            financialTitle,
-            separator,
             loanGroup,
             createGroupSeparator(),
             investmentGroup,
@@ -353,15 +397,9 @@ public class CalculatorApp extends Application {
         return financialArea;
     }
 
-    private VBox createProgrammerSection() {
+    private VBox createProgrammerGroups() {
         VBox programmerArea = new VBox(10);
 
-        Label programmerTitle = new Label("Programmer Calculator");
-        programmerTitle.getStyleClass().addAll("section-title", "programmer-title");
-        
-        Region separator = new Region();
-        separator.getStyleClass().add("separator");
-
         // Number systems
         VBox baseGroup = createFunctionGroup("Number Systems", 
             new String[]{"HEX", "DEC", "OCT", "BIN", "CHAR", "ASCII"});
@@ -383,8 +421,6 @@ public class CalculatorApp extends Application {
             new String[]{"BOOL", "XNOR", "IMP", "EQV", "TRUE", "FALSE"});
 
         programmerArea.getChildren().addAll(
-            programmerTitle,
-            separator,
             baseGroup,
             createGroupSeparator(),
             bitwiseGroup,
@@ -399,15 +435,9 @@ public class CalculatorApp extends Application {
         return programmerArea;
     }
 
-    private VBox createConverterSection() {
+    private VBox createConverterGroups() {
         VBox converterArea = new VBox(10);
 
-        Label converterTitle = new Label("Unit Converter");
-        converterTitle.getStyleClass().addAll("section-title", "converter-title");
-        
-        Region separator = new Region();
-        separator.getStyleClass().add("separator");
-
         // Length conversions
         VBox lengthGroup = createFunctionGroup("Length", 
             new String[]{"km", "m", "cm", "mile", "yard", "foot"});
@@ -441,8 +471,6 @@ public class CalculatorApp extends Application {
             new String[]{"J", "cal", "kWh", "eV", "BTU", "erg"});
 
         converterArea.getChildren().addAll(
-            converterTitle,
-            separator,
             lengthGroup,
             createGroupSeparator(),
             weightGroup,
@@ -508,59 +536,47 @@ public class CalculatorApp extends Application {
         button.getStyleClass().add("calculator-button");
         
         // Add hover effect
-        button.setOnMouseEntered(e -> {
-            ScaleTransition st = new ScaleTransition(Duration.millis(100), button);
-            st.setToX(1.05);
-            st.setToY(1.05);
-            st.play();
-        });
-        
-        button.setOnMouseExited(e -> {
-            ScaleTransition st = new ScaleTransition(Duration.millis(100), button);
-            st.setToX(1);
-            st.setToY(1);
-            st.play();
-        });
+        AnimationUtils.setupButtonHoverAnimation(button);
         
         if (text.matches("[0-9.]")) {
             button.getStyleClass().add("number-button");
             button.setOnAction(e -> {
-                playButtonClickAnimation(button);
+                AnimationUtils.playButtonClickAnimation(button);
                 controller.handleNumber(text);
             });
             controller.addTooltip(button, "Enter " + text);
         } else if (text.matches("[+\\-×÷%]")) {
             button.getStyleClass().add("operator-button");
             button.setOnAction(e -> {
-                playButtonClickAnimation(button);
+                AnimationUtils.playButtonClickAnimation(button);
                 controller.handleOperator(text);
             });
             controller.addTooltip(button, getOperatorTooltip(text));
         } else if (text.equals("=")) {
             button.getStyleClass().add("equals-button");
             button.setOnAction(e -> {
-                playButtonClickAnimation(button);
+                AnimationUtils.playButtonClickAnimation(button);
                 controller.handleEquals();
             });
             controller.addTooltip(button, "Calculate result (Enter)");
         } else if (text.equals("C")) {
             button.getStyleClass().add("clear-button");
             button.setOnAction(e -> {
-                playButtonClickAnimation(button);
+                AnimationUtils.playButtonClickAnimation(button);
                 controller.handleClear();
             });
             controller.addTooltip(button, "Clear all (Esc)");
         } else if (text.equals("⌫")) {
             button.getStyleClass().add("erase-button");
             button.setOnAction(e -> {
-                playButtonClickAnimation(button);
+                AnimationUtils.playButtonClickAnimation(button);
                 controller.handleErase();
             });
             controller.addTooltip(button, "Erase last digit (Backspace)");
         } else {
             button.getStyleClass().add("function-button");
             button.setOnAction(e -> {
-                playButtonClickAnimation(button);
+                AnimationUtils.playButtonClickAnimation(button);
                 controller.handleFunction(text);
             });
             controller.addTooltip(button, getFunctionTooltip(text));
@@ -569,25 +585,6 @@ public class CalculatorApp extends Application {
         return button;
     }
 
-    private void playButtonClickAnimation(Button button) {
-        ParallelTransition pt = new ParallelTransition();
-        
-        ScaleTransition st = new ScaleTransition(Duration.millis(100), button);
-        st.setToX(0.95);
-        st.setToY(0.95);
-        st.setCycleCount(2);
-        st.setAutoReverse(true);
-        
-        FadeTransition ft = new FadeTransition(Duration.millis(100), button);
-        ft.setFromValue(1.0);
-        ft.setToValue(0.8);
-        ft.setCycleCount(2);
-        ft.setAutoReverse(true);
-        
-        pt.getChildren().addAll(st, ft);
-        pt.play();
-    }
-
     private void toggleTheme() {
         controller.toggleTheme();
         if (controller.isDarkMode()) {
@@ -636,7 +633,19 @@ public class CalculatorApp extends Application {
         };
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (Arrays.asList(args).contains(STARTUP_PROBE)) {
+            mainMicros = epochMicros();
+        }
+        // Headless batch mode: evaluate an expression file without starting JavaFX
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchEvaluator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Starting the platform MBean server takes a while, keep it off the launch path
+        Thread registration = new Thread(OperationMetrics::registerMBean, "metrics-registration");
+        registration.setDaemon(true);
+        registration.start();
         launch(args);
     }
 }
\ No newline at end of file
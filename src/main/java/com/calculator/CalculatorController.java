@@ -7,6 +7,7 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.VBox;
 
 /**
@@ -48,11 +49,16 @@ public class CalculatorController {
      * @param number The digit pressed
      */
     public void handleNumber(String number) {
-        if (model.isError()) {
-            handleClear();
+        ControllerActionEvent action = beginAction();
+        try {
+            if (model.isError()) {
+                handleClear();
+            }
+            model.appendNumber(number);
+            updateDisplay();
+        } finally {
+            endAction(action, "handleNumber", number);
         }
-        model.appendNumber(number);
-        updateDisplay();
     }
 
     /**
@@ -60,10 +66,15 @@ public class CalculatorController {
      * @param operator The operator pressed
      */
     public void handleOperator(String operator) {
-        if (!model.isError()) {
-            model.setOperator(operator);
-            updateDisplay();
-            updateHistory();
+        ControllerActionEvent action = beginAction();
+        try {
+            if (!model.isError()) {
+                model.setOperator(operator);
+                updateDisplay();
+                updateHistory();
+            }
+        } finally {
+            endAction(action, "handleOperator", operator);
         }
     }
 
@@ -71,11 +82,16 @@ public class CalculatorController {
      * Handles equals button click
      */
     public void handleEquals() {
-        if (!model.isError()) {
-            model.calculateResult();
-            updateDisplay();
-            updateHistory();
-            addToHistoryContainer(model.getLastCalculation());
+        ControllerActionEvent action = beginAction();
+        try {
+            if (!model.isError()) {
+                model.calculateResult();
+                updateDisplay();
+                updateHistory();
+                addToHistoryContainer(model.getLastCalculation());
+            }
+        } finally {
+            endAction(action, "handleEquals", "=");
         }
     }
 
@@ -84,30 +100,35 @@ public class CalculatorController {
      * @param function The function to apply
      */
     public void handleFunction(String function) {
-        if (!model.isError()) {
-            switch (function) {
-                // Existing scientific functions
-                case "sin", "cos", "tan", "log", "ln", "√", "x²", "x³", "xʸ", "1/x", "!", "e" -> {
-                    model.applyFunction(function);
-                    updateDisplay();
-                    updateHistory();
-                    addToHistoryContainer(model.getLastCalculation());
+        ControllerActionEvent action = beginAction();
+        try {
+            if (!model.isError()) {
+                switch (function) {
+                    // Existing scientific functions
+                    case "sin", "cos", "tan", "log", "ln", "√", "x²", "x³", "xʸ", "1/x", "!", "e" -> {
+                        model.applyFunction(function);
+                        updateDisplay();
+                        updateHistory();
+                        addToHistoryContainer(model.getLastCalculation());
+                    }
+
+                    // Financial functions
+                    case "PMT" -> handleLoanPayment();
+                    case "LOAN" -> handleLoanAmount();
+                    case "TERM" -> handleLoanTerm();
+                    case "FV" -> handleFutureValue();
+                    case "PV" -> handlePresentValue();
+                    case "ROI" -> handleReturnOnInvestment();
+                    case "MORT" -> handleMortgage();
+                    case "AMORT" -> handleAmortization();
+                    case "DOWN" -> handleDownPayment();
+                    case "BOND" -> handleBondCalculation();
+                    case "P/E" -> handlePriceToEarnings();
+                    case "D/E" -> handleDebtToEquity();
                 }
-                
-                // Financial functions
-                case "PMT" -> handleLoanPayment();
-                case "LOAN" -> handleLoanAmount();
-                case "TERM" -> handleLoanTerm();
-                case "FV" -> handleFutureValue();
-                case "PV" -> handlePresentValue();
-                case "ROI" -> handleReturnOnInvestment();
-                case "MORT" -> handleMortgage();
-                case "AMORT" -> handleAmortization();
-                case "DOWN" -> handleDownPayment();
-                case "BOND" -> handleBondCalculation();
-                case "P/E" -> handlePriceToEarnings();
-                case "D/E" -> handleDebtToEquity();
             }
+        } finally {
+            endAction(action, "handleFunction", function);
         }
     }
 
@@ -116,14 +137,19 @@ public class CalculatorController {
      * @param operation The memory operation
      */
     public void handleMemory(String operation) {
-        switch (operation) {
-            case "MC" -> model.memoryClear();
-            case "MR" -> {
-                model.memoryRecall();
-                updateDisplay();
+        ControllerActionEvent action = beginAction();
+        try {
+            switch (operation) {
+                case "MC" -> model.memoryClear();
+                case "MR" -> {
+                    model.memoryRecall();
+                    updateDisplay();
+                }
+                case "M+" -> model.memoryAdd();
+                case "M-" -> model.memorySubtract();
             }
-            case "M+" -> model.memoryAdd();
-            case "M-" -> model.memorySubtract();
+        } finally {
+            endAction(action, "handleMemory", operation);
         }
     }
 
@@ -131,18 +157,28 @@ public class CalculatorController {
      * Handles clear button click
      */
     public void handleClear() {
-        model.clear();
-        updateDisplay();
-        updateHistory();
+        ControllerActionEvent action = beginAction();
+        try {
+            model.clear();
+            updateDisplay();
+            updateHistory();
+        } finally {
+            endAction(action, "handleClear", "C");
+        }
     }
 
     /**
      * Handles erase button click
      */
     public void handleErase() {
-        if (!model.isError()) {
-            model.erase();
-            updateDisplay();
+        ControllerActionEvent action = beginAction();
+        try {
+            if (!model.isError()) {
+                model.erase();
+                updateDisplay();
+            }
+        } finally {
+            endAction(action, "handleErase", "⌫");
         }
     }
 
@@ -151,27 +187,52 @@ public class CalculatorController {
      * @param event The key event
      */
     public void handleKeyPressed(KeyEvent event) {
-        if (event.getCode() == KeyCode.ESCAPE) {
-            handleClear();
-        } else if (event.getCode() == KeyCode.ENTER) {
-            handleEquals();
-        } else if (event.getCode() == KeyCode.BACK_SPACE) {
-            handleErase();
-        } else if (event.getCode() == KeyCode.T && event.isAltDown()) {
-            toggleTheme();
-        } else {
-            String key = event.getText();
-            if (key.matches("[0-9.]")) {
-                handleNumber(key);
+        ControllerActionEvent action = beginAction();
+        try {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                handleClear();
+            } else if (event.getCode() == KeyCode.ENTER) {
+                handleEquals();
+            } else if (event.getCode() == KeyCode.BACK_SPACE) {
+                handleErase();
+            } else if (event.getCode() == KeyCode.T && event.isAltDown()) {
+                toggleTheme();
             } else {
-                switch (key) {
-                    case "+" -> handleOperator("+");
-                    case "-" -> handleOperator("-");
-                    case "*" -> handleOperator("×");
-                    case "/" -> handleOperator("÷");
-                    case "%" -> handleOperator("%");
+                String key = event.getText();
+                if (key.matches("[0-9.]")) {
+                    handleNumber(key);
+                } else {
+                    switch (key) {
+                        case "+" -> handleOperator("+");
+                        case "-" -> handleOperator("-");
+                        case "*" -> handleOperator("×");
+                        case "/" -> handleOperator("÷");
+                        case "%" -> handleOperator("%");
+                    }
                 }
             }
+        } finally {
+            endAction(action, "handleKeyPressed", event.getCode().getName());
+        }
+    }
+
+    private static ControllerActionEvent beginAction() {
+        ControllerActionEvent action = new ControllerActionEvent();
+        action.begin();
+        return action;
+    }
+
+    /**
+     * Commits a controller event if the action exceeded its recording threshold.
+     */
+    private void endAction(ControllerActionEvent action, String handler, String input) {
+        action.end();
+        if (action.shouldCommit()) {
+            action.handler = handler;
+            action.input = input;
+            action.status = model.isError() ? "ERROR" : "OK";
+            action.error = model.isError() ? model.getErrorMessage() : null;
+            action.commit();
         }
     }
 
@@ -214,14 +275,21 @@ public class CalculatorController {
     }
 
     /**
-     * Adds tooltips to buttons
+     * Adds tooltips to buttons. Each tooltip is a popup window, so it is only created when the
+     * pointer first enters the button; the text is set as accessible help right away.
+     * May be called off the FX thread for buttons that are not yet showing.
      * @param button The button to add tooltip to
      * @param text The tooltip text
      */
     public void addTooltip(Button button, String text) {
-        Tooltip tooltip = new Tooltip(text);
-        tooltip.setShowDelay(javafx.util.Duration.millis(500));
-        button.setTooltip(tooltip);
+        button.setAccessibleHelp(text);
+        button.addEventHandler(MouseEvent.MOUSE_ENTERED, e -> {
+            if (button.getTooltip() == null) {
+                Tooltip tooltip = new Tooltip(text);
+                tooltip.setShowDelay(javafx.util.Duration.millis(500));
+                button.setTooltip(tooltip);
+            }
+        });
     }
 
     /**
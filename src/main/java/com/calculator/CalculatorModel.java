@@ -1,31 +1,75 @@
 package com.calculator;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.calculator.cache.ResultCache;
+import com.calculator.expression.CompiledExpression;
+import com.calculator.expression.Expression;
+import com.calculator.metrics.OperationMetrics;
+import com.calculator.precision.BigDecimalMath;
+import com.calculator.scientific.FastMath;
+import com.calculator.scientific.GammaFunction;
+import com.calculator.utils.NumberFormatter;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Model class for the calculator application.
  * Handles calculations, memory operations, and state management.
  */
 public class CalculatorModel {
-    private String currentNumber = "";
+    private static final ResultCache RESULT_CACHE = new ResultCache();
+    private static final int MAX_COMPILED_EXPRESSIONS = 256;
+    private static final OperationMetrics.Group OPERATOR_METRICS = OperationMetrics.group("model.operator");
+    private static final OperationMetrics.Group FUNCTION_METRICS = OperationMetrics.group("model.function");
+    private static final OperationMetrics.Group PRECISE_OPERATOR_METRICS =
+        OperationMetrics.group("model.precise.operator");
+    private static final OperationMetrics.Group PRECISE_FUNCTION_METRICS =
+        OperationMetrics.group("model.precise.function");
+
+    // Entry being typed, kept in a reusable buffer so keystrokes allocate nothing
+    private final InputBuffer currentNumber = new InputBuffer();
     private String operator = "";
     private double result = 0;
     private double memory = 0;
     private boolean startNewNumber = true;
     private String errorMessage = "";
-    private List<String> history = new ArrayList<>();
+    private String lastCalculation = "";
+    // Operands of the last operator calculation, formatted only when asked for
+    private boolean lastOperationPending = false;
+    private double lastFirstNumber;
+    private String lastOperator;
+    private double lastSecondNumber;
+    private double lastValue;
+    // Least recently used compiled expressions, keyed by source text
+    @SuppressWarnings("serial")
+    private final Map<String, CompiledExpression> compiledExpressions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+            return size() > MAX_COMPILED_EXPRESSIONS;
+        }
+    };
+
+    // Arbitrary-precision mode keeps an exact decimal copy of the result
+    private boolean precisionMode = false;
+    private MathContext mathContext = MathContext.DECIMAL128;
+    private BigDecimal preciseResult = BigDecimal.ZERO;
+
+    // Fast-math mode trades the last bits of accuracy in scientific functions for speed
+    private boolean fastMath = false;
 
     public void appendNumber(String number) {
-        if (number.equals(".") && currentNumber.contains(".")) {
+        if (number.equals(".") && currentNumber.hasDecimalPoint()) {
             return; // Prevent multiple decimal points
         }
         
         if (startNewNumber) {
-            currentNumber = number;
+            currentNumber.clear();
             startNewNumber = false;
-        } else {
-            currentNumber += number;
+        }
+        for (int i = 0; i < number.length(); i++) {
+            currentNumber.append(number.charAt(i));
         }
         errorMessage = "";
     }
@@ -35,7 +79,15 @@ public class CalculatorModel {
             if (!operator.isEmpty()) {
                 calculateResult();
             } else {
-                result = Double.parseDouble(currentNumber);
+                result = currentNumber.toDouble();
+                if (precisionMode) {
+                    try {
+                        preciseResult = parsePrecise();
+                    } catch (ArithmeticException e) {
+                        errorMessage = e.getMessage();
+                        return;
+                    }
+                }
             }
             operator = newOperator;
             startNewNumber = true;
@@ -44,31 +96,60 @@ public class CalculatorModel {
     }
 
     public void calculateResult() {
+        if (operator.isEmpty()) {
+            return;
+        }
+        String timedOperator = operator;
+        boolean precise = precisionMode;
+        CalculationEvent event = new CalculationEvent();
+        int operandLength = event.isEnabled() ? getCurrentDisplay().length() : 0;
+        event.begin();
+        long start = OperationMetrics.start();
+        try {
+            if (precise) {
+                calculatePreciseResult();
+            } else {
+                calculateDoubleResult();
+            }
+        } finally {
+            (precise ? PRECISE_OPERATOR_METRICS : OPERATOR_METRICS).stop(timedOperator, start);
+            commit(event, "operator", timedOperator, precise, operandLength);
+        }
+    }
+
+    /**
+     * Commits a calculation event if it exceeded its recording threshold.
+     */
+    private void commit(CalculationEvent event, String kind, String operation, boolean precise,
+                        int operandLength) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.operation = operation;
+            event.precise = precise;
+            event.precisionDigits = precise ? mathContext.getPrecision() : 0;
+            event.operandLength = operandLength;
+            event.resultLength = getCurrentDisplay().length();
+            event.status = isError() ? "ERROR" : "OK";
+            event.error = isError() ? errorMessage : null;
+            event.commit();
+        }
+    }
+
+    private void calculateDoubleResult() {
         if (!currentNumber.isEmpty() && !operator.isEmpty()) {
-            double secondNumber = Double.parseDouble(currentNumber);
-            String calculation = result + " " + operator + " " + secondNumber;
+            double secondNumber = currentNumber.toDouble();
             
             try {
-                switch (operator) {
-                    case "+" -> result += secondNumber;
-                    case "-" -> result -= secondNumber;
-                    case "×" -> result *= secondNumber;
-                    case "÷" -> {
-                        if (secondNumber == 0) {
-                            throw new ArithmeticException("Division by zero");
-                        }
-                        result /= secondNumber;
-                    }
-                    case "%" -> {
-                        if (secondNumber == 0) {
-                            throw new ArithmeticException("Modulo by zero");
-                        }
-                        result %= secondNumber;
-                    }
-                }
-                calculation += " = " + formatNumber(result);
-                history.add(calculation);
-                currentNumber = String.valueOf(result);
+                // Plain arithmetic is cheaper than a cache lookup, so it is computed directly
+                double firstNumber = result;
+                result = computeOperator(operator, firstNumber, secondNumber);
+                lastOperationPending = true;
+                lastFirstNumber = firstNumber;
+                lastOperator = operator;
+                lastSecondNumber = secondNumber;
+                lastValue = result;
+                currentNumber.setValue(result);
                 operator = "";
                 startNewNumber = true;
             } catch (ArithmeticException e) {
@@ -77,60 +158,66 @@ public class CalculatorModel {
         }
     }
 
+    private double computeOperator(String op, double firstNumber, double secondNumber) {
+        double value = firstNumber;
+        switch (op) {
+            case "+" -> value += secondNumber;
+            case "-" -> value -= secondNumber;
+            case "×" -> value *= secondNumber;
+            case "÷" -> {
+                if (secondNumber == 0) {
+                    throw new ArithmeticException("Division by zero");
+                }
+                value /= secondNumber;
+            }
+            case "%" -> {
+                if (secondNumber == 0) {
+                    throw new ArithmeticException("Modulo by zero");
+                }
+                value %= secondNumber;
+            }
+        }
+        return value;
+    }
+
     public void applyFunction(String function) {
+        boolean precise = precisionMode;
+        CalculationEvent event = new CalculationEvent();
+        int operandLength = event.isEnabled() ? getCurrentDisplay().length() : 0;
+        event.begin();
+        long start = OperationMetrics.start();
+        try {
+            if (precise) {
+                applyPreciseFunction(function);
+            } else {
+                applyDoubleFunction(function);
+            }
+        } finally {
+            (precise ? PRECISE_FUNCTION_METRICS : FUNCTION_METRICS).stop(function, start);
+            commit(event, "function", function, precise, operandLength);
+        }
+    }
+
+    private void applyDoubleFunction(String function) {
         if (!currentNumber.isEmpty()) {
-            double number = Double.parseDouble(currentNumber);
+            double number = currentNumber.toDouble();
             String calculation = function + "(" + number + ")";
             
             try {
-                switch (function) {
-                    case "sin" -> result = Math.sin(Math.toRadians(number));
-                    case "cos" -> result = Math.cos(Math.toRadians(number));
-                    case "tan" -> result = Math.tan(Math.toRadians(number));
-                    case "log" -> {
-                        if (number <= 0) {
-                            throw new ArithmeticException("Invalid input for logarithm");
-                        }
-                        result = Math.log10(number);
-                    }
-                    case "ln" -> {
-                        if (number <= 0) {
-                            throw new ArithmeticException("Invalid input for natural logarithm");
-                        }
-                        result = Math.log(number);
-                    }
-                    case "√" -> {
-                        if (number < 0) {
-                            throw new ArithmeticException("Invalid input for square root");
-                        }
-                        result = Math.sqrt(number);
-                    }
-                    case "x²" -> result = Math.pow(number, 2);
-                    case "x³" -> result = Math.pow(number, 3);
-                    case "xʸ" -> {
-                        if (number == 0 && result == 0) {
-                            throw new ArithmeticException("0^0 is undefined");
-                        }
-                        double base = result;
-                        result = Math.pow(base, number);
-                    }
-                    case "1/x" -> {
-                        if (number == 0) {
-                            throw new ArithmeticException("Division by zero");
-                        }
-                        result = 1 / number;
-                    }
-                    case "!" -> {
-                        if (number < 0 || number != Math.floor(number)) {
-                            throw new ArithmeticException("Invalid input for factorial");
-                        }
-                        result = factorial((int) number);
-                    }
-                    case "e" -> result = Math.E;
+                // Keep the previous result out of the key unless the function reads it
+                double base = ignoresResult(function) ? 0 : result;
+                if (fastMath) {
+                    // Fast functions are cheaper than a cache lookup, and must not share its entries
+                    result = computeFastFunction(function, number, base);
+                    calculation += " = " + formatNumber(result);
+                } else {
+                    CachedResult cached = RESULT_CACHE.get(ResultCache.key(function, number, base),
+                        () -> cache(computeFunction(function, number, base)));
+                    result = cached.value;
+                    calculation += " = " + cached.formatted;
                 }
-                calculation += " = " + formatNumber(result);
-                history.add(calculation);
-                currentNumber = String.valueOf(result);
+                addHistory(calculation);
+                currentNumber.setValue(result);
                 operator = "";
                 startNewNumber = true;
             } catch (ArithmeticException e) {
@@ -139,30 +226,236 @@ public class CalculatorModel {
         }
     }
 
-    private double factorial(int n) {
-        if (n > 170) {
-            throw new ArithmeticException("Number too large for factorial");
+    private double computeFunction(String function, double number, double base) {
+        return switch (function) {
+            case "sin" -> Math.sin(Math.toRadians(number));
+            case "cos" -> Math.cos(Math.toRadians(number));
+            case "tan" -> Math.tan(Math.toRadians(number));
+            case "log" -> {
+                if (number <= 0) {
+                    throw new ArithmeticException("Invalid input for logarithm");
+                }
+                yield Math.log10(number);
+            }
+            case "ln" -> {
+                if (number <= 0) {
+                    throw new ArithmeticException("Invalid input for natural logarithm");
+                }
+                yield Math.log(number);
+            }
+            case "√" -> {
+                if (number < 0) {
+                    throw new ArithmeticException("Invalid input for square root");
+                }
+                yield Math.sqrt(number);
+            }
+            case "x²" -> Math.pow(number, 2);
+            case "x³" -> Math.pow(number, 3);
+            case "xʸ" -> {
+                if (number == 0 && base == 0) {
+                    throw new ArithmeticException("0^0 is undefined");
+                }
+                yield Math.pow(base, number);
+            }
+            case "1/x" -> {
+                if (number == 0) {
+                    throw new ArithmeticException("Division by zero");
+                }
+                yield 1 / number;
+            }
+            case "!" -> GammaFunction.factorial(number);
+            case "e" -> Math.E;
+            default -> base;
+        };
+    }
+
+    private double computeFastFunction(String function, double number, double base) {
+        return switch (function) {
+            case "sin" -> FastMath.sinDegrees(number);
+            case "cos" -> FastMath.cosDegrees(number);
+            case "tan" -> FastMath.tanDegrees(number);
+            case "x²" -> number * number;
+            case "x³" -> number * number * number;
+            case "xʸ" -> {
+                if (number == 0 && base == 0) {
+                    throw new ArithmeticException("0^0 is undefined");
+                }
+                yield FastMath.pow(base, number);
+            }
+            default -> computeFunction(function, number, base);
+        };
+    }
+
+    private void calculatePreciseResult() {
+        if (!currentNumber.isEmpty() && !operator.isEmpty()) {
+            try {
+                BigDecimal secondNumber = parsePrecise();
+                BigDecimal value = switch (operator) {
+                    case "+" -> BigDecimalMath.add(preciseResult, secondNumber, mathContext);
+                    case "-" -> BigDecimalMath.subtract(preciseResult, secondNumber, mathContext);
+                    case "×" -> BigDecimalMath.multiply(preciseResult, secondNumber, mathContext);
+                    case "÷" -> BigDecimalMath.divide(preciseResult, secondNumber, mathContext);
+                    case "%" -> BigDecimalMath.remainder(preciseResult, secondNumber, mathContext);
+                    default -> preciseResult;
+                };
+                setPreciseValue(value, formatPrecise(preciseResult) + " " + operator + " "
+                    + formatPrecise(secondNumber));
+            } catch (ArithmeticException e) {
+                errorMessage = e.getMessage();
+            }
+        }
+    }
+
+    private void applyPreciseFunction(String function) {
+        if (!currentNumber.isEmpty()) {
+            try {
+                BigDecimal number = parsePrecise();
+                BigDecimal value = switch (function) {
+                    case "sin" -> BigDecimalMath.sinDegrees(number, mathContext);
+                    case "cos" -> BigDecimalMath.cosDegrees(number, mathContext);
+                    case "tan" -> BigDecimalMath.tanDegrees(number, mathContext);
+                    case "log" -> BigDecimalMath.log10(number, mathContext);
+                    case "ln" -> BigDecimalMath.ln(number, mathContext);
+                    case "√" -> BigDecimalMath.sqrt(number, mathContext);
+                    case "x²" -> number.multiply(number, mathContext);
+                    case "x³" -> number.pow(3, mathContext);
+                    case "xʸ" -> BigDecimalMath.pow(preciseResult, number, mathContext);
+                    case "1/x" -> BigDecimalMath.divide(BigDecimal.ONE, number, mathContext);
+                    case "!" -> BigDecimalMath.factorial(number);
+                    case "e" -> BigDecimalMath.e(mathContext);
+                    default -> preciseResult;
+                };
+                setPreciseValue(value, function + "(" + formatPrecise(number) + ")");
+            } catch (ArithmeticException e) {
+                errorMessage = e.getMessage();
+            }
+        }
+    }
+
+    private void setPreciseValue(BigDecimal value, String calculation) {
+        preciseResult = value;
+        result = value.doubleValue();
+        String formatted = formatPrecise(value);
+        currentNumber.setText(formatted, result);
+        addHistory(calculation + " = " + formatted);
+        operator = "";
+        startNewNumber = true;
+    }
+
+    private BigDecimal parsePrecise() {
+        try {
+            return currentNumber.toBigDecimal();
+        } catch (NumberFormatException e) {
+            throw new ArithmeticException("Invalid input");
+        }
+    }
+
+    private static String formatPrecise(BigDecimal value) {
+        if (value.scale() <= 0) {
+            // Integers have no fraction zeros; stripping would divide huge factorials by ten repeatedly
+            return value.toPlainString();
+        }
+        return value.signum() == 0 ? "0" : value.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Switches between double arithmetic and arbitrary-precision decimal arithmetic.
+     */
+    public void setPrecisionMode(boolean enabled) {
+        if (enabled && !precisionMode) {
+            preciseResult = Double.isFinite(result) ? BigDecimal.valueOf(result) : BigDecimal.ZERO;
+        }
+        precisionMode = enabled;
+    }
+
+    public boolean isPrecisionMode() {
+        return precisionMode;
+    }
+
+    /**
+     * Sets the number of significant digits used in precision mode.
+     */
+    public void setPrecisionDigits(int digits) {
+        if (digits < 1) {
+            throw new IllegalArgumentException("Precision must be at least one digit");
+        }
+        mathContext = new MathContext(digits);
+    }
+
+    public int getPrecisionDigits() {
+        return mathContext.getPrecision();
+    }
+
+    /**
+     * Returns the exact result of the last operation in precision mode.
+     */
+    public BigDecimal getPreciseResult() {
+        return preciseResult;
+    }
+
+    /**
+     * Switches the scientific functions between {@link Math} and the faster approximations
+     * of {@link FastMath}, which may differ from the correctly rounded result by a few ulps.
+     */
+    public void setFastMath(boolean enabled) {
+        if (enabled != fastMath) {
+            compiledExpressions.clear();
         }
-        double result = 1;
-        for (int i = 2; i <= n; i++) {
-            result *= i;
+        fastMath = enabled;
+    }
+
+    public boolean isFastMath() {
+        return fastMath;
+    }
+
+    private static boolean ignoresResult(String function) {
+        return switch (function) {
+            case "sin", "cos", "tan", "log", "ln", "√", "x²", "x³", "1/x", "!", "e" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Evaluates a complete expression such as "3*(sin(30)+ln(2))^2".
+     * The most recently used expressions are kept compiled.
+     */
+    public void evaluateExpression(String expression) {
+        try {
+            if (fastMath) {
+                result = compiledExpressions.computeIfAbsent(expression, source -> Expression.compile(source, true))
+                    .evaluate();
+                addHistory(expression + " = " + formatNumber(result));
+            } else {
+                CachedResult cached = RESULT_CACHE.get(ResultCache.key(expression),
+                    () -> cache(compiledExpressions.computeIfAbsent(expression, Expression::compile).evaluate()));
+                result = cached.value;
+                addHistory(expression + " = " + cached.formatted);
+            }
+            currentNumber.setValue(result);
+            operator = "";
+            startNewNumber = true;
+            errorMessage = "";
+        } catch (IllegalArgumentException e) {
+            errorMessage = "Invalid expression";
+        } catch (ArithmeticException e) {
+            errorMessage = e.getMessage();
         }
-        return result;
     }
 
     public void clear() {
-        currentNumber = "";
+        currentNumber.clear();
         operator = "";
         result = 0;
+        preciseResult = BigDecimal.ZERO;
         startNewNumber = true;
         errorMessage = "";
     }
 
     public void erase() {
         if (!currentNumber.isEmpty() && !startNewNumber) {
-            currentNumber = currentNumber.substring(0, currentNumber.length() - 1);
+            currentNumber.erase();
             if (currentNumber.isEmpty()) {
-                currentNumber = "0";
+                currentNumber.append('0');
                 startNewNumber = true;
             }
         }
@@ -174,24 +467,24 @@ public class CalculatorModel {
     }
 
     public void memoryRecall() {
-        currentNumber = String.valueOf(memory);
+        currentNumber.setValue(memory);
         startNewNumber = true;
     }
 
     public void memoryAdd() {
         if (!currentNumber.isEmpty()) {
-            memory += Double.parseDouble(currentNumber);
+            memory += currentNumber.toDouble();
         }
     }
 
     public void memorySubtract() {
         if (!currentNumber.isEmpty()) {
-            memory -= Double.parseDouble(currentNumber);
+            memory -= currentNumber.toDouble();
         }
     }
 
     public String getCurrentDisplay() {
-        return currentNumber.isEmpty() ? "0" : currentNumber;
+        return currentNumber.isEmpty() ? "0" : currentNumber.toString();
     }
 
     public String getHistoryText() {
@@ -202,7 +495,17 @@ public class CalculatorModel {
     }
 
     public String getLastCalculation() {
-        return history.isEmpty() ? "" : history.get(history.size() - 1);
+        if (lastOperationPending) {
+            lastCalculation = lastFirstNumber + " " + lastOperator + " " + lastSecondNumber
+                + " = " + formatNumber(lastValue);
+            lastOperationPending = false;
+        }
+        return lastCalculation;
+    }
+
+    private void addHistory(String calculation) {
+        lastCalculation = calculation;
+        lastOperationPending = false;
     }
 
     public boolean isError() {
@@ -213,6 +516,30 @@ public class CalculatorModel {
         return errorMessage;
     }
 
+    /**
+     * Returns the cache shared by all models for operator, function and expression results.
+     */
+    public static ResultCache getResultCache() {
+        return RESULT_CACHE;
+    }
+
+    private CachedResult cache(double value) {
+        return new CachedResult(value, formatNumber(value));
+    }
+
+    /**
+     * A computed value together with its formatted history text.
+     */
+    private static final class CachedResult {
+        final double value;
+        final String formatted;
+
+        CachedResult(double value, String formatted) {
+            this.value = value;
+            this.formatted = formatted;
+        }
+    }
+
     private String formatNumber(double number) {
         if (Double.isInfinite(number)) {
             return "Error: Overflow";
@@ -220,15 +547,17 @@ public class CalculatorModel {
         if (Double.isNaN(number)) {
             return "Error: Invalid";
         }
-        // Remove trailing zeros and decimal point if not needed
-        String formatted = String.format("%.10f", number).replaceAll("0*$", "").replaceAll("\\.$", "");
-        return formatted;
+        // Up to ten decimals, without trailing zeros or a trailing decimal point
+        return NumberFormatter.toFixedString(number, 10);
     }
 
     // Financial calculator methods
     public void setResult(double value) {
         result = value;
-        currentNumber = String.valueOf(value);
+        if (precisionMode && Double.isFinite(value)) {
+            preciseResult = BigDecimal.valueOf(value);
+        }
+        currentNumber.setValue(value);
         startNewNumber = true;
     }
 
@@ -278,14 +607,14 @@ public class CalculatorModel {
         double totalInterest = totalPayment - loanAmount;
         
         setResult(monthlyPayment);
-        history.add(String.format("Mortgage: $%.2f/month (Total: $%.2f, Interest: $%.2f)", 
+        addHistory(String.format("Mortgage: $%.2f/month (Total: $%.2f, Interest: $%.2f)", 
             monthlyPayment, totalPayment, totalInterest));
     }
 
     public void showAmortizationSchedule(double principal) {
         // This would typically open a new window showing the amortization schedule
         // For now, we'll just add a message to history
-        history.add("Amortization schedule requested for $" + formatNumber(principal));
+        addHistory("Amortization schedule requested for $" + formatNumber(principal));
     }
 
     public void calculateBond(double faceValue, double couponRate, double marketRate, int years) {
@@ -301,7 +630,7 @@ public class CalculatorModel {
         presentValue += faceValue / Math.pow(1 + marketRate / 100, years);
         
         setResult(presentValue);
-        history.add(String.format("Bond value: $%.2f (Face value: $%.2f, Coupon: %.1f%%)", 
+        addHistory(String.format("Bond value: $%.2f (Face value: $%.2f, Coupon: %.1f%%)", 
             presentValue, faceValue, couponRate));
     }
 
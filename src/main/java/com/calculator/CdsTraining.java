@@ -0,0 +1,100 @@
+package com.calculator;
+
+import com.calculator.batch.BatchEvaluator;
+import com.calculator.conversion.UnitConverter;
+import com.calculator.financial.FinancialCalculator;
+import com.calculator.programmer.ProgrammerCalculator;
+import com.calculator.server.CalculatorServer;
+import com.calculator.server.LoadTestClient;
+import javafx.application.Application;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Training run for the application class-data sharing archive. Run with
+ * {@code -XX:DumpLoadedClassList}, it loads the classes of the usual launch paths: the
+ * calculator engines, batch evaluation, the HTTP server and, when a display is available,
+ * the user interface up to its first result.
+ *
+ * <p>The build runs this in the {@code appcds} profile; see the README.
+ */
+public final class CdsTraining {
+    private static final List<String> EXPRESSIONS = List.of(
+        "1+2*3", "3*(sin(30)+ln(2))^2", "sqrt(2)/4", "2^10-1", "log(1000)", "1/0");
+
+    private CdsTraining() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        trainEngines();
+        trainBatch();
+        trainServer();
+        if (hasDisplay()) {
+            Application.launch(CalculatorApp.class, CalculatorApp.STARTUP_PROBE);
+        } else {
+            System.err.println("No display, user interface classes are not part of the training run");
+        }
+    }
+
+    private static void trainEngines() {
+        CalculatorModel model = new CalculatorModel();
+        model.appendNumber("1");
+        model.appendNumber("2");
+        model.appendNumber(".");
+        model.appendNumber("5");
+        model.setOperator("×");
+        model.appendNumber("3");
+        model.calculateResult();
+        for (String function : new String[]{"sin", "ln", "√", "x²", "!"}) {
+            model.clear();
+            model.appendNumber("4");
+            model.applyFunction(function);
+        }
+        model.getCurrentDisplay();
+
+        UnitConverter.convertLength(1, "mi", "km");
+        UnitConverter.convertWeight(1, "lb", "kg");
+        UnitConverter.celsiusToFahrenheit(20);
+        ProgrammerCalculator.toHexString(255, true);
+        ProgrammerCalculator.toBinaryString(255, 4);
+        FinancialCalculator.calculateMortgage(350_000, 5, 30, 70_000);
+        FinancialCalculator.analyzeBond(1000, 0.05, 0.04, 10, 2);
+    }
+
+    private static void trainBatch() throws IOException {
+        Path input = Files.createTempFile("cds-training", ".txt");
+        Path output = Files.createTempFile("cds-training", ".out");
+        BatchEvaluator evaluator = new BatchEvaluator();
+        try {
+            Files.write(input, EXPRESSIONS);
+            evaluator.run(input, output);
+        } finally {
+            evaluator.close();
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static void trainServer() throws IOException, InterruptedException {
+        CalculatorServer server = new CalculatorServer(0, 1000);
+        server.start();
+        try {
+            URI uri = URI.create("http://127.0.0.1:" + server.getPort() + "/evaluate");
+            new LoadTestClient(uri, "{\"expression\":\"3*(sin(30)+ln(2))^2\"}").run(1, 20, 0);
+        } finally {
+            server.close();
+        }
+    }
+
+    private static boolean hasDisplay() {
+        String os = System.getProperty("os.name").toLowerCase();
+        if (os.contains("win") || os.contains("mac")) {
+            return true;
+        }
+        return System.getenv("DISPLAY") != null || System.getenv("WAYLAND_DISPLAY") != null;
+    }
+}
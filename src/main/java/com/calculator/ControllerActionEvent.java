@@ -0,0 +1,37 @@
+package com.calculator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for a button or key handled by {@link CalculatorController}, covering
+ * the calculation and the display updates it triggers on the JavaFX thread.
+ *
+ * <p>Only actions slower than the threshold are committed; the settings in
+ * {@code calculator.jfc} at the project root record every one.
+ */
+@Name("com.calculator.ControllerAction")
+@Label("Controller Action")
+@Category({"Calculator", "User Interface"})
+@Description("Button or key handled by the calculator controller")
+@StackTrace(false)
+@Threshold("1 ms")
+final class ControllerActionEvent extends Event {
+    @Label("Handler")
+    String handler;
+
+    @Label("Input")
+    @Description("Button text or key that triggered the handler")
+    String input;
+
+    @Label("Status")
+    String status;
+
+    @Label("Error")
+    String error;
+}
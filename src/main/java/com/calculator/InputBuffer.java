@@ -0,0 +1,228 @@
+package com.calculator;
+
+import com.calculator.utils.NumberFormatter;
+import com.calculator.utils.NumericScanner;
+
+import java.math.BigDecimal;
+
+/**
+ * Reusable character buffer holding the number currently being entered.
+ *
+ * <p>Typed input (digits and one decimal point) is kept together with an incrementally
+ * maintained decimal mantissa and scale, so appending, erasing and converting the entry
+ * to a double allocate nothing. Values produced by calculations are stored as doubles and
+ * only rendered to text when the display asks for it.
+ */
+final class InputBuffer {
+    private char[] chars = new char[32];
+    private int length;
+
+    // Decimal state of typed input: value = mantissa / 10^fractionDigits
+    private long mantissa;
+    private int digits;
+    private int mantissaDigits;
+    private int fractionDigits;
+    private boolean decimalPoint;
+    private boolean overflow;
+
+    // Set when the buffer holds a computed value rather than typed input
+    private boolean computed;
+    private double value;
+    private boolean rendered;
+    private NumberFormatter formatter;
+
+    // Last string handed out, reused until the buffer changes
+    private String text;
+
+    boolean isEmpty() {
+        return !computed && length == 0;
+    }
+
+    boolean hasDecimalPoint() {
+        return computed ? indexOf('.') >= 0 : decimalPoint;
+    }
+
+    /**
+     * Discards the current entry.
+     */
+    void clear() {
+        length = 0;
+        resetDigits();
+        computed = false;
+        rendered = false;
+        text = null;
+    }
+
+    /**
+     * Appends a typed character, normally a digit or a decimal point.
+     */
+    void append(char c) {
+        materialize();
+        ensureCapacity(length + 1);
+        chars[length++] = c;
+        text = null;
+        accept(c);
+    }
+
+    /**
+     * Removes the last character of the entry.
+     */
+    void erase() {
+        materialize();
+        if (length > 0) {
+            length--;
+            text = null;
+            rescan();
+        }
+    }
+
+    /**
+     * Replaces the entry with a computed value, rendered lazily in the layout of
+     * {@link Double#toString(double)}.
+     */
+    void setValue(double value) {
+        clear();
+        this.computed = true;
+        this.value = value;
+    }
+
+    /**
+     * Replaces the entry with text whose numeric value is already known.
+     */
+    void setText(String text, double value) {
+        setValue(value);
+        copy(text);
+        rendered = true;
+        this.text = text;
+    }
+
+    /**
+     * Converts the entry to a double with the same result as {@link Double#parseDouble(String)}.
+     * @throws NumberFormatException if the entry is not a number
+     */
+    double toDouble() {
+        if (computed) {
+            return value;
+        }
+        if (mantissaDigits > 0 && !overflow && mantissa <= NumericScanner.MAX_EXACT_MANTISSA
+                && fractionDigits <= NumericScanner.MAX_EXACT_POWER_OF_TEN) {
+            // Both operands are exact, so the single division is correctly rounded
+            return mantissa / NumericScanner.exactPowerOfTen(fractionDigits);
+        }
+        if (digits > 0 && mantissaDigits == 0) {
+            return 0.0; // Only zeros, e.g. "0.000"
+        }
+        return Double.parseDouble(toString());
+    }
+
+    /**
+     * Converts the entry to an exact decimal.
+     * @throws NumberFormatException if the entry is not a number
+     */
+    BigDecimal toBigDecimal() {
+        materializeText();
+        return new BigDecimal(chars, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        if (text == null) {
+            materializeText();
+            text = new String(chars, 0, length);
+        }
+        return text;
+    }
+
+    private void accept(char c) {
+        if (c == '.') {
+            decimalPoint = true;
+        } else if (c >= '0' && c <= '9') {
+            digits++;
+            if (mantissaDigits == 0 && c == '0') {
+                if (decimalPoint) {
+                    fractionDigits++; // Leading zero after the point only shifts the scale
+                }
+                return;
+            }
+            if (mantissaDigits == NumericScanner.MAX_MANTISSA_DIGITS) {
+                overflow = true;
+                return;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            mantissaDigits++;
+            if (decimalPoint) {
+                fractionDigits++;
+            }
+        } else {
+            overflow = true; // Not plain decimal input, leave it to the full parser
+        }
+    }
+
+    private void rescan() {
+        resetDigits();
+        for (int i = 0; i < length; i++) {
+            accept(chars[i]);
+        }
+    }
+
+    private void resetDigits() {
+        mantissa = 0;
+        digits = 0;
+        mantissaDigits = 0;
+        fractionDigits = 0;
+        decimalPoint = false;
+        overflow = false;
+    }
+
+    /**
+     * Turns a computed value into editable text.
+     */
+    private void materialize() {
+        if (!computed) {
+            return;
+        }
+        materializeText();
+        computed = false;
+        rendered = false;
+        rescan();
+    }
+
+    private void copy(String source) {
+        length = 0;
+        ensureCapacity(source.length());
+        length = source.length();
+        source.getChars(0, length, chars, 0);
+    }
+
+    private int indexOf(char c) {
+        materializeText();
+        for (int i = 0; i < length; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void materializeText() {
+        if (computed && !rendered) {
+            if (formatter == null) {
+                formatter = new NumberFormatter();
+            }
+            int rendered = formatter.formatShortest(value);
+            length = 0;
+            ensureCapacity(rendered);
+            System.arraycopy(formatter.buffer(), 0, chars, 0, rendered);
+            length = rendered;
+            this.rendered = true;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > chars.length) {
+            char[] grown = new char[Math.max(capacity, chars.length * 2)];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.calculator;
+
+import java.io.IOException;
+
+/**
+ * Entry point of the executable JAR. The Java launcher refuses to start a main class that
+ * extends {@link javafx.application.Application} when JavaFX is on the class path rather
+ * than the module path, so this class starts {@link CalculatorApp} on its behalf.
+ */
+public final class Launcher {
+    private Launcher() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        CalculatorApp.main(args);
+    }
+}
@@ -0,0 +1,111 @@
+package com.calculator;
+
+import javafx.animation.FadeTransition;
+import javafx.application.Platform;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Calculator section whose controls are built the first time it is scrolled into view or
+ * expanded. Until then only its title is shown, above a placeholder of about the final height
+ * so the scroll bar does not jump.
+ *
+ * <p>The controls are built on a background executor and attached on the FX thread. JavaFX
+ * allows nodes to be created and modified on any thread until they join a showing scene.
+ */
+final class LazySection extends VBox {
+    // Approximate height of one function group and its separator
+    private static final double GROUP_HEIGHT = 85;
+
+    private final Supplier<Node> contentFactory;
+    private final Executor executor;
+    private Node body;
+    private boolean requested;
+    private boolean expanded = true;
+
+    /**
+     * @param title The section title
+     * @param titleStyle The style class of the title, besides "section-title"
+     * @param groupCount The number of function groups, for sizing the placeholder
+     * @param contentFactory Builds the section's groups; called once, off the FX thread
+     * @param executor Runs the content factory
+     */
+    LazySection(String title, String titleStyle, int groupCount,
+                Supplier<Node> contentFactory, Executor executor) {
+        super(10);
+        this.contentFactory = contentFactory;
+        this.executor = executor;
+
+        Label titleLabel = new Label(title);
+        titleLabel.getStyleClass().addAll("section-title", titleStyle);
+        titleLabel.setCursor(Cursor.HAND);
+        titleLabel.setOnMouseClicked(e -> setExpanded(!expanded));
+
+        Region separator = new Region();
+        separator.getStyleClass().add("separator");
+
+        Region placeholder = new Region();
+        placeholder.setPrefHeight(groupCount * GROUP_HEIGHT);
+        body = placeholder;
+
+        getChildren().addAll(titleLabel, separator, placeholder);
+    }
+
+    /**
+     * Returns true once the controls have been requested, even if not attached yet.
+     */
+    boolean isMaterialized() {
+        return requested;
+    }
+
+    /**
+     * Starts building the controls, unless already started. Must be called on the FX thread.
+     */
+    void materialize() {
+        if (requested) {
+            return;
+        }
+        requested = true;
+        CompletableFuture.supplyAsync(contentFactory, executor)
+            .whenComplete((content, error) -> Platform.runLater(() -> attach(content, error)));
+    }
+
+    /**
+     * Shows or hides the controls, building them when first shown.
+     */
+    void setExpanded(boolean expanded) {
+        this.expanded = expanded;
+        body.setVisible(expanded);
+        body.setManaged(expanded);
+        if (expanded) {
+            materialize();
+        }
+    }
+
+    private void attach(Node content, Throwable error) {
+        if (error != null) {
+            // Fall back to the FX thread, where every control can be built
+            System.err.println("Error preparing section in background: " + error.getMessage());
+            content = contentFactory.get();
+        }
+        content.setVisible(expanded);
+        content.setManaged(expanded);
+        getChildren().set(getChildren().indexOf(body), content);
+        body = content;
+
+        if (expanded) {
+            FadeTransition fade = new FadeTransition(Duration.millis(300), content);
+            fade.setFromValue(0);
+            fade.setToValue(1);
+            fade.play();
+        }
+    }
+}
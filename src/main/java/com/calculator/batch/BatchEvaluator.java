@@ -0,0 +1,287 @@
+package com.calculator.batch;
+
+import com.calculator.expression.CompiledExpression;
+import com.calculator.expression.Expression;
+import com.calculator.utils.NumberFormatter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless batch evaluation of newline-separated expression files.
+ *
+ * <p>The input is memory-mapped in line-aligned chunks which are evaluated in parallel
+ * on a ForkJoinPool. Results are written one per line, in input order, as the shortest
+ * decimal that parses back to the same double. Lines that fail to evaluate produce
+ * {@code Error: <message>}; empty lines are copied through.
+ *
+ * <p>Usage: {@code BatchEvaluator <input> <output> [--threads n] [--chunk-size bytes]}
+ */
+public class BatchEvaluator {
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int BOUNDARY_SCAN_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public BatchEvaluator(int parallelism, int chunkSize) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchEvaluator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Result counters of a batch run.
+     */
+    public static class BatchStatistics {
+        private final long expressions;
+        private final long errors;
+        private final long elapsedMillis;
+
+        public BatchStatistics(long expressions, long errors, long elapsedMillis) {
+            this.expressions = expressions;
+            this.errors = errors;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getExpressions() {
+            return expressions;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    /**
+     * Evaluates every line of the input file and writes the results to the output file.
+     */
+    public BatchStatistics run(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+        long expressions = 0;
+        long errors = 0;
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            // Keep a bounded number of chunks in flight so memory stays proportional to parallelism
+            int window = pool.getParallelism() * 2;
+            Deque<ForkJoinTask<ChunkResult>> inFlight = new ArrayDeque<>();
+
+            while (position < size || !inFlight.isEmpty()) {
+                while (position < size && inFlight.size() < window) {
+                    long end = findChunkEnd(in, position, size);
+                    MappedByteBuffer chunk = in.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+                    inFlight.addLast(pool.submit(new ChunkTask(chunk)));
+                    position = end;
+                }
+                ChunkResult result = inFlight.removeFirst().join();
+                ByteBuffer buffer = ByteBuffer.wrap(result.bytes, 0, result.length);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                expressions += result.expressions;
+                errors += result.errors;
+            }
+        }
+
+        return new BatchStatistics(expressions, errors, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Shuts down the worker pool.
+     */
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Returns the end offset (exclusive) of the chunk starting at the given position.
+     * Chunks always end just after a newline or at the end of the file.
+     */
+    private long findChunkEnd(FileChannel channel, long start, long size) throws IOException {
+        long candidate = start + chunkSize;
+        if (candidate >= size) {
+            return size;
+        }
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        while (candidate < size) {
+            scan.clear();
+            int read = channel.read(scan, candidate);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return candidate + i + 1;
+                }
+            }
+            candidate += read;
+        }
+        return size;
+    }
+
+    private static final class ChunkResult {
+        final byte[] bytes;
+        final int length;
+        final long expressions;
+        final long errors;
+
+        ChunkResult(byte[] bytes, int length, long expressions, long errors) {
+            this.bytes = bytes;
+            this.length = length;
+            this.expressions = expressions;
+            this.errors = errors;
+        }
+    }
+
+    @SuppressWarnings("serial") // Never serialized
+    private static final class ChunkTask extends RecursiveTask<ChunkResult> {
+        private final MappedByteBuffer chunk;
+        private final Map<String, CompiledExpression> compiled = new HashMap<>();
+        private final Map<String, String> invalid = new HashMap<>();
+        private final NumberFormatter formatter = new NumberFormatter();
+        private byte[] lineBytes = new byte[256];
+        private byte[] output;
+        private int outputLength;
+
+        ChunkTask(MappedByteBuffer chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            output = new byte[Math.max(64, chunk.limit())];
+            long expressions = 0;
+            long errors = 0;
+            int limit = chunk.limit();
+            int lineStart = 0;
+
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && chunk.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd;
+                if (contentEnd > lineStart && chunk.get(contentEnd - 1) == '\r') {
+                    contentEnd--;
+                }
+
+                String line = decode(lineStart, contentEnd).trim();
+                if (!line.isEmpty()) {
+                    expressions++;
+                    try {
+                        appendNumber(evaluate(line));
+                    } catch (IllegalArgumentException | ArithmeticException e) {
+                        errors++;
+                        append("Error: " + e.getMessage());
+                    }
+                }
+                append("\n");
+                lineStart = lineEnd + 1;
+            }
+            return new ChunkResult(output, outputLength, expressions, errors);
+        }
+
+        private double evaluate(String line) {
+            CompiledExpression expression = compiled.get(line);
+            if (expression == null) {
+                // Remember malformed lines too, dumps tend to repeat them
+                String error = invalid.get(line);
+                if (error != null) {
+                    throw new IllegalArgumentException(error);
+                }
+                try {
+                    expression = Expression.compile(line);
+                } catch (IllegalArgumentException e) {
+                    invalid.put(line, e.getMessage());
+                    throw e;
+                }
+                compiled.put(line, expression);
+            }
+            return expression.evaluate();
+        }
+
+        private String decode(int start, int end) {
+            int length = end - start;
+            if (length > lineBytes.length) {
+                lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+            }
+            chunk.get(start, lineBytes, 0, length);
+            return new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void appendNumber(double value) {
+            int length = formatter.formatShortest(value);
+            ensureCapacity(length);
+            char[] chars = formatter.buffer();
+            for (int i = 0; i < length; i++) {
+                output[outputLength++] = (byte) chars[i]; // Always ASCII
+            }
+        }
+
+        private void ensureCapacity(int extra) {
+            if (outputLength + extra > output.length) {
+                output = Arrays.copyOf(output, Math.max(output.length * 2, outputLength + extra));
+            }
+        }
+
+        private void append(String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, output, outputLength, bytes.length);
+            outputLength += bytes.length;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BatchEvaluator <input> <output> [--threads n] [--chunk-size bytes]");
+            System.exit(2);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--chunk-size" -> chunkSize = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        BatchEvaluator evaluator = new BatchEvaluator(threads, chunkSize);
+        try {
+            BatchStatistics statistics = evaluator.run(Paths.get(args[0]), Paths.get(args[1]));
+            System.err.printf("Evaluated %d expressions (%d errors) in %d ms%n",
+                statistics.getExpressions(), statistics.getErrors(), statistics.getElapsedMillis());
+        } finally {
+            evaluator.close();
+        }
+    }
+}
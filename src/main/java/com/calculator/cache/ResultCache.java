@@ -0,0 +1,224 @@
+package com.calculator.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, thread-safe cache of calculation results.
+ *
+ * <p>Entries are keyed on an operation name plus the exact bit patterns of its operands,
+ * so {@code 0.0} and {@code -0.0} are different keys. The cache is split into independently
+ * locked LRU segments; the least recently used entry of a segment is evicted once the
+ * segment is full, and entries older than the configured maximum age are treated as misses.
+ *
+ * <p>The default size and age can be set with the {@code calculator.cache.size} and
+ * {@code calculator.cache.maxAgeSeconds} system properties. A size of 0 disables caching.
+ */
+public class ResultCache {
+    private static final int DEFAULT_MAXIMUM_SIZE = Integer.getInteger("calculator.cache.size", 4096);
+    private static final Duration DEFAULT_MAX_AGE =
+        Duration.ofSeconds(Long.getLong("calculator.cache.maxAgeSeconds", 3600));
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments;
+    private final int maximumSize;
+    private final long maxAgeNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache using the default size and age limits.
+     */
+    public ResultCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * Creates a cache.
+     * @param maximumSize Maximum number of entries, or 0 to disable caching
+     * @param maxAge Maximum age of an entry before it is recomputed
+     */
+    public ResultCache(int maximumSize, Duration maxAge) {
+        if (maximumSize < 0 || maxAge.isNegative()) {
+            throw new IllegalArgumentException("Cache size and age must not be negative");
+        }
+        this.maximumSize = maximumSize;
+        this.maxAgeNanos = maxAge.toNanos();
+        int segmentCount = Math.min(SEGMENT_COUNT, Math.max(1, maximumSize));
+        int segmentCapacity = Math.max(1, maximumSize / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Cache key made of an operation name and raw operand bits.
+     */
+    public static final class Key {
+        private final String operation;
+        private final long[] operands;
+        private final int hash;
+
+        private Key(String operation, long[] operands) {
+            this.operation = operation;
+            this.operands = operands;
+            this.hash = 31 * operation.hashCode() + Arrays.hashCode(operands);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && operation.equals(other.operation)
+                && Arrays.equals(operands, other.operands);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return operation + Arrays.toString(operands);
+        }
+    }
+
+    /**
+     * Builds a key from an operation name and double operands.
+     * Integer operands can be passed as doubles without loss.
+     */
+    public static Key key(String operation, double... operands) {
+        long[] bits = new long[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+            bits[i] = Double.doubleToLongBits(operands[i]);
+        }
+        return new Key(operation, bits);
+    }
+
+    /**
+     * Returns the cached value for the key, computing and storing it on a miss.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        if (maximumSize == 0) {
+            misses.increment();
+            return loader.get();
+        }
+        Segment segment = segmentFor(key);
+        long now = System.nanoTime();
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry != null) {
+                if (now - entry.createdAt <= maxAgeNanos) {
+                    hits.increment();
+                    return (T) entry.value;
+                }
+                segment.remove(key);
+                evictions.increment();
+            }
+        }
+
+        // Compute outside the lock; a concurrent miss on the same key just computes twice
+        misses.increment();
+        T value = loader.get();
+        synchronized (segment) {
+            segment.put(key, new Entry(value, now));
+        }
+        return value;
+    }
+
+    /**
+     * Removes all entries. Counters are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private Segment segmentFor(Key key) {
+        int h = key.hash ^ (key.hash >>> 16);
+        return segments[(h & 0x7FFFFFFF) % segments.length];
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long createdAt;
+
+        Entry(Object value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+
+    @SuppressWarnings("serial") // Never serialized
+    private final class Segment extends LinkedHashMap<Key, Entry> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.calculator.conversion;
 
+import com.calculator.metrics.LatencyHistogram;
+import com.calculator.metrics.OperationMetrics;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -7,6 +10,19 @@ import java.util.Map;
  * Comprehensive unit converter supporting various measurement types.
  */
 public class UnitConverter {
+    private static final LatencyHistogram TEMPERATURE_METRICS = OperationMetrics.histogram("conversion.temperature");
+    private static final LatencyHistogram LENGTH_METRICS = OperationMetrics.histogram("conversion.length");
+    private static final LatencyHistogram WEIGHT_METRICS = OperationMetrics.histogram("conversion.weight");
+    private static final LatencyHistogram VOLUME_METRICS = OperationMetrics.histogram("conversion.volume");
+    private static final LatencyHistogram AREA_METRICS = OperationMetrics.histogram("conversion.area");
+    private static final LatencyHistogram TIME_METRICS = OperationMetrics.histogram("conversion.time");
+    private static final LatencyHistogram SPEED_METRICS = OperationMetrics.histogram("conversion.speed");
+    private static final LatencyHistogram PRESSURE_METRICS = OperationMetrics.histogram("conversion.pressure");
+    private static final LatencyHistogram ENERGY_METRICS = OperationMetrics.histogram("conversion.energy");
+    private static final LatencyHistogram STORAGE_METRICS = OperationMetrics.histogram("conversion.digitalStorage");
+    private static final LatencyHistogram ANGLE_METRICS = OperationMetrics.histogram("conversion.angle");
+    private static final LatencyHistogram FREQUENCY_METRICS = OperationMetrics.histogram("conversion.frequency");
+
     // Length conversions (base: meters)
     private static final Map<String, Double> LENGTH_FACTORS = new HashMap<>();
     static {
@@ -61,27 +77,57 @@ public class UnitConverter {
 
     // Temperature conversion methods
     public static double celsiusToFahrenheit(double celsius) {
-        return celsius * 9/5 + 32;
+        long start = OperationMetrics.start();
+        try {
+            return celsius * 9/5 + 32;
+        } finally {
+            OperationMetrics.stop(TEMPERATURE_METRICS, start);
+        }
     }
 
     public static double fahrenheitToCelsius(double fahrenheit) {
-        return (fahrenheit - 32) * 5/9;
+        long start = OperationMetrics.start();
+        try {
+            return (fahrenheit - 32) * 5/9;
+        } finally {
+            OperationMetrics.stop(TEMPERATURE_METRICS, start);
+        }
     }
 
     public static double celsiusToKelvin(double celsius) {
-        return celsius + 273.15;
+        long start = OperationMetrics.start();
+        try {
+            return celsius + 273.15;
+        } finally {
+            OperationMetrics.stop(TEMPERATURE_METRICS, start);
+        }
     }
 
     public static double kelvinToCelsius(double kelvin) {
-        return kelvin - 273.15;
+        long start = OperationMetrics.start();
+        try {
+            return kelvin - 273.15;
+        } finally {
+            OperationMetrics.stop(TEMPERATURE_METRICS, start);
+        }
     }
 
     public static double fahrenheitToKelvin(double fahrenheit) {
-        return celsiusToKelvin(fahrenheitToCelsius(fahrenheit));
+        long start = OperationMetrics.start();
+        try {
+            return (fahrenheit - 32) * 5/9 + 273.15;
+        } finally {
+            OperationMetrics.stop(TEMPERATURE_METRICS, start);
+        }
     }
 
     public static double kelvinToFahrenheit(double kelvin) {
-        return celsiusToFahrenheit(kelvinToCelsius(kelvin));
+        long start = OperationMetrics.start();
+        try {
+            return (kelvin - 273.15) * 9/5 + 32;
+        } finally {
+            OperationMetrics.stop(TEMPERATURE_METRICS, start);
+        }
     }
 
     // Generic conversion method
@@ -95,23 +141,52 @@ public class UnitConverter {
 
     // Public conversion methods
     public static double convertLength(double value, String fromUnit, String toUnit) {
-        return convert(value, fromUnit, toUnit, LENGTH_FACTORS);
+        long start = OperationMetrics.start();
+        try {
+            return convert(value, fromUnit, toUnit, LENGTH_FACTORS);
+        } finally {
+            OperationMetrics.stop(LENGTH_METRICS, start);
+        }
     }
 
     public static double convertWeight(double value, String fromUnit, String toUnit) {
-        return convert(value, fromUnit, toUnit, WEIGHT_FACTORS);
+        long start = OperationMetrics.start();
+        try {
+            return convert(value, fromUnit, toUnit, WEIGHT_FACTORS);
+        } finally {
+            OperationMetrics.stop(WEIGHT_METRICS, start);
+        }
     }
 
     public static double convertVolume(double value, String fromUnit, String toUnit) {
-        return convert(value, fromUnit, toUnit, VOLUME_FACTORS);
+        long start = OperationMetrics.start();
+        try {
+            return convert(value, fromUnit, toUnit, VOLUME_FACTORS);
+        } finally {
+            OperationMetrics.stop(VOLUME_METRICS, start);
+        }
     }
 
     public static double convertArea(double value, String fromUnit, String toUnit) {
-        return convert(value, fromUnit, toUnit, AREA_FACTORS);
+        long start = OperationMetrics.start();
+        try {
+            return convert(value, fromUnit, toUnit, AREA_FACTORS);
+        } finally {
+            OperationMetrics.stop(AREA_METRICS, start);
+        }
     }
 
     // Time conversion (base: seconds)
     public static double convertTime(double value, String fromUnit, String toUnit) {
+        long start = OperationMetrics.start();
+        try {
+            return convert(value, fromUnit, toUnit, timeFactors());
+        } finally {
+            OperationMetrics.stop(TIME_METRICS, start);
+        }
+    }
+
+    private static Map<String, Double> timeFactors() {
         Map<String, Double> timeFactors = new HashMap<>();
         timeFactors.put("ms", 0.001);
         timeFactors.put("s", 1.0);
@@ -121,86 +196,116 @@ public class UnitConverter {
         timeFactors.put("wk", 604800.0);
         timeFactors.put("mo", 2592000.0); // Approximate - 30 days
         timeFactors.put("yr", 31536000.0); // Non-leap year
-        
-        return convert(value, fromUnit, toUnit, timeFactors);
+        return timeFactors;
     }
 
     // Speed conversion (using length and time)
     public static double convertSpeed(double value, String fromLengthUnit, String fromTimeUnit,
                                     String toLengthUnit, String toTimeUnit) {
-        double lengthInMeters = convertLength(value, fromLengthUnit, "m");
-        double timeInSeconds = convertTime(1, fromTimeUnit, "s");
-        double speedInMPS = lengthInMeters / timeInSeconds;
-        
-        double targetTimeInSeconds = convertTime(1, toTimeUnit, "s");
-        double targetLength = convertLength(1, "m", toLengthUnit);
-        
-        return speedInMPS * targetLength * targetTimeInSeconds;
+        long start = OperationMetrics.start();
+        try {
+            // Uses the factor tables directly so the parts are not recorded as conversions of their own
+            double lengthInMeters = convert(value, fromLengthUnit, "m", LENGTH_FACTORS);
+            double timeInSeconds = convert(1, fromTimeUnit, "s", timeFactors());
+            double speedInMPS = lengthInMeters / timeInSeconds;
+
+            double targetTimeInSeconds = convert(1, toTimeUnit, "s", timeFactors());
+            double targetLength = convert(1, "m", toLengthUnit, LENGTH_FACTORS);
+
+            return speedInMPS * targetLength * targetTimeInSeconds;
+        } finally {
+            OperationMetrics.stop(SPEED_METRICS, start);
+        }
     }
 
     // Pressure conversion (base: Pascal)
     public static double convertPressure(double value, String fromUnit, String toUnit) {
-        Map<String, Double> pressureFactors = new HashMap<>();
-        pressureFactors.put("Pa", 1.0);
-        pressureFactors.put("kPa", 1000.0);
-        pressureFactors.put("MPa", 1000000.0);
-        pressureFactors.put("bar", 100000.0);
-        pressureFactors.put("psi", 6894.76);
-        pressureFactors.put("atm", 101325.0);
-        pressureFactors.put("mmHg", 133.322);
-        pressureFactors.put("inHg", 3386.39);
-        
-        return convert(value, fromUnit, toUnit, pressureFactors);
+        long start = OperationMetrics.start();
+        try {
+            Map<String, Double> pressureFactors = new HashMap<>();
+            pressureFactors.put("Pa", 1.0);
+            pressureFactors.put("kPa", 1000.0);
+            pressureFactors.put("MPa", 1000000.0);
+            pressureFactors.put("bar", 100000.0);
+            pressureFactors.put("psi", 6894.76);
+            pressureFactors.put("atm", 101325.0);
+            pressureFactors.put("mmHg", 133.322);
+            pressureFactors.put("inHg", 3386.39);
+
+            return convert(value, fromUnit, toUnit, pressureFactors);
+        } finally {
+            OperationMetrics.stop(PRESSURE_METRICS, start);
+        }
     }
 
     // Energy conversion (base: Joules)
     public static double convertEnergy(double value, String fromUnit, String toUnit) {
-        Map<String, Double> energyFactors = new HashMap<>();
-        energyFactors.put("J", 1.0);
-        energyFactors.put("kJ", 1000.0);
-        energyFactors.put("cal", 4.184);
-        energyFactors.put("kcal", 4184.0);
-        energyFactors.put("Wh", 3600.0);
-        energyFactors.put("kWh", 3600000.0);
-        energyFactors.put("BTU", 1055.06);
-        energyFactors.put("eV", 1.602177e-19);
-        
-        return convert(value, fromUnit, toUnit, energyFactors);
+        long start = OperationMetrics.start();
+        try {
+            Map<String, Double> energyFactors = new HashMap<>();
+            energyFactors.put("J", 1.0);
+            energyFactors.put("kJ", 1000.0);
+            energyFactors.put("cal", 4.184);
+            energyFactors.put("kcal", 4184.0);
+            energyFactors.put("Wh", 3600.0);
+            energyFactors.put("kWh", 3600000.0);
+            energyFactors.put("BTU", 1055.06);
+            energyFactors.put("eV", 1.602177e-19);
+
+            return convert(value, fromUnit, toUnit, energyFactors);
+        } finally {
+            OperationMetrics.stop(ENERGY_METRICS, start);
+        }
     }
 
     // Digital storage conversion (base: bytes)
     public static double convertDigitalStorage(double value, String fromUnit, String toUnit) {
-        Map<String, Double> storageFactors = new HashMap<>();
-        storageFactors.put("B", 1.0);
-        storageFactors.put("KB", 1024.0);
-        storageFactors.put("MB", 1048576.0);
-        storageFactors.put("GB", 1073741824.0);
-        storageFactors.put("TB", 1099511627776.0);
-        storageFactors.put("PB", 1125899906842624.0);
-        
-        return convert(value, fromUnit, toUnit, storageFactors);
+        long start = OperationMetrics.start();
+        try {
+            Map<String, Double> storageFactors = new HashMap<>();
+            storageFactors.put("B", 1.0);
+            storageFactors.put("KB", 1024.0);
+            storageFactors.put("MB", 1048576.0);
+            storageFactors.put("GB", 1073741824.0);
+            storageFactors.put("TB", 1099511627776.0);
+            storageFactors.put("PB", 1125899906842624.0);
+
+            return convert(value, fromUnit, toUnit, storageFactors);
+        } finally {
+            OperationMetrics.stop(STORAGE_METRICS, start);
+        }
     }
 
     // Angle conversion (base: radians)
     public static double convertAngle(double value, String fromUnit, String toUnit) {
-        Map<String, Double> angleFactors = new HashMap<>();
-        angleFactors.put("rad", 1.0);
-        angleFactors.put("deg", Math.PI / 180);
-        angleFactors.put("grad", Math.PI / 200);
-        angleFactors.put("turn", 2 * Math.PI);
-        
-        return convert(value, fromUnit, toUnit, angleFactors);
+        long start = OperationMetrics.start();
+        try {
+            Map<String, Double> angleFactors = new HashMap<>();
+            angleFactors.put("rad", 1.0);
+            angleFactors.put("deg", Math.PI / 180);
+            angleFactors.put("grad", Math.PI / 200);
+            angleFactors.put("turn", 2 * Math.PI);
+
+            return convert(value, fromUnit, toUnit, angleFactors);
+        } finally {
+            OperationMetrics.stop(ANGLE_METRICS, start);
+        }
     }
 
     // Frequency conversion (base: Hertz)
     public static double convertFrequency(double value, String fromUnit, String toUnit) {
-        Map<String, Double> frequencyFactors = new HashMap<>();
-        frequencyFactors.put("Hz", 1.0);
-        frequencyFactors.put("kHz", 1000.0);
-        frequencyFactors.put("MHz", 1000000.0);
-        frequencyFactors.put("GHz", 1000000000.0);
-        frequencyFactors.put("rpm", 1.0/60);
-        
-        return convert(value, fromUnit, toUnit, frequencyFactors);
+        long start = OperationMetrics.start();
+        try {
+            Map<String, Double> frequencyFactors = new HashMap<>();
+            frequencyFactors.put("Hz", 1.0);
+            frequencyFactors.put("kHz", 1000.0);
+            frequencyFactors.put("MHz", 1000000.0);
+            frequencyFactors.put("GHz", 1000000000.0);
+            frequencyFactors.put("rpm", 1.0/60);
+
+            return convert(value, fromUnit, toUnit, frequencyFactors);
+        } finally {
+            OperationMetrics.stop(FREQUENCY_METRICS, start);
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.calculator.expression;
+
+import com.calculator.scientific.FastMath;
+
+/**
+ * Two-operand operations supported by the expression engine.
+ * Semantics follow CalculatorModel.calculateResult and the xʸ function.
+ */
+public enum BinaryOp {
+    ADD("+") {
+        @Override
+        public double apply(double a, double b) {
+            return a + b;
+        }
+    },
+    SUBTRACT("-") {
+        @Override
+        public double apply(double a, double b) {
+            return a - b;
+        }
+    },
+    MULTIPLY("×") {
+        @Override
+        public double apply(double a, double b) {
+            return a * b;
+        }
+    },
+    DIVIDE("÷") {
+        @Override
+        public double apply(double a, double b) {
+            if (b == 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            return a / b;
+        }
+    },
+    MODULO("%") {
+        @Override
+        public double apply(double a, double b) {
+            if (b == 0) {
+                throw new ArithmeticException("Modulo by zero");
+            }
+            return a % b;
+        }
+    },
+    POWER("^") {
+        @Override
+        public double apply(double a, double b) {
+            if (a == 0 && b == 0) {
+                throw new ArithmeticException("0^0 is undefined");
+            }
+            return Math.pow(a, b);
+        }
+
+        @Override
+        public double applyFast(double a, double b) {
+            if (a == 0 && b == 0) {
+                throw new ArithmeticException("0^0 is undefined");
+            }
+            return FastMath.pow(a, b);
+        }
+    };
+
+    private final String symbol;
+
+    BinaryOp(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public abstract double apply(double a, double b);
+
+    /**
+     * Applies the operation in fast-math mode, which uses {@link FastMath} where it has an
+     * implementation and is otherwise the same as {@link #apply(double, double)}.
+     */
+    public double applyFast(double a, double b) {
+        return apply(a, b);
+    }
+}
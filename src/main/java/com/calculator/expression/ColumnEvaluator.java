@@ -0,0 +1,243 @@
+package com.calculator.expression;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a compiled expression to whole columns of values in one call.
+ *
+ * <p>Columns are processed in cache-sized blocks. Within a block every tree node is
+ * evaluated for all rows at once: {@code + - × ÷}, negation, x², √ and 1/x run through
+ * SIMD kernels from the incubating Vector API when the {@code jdk.incubator.vector}
+ * module is enabled ({@code --add-modules jdk.incubator.vector}), and through plain
+ * loops otherwise. Remaining operations (%, xʸ, trigonometry, logarithms, factorial)
+ * are applied element by element with the same semantics as the scalar evaluator,
+ * including its fast-math mode.
+ *
+ * <p>If an element is outside an operation's domain an ArithmeticException is thrown
+ * and the output column is left partially written.
+ */
+public final class ColumnEvaluator {
+    private static final int BLOCK_SIZE = 1024;
+    private static final ColumnKernels KERNELS = loadKernels();
+
+    private ColumnEvaluator() {
+    }
+
+    /**
+     * Source of variable values and sink for results, by row index.
+     */
+    private interface BlockIO {
+        void read(int variable, int row, double[] block, int length);
+
+        void write(int row, double[] block, int length);
+    }
+
+    /**
+     * Returns true if the SIMD kernels are in use.
+     */
+    public static boolean isVectorized() {
+        return !(KERNELS instanceof ScalarColumnKernels);
+    }
+
+    /**
+     * Evaluates a single-variable (or constant) expression for every element of {@code x}.
+     */
+    public static void evaluateColumn(CompiledExpression expression, double[] x, double[] out) {
+        evaluateColumns(expression, new double[][]{x}, out);
+    }
+
+    /**
+     * Evaluates an expression row by row, with one input column per declared variable.
+     */
+    public static void evaluateColumns(CompiledExpression expression, double[][] columns, double[] out) {
+        int rows = out.length;
+        checkColumns(expression, columns.length);
+        for (double[] column : columns) {
+            if (column.length < rows) {
+                throw new IllegalArgumentException("Input column is shorter than the output column");
+            }
+        }
+        evaluate(expression.getTree(), expression.isFastMath(), rows, new BlockIO() {
+            @Override
+            public void read(int variable, int row, double[] block, int length) {
+                System.arraycopy(columns[variable], row, block, 0, length);
+            }
+
+            @Override
+            public void write(int row, double[] block, int length) {
+                System.arraycopy(block, 0, out, row, length);
+            }
+        });
+    }
+
+    /**
+     * Evaluates a single-variable (or constant) expression over buffers, typically direct
+     * (off-heap) buffers. Rows are taken from index 0 up to {@code out.limit()}; buffer
+     * positions are not changed.
+     */
+    public static void evaluateColumn(CompiledExpression expression, DoubleBuffer x, DoubleBuffer out) {
+        int rows = out.limit();
+        checkColumns(expression, 1);
+        if (x.limit() < rows) {
+            throw new IllegalArgumentException("Input column is shorter than the output column");
+        }
+        evaluate(expression.getTree(), expression.isFastMath(), rows, new BlockIO() {
+            @Override
+            public void read(int variable, int row, double[] block, int length) {
+                x.get(row, block, 0, length);
+            }
+
+            @Override
+            public void write(int row, double[] block, int length) {
+                out.put(row, block, 0, length);
+            }
+        });
+    }
+
+    private static void checkColumns(CompiledExpression expression, int columns) {
+        int variables = expression.getVariables().size();
+        // A constant expression may still be given an (ignored) input column
+        if (variables != columns && !(variables == 0 && columns == 1)) {
+            throw new IllegalArgumentException(
+                "Expected " + variables + " input column(s) but got " + columns);
+        }
+    }
+
+    private static void evaluate(Node tree, boolean fastMath, int rows, BlockIO io) {
+        double[][] blocks = new double[height(tree, new IdentityHashMap<>()) + 1][BLOCK_SIZE];
+        // Shared subexpressions are computed once per block, children first
+        List<Node> shared = ExpressionOptimizer.sharedSubexpressions(tree);
+        double[][] sharedBlocks = new double[shared.size()][BLOCK_SIZE];
+        Map<Node, double[]> ready = new IdentityHashMap<>();
+
+        for (int row = 0; row < rows; row += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, rows - row);
+            ready.clear();
+            for (int i = 0; i < shared.size(); i++) {
+                evaluateBlock(shared.get(i), fastMath, blocks, 0, row, length, io, ready);
+                System.arraycopy(blocks[0], 0, sharedBlocks[i], 0, length);
+                ready.put(shared.get(i), sharedBlocks[i]);
+            }
+            evaluateBlock(tree, fastMath, blocks, 0, row, length, io, ready);
+            io.write(row, blocks[0], length);
+        }
+    }
+
+    /**
+     * Evaluates a node for one block of rows into blocks[depth], using deeper blocks as scratch.
+     */
+    private static void evaluateBlock(Node node, boolean fastMath, double[][] blocks, int depth, int row,
+                                      int length, BlockIO io, Map<Node, double[]> ready) {
+        double[] target = blocks[depth];
+        double[] computed = ready.get(node);
+        if (computed != null) {
+            System.arraycopy(computed, 0, target, 0, length);
+        } else if (node instanceof Node.Constant constant) {
+            Arrays.fill(target, 0, length, constant.value());
+        } else if (node instanceof Node.Variable variable) {
+            io.read(variable.index(), row, target, length);
+        } else if (node instanceof Node.Unary unary) {
+            evaluateBlock(unary.operand(), fastMath, blocks, depth, row, length, io, ready);
+            applyUnary(unary.op(), fastMath, target, length);
+        } else {
+            Node.Binary binary = (Node.Binary) node;
+            evaluateBlock(binary.left(), fastMath, blocks, depth, row, length, io, ready);
+            if (binary.right() instanceof Node.Constant constant
+                    && applyBinaryScalar(binary.op(), target, constant.value(), length)) {
+                return;
+            }
+            evaluateBlock(binary.right(), fastMath, blocks, depth + 1, row, length, io, ready);
+            applyBinary(binary.op(), fastMath, target, blocks[depth + 1], length);
+        }
+    }
+
+    private static void applyUnary(UnaryOp op, boolean fastMath, double[] values, int length) {
+        switch (op) {
+            case NEGATE -> KERNELS.negate(values, values, length);
+            case SQUARE -> KERNELS.multiply(values, values, values, length);
+            case SQRT -> KERNELS.sqrt(values, values, length);
+            case RECIPROCAL -> KERNELS.reciprocal(values, values, length);
+            default -> {
+                if (fastMath) {
+                    for (int i = 0; i < length; i++) {
+                        values[i] = op.applyFast(values[i]);
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        values[i] = op.apply(values[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void applyBinary(BinaryOp op, boolean fastMath, double[] left, double[] right, int length) {
+        switch (op) {
+            case ADD -> KERNELS.add(left, right, left, length);
+            case SUBTRACT -> KERNELS.subtract(left, right, left, length);
+            case MULTIPLY -> KERNELS.multiply(left, right, left, length);
+            case DIVIDE -> KERNELS.divide(left, right, left, length);
+            default -> {
+                if (fastMath) {
+                    for (int i = 0; i < length; i++) {
+                        left[i] = op.applyFast(left[i], right[i]);
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        left[i] = op.apply(left[i], right[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies an operation with a constant right operand, returning false if it has no scalar kernel.
+     */
+    private static boolean applyBinaryScalar(BinaryOp op, double[] left, double right, int length) {
+        switch (op) {
+            case ADD -> KERNELS.addScalar(left, right, left, length);
+            case SUBTRACT -> KERNELS.addScalar(left, -right, left, length);
+            case MULTIPLY -> KERNELS.multiplyScalar(left, right, left, length);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of scratch blocks below a node, computing each shared node once.
+     */
+    private static int height(Node node, Map<Node, Integer> heights) {
+        Integer known = heights.get(node);
+        if (known != null) {
+            return known;
+        }
+        int height = 0;
+        if (node instanceof Node.Unary unary) {
+            height = height(unary.operand(), heights);
+        } else if (node instanceof Node.Binary binary) {
+            height = Math.max(height(binary.left(), heights), height(binary.right(), heights) + 1);
+        }
+        heights.put(node, height);
+        return height;
+    }
+
+    private static ColumnKernels loadKernels() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Loaded reflectively so this class links without the incubator module
+                return (ColumnKernels) Class.forName("com.calculator.expression.VectorColumnKernels")
+                    .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("Vector API unavailable, using scalar column kernels: " + e);
+            }
+        }
+        return new ScalarColumnKernels();
+    }
+}
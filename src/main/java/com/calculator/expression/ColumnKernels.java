@@ -0,0 +1,34 @@
+package com.calculator.expression;
+
+/**
+ * Element-wise operations over blocks of doubles used by {@link ColumnEvaluator}.
+ * All methods read the first {@code n} elements and may write in place ({@code out == a}).
+ */
+interface ColumnKernels {
+    void add(double[] a, double[] b, double[] out, int n);
+
+    void subtract(double[] a, double[] b, double[] out, int n);
+
+    void multiply(double[] a, double[] b, double[] out, int n);
+
+    /**
+     * @throws ArithmeticException if any divisor is zero
+     */
+    void divide(double[] a, double[] b, double[] out, int n);
+
+    void addScalar(double[] a, double b, double[] out, int n);
+
+    void multiplyScalar(double[] a, double b, double[] out, int n);
+
+    void negate(double[] a, double[] out, int n);
+
+    /**
+     * @throws ArithmeticException if any element is negative
+     */
+    void sqrt(double[] a, double[] out, int n);
+
+    /**
+     * @throws ArithmeticException if any element is zero
+     */
+    void reciprocal(double[] a, double[] out, int n);
+}
@@ -0,0 +1,78 @@
+package com.calculator.expression;
+
+import java.util.List;
+
+/**
+ * An expression that has been parsed and compiled once and can be evaluated repeatedly.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class CompiledExpression {
+    private static final double[] NO_VARIABLES = new double[0];
+
+    private final String source;
+    private final List<String> variables;
+    private final Node tree;
+    private final boolean fastMath;
+    private final ExpressionCompiler.Evaluator evaluator;
+
+    CompiledExpression(String source, List<String> variables, Node tree, boolean fastMath) {
+        this.source = source;
+        this.variables = List.copyOf(variables);
+        this.tree = ExpressionOptimizer.optimize(tree);
+        this.fastMath = fastMath;
+        this.evaluator = ExpressionCompiler.compile(this.tree, this.variables.size(), fastMath);
+    }
+
+    /**
+     * Evaluates an expression without variables.
+     */
+    public double evaluate() {
+        return evaluate(NO_VARIABLES);
+    }
+
+    /**
+     * Evaluates an expression with a single variable.
+     */
+    public double evaluate(double x) {
+        return evaluate(new double[]{x});
+    }
+
+    /**
+     * Evaluates the expression with one value per declared variable, in declaration order.
+     * @throws ArithmeticException if an operation is outside its domain (e.g. division by zero)
+     */
+    public double evaluate(double... values) {
+        if (values.length != variables.size()) {
+            throw new IllegalArgumentException(
+                "Expected " + variables.size() + " variable value(s) but got " + values.length);
+        }
+        return evaluator.evaluate(values);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Returns true if the expression was compiled in fast-math mode.
+     */
+    public boolean isFastMath() {
+        return fastMath;
+    }
+
+    /**
+     * Returns the optimized expression DAG that is actually evaluated.
+     */
+    public Node getTree() {
+        return tree;
+    }
+
+    @Override
+    public String toString() {
+        return tree.toString();
+    }
+}
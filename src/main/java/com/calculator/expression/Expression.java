@@ -0,0 +1,60 @@
+package com.calculator.expression;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the expression engine.
+ *
+ * <p>Expressions use the same operations as the calculator keypad: {@code + - × ÷ %},
+ * {@code ^} (xʸ), postfix {@code ! ² ³}, {@code √}, the functions
+ * {@code sin cos tan} (degrees), {@code log ln sqrt sqr cube recip fact}
+ * and the constants {@code e} and {@code π}/{@code pi}. Example:
+ * {@code 3*(sin(30)+ln(2))^2}.
+ */
+public final class Expression {
+
+    private Expression() {
+    }
+
+    /**
+     * Parses and compiles an expression.
+     * @param source The expression text
+     * @param variables Names of the variables the expression may reference
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static CompiledExpression compile(String source, String... variables) {
+        return compile(source, false, variables);
+    }
+
+    /**
+     * Parses and compiles an expression, optionally in fast-math mode where trigonometry and
+     * integer powers use {@link com.calculator.scientific.FastMath}.
+     * @param source The expression text
+     * @param fastMath Whether to use the fast-math implementations
+     * @param variables Names of the variables the expression may reference
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static CompiledExpression compile(String source, boolean fastMath, String... variables) {
+        return new CompiledExpression(source, Arrays.asList(variables), parse(source, variables), fastMath);
+    }
+
+    /**
+     * Parses an expression into its tree without compiling it.
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static Node parse(String source, String... variables) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("Empty expression");
+        }
+        List<Token> tokens = new Lexer(source).tokenize();
+        return new Parser(tokens, Arrays.asList(variables)).parse();
+    }
+
+    /**
+     * Compiles and evaluates an expression without variables.
+     */
+    public static double evaluate(String source) {
+        return compile(source).evaluate();
+    }
+}
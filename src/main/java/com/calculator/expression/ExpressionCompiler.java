@@ -0,0 +1,140 @@
+package com.calculator.expression;
+
+import com.calculator.scientific.FastMath;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles an optimized expression DAG into a tree of specialized lambdas.
+ * Each node becomes one small closure, so evaluation involves no tree walking
+ * and no switch dispatch.
+ *
+ * <p>Subexpressions shared by several parents are computed once per evaluation into
+ * slots of a frame that follows the variable values; their parents read the slot.
+ */
+final class ExpressionCompiler {
+
+    /**
+     * Evaluates a compiled node against the frame of one evaluation.
+     */
+    @FunctionalInterface
+    interface Evaluator {
+        double evaluate(double[] frame);
+    }
+
+    private final Map<Node, Integer> slots = new IdentityHashMap<>();
+    private final boolean fastMath;
+
+    private ExpressionCompiler(boolean fastMath) {
+        this.fastMath = fastMath;
+    }
+
+    /**
+     * Compiles a tree whose variables occupy the first {@code variableCount} frame entries.
+     * The returned evaluator takes just the variable values.
+     */
+    static Evaluator compile(Node tree, int variableCount, boolean fastMath) {
+        List<Node> shared = ExpressionOptimizer.sharedSubexpressions(tree);
+        ExpressionCompiler compiler = new ExpressionCompiler(fastMath);
+        if (shared.isEmpty()) {
+            return compiler.compileNode(tree);
+        }
+
+        // Shared nodes are listed children first, so each step only reads earlier slots
+        int frameSize = variableCount + shared.size();
+        Evaluator[] steps = new Evaluator[shared.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = compiler.compileNode(shared.get(i));
+            compiler.slots.put(shared.get(i), variableCount + i);
+        }
+        Evaluator root = compiler.compileNode(tree);
+        return variables -> {
+            double[] frame = Arrays.copyOf(variables, frameSize);
+            for (int i = 0; i < steps.length; i++) {
+                frame[variableCount + i] = steps[i].evaluate(frame);
+            }
+            return root.evaluate(frame);
+        };
+    }
+
+    private Evaluator compileNode(Node node) {
+        Integer slot = slots.get(node);
+        if (slot != null) {
+            int index = slot;
+            return frame -> frame[index];
+        }
+        if (node instanceof Node.Constant constant) {
+            double value = constant.value();
+            return frame -> value;
+        }
+        if (node instanceof Node.Variable variable) {
+            int index = variable.index();
+            return frame -> frame[index];
+        }
+        if (node instanceof Node.Unary unary) {
+            return compileUnary(unary.op(), compileNode(unary.operand()));
+        }
+        Node.Binary binary = (Node.Binary) node;
+        if (binary.right() instanceof Node.Constant constant) {
+            return compileBinaryConstant(binary.op(), compileNode(binary.left()), constant.value());
+        }
+        if (binary.op() == BinaryOp.MULTIPLY && binary.left() == binary.right()) {
+            Evaluator operand = compileNode(binary.left());
+            return frame -> {
+                double value = operand.evaluate(frame);
+                return value * value;
+            };
+        }
+        return compileBinary(binary.op(), compileNode(binary.left()), compileNode(binary.right()));
+    }
+
+    private Evaluator compileUnary(UnaryOp op, Evaluator operand) {
+        if (fastMath) {
+            return switch (op) {
+                case NEGATE -> frame -> -operand.evaluate(frame);
+                case SIN -> frame -> FastMath.sinDegrees(operand.evaluate(frame));
+                case COS -> frame -> FastMath.cosDegrees(operand.evaluate(frame));
+                case TAN -> frame -> FastMath.tanDegrees(operand.evaluate(frame));
+                default -> frame -> op.applyFast(operand.evaluate(frame));
+            };
+        }
+        return switch (op) {
+            case NEGATE -> frame -> -operand.evaluate(frame);
+            case SIN -> frame -> Math.sin(Math.toRadians(operand.evaluate(frame)));
+            case COS -> frame -> Math.cos(Math.toRadians(operand.evaluate(frame)));
+            case TAN -> frame -> Math.tan(Math.toRadians(operand.evaluate(frame)));
+            default -> frame -> op.apply(operand.evaluate(frame));
+        };
+    }
+
+    private Evaluator compileBinary(BinaryOp op, Evaluator left, Evaluator right) {
+        return switch (op) {
+            case ADD -> frame -> left.evaluate(frame) + right.evaluate(frame);
+            case SUBTRACT -> frame -> left.evaluate(frame) - right.evaluate(frame);
+            case MULTIPLY -> frame -> left.evaluate(frame) * right.evaluate(frame);
+            default -> fastMath
+                ? frame -> op.applyFast(left.evaluate(frame), right.evaluate(frame))
+                : frame -> op.apply(left.evaluate(frame), right.evaluate(frame));
+        };
+    }
+
+    private Evaluator compileBinaryConstant(BinaryOp op, Evaluator left, double right) {
+        return switch (op) {
+            case ADD -> frame -> left.evaluate(frame) + right;
+            case SUBTRACT -> frame -> left.evaluate(frame) - right;
+            case MULTIPLY -> frame -> left.evaluate(frame) * right;
+            case DIVIDE -> {
+                if (right == 0) {
+                    yield frame -> op.apply(left.evaluate(frame), right);
+                }
+                yield frame -> left.evaluate(frame) / right;
+            }
+            default -> fastMath
+                ? frame -> op.applyFast(left.evaluate(frame), right)
+                : frame -> op.apply(left.evaluate(frame), right);
+        };
+    }
+}
@@ -0,0 +1,162 @@
+package com.calculator.expression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optimization pass run on expression trees before compilation.
+ *
+ * <ul>
+ *   <li>Constant subtrees (literals, π, e and anything computed only from them) are folded.
+ *       Subtrees whose evaluation fails, such as 1/0, are left in place so the error is
+ *       still reported when the expression is evaluated.</li>
+ *   <li>x² and x^2 become x*x, x³ and x^3 become x*x*x.</li>
+ *   <li>Structurally identical subtrees are hash-consed into a single node instance, so the
+ *       result is a DAG in which each distinct subexpression appears exactly once.</li>
+ * </ul>
+ *
+ * <p>Nodes are interned bottom-up, keyed by their operator and the numbers of their already
+ * interned children, so rewriting takes time linear in the size of the tree even where the
+ * DAG shares subtrees, as in x²²²…
+ */
+public final class ExpressionOptimizer {
+    private final Map<Key, Node> interned = new HashMap<>();
+    // Number of each interned node, in interning order
+    private final Map<Node, Integer> ids = new IdentityHashMap<>();
+
+    private ExpressionOptimizer() {
+    }
+
+    /**
+     * Returns the optimized form of a tree.
+     */
+    public static Node optimize(Node tree) {
+        return new ExpressionOptimizer().rewrite(tree);
+    }
+
+    /**
+     * Returns the non-leaf nodes referenced more than once in an optimized tree,
+     * children before parents, so each can be computed once and reused.
+     */
+    public static List<Node> sharedSubexpressions(Node tree) {
+        Map<Node, Integer> references = new IdentityHashMap<>();
+        countReferences(tree, references);
+        List<Node> shared = new ArrayList<>();
+        collectShared(tree, references, new IdentityHashMap<>(), shared);
+        return shared;
+    }
+
+    private Node rewrite(Node node) {
+        if (node instanceof Node.Unary unary) {
+            Node operand = rewrite(unary.operand());
+            return switch (unary.op()) {
+                case SQUARE -> multiply(operand, operand);
+                case CUBE -> multiply(multiply(operand, operand), operand);
+                default -> fold(new Node.Unary(unary.op(), operand));
+            };
+        }
+        if (node instanceof Node.Binary binary) {
+            Node left = rewrite(binary.left());
+            Node right = rewrite(binary.right());
+            if (binary.op() == BinaryOp.POWER && right instanceof Node.Constant exponent) {
+                if (exponent.value() == 2) {
+                    return multiply(left, left);
+                }
+                if (exponent.value() == 3) {
+                    return multiply(multiply(left, left), left);
+                }
+            }
+            return fold(new Node.Binary(binary.op(), left, right));
+        }
+        return intern(node);
+    }
+
+    private Node multiply(Node left, Node right) {
+        return fold(new Node.Binary(BinaryOp.MULTIPLY, left, right));
+    }
+
+    /**
+     * Replaces a node whose operands are all constants by its value.
+     */
+    private Node fold(Node node) {
+        try {
+            if (node instanceof Node.Unary unary && unary.operand() instanceof Node.Constant operand) {
+                return intern(new Node.Constant(unary.op().apply(operand.value())));
+            }
+            if (node instanceof Node.Binary binary && binary.left() instanceof Node.Constant left
+                    && binary.right() instanceof Node.Constant right) {
+                return intern(new Node.Constant(binary.op().apply(left.value(), right.value())));
+            }
+        } catch (ArithmeticException e) {
+            // Keep the failing subtree so evaluation reports the error
+        }
+        return intern(node);
+    }
+
+    /**
+     * Returns the interned node equal to the given one, whose children must be interned.
+     */
+    private Node intern(Node node) {
+        Node existing = interned.putIfAbsent(key(node), node);
+        if (existing != null) {
+            return existing;
+        }
+        ids.put(node, ids.size());
+        return node;
+    }
+
+    private Key key(Node node) {
+        if (node instanceof Node.Constant constant) {
+            // Distinguishes 0.0 from -0.0 and equates all NaNs, like Node.Constant.equals
+            return new Key(Node.Constant.class, Double.doubleToLongBits(constant.value()), 0);
+        }
+        if (node instanceof Node.Variable variable) {
+            return new Key(variable.name(), variable.index(), 0);
+        }
+        if (node instanceof Node.Unary unary) {
+            return new Key(unary.op(), ids.get(unary.operand()), 0);
+        }
+        Node.Binary binary = (Node.Binary) node;
+        return new Key(binary.op(), ids.get(binary.left()), ids.get(binary.right()));
+    }
+
+    /**
+     * Identifies a node by its kind, operator or name, and values or child numbers.
+     */
+    private record Key(Object kind, long first, long second) {
+    }
+
+    private static void countReferences(Node node, Map<Node, Integer> references) {
+        int count = references.merge(node, 1, Integer::sum);
+        if (count > 1) {
+            return; // Children were already counted on the first visit
+        }
+        if (node instanceof Node.Unary unary) {
+            countReferences(unary.operand(), references);
+        } else if (node instanceof Node.Binary binary) {
+            countReferences(binary.left(), references);
+            countReferences(binary.right(), references);
+        }
+    }
+
+    private static void collectShared(Node node, Map<Node, Integer> references,
+                                      Map<Node, Boolean> visited, List<Node> shared) {
+        if (visited.put(node, Boolean.TRUE) != null) {
+            return;
+        }
+        if (node instanceof Node.Unary unary) {
+            collectShared(unary.operand(), references, visited, shared);
+        } else if (node instanceof Node.Binary binary) {
+            collectShared(binary.left(), references, visited, shared);
+            collectShared(binary.right(), references, visited, shared);
+        } else {
+            return; // Constants and variables are as cheap to read as a shared slot
+        }
+        if (references.get(node) > 1) {
+            shared.add(node);
+        }
+    }
+}
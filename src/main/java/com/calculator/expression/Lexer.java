@@ -0,0 +1,108 @@
+package com.calculator.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits an expression string into tokens.
+ * Accepts both ASCII operators and the symbols used on the calculator keypad.
+ */
+final class Lexer {
+    private final String source;
+    private int position;
+
+    Lexer(String source) {
+        this.source = source;
+    }
+
+    List<Token> tokenize() {
+        List<Token> tokens = new ArrayList<>();
+        while (true) {
+            skipWhitespace();
+            if (position >= source.length()) {
+                tokens.add(new Token(Token.Type.END, "", 0, position));
+                return tokens;
+            }
+            tokens.add(nextToken());
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    private Token nextToken() {
+        char c = source.charAt(position);
+        if (isDigit(c) || (c == '.' && position + 1 < source.length() && isDigit(source.charAt(position + 1)))) {
+            return readNumber();
+        }
+        if (Character.isLetter(c) && c != 'ʸ') {
+            return readIdentifier();
+        }
+
+        Token.Type type = switch (c) {
+            case '+' -> Token.Type.PLUS;
+            case '-', '−' -> Token.Type.MINUS;
+            case '*', '×' -> Token.Type.MULTIPLY;
+            case '/', '÷' -> Token.Type.DIVIDE;
+            case '%' -> Token.Type.MODULO;
+            case '^' -> Token.Type.POWER;
+            case '!' -> Token.Type.FACTORIAL;
+            case '²' -> Token.Type.SQUARE;
+            case '³' -> Token.Type.CUBE;
+            case '√' -> Token.Type.ROOT;
+            case '(' -> Token.Type.LEFT_PAREN;
+            case ')' -> Token.Type.RIGHT_PAREN;
+            default -> throw new IllegalArgumentException(
+                "Unexpected character '" + c + "' at position " + position);
+        };
+        Token token = new Token(type, String.valueOf(c), 0, position);
+        position++;
+        return token;
+    }
+
+    private Token readNumber() {
+        int start = position;
+        while (position < source.length() && isDigit(source.charAt(position))) {
+            position++;
+        }
+        if (position < source.length() && source.charAt(position) == '.') {
+            position++;
+            while (position < source.length() && isDigit(source.charAt(position))) {
+                position++;
+            }
+        }
+        // Optional exponent, only consumed when it is well formed (e.g. 1.5e-3)
+        if (position < source.length() && (source.charAt(position) == 'e' || source.charAt(position) == 'E')) {
+            int exponentStart = position + 1;
+            if (exponentStart < source.length()
+                    && (source.charAt(exponentStart) == '+' || source.charAt(exponentStart) == '-')) {
+                exponentStart++;
+            }
+            if (exponentStart < source.length() && isDigit(source.charAt(exponentStart))) {
+                position = exponentStart;
+                while (position < source.length() && isDigit(source.charAt(position))) {
+                    position++;
+                }
+            }
+        }
+        String text = source.substring(start, position);
+        return new Token(Token.Type.NUMBER, text, Double.parseDouble(text), start);
+    }
+
+    private Token readIdentifier() {
+        int start = position;
+        while (position < source.length()
+                && (Character.isLetterOrDigit(source.charAt(position)) || source.charAt(position) == '_')) {
+            position++;
+        }
+        String text = source.substring(start, position);
+        return new Token(Token.Type.IDENTIFIER, text, 0, start);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
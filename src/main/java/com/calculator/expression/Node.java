@@ -0,0 +1,72 @@
+package com.calculator.expression;
+
+/**
+ * Node of a parsed expression tree.
+ * Nodes are immutable values, so structurally equal subtrees compare equal.
+ *
+ * <p>Optimized trees share subtrees, so writing one out in full can take exponential space;
+ * {@link #toString()} stops after {@value #MAX_STRING_LENGTH} characters.
+ */
+public sealed interface Node permits Node.Constant, Node.Variable, Node.Unary, Node.Binary {
+    int MAX_STRING_LENGTH = 1000;
+
+    record Constant(double value) implements Node {
+        @Override
+        public String toString() {
+            return Double.toString(value);
+        }
+    }
+
+    record Variable(String name, int index) implements Node {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    record Unary(UnaryOp op, Node operand) implements Node {
+        @Override
+        public String toString() {
+            return Node.toString(this);
+        }
+    }
+
+    record Binary(BinaryOp op, Node left, Node right) implements Node {
+        @Override
+        public String toString() {
+            return Node.toString(this);
+        }
+    }
+
+    private static String toString(Node node) {
+        StringBuilder text = new StringBuilder();
+        append(node, text);
+        if (text.length() > MAX_STRING_LENGTH) {
+            text.setLength(MAX_STRING_LENGTH);
+            text.append('…');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Appends a node, stopping once the text is longer than {@link #MAX_STRING_LENGTH}.
+     */
+    private static void append(Node node, StringBuilder text) {
+        if (text.length() > MAX_STRING_LENGTH) {
+            return;
+        }
+        if (node instanceof Unary unary) {
+            text.append(unary.op().name().toLowerCase()).append('(');
+            append(unary.operand(), text);
+            text.append(')');
+        } else if (node instanceof Binary binary) {
+            text.append('(');
+            append(binary.left(), text);
+            text.append(' ').append(binary.op().getSymbol()).append(' ');
+            append(binary.right(), text);
+            text.append(')');
+        } else {
+            text.append(node);
+        }
+    }
+}
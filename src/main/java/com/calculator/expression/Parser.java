@@ -0,0 +1,232 @@
+package com.calculator.expression;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Recursive-descent parser producing an expression tree.
+ *
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := unary (('*' | '/' | '%') unary)*
+ * unary      := ('+' | '-') unary | power
+ * power      := postfix ('^' unary)?
+ * postfix    := primary ('!' | '²' | '³')*
+ * primary    := number | constant | variable | function primary | '√' primary | '(' expression ')'
+ * </pre>
+ *
+ * <p>Parentheses, roots, functions, signs and exponents may be nested at most
+ * {@value #MAX_NESTING} levels deep, and the resulting tree may be at most
+ * {@value #MAX_HEIGHT} nodes high, so that neither parsing nor the recursive passes over
+ * the tree can overflow the stack.
+ */
+final class Parser {
+    static final int MAX_NESTING = 256;
+    static final int MAX_HEIGHT = 1024;
+
+    private final List<Token> tokens;
+    private final List<String> variables;
+    private int index;
+    private int nesting;
+
+    Parser(List<Token> tokens, List<String> variables) {
+        this.tokens = tokens;
+        this.variables = variables;
+    }
+
+    Node parse() {
+        Node node = parseExpression();
+        if (peek().type != Token.Type.END) {
+            throw unexpected(peek());
+        }
+        checkHeight(node);
+        return node;
+    }
+
+    /**
+     * Rejects trees higher than {@link #MAX_HEIGHT}, such as long chains of operators.
+     */
+    private static void checkHeight(Node tree) {
+        Deque<Node> nodes = new ArrayDeque<>();
+        Deque<Integer> heights = new ArrayDeque<>();
+        nodes.push(tree);
+        heights.push(1);
+        while (!nodes.isEmpty()) {
+            Node node = nodes.pop();
+            int height = heights.pop();
+            if (height > MAX_HEIGHT) {
+                throw new IllegalArgumentException("Expression is nested more than " + MAX_HEIGHT
+                    + " operations deep");
+            }
+            if (node instanceof Node.Unary unary) {
+                nodes.push(unary.operand());
+                heights.push(height + 1);
+            } else if (node instanceof Node.Binary binary) {
+                nodes.push(binary.left());
+                heights.push(height + 1);
+                nodes.push(binary.right());
+                heights.push(height + 1);
+            }
+        }
+    }
+
+    private Node parseExpression() {
+        Node node = parseTerm();
+        while (true) {
+            if (match(Token.Type.PLUS)) {
+                node = new Node.Binary(BinaryOp.ADD, node, parseTerm());
+            } else if (match(Token.Type.MINUS)) {
+                node = new Node.Binary(BinaryOp.SUBTRACT, node, parseTerm());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node parseTerm() {
+        Node node = parseUnary();
+        while (true) {
+            if (match(Token.Type.MULTIPLY)) {
+                node = new Node.Binary(BinaryOp.MULTIPLY, node, parseUnary());
+            } else if (match(Token.Type.DIVIDE)) {
+                node = new Node.Binary(BinaryOp.DIVIDE, node, parseUnary());
+            } else if (match(Token.Type.MODULO)) {
+                node = new Node.Binary(BinaryOp.MODULO, node, parseUnary());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node parseUnary() {
+        if (match(Token.Type.MINUS)) {
+            enter();
+            Node operand = parseUnary();
+            nesting--;
+            return new Node.Unary(UnaryOp.NEGATE, operand);
+        }
+        if (match(Token.Type.PLUS)) {
+            enter();
+            Node operand = parseUnary();
+            nesting--;
+            return operand;
+        }
+        return parsePower();
+    }
+
+    private Node parsePower() {
+        Node base = parsePostfix();
+        if (match(Token.Type.POWER)) {
+            // Right associative: 2^3^2 = 2^(3^2)
+            enter();
+            Node exponent = parseUnary();
+            nesting--;
+            return new Node.Binary(BinaryOp.POWER, base, exponent);
+        }
+        return base;
+    }
+
+    private Node parsePostfix() {
+        Node node = parsePrimary();
+        while (true) {
+            if (match(Token.Type.FACTORIAL)) {
+                node = new Node.Unary(UnaryOp.FACTORIAL, node);
+            } else if (match(Token.Type.SQUARE)) {
+                node = new Node.Unary(UnaryOp.SQUARE, node);
+            } else if (match(Token.Type.CUBE)) {
+                node = new Node.Unary(UnaryOp.CUBE, node);
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node parsePrimary() {
+        Token token = next();
+        switch (token.type) {
+            case NUMBER:
+                return new Node.Constant(token.value);
+            case ROOT: {
+                enter();
+                Node operand = parsePostfix();
+                nesting--;
+                return new Node.Unary(UnaryOp.SQRT, operand);
+            }
+            case LEFT_PAREN: {
+                enter();
+                Node inner = parseExpression();
+                expect(Token.Type.RIGHT_PAREN);
+                nesting--;
+                return inner;
+            }
+            case IDENTIFIER:
+                return parseIdentifier(token);
+            default:
+                throw unexpected(token);
+        }
+    }
+
+    private Node parseIdentifier(Token token) {
+        String name = token.text;
+        int variableIndex = variables.indexOf(name);
+        if (variableIndex >= 0) {
+            return new Node.Variable(name, variableIndex);
+        }
+        switch (name) {
+            case "e":
+                return new Node.Constant(Math.E);
+            case "pi":
+            case "π":
+                return new Node.Constant(Math.PI);
+            default:
+                break;
+        }
+        UnaryOp function = UnaryOp.forFunctionName(name);
+        if (function == null) {
+            throw new IllegalArgumentException(
+                "Unknown identifier '" + name + "' at position " + token.position);
+        }
+        // Function arguments bind like a postfix operand: sin 30² = sin(30²)
+        enter();
+        Node argument = parsePostfix();
+        nesting--;
+        return new Node.Unary(function, argument);
+    }
+
+    private void enter() {
+        if (++nesting > MAX_NESTING) {
+            throw new IllegalArgumentException("Expression is nested more than " + MAX_NESTING + " levels deep");
+        }
+    }
+
+    private Token peek() {
+        return tokens.get(index);
+    }
+
+    private Token next() {
+        Token token = tokens.get(index);
+        if (token.type != Token.Type.END) {
+            index++;
+        }
+        return token;
+    }
+
+    private boolean match(Token.Type type) {
+        if (peek().type == type) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(Token.Type type) {
+        if (!match(type)) {
+            throw unexpected(peek());
+        }
+    }
+
+    private static IllegalArgumentException unexpected(Token token) {
+        return new IllegalArgumentException("Unexpected " + token + " at position " + token.position);
+    }
+}
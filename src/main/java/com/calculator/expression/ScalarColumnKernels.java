@@ -0,0 +1,79 @@
+package com.calculator.expression;
+
+/**
+ * Plain-loop column kernels, used when the Vector API is not available.
+ */
+final class ScalarColumnKernels implements ColumnKernels {
+
+    @Override
+    public void add(double[] a, double[] b, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void subtract(double[] a, double[] b, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void divide(double[] a, double[] b, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            if (b[i] == 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            out[i] = a[i] / b[i];
+        }
+    }
+
+    @Override
+    public void addScalar(double[] a, double b, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = a[i] + b;
+        }
+    }
+
+    @Override
+    public void multiplyScalar(double[] a, double b, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = a[i] * b;
+        }
+    }
+
+    @Override
+    public void negate(double[] a, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = -a[i];
+        }
+    }
+
+    @Override
+    public void sqrt(double[] a, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            if (a[i] < 0) {
+                throw new ArithmeticException("Invalid input for square root");
+            }
+            out[i] = Math.sqrt(a[i]);
+        }
+    }
+
+    @Override
+    public void reciprocal(double[] a, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            if (a[i] == 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            out[i] = 1 / a[i];
+        }
+    }
+}
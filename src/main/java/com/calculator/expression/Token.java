@@ -0,0 +1,41 @@
+package com.calculator.expression;
+
+/**
+ * A single lexical token of an expression.
+ */
+final class Token {
+    enum Type {
+        NUMBER,
+        IDENTIFIER,
+        PLUS,
+        MINUS,
+        MULTIPLY,
+        DIVIDE,
+        MODULO,
+        POWER,
+        FACTORIAL,
+        SQUARE,
+        CUBE,
+        ROOT,
+        LEFT_PAREN,
+        RIGHT_PAREN,
+        END
+    }
+
+    final Type type;
+    final String text;
+    final double value;
+    final int position;
+
+    Token(Type type, String text, double value, int position) {
+        this.type = type;
+        this.text = text;
+        this.value = value;
+        this.position = position;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.END ? "end of expression" : "'" + text + "'";
+    }
+}
@@ -0,0 +1,143 @@
+package com.calculator.expression;
+
+import com.calculator.scientific.FastMath;
+import com.calculator.scientific.GammaFunction;
+
+/**
+ * Single-operand operations supported by the expression engine.
+ * Semantics (degrees for trigonometry, domain errors) follow CalculatorModel.applyFunction.
+ */
+public enum UnaryOp {
+    NEGATE("-") {
+        @Override
+        public double apply(double x) {
+            return -x;
+        }
+    },
+    SIN("sin") {
+        @Override
+        public double apply(double x) {
+            return Math.sin(Math.toRadians(x));
+        }
+
+        @Override
+        public double applyFast(double x) {
+            return FastMath.sinDegrees(x);
+        }
+    },
+    COS("cos") {
+        @Override
+        public double apply(double x) {
+            return Math.cos(Math.toRadians(x));
+        }
+
+        @Override
+        public double applyFast(double x) {
+            return FastMath.cosDegrees(x);
+        }
+    },
+    TAN("tan") {
+        @Override
+        public double apply(double x) {
+            return Math.tan(Math.toRadians(x));
+        }
+
+        @Override
+        public double applyFast(double x) {
+            return FastMath.tanDegrees(x);
+        }
+    },
+    LOG("log") {
+        @Override
+        public double apply(double x) {
+            if (x <= 0) {
+                throw new ArithmeticException("Invalid input for logarithm");
+            }
+            return Math.log10(x);
+        }
+    },
+    LN("ln") {
+        @Override
+        public double apply(double x) {
+            if (x <= 0) {
+                throw new ArithmeticException("Invalid input for natural logarithm");
+            }
+            return Math.log(x);
+        }
+    },
+    SQRT("√") {
+        @Override
+        public double apply(double x) {
+            if (x < 0) {
+                throw new ArithmeticException("Invalid input for square root");
+            }
+            return Math.sqrt(x);
+        }
+    },
+    SQUARE("x²") {
+        @Override
+        public double apply(double x) {
+            return Math.pow(x, 2);
+        }
+    },
+    CUBE("x³") {
+        @Override
+        public double apply(double x) {
+            return Math.pow(x, 3);
+        }
+    },
+    RECIPROCAL("1/x") {
+        @Override
+        public double apply(double x) {
+            if (x == 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            return 1 / x;
+        }
+    },
+    FACTORIAL("!") {
+        @Override
+        public double apply(double x) {
+            return GammaFunction.factorial(x);
+        }
+    };
+
+    private final String symbol;
+
+    UnaryOp(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public abstract double apply(double x);
+
+    /**
+     * Applies the operation in fast-math mode, which uses {@link FastMath} where it has an
+     * implementation and is otherwise the same as {@link #apply(double)}.
+     */
+    public double applyFast(double x) {
+        return apply(x);
+    }
+
+    /**
+     * Looks up a function by the name used in expressions, or returns null.
+     */
+    static UnaryOp forFunctionName(String name) {
+        return switch (name) {
+            case "sin" -> SIN;
+            case "cos" -> COS;
+            case "tan" -> TAN;
+            case "log" -> LOG;
+            case "ln" -> LN;
+            case "sqrt" -> SQRT;
+            case "sqr" -> SQUARE;
+            case "cube" -> CUBE;
+            case "recip" -> RECIPROCAL;
+            case "fact" -> FACTORIAL;
+            default -> null;
+        };
+    }
+}
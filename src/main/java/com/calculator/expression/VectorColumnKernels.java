@@ -0,0 +1,135 @@
+package com.calculator.expression;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD column kernels built on the incubating Vector API.
+ * Only loaded when the {@code jdk.incubator.vector} module is present at runtime.
+ */
+final class VectorColumnKernels implements ColumnKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    public void add(double[] a, double[] b, double[] out, int n) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(n); i < upper; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).add(DoubleVector.fromArray(SPECIES, b, i)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void subtract(double[] a, double[] b, double[] out, int n) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(n); i < upper; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).sub(DoubleVector.fromArray(SPECIES, b, i)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, double[] out, int n) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(n); i < upper; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).mul(DoubleVector.fromArray(SPECIES, b, i)).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void divide(double[] a, double[] b, double[] out, int n) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(n); i < upper; i += LANES) {
+            DoubleVector divisor = DoubleVector.fromArray(SPECIES, b, i);
+            if (divisor.eq(0).anyTrue()) {
+                throw new ArithmeticException("Division by zero");
+            }
+            DoubleVector.fromArray(SPECIES, a, i).div(divisor).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            if (b[i] == 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            out[i] = a[i] / b[i];
+        }
+    }
+
+    @Override
+    public void addScalar(double[] a, double b, double[] out, int n) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(n); i < upper; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).add(b).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = a[i] + b;
+        }
+    }
+
+    @Override
+    public void multiplyScalar(double[] a, double b, double[] out, int n) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(n); i < upper; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).mul(b).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = a[i] * b;
+        }
+    }
+
+    @Override
+    public void negate(double[] a, double[] out, int n) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(n); i < upper; i += LANES) {
+            DoubleVector.fromArray(SPECIES, a, i).neg().intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = -a[i];
+        }
+    }
+
+    @Override
+    public void sqrt(double[] a, double[] out, int n) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(n); i < upper; i += LANES) {
+            DoubleVector value = DoubleVector.fromArray(SPECIES, a, i);
+            if (value.lt(0).anyTrue()) {
+                throw new ArithmeticException("Invalid input for square root");
+            }
+            value.lanewise(VectorOperators.SQRT).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            if (a[i] < 0) {
+                throw new ArithmeticException("Invalid input for square root");
+            }
+            out[i] = Math.sqrt(a[i]);
+        }
+    }
+
+    @Override
+    public void reciprocal(double[] a, double[] out, int n) {
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1);
+        int i = 0;
+        for (int upper = SPECIES.loopBound(n); i < upper; i += LANES) {
+            DoubleVector value = DoubleVector.fromArray(SPECIES, a, i);
+            if (value.eq(0).anyTrue()) {
+                throw new ArithmeticException("Division by zero");
+            }
+            one.div(value).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            if (a[i] == 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            out[i] = 1 / a[i];
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.calculator.financial;
 
+import com.calculator.cache.ResultCache;
+import com.calculator.metrics.OperationMetrics;
+
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
@@ -7,8 +10,26 @@ import java.time.temporal.ChronoUnit;
  * Financial calculator with support for various financial calculations and analysis.
  */
 public class FinancialCalculator {
+    // Results of the iterative and pow/exp based calculations are cached; simple ratios are not
+    private static final ResultCache CACHE = new ResultCache();
+    private static final OperationMetrics.Group METRICS = OperationMetrics.group("financial");
+
+    public static ResultCache getResultCache() {
+        return CACHE;
+    }
+
     // Loan Calculations
     public static double calculateLoanPayment(double principal, double annualRate, int years) {
+        long start = OperationMetrics.start();
+        try {
+            return CACHE.get(ResultCache.key("loanPayment", principal, annualRate, years),
+                () -> computeLoanPayment(principal, annualRate, years));
+        } finally {
+            METRICS.stop("calculateLoanPayment", start);
+        }
+    }
+
+    private static double computeLoanPayment(double principal, double annualRate, int years) {
         double monthlyRate = annualRate / 12 / 100;
         int months = years * 12;
         return principal * monthlyRate * Math.pow(1 + monthlyRate, months) 
@@ -16,11 +37,21 @@ public class FinancialCalculator {
     }
 
     public static double calculateLoanTotal(double payment, double annualRate, int years) {
-        return payment * years * 12;
+        long start = OperationMetrics.start();
+        try {
+            return payment * years * 12;
+        } finally {
+            METRICS.stop("calculateLoanTotal", start);
+        }
     }
 
     public static double calculateLoanInterest(double principal, double payment, int years) {
-        return calculateLoanTotal(payment, 0, years) - principal;
+        long start = OperationMetrics.start();
+        try {
+            return payment * years * 12 - principal;
+        } finally {
+            METRICS.stop("calculateLoanInterest", start);
+        }
     }
 
     // Mortgage Calculations
@@ -41,11 +72,26 @@ public class FinancialCalculator {
 
     public static MortgageDetails calculateMortgage(double principal, double annualRate, 
                                                   int years, double downPayment) {
+        long start = OperationMetrics.start();
+        try {
+            MortgageDetails details = CACHE.get(
+                ResultCache.key("mortgage", principal, annualRate, years, downPayment),
+                () -> computeMortgage(principal, annualRate, years, downPayment));
+            // The schedule array is mutable, never hand out the cached instance
+            return new MortgageDetails(details.monthlyPayment, details.totalPayment,
+                details.totalInterest, details.amortizationSchedule.clone());
+        } finally {
+            METRICS.stop("calculateMortgage", start);
+        }
+    }
+
+    private static MortgageDetails computeMortgage(double principal, double annualRate,
+                                                   int years, double downPayment) {
         double loanAmount = principal - downPayment;
         double monthlyRate = annualRate / 12 / 100;
         int months = years * 12;
         
-        double monthlyPayment = calculateLoanPayment(loanAmount, annualRate, years);
+        double monthlyPayment = computeLoanPayment(loanAmount, annualRate, years);
         double totalPayment = monthlyPayment * months;
         double totalInterest = totalPayment - loanAmount;
         
@@ -65,6 +111,18 @@ public class FinancialCalculator {
     // Investment Calculations
     public static double calculateCompoundInterest(double principal, double annualRate, 
                                                  int years, int compoundingPerYear) {
+        long start = OperationMetrics.start();
+        try {
+            return CACHE.get(
+                ResultCache.key("compoundInterest", principal, annualRate, years, compoundingPerYear),
+                () -> computeCompoundInterest(principal, annualRate, years, compoundingPerYear));
+        } finally {
+            METRICS.stop("calculateCompoundInterest", start);
+        }
+    }
+
+    private static double computeCompoundInterest(double principal, double annualRate,
+                                                  int years, int compoundingPerYear) {
         double rate = annualRate / 100;
         return principal * Math.pow(1 + rate / compoundingPerYear, 
                                   compoundingPerYear * years);
@@ -72,18 +130,39 @@ public class FinancialCalculator {
 
     public static double calculateContinuousCompoundInterest(double principal, 
                                                            double annualRate, int years) {
-        double rate = annualRate / 100;
-        return principal * Math.exp(rate * years);
+        long start = OperationMetrics.start();
+        try {
+            return CACHE.get(ResultCache.key("continuousInterest", principal, annualRate, years), () -> {
+                double rate = annualRate / 100;
+                return principal * Math.exp(rate * years);
+            });
+        } finally {
+            METRICS.stop("calculateContinuousCompoundInterest", start);
+        }
     }
 
     public static double calculatePresentValue(double futureValue, double annualRate, int years) {
-        double rate = annualRate / 100;
-        return futureValue / Math.pow(1 + rate, years);
+        long start = OperationMetrics.start();
+        try {
+            return CACHE.get(ResultCache.key("presentValue", futureValue, annualRate, years), () -> {
+                double rate = annualRate / 100;
+                return futureValue / Math.pow(1 + rate, years);
+            });
+        } finally {
+            METRICS.stop("calculatePresentValue", start);
+        }
     }
 
     public static double calculateFutureValue(double presentValue, double annualRate, int years) {
-        double rate = annualRate / 100;
-        return presentValue * Math.pow(1 + rate, years);
+        long start = OperationMetrics.start();
+        try {
+            return CACHE.get(ResultCache.key("futureValue", presentValue, annualRate, years), () -> {
+                double rate = annualRate / 100;
+                return presentValue * Math.pow(1 + rate, years);
+            });
+        } finally {
+            METRICS.stop("calculateFutureValue", start);
+        }
     }
 
     // Investment Analysis
@@ -104,6 +183,20 @@ public class FinancialCalculator {
                                                       double finalValue, 
                                                       LocalDate startDate, 
                                                       LocalDate endDate) {
+        long start = OperationMetrics.start();
+        try {
+            return CACHE.get(ResultCache.key("investment", initialInvestment, finalValue,
+                    startDate.toEpochDay(), endDate.toEpochDay()),
+                () -> computeInvestmentAnalysis(initialInvestment, finalValue, startDate, endDate));
+        } finally {
+            METRICS.stop("analyzeInvestment", start);
+        }
+    }
+
+    private static InvestmentAnalysis computeInvestmentAnalysis(double initialInvestment,
+                                                                double finalValue,
+                                                                LocalDate startDate,
+                                                                LocalDate endDate) {
         double roi = (finalValue - initialInvestment) / initialInvestment * 100;
         
         double years = ChronoUnit.DAYS.between(startDate, endDate) / 365.25;
@@ -132,6 +225,19 @@ public class FinancialCalculator {
     public static BondAnalysis analyzeBond(double faceValue, double couponRate, 
                                          double marketRate, int yearsToMaturity, 
                                          int paymentsPerYear) {
+        long start = OperationMetrics.start();
+        try {
+            return CACHE.get(ResultCache.key("bond", faceValue, couponRate, marketRate,
+                    yearsToMaturity, paymentsPerYear),
+                () -> computeBondAnalysis(faceValue, couponRate, marketRate, yearsToMaturity, paymentsPerYear));
+        } finally {
+            METRICS.stop("analyzeBond", start);
+        }
+    }
+
+    private static BondAnalysis computeBondAnalysis(double faceValue, double couponRate,
+                                                    double marketRate, int yearsToMaturity,
+                                                    int paymentsPerYear) {
         double couponPayment = faceValue * couponRate / paymentsPerYear;
         int totalPayments = yearsToMaturity * paymentsPerYear;
         double yieldPerPeriod = marketRate / paymentsPerYear;
@@ -166,54 +272,89 @@ public class FinancialCalculator {
 
     // Financial Ratios
     public static double calculatePriceToEarningsRatio(double stockPrice, double earningsPerShare) {
-        return stockPrice / earningsPerShare;
+        long start = OperationMetrics.start();
+        try {
+            return stockPrice / earningsPerShare;
+        } finally {
+            METRICS.stop("calculatePriceToEarningsRatio", start);
+        }
     }
 
     public static double calculateDebtToEquityRatio(double totalDebt, double totalEquity) {
-        return totalDebt / totalEquity;
+        long start = OperationMetrics.start();
+        try {
+            return totalDebt / totalEquity;
+        } finally {
+            METRICS.stop("calculateDebtToEquityRatio", start);
+        }
     }
 
     public static double calculateCurrentRatio(double currentAssets, double currentLiabilities) {
-        return currentAssets / currentLiabilities;
+        long start = OperationMetrics.start();
+        try {
+            return currentAssets / currentLiabilities;
+        } finally {
+            METRICS.stop("calculateCurrentRatio", start);
+        }
     }
 
     public static double calculateQuickRatio(double currentAssets, double inventory, 
                                            double currentLiabilities) {
-        return (currentAssets - inventory) / currentLiabilities;
+        long start = OperationMetrics.start();
+        try {
+            return (currentAssets - inventory) / currentLiabilities;
+        } finally {
+            METRICS.stop("calculateQuickRatio", start);
+        }
     }
 
     public static double calculateReturnOnEquity(double netIncome, double shareholderEquity) {
-        return netIncome / shareholderEquity * 100;
+        long start = OperationMetrics.start();
+        try {
+            return netIncome / shareholderEquity * 100;
+        } finally {
+            METRICS.stop("calculateReturnOnEquity", start);
+        }
     }
 
     public static double calculateReturnOnAssets(double netIncome, double totalAssets) {
-        return netIncome / totalAssets * 100;
+        long start = OperationMetrics.start();
+        try {
+            return netIncome / totalAssets * 100;
+        } finally {
+            METRICS.stop("calculateReturnOnAssets", start);
+        }
     }
 
     // Risk Analysis
     public static double calculateBeta(double[] stockReturns, double[] marketReturns) {
-        if (stockReturns.length != marketReturns.length) {
-            throw new IllegalArgumentException("Return series must be of equal length");
-        }
-        
-        double stockMean = calculateMean(stockReturns);
-        double marketMean = calculateMean(marketReturns);
-        
-        double covariance = 0;
-        double marketVariance = 0;
-        
-        for (int i = 0; i < stockReturns.length; i++) {
-            double stockDiff = stockReturns[i] - stockMean;
-            double marketDiff = marketReturns[i] - marketMean;
-            
-            covariance += stockDiff * marketDiff;
-            marketVariance += marketDiff * marketDiff;
+        long start = OperationMetrics.start();
+        try {
+            if (stockReturns.length != marketReturns.length) {
+                throw new IllegalArgumentException("Return series must be of equal length");
+            }
+
+            double stockMean = calculateMean(stockReturns);
+            double marketMean = calculateMean(marketReturns);
+
+            double covariance = 0;
+            double marketVariance = 0;
+
+            for (int i = 0; i < stockReturns.length; i++) {
+                double stockDiff = stockReturns[i] - stockMean;
+                double marketDiff = marketReturns[i] - marketMean;
+
+                covariance += stockDiff * marketDiff;
+                marketVariance += marketDiff * marketDiff;
+            }
+
+            covariance /= stockReturns.length;
+            marketVariance /= marketReturns.length;
+
+            return covariance / marketVariance;
+        } finally {
+            METRICS.stop("calculateBeta", start);
         }
-        
-        covariance /= stockReturns.length;
-        marketVariance /= marketReturns.length;
-        
-        return covariance / marketVariance;
     }
 
     private static double calculateMean(double[] values) {
@@ -0,0 +1,166 @@
+package com.calculator.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ *
+ * <p>Each power-of-two range of nanoseconds is split into {@value #SUB_BUCKET_COUNT} equal
+ * buckets, so a recorded value is known to within about 3% of itself. Values from 1 ns to
+ * about 68 seconds are tracked in a fixed array of counters; longer ones count towards the
+ * last bucket. Recording is a few atomic increments and never blocks.
+ *
+ * <p>{@link #reset()} does not stop concurrent recording, so a value recorded during a reset
+ * may be kept or dropped.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 36; // 2^36 ns ≈ 68.7 s
+    static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    private static final long MAX_TRACKABLE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * Records one operation that took the given number of nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0; // nanoTime is monotonic, but guard against callers mixing clocks
+        }
+        counts.incrementAndGet(bucketIndex(Math.min(nanos, MAX_TRACKABLE)));
+        totalNanos.add(nanos);
+        calls.increment();
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Counts one operation whose latency was not measured.
+     */
+    public void recordUntimed() {
+        calls.increment();
+    }
+
+    /**
+     * Records one operation that started at the given {@link System#nanoTime()} value.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalNanos.reset();
+        max.set(0);
+        calls.reset();
+    }
+
+    /**
+     * Returns a consistent copy of the recorded values for computing percentiles.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long timed = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            timed += copy[i];
+        }
+        return new Snapshot(copy, timed, Math.max(timed, calls.sum()), totalNanos.sum(), max.get());
+    }
+
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return (int) nanos;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the largest value that falls into the given bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int magnitude = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int shift = magnitude - SUB_BUCKET_BITS;
+        long lower = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Point-in-time view of a histogram.
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long timedCount;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        Snapshot(long[] counts, long timedCount, long count, long totalNanos, long maxNanos) {
+            this.counts = counts;
+            this.timedCount = timedCount;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * Returns the number of operations, timed or not.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the number of operations whose latency was measured.
+         */
+        public long getTimedCount() {
+            return timedCount;
+        }
+
+        public double getMeanNanos() {
+            return timedCount == 0 ? 0 : (double) totalNanos / timedCount;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Returns the latency at or below which the given fraction of operations completed,
+         * rounded up to its bucket's upper bound and capped at the exact maximum.
+         */
+        public long getPercentileNanos(double fraction) {
+            if (timedCount == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(fraction * timedCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.calculator.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registry of per-operation latency histograms, exposed over JMX.
+ *
+ * <p>Instrumented code brackets an operation with {@link #start()} and {@link #stop}:
+ * <pre>
+ *   long start = OperationMetrics.start();
+ *   try {
+ *       ...
+ *   } finally {
+ *       OperationMetrics.stop(histogram, start);
+ *   }
+ * </pre>
+ * Fixed operations keep their histogram in a static field; operations keyed by a runtime
+ * value such as a function name use a {@link Group}.
+ *
+ * <p>Every call is counted, but timing costs two {@link System#nanoTime()} reads, which can be
+ * tens of nanoseconds each on virtualized clocks. With the
+ * {@code calculator.metrics.sampleInterval} system property set to n, only a random one in n
+ * calls is timed and percentiles are estimated from that sample. Setting
+ * {@code calculator.metrics} to {@code false} turns recording off entirely.
+ */
+public final class OperationMetrics {
+    private static final boolean ENABLED = !"false".equals(System.getProperty("calculator.metrics"));
+    private static final int SAMPLE_INTERVAL =
+        Math.max(1, Integer.getInteger("calculator.metrics.sampleInterval", 1));
+    // Start value of a call that is counted but not timed
+    private static final long UNTIMED = Long.MIN_VALUE;
+    private static final String OBJECT_NAME = "com.calculator:type=OperationMetrics";
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private OperationMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns the histogram of the named operation, creating it on first use.
+     */
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns a group of operations whose names share the given prefix.
+     */
+    public static Group group(String prefix) {
+        return new Group(prefix);
+    }
+
+    /**
+     * Returns the start time of an operation, or a marker if this call is not timed.
+     */
+    public static long start() {
+        if (!ENABLED || SAMPLE_INTERVAL > 1 && ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) != 0) {
+            return UNTIMED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records an operation that began at {@code startNanos}, as returned by {@link #start()}.
+     */
+    public static void stop(LatencyHistogram histogram, long startNanos) {
+        if (!ENABLED) {
+            return;
+        }
+        if (startNanos == UNTIMED) {
+            histogram.recordUntimed();
+        } else {
+            histogram.recordSince(startNanos);
+        }
+    }
+
+    /**
+     * Operations named {@code prefix.key}, with their histograms looked up by key. To keep
+     * memory bounded, keys beyond the first {@value #MAX_KEYS} share the histogram
+     * {@code prefix.other}.
+     */
+    public static final class Group {
+        static final int MAX_KEYS = 256;
+
+        private final String prefix;
+        private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+        private Group(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public LatencyHistogram histogram(String key) {
+            LatencyHistogram histogram = histograms.get(key);
+            if (histogram != null) {
+                return histogram;
+            }
+            if (histograms.size() >= MAX_KEYS) {
+                return OperationMetrics.histogram(prefix + ".other");
+            }
+            return histograms.computeIfAbsent(key, k -> OperationMetrics.histogram(prefix + "." + k));
+        }
+
+        /**
+         * Records the operation {@code key} that began at {@code startNanos}.
+         */
+        public void stop(String key, long startNanos) {
+            if (ENABLED) {
+                OperationMetrics.stop(histogram(key), startNanos);
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics of every operation recorded so far, sorted by name.
+     */
+    public static List<OperationStatistics> getStatistics() {
+        List<OperationStatistics> statistics = new ArrayList<>();
+        new TreeMap<>(HISTOGRAMS).forEach((name, histogram) ->
+            statistics.add(OperationStatistics.of(name, histogram.snapshot())));
+        return statistics;
+    }
+
+    /**
+     * Clears every histogram. Operations stay registered.
+     */
+    public static void reset() {
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Registers the management bean with the platform MBean server. Later calls do nothing.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Already registered
+        } catch (JMException e) {
+            System.err.println("Error registering operation metrics: " + e.getMessage());
+        }
+    }
+
+    private static final class Bean implements OperationMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public int getSampleInterval() {
+            return SAMPLE_INTERVAL;
+        }
+
+        @Override
+        public List<String> getOperationNames() {
+            return new ArrayList<>(new TreeMap<>(HISTOGRAMS).keySet());
+        }
+
+        @Override
+        public List<OperationStatistics> getStatistics() {
+            return OperationMetrics.getStatistics();
+        }
+
+        @Override
+        public OperationStatistics getOperationStatistics(String name) {
+            LatencyHistogram histogram = HISTOGRAMS.get(name);
+            return histogram == null ? null : OperationStatistics.of(name, histogram.snapshot());
+        }
+
+        @Override
+        public void reset() {
+            OperationMetrics.reset();
+        }
+
+        @Override
+        public void resetOperation(String name) {
+            LatencyHistogram histogram = HISTOGRAMS.get(name);
+            if (histogram == null) {
+                throw new IllegalArgumentException("Unknown operation: " + name);
+            }
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.calculator.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of {@link OperationMetrics}, registered as
+ * {@code com.calculator:type=OperationMetrics}. Latencies are in microseconds.
+ */
+public interface OperationMetricsMXBean {
+
+    /**
+     * Returns whether operations are being timed; set with the {@code calculator.metrics}
+     * system property at start-up.
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns n when one in n calls is timed; set with the
+     * {@code calculator.metrics.sampleInterval} system property at start-up.
+     */
+    int getSampleInterval();
+
+    /**
+     * Returns the names of all operations recorded so far, sorted.
+     */
+    List<String> getOperationNames();
+
+    /**
+     * Returns the statistics of every operation, sorted by name.
+     */
+    List<OperationStatistics> getStatistics();
+
+    /**
+     * Returns the statistics of one operation, or null if it was never recorded.
+     */
+    OperationStatistics getOperationStatistics(String name);
+
+    /**
+     * Clears the histograms of all operations.
+     */
+    void reset();
+
+    /**
+     * Clears the histogram of one operation.
+     */
+    void resetOperation(String name);
+}
@@ -0,0 +1,68 @@
+package com.calculator.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Call count and latency percentiles of one operation, in microseconds.
+ */
+public class OperationStatistics {
+    private final String name;
+    private final long count;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p90Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+
+    @ConstructorProperties({"name", "count", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "maxMicros"})
+    public OperationStatistics(String name, long count, double meanMicros, double p50Micros,
+                               double p90Micros, double p99Micros, double maxMicros) {
+        this.name = name;
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    static OperationStatistics of(String name, LatencyHistogram.Snapshot snapshot) {
+        return new OperationStatistics(name, snapshot.getCount(), snapshot.getMeanNanos() / 1e3,
+            snapshot.getPercentileNanos(0.50) / 1e3, snapshot.getPercentileNanos(0.90) / 1e3,
+            snapshot.getPercentileNanos(0.99) / 1e3, snapshot.getMaxNanos() / 1e3);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP90Micros() {
+        return p90Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls, mean %.3f µs, p50 %.3f µs, p90 %.3f µs, p99 %.3f µs, max %.3f µs",
+            name, count, meanMicros, p50Micros, p90Micros, p99Micros, maxMicros);
+    }
+}
@@ -0,0 +1,413 @@
+package com.calculator.precision;
+
+import com.calculator.scientific.GammaFunction;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Arbitrary-precision versions of the calculator operations.
+ *
+ * <p>Results are rounded to the given MathContext. Intermediate values carry extra guard
+ * digits so the rounded result is accurate to the requested precision. The basic operators
+ * take an exact fast path when both operands are integers of at most 15 digits and the
+ * result is exactly representable as a double, which avoids BigDecimal rounding and
+ * long division in the common case.
+ */
+public final class BigDecimalMath {
+    private static final int GUARD_DIGITS = 10;
+    private static final int FAST_PATH_DIGITS = 15;
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final BigDecimal THREE_SIXTY = BigDecimal.valueOf(360);
+    private static final BigDecimal ONE_EIGHTY = BigDecimal.valueOf(180);
+    private static final BigDecimal NINETY = BigDecimal.valueOf(90);
+    private static final BigDecimal ONE_THIRTY_FIVE = BigDecimal.valueOf(135);
+    private static final BigDecimal FORTY_FIVE = BigDecimal.valueOf(45);
+    private static final BigDecimal THIRTY = BigDecimal.valueOf(30);
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    private static final Map<Integer, BigDecimal> PI_CACHE = new ConcurrentHashMap<>();
+    private static final Map<Integer, BigDecimal> LN10_CACHE = new ConcurrentHashMap<>();
+
+    private BigDecimalMath() {
+    }
+
+    // Basic operators
+
+    public static BigDecimal add(BigDecimal a, BigDecimal b, MathContext mc) {
+        if (isSmallInteger(a) && isSmallInteger(b)) {
+            long sum = a.longValue() + b.longValue();
+            if (Math.abs(sum) < MAX_EXACT_DOUBLE) {
+                return BigDecimal.valueOf(sum).round(mc);
+            }
+        }
+        return a.add(b, mc);
+    }
+
+    public static BigDecimal subtract(BigDecimal a, BigDecimal b, MathContext mc) {
+        if (isSmallInteger(a) && isSmallInteger(b)) {
+            long difference = a.longValue() - b.longValue();
+            if (Math.abs(difference) < MAX_EXACT_DOUBLE) {
+                return BigDecimal.valueOf(difference).round(mc);
+            }
+        }
+        return a.subtract(b, mc);
+    }
+
+    public static BigDecimal multiply(BigDecimal a, BigDecimal b, MathContext mc) {
+        if (isSmallInteger(a) && isSmallInteger(b)) {
+            double product = (double) a.longValue() * b.longValue();
+            if (Math.abs(product) < MAX_EXACT_DOUBLE) {
+                return BigDecimal.valueOf((long) product).round(mc);
+            }
+        }
+        return a.multiply(b, mc);
+    }
+
+    /**
+     * @throws ArithmeticException if the divisor is zero
+     */
+    public static BigDecimal divide(BigDecimal a, BigDecimal b, MathContext mc) {
+        if (b.signum() == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (isSmallInteger(a) && isSmallInteger(b)) {
+            double dividend = a.longValue();
+            double divisor = b.longValue();
+            double quotient = dividend / divisor;
+            // The residual of a correctly rounded quotient is exact, so zero means no rounding happened
+            if (Math.fma(-quotient, divisor, dividend) == 0) {
+                return new BigDecimal(quotient).round(mc);
+            }
+        }
+        return a.divide(b, mc);
+    }
+
+    /**
+     * Remainder with the sign of the dividend, like the double % operator.
+     * @throws ArithmeticException if the divisor is zero
+     */
+    public static BigDecimal remainder(BigDecimal a, BigDecimal b, MathContext mc) {
+        if (b.signum() == 0) {
+            throw new ArithmeticException("Modulo by zero");
+        }
+        if (isSmallInteger(a) && isSmallInteger(b)) {
+            return BigDecimal.valueOf(a.longValue() % b.longValue());
+        }
+        return a.remainder(b, mc);
+    }
+
+    private static boolean isSmallInteger(BigDecimal value) {
+        return value.scale() == 0 && value.precision() <= FAST_PATH_DIGITS;
+    }
+
+    // Powers and roots
+
+    /**
+     * @throws ArithmeticException if the value is negative
+     */
+    public static BigDecimal sqrt(BigDecimal x, MathContext mc) {
+        if (x.signum() < 0) {
+            throw new ArithmeticException("Invalid input for square root");
+        }
+        return x.sqrt(mc);
+    }
+
+    /**
+     * Raises base to the given exponent. Integer exponents are computed by repeated
+     * multiplication, other exponents as exp(exponent * ln(base)).
+     * @throws ArithmeticException for 0^0, 0 to a negative power, or a negative base
+     *         with a non-integer exponent
+     */
+    public static BigDecimal pow(BigDecimal base, BigDecimal exponent, MathContext mc) {
+        if (base.signum() == 0) {
+            if (exponent.signum() == 0) {
+                throw new ArithmeticException("0^0 is undefined");
+            }
+            if (exponent.signum() < 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            return BigDecimal.ZERO;
+        }
+        if (isInteger(exponent) && exponent.abs().compareTo(BigDecimal.valueOf(999_999_999)) <= 0) {
+            int n = exponent.intValueExact();
+            MathContext working = new MathContext(mc.getPrecision() + GUARD_DIGITS + digits(n));
+            return base.pow(n, working).round(mc);
+        }
+        if (base.signum() < 0) {
+            throw new ArithmeticException("Invalid input for power");
+        }
+        MathContext working = working(mc);
+        return exp(exponent.multiply(ln(base, working), working), working).round(mc);
+    }
+
+    // Exponentials and logarithms
+
+    public static BigDecimal exp(BigDecimal x, MathContext mc) {
+        if (x.signum() == 0) {
+            return BigDecimal.ONE;
+        }
+        if (x.signum() < 0) {
+            MathContext working = working(mc);
+            return BigDecimal.ONE.divide(exp(x.negate(), working), mc);
+        }
+        BigDecimal integerPart = x.setScale(0, RoundingMode.DOWN);
+        if (integerPart.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0) {
+            throw new ArithmeticException("Overflow");
+        }
+        int n = integerPart.intValue();
+        // e^n amplifies the relative error of e by n, so carry that many more digits
+        MathContext working = new MathContext(mc.getPrecision() + GUARD_DIGITS + digits(n));
+        BigDecimal fractionalExp = expTaylor(x.subtract(integerPart), working);
+        if (n == 0) {
+            return fractionalExp.round(mc);
+        }
+        BigDecimal e = expTaylor(BigDecimal.ONE, working);
+        return e.pow(n, working).multiply(fractionalExp, working).round(mc);
+    }
+
+    /**
+     * Taylor series of e^x, intended for 0 <= x <= 1.
+     */
+    private static BigDecimal expTaylor(BigDecimal x, MathContext mc) {
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal term = BigDecimal.ONE;
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(mc.getPrecision() + 1);
+        for (int k = 1; ; k++) {
+            term = term.multiply(x, mc).divide(BigDecimal.valueOf(k), mc);
+            sum = sum.add(term, mc);
+            if (term.abs().compareTo(epsilon) < 0) {
+                return sum;
+            }
+        }
+    }
+
+    /**
+     * Natural logarithm.
+     * @throws ArithmeticException if the value is not positive
+     */
+    public static BigDecimal ln(BigDecimal x, MathContext mc) {
+        if (x.signum() <= 0) {
+            throw new ArithmeticException("Invalid input for natural logarithm");
+        }
+        if (x.compareTo(BigDecimal.ONE) == 0) {
+            return BigDecimal.ZERO;
+        }
+        MathContext working = working(mc);
+        // x = m * 10^k with 1 <= m < 10
+        int k = x.precision() - x.scale() - 1;
+        BigDecimal mantissa = x.movePointLeft(k);
+        BigDecimal result = lnReduced(mantissa, working);
+        if (k != 0) {
+            result = result.add(ln10(working).multiply(BigDecimal.valueOf(k), working), working);
+        }
+        return result.round(mc);
+    }
+
+    /**
+     * Base-10 logarithm. Exact for powers of ten.
+     * @throws ArithmeticException if the value is not positive
+     */
+    public static BigDecimal log10(BigDecimal x, MathContext mc) {
+        if (x.signum() <= 0) {
+            throw new ArithmeticException("Invalid input for logarithm");
+        }
+        BigDecimal stripped = x.stripTrailingZeros();
+        if (stripped.unscaledValue().equals(BigInteger.ONE)) {
+            return BigDecimal.valueOf(-stripped.scale());
+        }
+        MathContext working = working(mc);
+        return ln(x, working).divide(ln10(working), mc);
+    }
+
+    private static BigDecimal ln10(MathContext mc) {
+        return LN10_CACHE.computeIfAbsent(mc.getPrecision(),
+            precision -> lnReduced(BigDecimal.TEN, mc));
+    }
+
+    /**
+     * ln(m) for a moderate positive m, computed as 2^t ln(m^(1/2^t)) so the
+     * atanh series converges quickly.
+     */
+    private static BigDecimal lnReduced(BigDecimal m, MathContext mc) {
+        int halvings = 5;
+        MathContext working = new MathContext(mc.getPrecision() + halvings);
+        BigDecimal root = m;
+        for (int i = 0; i < halvings; i++) {
+            root = root.sqrt(working);
+        }
+        // ln(r) = 2 * atanh(s) with s = (r - 1) / (r + 1)
+        BigDecimal s = root.subtract(BigDecimal.ONE).divide(root.add(BigDecimal.ONE), working);
+        BigDecimal s2 = s.multiply(s, working);
+        BigDecimal power = s;
+        BigDecimal sum = s;
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(working.getPrecision() + 1);
+        for (int k = 3; ; k += 2) {
+            power = power.multiply(s2, working);
+            BigDecimal term = power.divide(BigDecimal.valueOf(k), working);
+            sum = sum.add(term, working);
+            if (term.abs().compareTo(epsilon) < 0) {
+                break;
+            }
+        }
+        return sum.multiply(BigDecimal.valueOf(2L << halvings), working);
+    }
+
+    // Trigonometry (degrees)
+
+    /**
+     * Sine of an angle in degrees. Exact for multiples of 30 and 90 degrees.
+     */
+    public static BigDecimal sinDegrees(BigDecimal degrees, MathContext mc) {
+        BigDecimal angle = degrees.remainder(THREE_SIXTY);
+        if (angle.signum() < 0) {
+            angle = angle.add(THREE_SIXTY);
+        }
+        boolean negative = false;
+        if (angle.compareTo(ONE_EIGHTY) >= 0) {
+            angle = angle.subtract(ONE_EIGHTY);
+            negative = true;
+        }
+        if (angle.compareTo(NINETY) > 0) {
+            angle = ONE_EIGHTY.subtract(angle);
+        }
+        // angle is now in [0, 90]
+        BigDecimal result;
+        if (angle.signum() == 0) {
+            return BigDecimal.ZERO;
+        } else if (angle.compareTo(THIRTY) == 0) {
+            result = HALF;
+        } else if (angle.compareTo(NINETY) == 0) {
+            result = BigDecimal.ONE;
+        } else {
+            MathContext working = working(mc);
+            if (angle.compareTo(FORTY_FIVE) <= 0) {
+                result = sinTaylor(toRadians(angle, working), working);
+            } else {
+                result = cosTaylor(toRadians(NINETY.subtract(angle), working), working);
+            }
+        }
+        return (negative ? result.negate() : result).round(mc);
+    }
+
+    /**
+     * Cosine of an angle in degrees. Exact for multiples of 60 and 90 degrees.
+     */
+    public static BigDecimal cosDegrees(BigDecimal degrees, MathContext mc) {
+        return sinDegrees(degrees.add(NINETY), mc);
+    }
+
+    /**
+     * Tangent of an angle in degrees. Exact for multiples of 45 degrees.
+     * @throws ArithmeticException for odd multiples of 90 degrees
+     */
+    public static BigDecimal tanDegrees(BigDecimal degrees, MathContext mc) {
+        BigDecimal angle = degrees.remainder(ONE_EIGHTY);
+        if (angle.signum() < 0) {
+            angle = angle.add(ONE_EIGHTY);
+        }
+        if (angle.signum() == 0) {
+            return BigDecimal.ZERO;
+        } else if (angle.compareTo(FORTY_FIVE) == 0) {
+            return BigDecimal.ONE;
+        } else if (angle.compareTo(NINETY) == 0) {
+            throw new ArithmeticException("Invalid input for tangent");
+        } else if (angle.compareTo(ONE_THIRTY_FIVE) == 0) {
+            return BigDecimal.ONE.negate();
+        }
+        MathContext working = working(mc);
+        return sinDegrees(angle, working).divide(cosDegrees(angle, working), mc);
+    }
+
+    private static BigDecimal toRadians(BigDecimal degrees, MathContext mc) {
+        return degrees.multiply(pi(mc), mc).divide(ONE_EIGHTY, mc);
+    }
+
+    private static BigDecimal sinTaylor(BigDecimal x, MathContext mc) {
+        BigDecimal x2 = x.multiply(x, mc);
+        BigDecimal term = x;
+        BigDecimal sum = x;
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(mc.getPrecision() + 1);
+        for (int k = 1; term.abs().compareTo(epsilon) >= 0; k++) {
+            term = term.multiply(x2, mc).divide(BigDecimal.valueOf((2L * k) * (2L * k + 1)), mc).negate();
+            sum = sum.add(term, mc);
+        }
+        return sum;
+    }
+
+    private static BigDecimal cosTaylor(BigDecimal x, MathContext mc) {
+        BigDecimal x2 = x.multiply(x, mc);
+        BigDecimal term = BigDecimal.ONE;
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(mc.getPrecision() + 1);
+        for (int k = 1; term.abs().compareTo(epsilon) >= 0; k++) {
+            term = term.multiply(x2, mc).divide(BigDecimal.valueOf((2L * k - 1) * (2L * k)), mc).negate();
+            sum = sum.add(term, mc);
+        }
+        return sum;
+    }
+
+    /**
+     * π to the given precision, from Machin's formula π = 16 atan(1/5) - 4 atan(1/239).
+     */
+    public static BigDecimal pi(MathContext mc) {
+        return PI_CACHE.computeIfAbsent(mc.getPrecision(), precision -> {
+            MathContext working = working(mc);
+            BigDecimal pi = arctanReciprocal(5, working).multiply(BigDecimal.valueOf(16))
+                .subtract(arctanReciprocal(239, working).multiply(BigDecimal.valueOf(4)));
+            return pi.round(mc);
+        });
+    }
+
+    /**
+     * Euler's number to the given precision.
+     */
+    public static BigDecimal e(MathContext mc) {
+        return expTaylor(BigDecimal.ONE, working(mc)).round(mc);
+    }
+
+    private static BigDecimal arctanReciprocal(int n, MathContext mc) {
+        BigDecimal nSquared = BigDecimal.valueOf((long) n * n);
+        BigDecimal power = BigDecimal.ONE.divide(BigDecimal.valueOf(n), mc);
+        BigDecimal sum = power;
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(mc.getPrecision() + 1);
+        for (int k = 1; power.compareTo(epsilon) >= 0; k++) {
+            power = power.divide(nSquared, mc);
+            BigDecimal term = power.divide(BigDecimal.valueOf(2L * k + 1), mc);
+            sum = (k % 2 == 0) ? sum.add(term, mc) : sum.subtract(term, mc);
+        }
+        return sum;
+    }
+
+    // Factorial
+
+    /**
+     * Exact factorial of a non-negative integer.
+     * @throws ArithmeticException for negative, non-integer or too large input
+     */
+    public static BigDecimal factorial(BigDecimal n) {
+        if (n.signum() < 0 || !isInteger(n)) {
+            throw new ArithmeticException("Invalid input for factorial");
+        }
+        if (n.compareTo(BigDecimal.valueOf(GammaFunction.MAX_EXACT_FACTORIAL)) > 0) {
+            throw new ArithmeticException("Number too large for factorial");
+        }
+        return new BigDecimal(GammaFunction.exactFactorial(n.intValueExact()));
+    }
+
+    private static boolean isInteger(BigDecimal value) {
+        return value.signum() == 0 || value.scale() <= 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    private static MathContext working(MathContext mc) {
+        return new MathContext(mc.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+    }
+
+    private static int digits(int n) {
+        return Integer.toString(Math.abs(n)).length();
+    }
+}
@@ -0,0 +1,314 @@
+package com.calculator.scientific;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Polynomial and table based versions of the calculator's scientific functions, used by
+ * the opt-in fast-math mode.
+ *
+ * <p>Trigonometric functions take degrees. The argument is reduced once, exactly, to
+ * r in [-45°, 45°] plus a quadrant, and r is converted to radians as a double-double
+ * and evaluated with Taylor polynomials. Multiples of 15° are looked up in a table, so
+ * sin 30° is exactly 0.5, tan 45° is exactly 1, sin 90° is exactly 1, and sin 15°,
+ * cos 30°, tan 60° and the like are the correctly rounded values.
+ * exp reduces by multiples of ln2/32 and combines a table of 2^(j/32) with a short
+ * polynomial. pow uses double-double multiplication for integer exponents up to 64 and
+ * {@link Math#pow} otherwise. There is no fast logarithm: the JDK's log, log10 and
+ * real-exponent pow intrinsics are already faster than a portable polynomial.
+ *
+ * <p>Maximum errors measured against a 40-digit reference on 30,000 random arguments
+ * per function (observed, not proven bounds); {@link Math} itself stays within 0.51 ulp:
+ * <pre>
+ *   sinDegrees, cosDegrees   1 ulp     |x| <= 360
+ *   tanDegrees               2.1 ulp   |x| <= 360
+ *   exp                      0.53 ulp
+ *   pow                      0.5 ulp   integer |y| <= 64
+ * </pre>
+ * Special values (NaN, infinities, overflowing and subnormal results) are delegated to
+ * {@link Math}. The double-double arithmetic relies on {@link Math#fma},
+ * which is only fast on hardware with fused multiply-add.
+ */
+public final class FastMath {
+    // π/180 as a double-double
+    private static final double DEGREES_TO_RADIANS = 0.017453292519943295;
+    private static final double DEGREES_TO_RADIANS_LOW = 2.9486522708701687e-19;
+    // Beyond this, q × 90 is no longer exact; such arguments are reduced modulo 360 first
+    private static final double MAX_DIRECT_DEGREES = 0x1p46;
+
+    // sin, cos and tan of -45°, -30°, ..., 45°
+    private static final double SIN_15 = 0.2588190451025207623488988376240483;
+    private static final double SIN_30 = 0.5;
+    private static final double SIN_45 = 0.7071067811865475244008443621048490;
+    private static final double COS_15 = 0.9659258262890682867497431997288974;
+    private static final double COS_30 = 0.8660254037844386467637231707529362;
+    private static final double TAN_15 = 0.2679491924311227064725536584941276;
+    private static final double TAN_30 = 0.5773502691896257645091487805019575;
+    private static final double TAN_60 = 1.732050807568877293527446341505872;
+    private static final double TAN_75 = 3.732050807568877293527446341505872;
+    private static final double[] SIN_TABLE = {-SIN_45, -SIN_30, -SIN_15, 0, SIN_15, SIN_30, SIN_45};
+    private static final double[] COS_TABLE = {SIN_45, COS_30, COS_15, 1, COS_15, COS_30, SIN_45};
+    private static final double[] TAN_TABLE = {-1, -TAN_30, -TAN_15, 0, TAN_15, TAN_30, 1};
+    // cot(0°) is taken as -∞ so that tan 90° = -cot 0° comes out as +∞
+    private static final double[] COT_TABLE = {-1, -TAN_60, -TAN_75, Double.NEGATIVE_INFINITY, TAN_75, TAN_60, 1};
+
+    // Taylor coefficients of sin and cos
+    private static final double S1 = -1.0 / 6;
+    private static final double S2 = 1.0 / 120;
+    private static final double S3 = -1.0 / 5040;
+    private static final double S4 = 1.0 / 362880;
+    private static final double S5 = -1.0 / 39916800;
+    private static final double S6 = 1.0 / 6227020800L;
+    private static final double S7 = -1.0 / 1307674368000L;
+    private static final double C2 = 1.0 / 24;
+    private static final double C3 = -1.0 / 720;
+    private static final double C4 = 1.0 / 40320;
+    private static final double C5 = -1.0 / 3628800;
+    private static final double C6 = 1.0 / 479001600;
+    private static final double C7 = -1.0 / 87178291200L;
+    private static final double C8 = 1.0 / 20922789888000L;
+
+    // ln 2 split so that k × LN2_HI is exact for |k| < 2^20
+    private static final double LN2_HI = 6.93147180369123816490e-01;
+    private static final double LN2_LO = 1.90821492927058770002e-10;
+    private static final double INV_LN2 = 1.44269504088896338700e+00;
+
+    // exp(x) is finite for x below this, and normal for x above the lower limit
+    private static final double EXP_OVERFLOW = 709.782712893384;
+    private static final double EXP_MIN_NORMAL = -708.3964185322641;
+
+    // 2^(j/32) for j = 0..31 as double-doubles
+    private static final int EXP_TABLE_SIZE = 32;
+    private static final double[] EXP_TABLE_HIGH = new double[EXP_TABLE_SIZE];
+    private static final double[] EXP_TABLE_LOW = new double[EXP_TABLE_SIZE];
+
+    private static final int MAX_INTEGER_EXPONENT = 64;
+
+    static {
+        MathContext context = new MathContext(40);
+        BigDecimal root = BigDecimal.valueOf(2);
+        for (int i = 0; i < 5; i++) {
+            root = root.sqrt(context);
+        }
+        BigDecimal power = BigDecimal.ONE;
+        for (int j = 0; j < EXP_TABLE_SIZE; j++) {
+            EXP_TABLE_HIGH[j] = power.doubleValue();
+            EXP_TABLE_LOW[j] = power.subtract(new BigDecimal(EXP_TABLE_HIGH[j])).doubleValue();
+            power = power.multiply(root, context);
+        }
+    }
+
+    private FastMath() {
+    }
+
+    // Trigonometry in degrees
+
+    public static double sinDegrees(double degrees) {
+        if (degrees == 0 || !Double.isFinite(degrees)) {
+            return degrees == 0 ? degrees : Double.NaN;
+        }
+        double reduced = reduceLarge(degrees);
+        double q = Math.rint(reduced * (1.0 / 90));
+        double r = reduced - q * 90;
+        double result = switch (quadrant(q)) {
+            case 0 -> sinReduced(r);
+            case 1 -> cosReduced(r);
+            case 2 -> -sinReduced(r);
+            default -> -cosReduced(r);
+        };
+        // Zeros at nonzero multiples of 180° may come out as -0.0, which displays as "-0"
+        return result + 0.0;
+    }
+
+    public static double cosDegrees(double degrees) {
+        if (!Double.isFinite(degrees)) {
+            return Double.NaN;
+        }
+        double reduced = reduceLarge(degrees);
+        double q = Math.rint(reduced * (1.0 / 90));
+        double r = reduced - q * 90;
+        double result = switch (quadrant(q)) {
+            case 0 -> cosReduced(r);
+            case 1 -> -sinReduced(r);
+            case 2 -> -cosReduced(r);
+            default -> sinReduced(r);
+        };
+        // Zeros at odd multiples of 90° may come out as -0.0, which displays as "-0"
+        return result + 0.0;
+    }
+
+    /**
+     * Returns tan of an angle in degrees; positive infinity at odd multiples of 90°.
+     */
+    public static double tanDegrees(double degrees) {
+        if (degrees == 0 || !Double.isFinite(degrees)) {
+            return degrees == 0 ? degrees : Double.NaN;
+        }
+        double reduced = reduceLarge(degrees);
+        double q = Math.rint(reduced * (1.0 / 90));
+        double r = reduced - q * 90;
+        boolean odd = (quadrant(q) & 1) == 1;
+        int index = tableIndex(r);
+        if (index >= 0) {
+            return odd ? -COT_TABLE[index] : TAN_TABLE[index];
+        }
+        double x = r * DEGREES_TO_RADIANS;
+        double low = radiansLow(r, x);
+        double sin = sinPolynomial(x, low);
+        double cos = cosPolynomial(x, low);
+        return odd ? -cos / sin : sin / cos;
+    }
+
+    // Exponentials and powers
+
+    public static double exp(double x) {
+        if (!(x > EXP_MIN_NORMAL && x < EXP_OVERFLOW)) {
+            return Math.exp(x);
+        }
+        return expKernel(x, 0);
+    }
+
+    /**
+     * Returns x raised to the power y with the special cases of {@link Math#pow}.
+     */
+    public static double pow(double x, double y) {
+        if (y == Math.rint(y) && Math.abs(y) <= MAX_INTEGER_EXPONENT && Double.isFinite(x) && x != 0) {
+            return powInteger(x, (int) y);
+        }
+        return Math.pow(x, y);
+    }
+
+    /**
+     * Reduces huge angles modulo 360° so that q × 90 stays exact.
+     */
+    private static double reduceLarge(double degrees) {
+        return Math.abs(degrees) < MAX_DIRECT_DEGREES ? degrees : Math.IEEEremainder(degrees, 360);
+    }
+
+    private static int quadrant(double q) {
+        return (int) ((long) q & 3);
+    }
+
+    /**
+     * Index into the 15° tables if r is a multiple of 15°, otherwise -1.
+     */
+    private static int tableIndex(double r) {
+        int degrees = (int) r;
+        return degrees == r && degrees % 15 == 0 ? degrees / 15 + 3 : -1;
+    }
+
+    private static double sinReduced(double r) {
+        int index = tableIndex(r);
+        if (index >= 0) {
+            return SIN_TABLE[index];
+        }
+        double x = r * DEGREES_TO_RADIANS;
+        return sinPolynomial(x, radiansLow(r, x));
+    }
+
+    private static double cosReduced(double r) {
+        int index = tableIndex(r);
+        if (index >= 0) {
+            return COS_TABLE[index];
+        }
+        double x = r * DEGREES_TO_RADIANS;
+        return cosPolynomial(x, radiansLow(r, x));
+    }
+
+    /**
+     * Rounding error of x = r × π/180, so that x + low is r in radians to about 2^-100.
+     */
+    private static double radiansLow(double r, double x) {
+        return Math.fma(r, DEGREES_TO_RADIANS, -x) + r * DEGREES_TO_RADIANS_LOW;
+    }
+
+    /**
+     * sin(x + low) for |x| <= π/4, using sin(x + low) ≈ sin x + low × cos x.
+     */
+    private static double sinPolynomial(double x, double low) {
+        double z = x * x;
+        double z2 = z * z;
+        double tail = x * z * ((S1 + z * S2) + z2 * ((S3 + z * S4) + z2 * ((S5 + z * S6) + z2 * S7)));
+        return x + (tail + low * (1 - 0.5 * z));
+    }
+
+    /**
+     * cos(x + low) for |x| <= π/4, using cos(x + low) ≈ cos x - low × sin x.
+     */
+    private static double cosPolynomial(double x, double low) {
+        double z = x * x;
+        double half = 0.5 * z;
+        double z2 = z * z;
+        double tail = z2 * ((C2 + z * C3) + z2 * ((C4 + z * C5) + z2 * ((C6 + z * C7) + z2 * C8)));
+        // Keep the rounding error of 1 - z/2, which is up to half an ulp of the result
+        double w = 1 - half;
+        double halfLow = Math.fma(0.5 * x, x, -half);
+        return w + ((((1 - w) - half) - halfLow) + (tail - low * x));
+    }
+
+    /**
+     * e^(hi + lo) for hi within the normal range of exp and |lo| much smaller than ulp(hi).
+     */
+    private static double expKernel(double hi, double lo) {
+        // hi + lo = (32n + j) ln2/32 + r with |r| <= ln2/64
+        double k = Math.rint(hi * (EXP_TABLE_SIZE * INV_LN2));
+        double r = (hi - k * (LN2_HI / EXP_TABLE_SIZE)) - (k * (LN2_LO / EXP_TABLE_SIZE) - lo);
+        int bits = (int) k;
+        int j = bits & (EXP_TABLE_SIZE - 1);
+        int n = bits >> 5;
+
+        // e^r - 1, Estrin's scheme to shorten the dependency chain
+        double r2 = r * r;
+        double p = r + r2 * ((0.5 + r * (1.0 / 6)) + r2 * ((1.0 / 24 + r * (1.0 / 120)) + r2 * (1.0 / 720)));
+        double high = EXP_TABLE_HIGH[j];
+        double value = high + (EXP_TABLE_LOW[j] + high * p);
+        if (n > 1023) {
+            return value * 2 * twoPower(n - 1);
+        }
+        return value * twoPower(n);
+    }
+
+    private static double twoPower(int n) {
+        return Double.longBitsToDouble((long) (n + 1023) << 52);
+    }
+
+    /**
+     * x^n by binary exponentiation in double-double arithmetic, exact whenever the
+     * result is representable.
+     */
+    private static double powInteger(double x, int n) {
+        int remaining = Math.abs(n);
+        double resultHigh = 1;
+        double resultLow = 0;
+        double baseHigh = x;
+        double baseLow = 0;
+        while (remaining > 0) {
+            if ((remaining & 1) == 1) {
+                double high = resultHigh * baseHigh;
+                double low = Math.fma(resultHigh, baseHigh, -high) + (resultHigh * baseLow + resultLow * baseHigh);
+                resultHigh = high + low;
+                resultLow = low - (resultHigh - high);
+            }
+            remaining >>= 1;
+            if (remaining > 0) {
+                double high = baseHigh * baseHigh;
+                double low = Math.fma(baseHigh, baseHigh, -high) + 2 * baseHigh * baseLow;
+                baseHigh = high + low;
+                baseLow = low - (baseHigh - high);
+            }
+        }
+        if (!(Math.abs(resultHigh) >= Double.MIN_NORMAL && Math.abs(resultHigh) <= Double.MAX_VALUE)) {
+            return Math.pow(x, n); // Overflow or underflow on the way
+        }
+        if (n >= 0) {
+            return resultHigh + resultLow;
+        }
+        // 1 / (high + low) with one Newton correction
+        double quotient = 1 / resultHigh;
+        if (Math.abs(quotient) < Double.MIN_NORMAL) {
+            return Math.pow(x, n);
+        }
+        double residual = Math.fma(-quotient, resultHigh, 1) - quotient * resultLow;
+        return quotient + quotient * residual;
+    }
+}
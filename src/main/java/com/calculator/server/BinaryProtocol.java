@@ -0,0 +1,143 @@
+package com.calculator.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format of the binary request protocol served by {@link UnixSocketServer}.
+ *
+ * <p>All integers and doubles are little-endian. Every message is a frame:
+ * <pre>
+ *   request:  int32 length | int32 id | uint8 opcode | operands
+ *   response: int32 length | int32 id | uint8 status | result
+ * </pre>
+ * where length counts the bytes after the length field. Numeric operands and results are
+ * raw 8-byte doubles or longs; strings are a uint16 byte count followed by UTF-8. A
+ * failed request answers with a non-OK status and the error message as a string.
+ *
+ * <p>Clients may pipeline: any number of requests can be written without waiting, and
+ * responses come back in request order. The server answers every request it has received
+ * before writing, so a pipelined burst is usually answered with a single write.
+ */
+public final class BinaryProtocol {
+    public static final int STATUS_OK = 0;
+    /** The operation is outside its domain, e.g. division by zero. */
+    public static final int STATUS_ARITHMETIC_ERROR = 1;
+    /** The request is malformed or names an unknown operation or unit. */
+    public static final int STATUS_BAD_REQUEST = 2;
+    /** The server failed unexpectedly while answering the request. */
+    public static final int STATUS_INTERNAL_ERROR = 3;
+
+    /** Largest accepted frame, excluding the length field. */
+    public static final int MAX_FRAME_LENGTH = 1024 * 1024;
+    static final int HEADER_LENGTH = 4 + 4 + 1;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    /**
+     * Operations and their operand and result layouts.
+     */
+    public enum Opcode {
+        // double a, double b -> double, as CalculatorModel's operators and xʸ
+        ADD(0x01),
+        SUBTRACT(0x02),
+        MULTIPLY(0x03),
+        DIVIDE(0x04),
+        MODULO(0x05),
+        POWER(0x06),
+        // double x -> double, as CalculatorModel's functions
+        SIN(0x10),
+        COS(0x11),
+        TAN(0x12),
+        LOG(0x13),
+        LN(0x14),
+        SQRT(0x15),
+        SQUARE(0x16),
+        CUBE(0x17),
+        RECIPROCAL(0x18),
+        FACTORIAL(0x19),
+        /** string expression, uint16 count, count × double -> double; variables are x0, x1, ... */
+        EVALUATE(0x20),
+        /** string category, string from, string to, double value -> double */
+        CONVERT_UNIT(0x30),
+        /** long fromBase, long toBase, string number -> string */
+        CONVERT_BASE(0x40),
+        // long a, long b -> long (NOT takes only a; shifts take the bit count as b)
+        AND(0x41),
+        OR(0x42),
+        XOR(0x43),
+        NOT(0x44),
+        LEFT_SHIFT(0x45),
+        RIGHT_SHIFT(0x46),
+        UNSIGNED_RIGHT_SHIFT(0x47),
+        /** double principal, double annualRate, long years -> double */
+        LOAN_PAYMENT(0x50),
+        /** double principal, double annualRate, long years, long compoundingPerYear -> double */
+        COMPOUND_INTEREST(0x51),
+        /** double principal, double annualRate, long years -> double */
+        CONTINUOUS_INTEREST(0x52),
+        /** double futureValue, double annualRate, long years -> double */
+        PRESENT_VALUE(0x53),
+        /** double presentValue, double annualRate, long years -> double */
+        FUTURE_VALUE(0x54),
+        /** double principal, double annualRate, long years, double downPayment
+         *  -> double monthlyPayment, double totalPayment, double totalInterest */
+        MORTGAGE(0x55),
+        /** double faceValue, double couponRate, double marketRate, long years, long paymentsPerYear
+         *  -> double price, double yield, double duration, double convexity */
+        BOND(0x56);
+
+        private static final Opcode[] BY_CODE = new Opcode[256];
+
+        static {
+            for (Opcode opcode : values()) {
+                BY_CODE[opcode.code] = opcode;
+            }
+        }
+
+        private final int code;
+
+        Opcode(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        /**
+         * Returns the opcode with the given wire value, or null.
+         */
+        public static Opcode forCode(int code) {
+            return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        }
+    }
+
+    private BinaryProtocol() {
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String exceeds " + MAX_STRING_BYTES + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Truncated string");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Upper bound on the encoded size of a string.
+     */
+    static int stringLength(String value) {
+        return 2 + 3 * value.length();
+    }
+}
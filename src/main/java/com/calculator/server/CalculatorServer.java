@@ -0,0 +1,495 @@
+package com.calculator.server;
+
+import com.calculator.conversion.UnitConverter;
+import com.calculator.expression.CompiledExpression;
+import com.calculator.expression.Expression;
+import com.calculator.financial.FinancialCalculator;
+import com.calculator.metrics.OperationMetrics;
+import com.calculator.programmer.ProgrammerCalculator;
+import com.calculator.programmer.ProgrammerCalculator.NumberSystem;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless HTTP/JSON service for the calculator engines, bound to the loopback interface.
+ *
+ * <p>Endpoints take a POST body with one JSON request object, or an array of them to batch
+ * several requests into one round trip:
+ * <ul>
+ *   <li>{@code /evaluate}: {@code {"expression": "x^2+1", "variables": {"x": 3}, "fastMath": false}}</li>
+ *   <li>{@code /convert}: {@code {"category": "length", "value": 1, "from": "mi", "to": "km"}};
+ *       temperatures use C, F and K, speeds units such as {@code "km/h"}</li>
+ *   <li>{@code /base}: {@code {"number": "FF", "from": 16, "to": 2}}</li>
+ *   <li>{@code /financial}: {@code {"function": "loanPayment", "principal": 1000, "annualRate": 5,
+ *       "years": 10}}; see {@link #financial(Map)} for the functions</li>
+ *   <li>{@code GET /health}</li>
+ * </ul>
+ * A single request answers {@code {"result": ...}}, or an object of named values for
+ * functions with several outputs, with status 400 for malformed requests, 422 for
+ * calculation errors and 500 for anything unexpected. A batch answers
+ * {@code {"results": [...]}} with an {@code {"error": ...}} entry in place of each failed
+ * request.
+ *
+ * <p>Each request runs on its own thread from a cached pool and has a compute budget,
+ * 1 second by default or the value of the {@code X-Compute-Budget-Ms} header. Batches stop
+ * at the budget; the remaining entries fail with "Compute budget exceeded". A single entry
+ * is bounded by the size limits instead: expressions are limited in length, nesting depth
+ * and tree height, and compile to a DAG evaluated in time linear in their length, and
+ * financial terms are limited in periods. Responses have a fixed length so connections are
+ * kept alive between requests.
+ *
+ * <p>Usage: {@code CalculatorServer [--port n] [--budget-ms n]}
+ */
+public final class CalculatorServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+    private static final long DEFAULT_BUDGET_MILLIS = 1000;
+    private static final long MAX_BUDGET_MILLIS = 30_000;
+    private static final String BUDGET_HEADER = "X-Compute-Budget-Ms";
+    private static final int MAX_BODY_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_EXPRESSION_LENGTH = 10_000;
+    // Upper bound on payment periods, which size the amortization loops
+    private static final int MAX_PERIODS = 12_000;
+    private static final int MAX_COMPILED_EXPRESSIONS = 10_000;
+    private static final String INTERNAL_ERROR = "Internal error";
+    private static final String BASE_REQUIRED = "Base must be 2, 8, 10, 16 or a number system name";
+
+    static {
+        // Without TCP_NODELAY, small responses wait for the client's delayed ACK (about 40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Handles one request object of an endpoint.
+     */
+    @FunctionalInterface
+    private interface Operation {
+        Object apply(Map<String, Object> request);
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long defaultBudgetNanos;
+    private final Map<String, CompiledExpression> compiledExpressions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a server on 127.0.0.1; port 0 picks a free port.
+     */
+    public CalculatorServer(int port, long defaultBudgetMillis) throws IOException {
+        if (defaultBudgetMillis < 1) {
+            throw new IllegalArgumentException("Compute budget must be positive");
+        }
+        this.defaultBudgetNanos = Math.min(defaultBudgetMillis, MAX_BUDGET_MILLIS) * 1_000_000;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "calculator-http-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        server.setExecutor(executor);
+        server.createContext("/evaluate", exchange -> handle(exchange, this::evaluate));
+        server.createContext("/convert", exchange -> handle(exchange, CalculatorServer::convert));
+        server.createContext("/base", exchange -> handle(exchange, CalculatorServer::convertBase));
+        server.createContext("/financial", exchange -> handle(exchange, CalculatorServer::financial));
+        server.createContext("/health", exchange -> send(exchange, 200, "{\"status\":\"ok\"}"));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits up to a second for the ones in progress.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    // Request handling
+
+    private void handle(HttpExchange exchange, Operation operation) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, error("Use POST"));
+                return;
+            }
+            long deadline = System.nanoTime() + budgetNanos(exchange);
+            Object request;
+            try {
+                request = Json.parse(readBody(exchange.getRequestBody()));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+                return;
+            }
+
+            try {
+                Object response = request instanceof List<?> batch
+                    ? runBatch(batch, operation, deadline)
+                    : result(operation.apply(asObject(request)));
+                send(exchange, 200, Json.toJson(response));
+            } catch (ArithmeticException e) {
+                send(exchange, 422, error(e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+            } catch (RuntimeException | Error e) {
+                // Answer rather than drop the exchange, which leaves the client waiting
+                send(exchange, 500, error(INTERNAL_ERROR));
+            }
+        }
+    }
+
+    private static Map<String, Object> runBatch(List<?> batch, Operation operation, long deadline) {
+        if (batch.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batches are limited to " + MAX_BATCH_SIZE + " requests");
+        }
+        List<Object> results = new ArrayList<>(batch.size());
+        boolean exceeded = false;
+        for (Object item : batch) {
+            if (exceeded || System.nanoTime() - deadline > 0) {
+                exceeded = true;
+                results.add(Map.of("error", "Compute budget exceeded"));
+                continue;
+            }
+            try {
+                results.add(result(operation.apply(asObject(item))));
+            } catch (ArithmeticException | IllegalArgumentException e) {
+                results.add(Map.of("error", String.valueOf(e.getMessage())));
+            } catch (RuntimeException | Error e) {
+                results.add(Map.of("error", INTERNAL_ERROR));
+            }
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("results", results);
+        if (exceeded) {
+            response.put("budgetExceeded", Boolean.TRUE);
+        }
+        return response;
+    }
+
+    private long budgetNanos(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst(BUDGET_HEADER);
+        if (header == null) {
+            return defaultBudgetNanos;
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            return Math.max(1, Math.min(millis, MAX_BUDGET_MILLIS)) * 1_000_000;
+        } catch (NumberFormatException e) {
+            return defaultBudgetNanos;
+        }
+    }
+
+    private static String readBody(InputStream body) throws IOException {
+        byte[] bytes = body.readNBytes(MAX_BODY_BYTES + 1);
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Request body exceeds " + MAX_BODY_BYTES + " bytes");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, Object> result(Object value) {
+        return value instanceof Map<?, ?> ? castObject(value) : Map.of("result", value);
+    }
+
+    private static String error(String message) {
+        return Json.toJson(Map.of("error", String.valueOf(message)));
+    }
+
+    // Endpoints
+
+    private Object evaluate(Map<String, Object> request) {
+        String source = string(request, "expression");
+        if (source.length() > MAX_EXPRESSION_LENGTH) {
+            throw new IllegalArgumentException("Expression exceeds " + MAX_EXPRESSION_LENGTH + " characters");
+        }
+        boolean fastMath = Boolean.TRUE.equals(request.get("fastMath"));
+        Map<String, Object> variables = request.containsKey("variables")
+            ? asObject(request.get("variables"))
+            : Map.of();
+        String[] names = variables.keySet().toArray(new String[0]);
+        double[] values = new double[names.length];
+        for (int i = 0; i < names.length; i++) {
+            values[i] = number(variables, names[i]);
+        }
+
+        // Key on everything the compiled form depends on
+        String key = (fastMath ? "f" : "p") + String.join(",", names) + ";" + source;
+        CompiledExpression expression = compiledExpressions.get(key);
+        if (expression == null) {
+            expression = Expression.compile(source, fastMath, names);
+            if (compiledExpressions.size() >= MAX_COMPILED_EXPRESSIONS) {
+                compiledExpressions.clear();
+            }
+            compiledExpressions.put(key, expression);
+        }
+        return expression.evaluate(values);
+    }
+
+    private static Object convert(Map<String, Object> request) {
+        return convertUnit(string(request, "category"), number(request, "value"),
+            string(request, "from"), string(request, "to"));
+    }
+
+    /**
+     * Converts a value between two units of a category, shared with the binary protocol.
+     */
+    static double convertUnit(String category, double value, String from, String to) {
+        return switch (category) {
+            case "length" -> UnitConverter.convertLength(value, from, to);
+            case "weight" -> UnitConverter.convertWeight(value, from, to);
+            case "volume" -> UnitConverter.convertVolume(value, from, to);
+            case "area" -> UnitConverter.convertArea(value, from, to);
+            case "time" -> UnitConverter.convertTime(value, from, to);
+            case "pressure" -> UnitConverter.convertPressure(value, from, to);
+            case "energy" -> UnitConverter.convertEnergy(value, from, to);
+            case "storage" -> UnitConverter.convertDigitalStorage(value, from, to);
+            case "angle" -> UnitConverter.convertAngle(value, from, to);
+            case "frequency" -> UnitConverter.convertFrequency(value, from, to);
+            case "temperature" -> convertTemperature(value, from, to);
+            case "speed" -> {
+                String[] fromUnits = from.split("/", 2);
+                String[] toUnits = to.split("/", 2);
+                if (fromUnits.length != 2 || toUnits.length != 2) {
+                    throw new IllegalArgumentException("Speed units must look like km/h");
+                }
+                yield UnitConverter.convertSpeed(value, fromUnits[0], fromUnits[1], toUnits[0], toUnits[1]);
+            }
+            default -> throw new IllegalArgumentException("Unknown category: " + category);
+        };
+    }
+
+    private static double convertTemperature(double value, String from, String to) {
+        double celsius = switch (from) {
+            case "C" -> value;
+            case "F" -> UnitConverter.fahrenheitToCelsius(value);
+            case "K" -> UnitConverter.kelvinToCelsius(value);
+            default -> throw new IllegalArgumentException("Invalid unit specified");
+        };
+        return switch (to) {
+            case "C" -> celsius;
+            case "F" -> UnitConverter.celsiusToFahrenheit(celsius);
+            case "K" -> UnitConverter.celsiusToKelvin(celsius);
+            default -> throw new IllegalArgumentException("Invalid unit specified");
+        };
+    }
+
+    private static Object convertBase(Map<String, Object> request) {
+        return ProgrammerCalculator.convertNumber(string(request, "number"),
+            numberSystem(request.get("from")), numberSystem(request.get("to")));
+    }
+
+    static NumberSystem numberSystem(Object value) {
+        if (value instanceof Double base) {
+            if (base == Math.rint(base)) {
+                return numberSystem(base.longValue());
+            }
+        } else if (value instanceof String name) {
+            try {
+                return NumberSystem.valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // Reported below
+            }
+        }
+        throw new IllegalArgumentException(BASE_REQUIRED);
+    }
+
+    /**
+     * Returns the number system of a base, shared with the binary protocol.
+     */
+    static NumberSystem numberSystem(long base) {
+        for (NumberSystem system : NumberSystem.values()) {
+            if (system.getBase() == base) {
+                return system;
+            }
+        }
+        throw new IllegalArgumentException(BASE_REQUIRED);
+    }
+
+    /**
+     * Financial functions by name, with their arguments as request members:
+     * <ul>
+     *   <li>loanPayment: principal, annualRate, years</li>
+     *   <li>compoundInterest: principal, annualRate, years, compoundingPerYear</li>
+     *   <li>continuousInterest: principal, annualRate, years</li>
+     *   <li>presentValue: futureValue, annualRate, years</li>
+     *   <li>futureValue: presentValue, annualRate, years</li>
+     *   <li>mortgage: principal, annualRate, years, downPayment, optional includeSchedule</li>
+     *   <li>bond: faceValue, couponRate, marketRate, yearsToMaturity, paymentsPerYear</li>
+     *   <li>investment: initialInvestment, finalValue, startDate, endDate (ISO dates)</li>
+     *   <li>priceToEarnings: stockPrice, earningsPerShare</li>
+     *   <li>debtToEquity: totalDebt, totalEquity</li>
+     * </ul>
+     * Rates are in percent.
+     */
+    private static Object financial(Map<String, Object> request) {
+        String function = string(request, "function");
+        return switch (function) {
+            case "loanPayment" -> FinancialCalculator.calculateLoanPayment(
+                number(request, "principal"), number(request, "annualRate"), periods(request, "years", 12));
+            case "compoundInterest" -> {
+                int compounding = integer(request, "compoundingPerYear");
+                yield FinancialCalculator.calculateCompoundInterest(number(request, "principal"),
+                    number(request, "annualRate"), periods(request, "years", Math.max(1, compounding)),
+                    compounding);
+            }
+            case "continuousInterest" -> FinancialCalculator.calculateContinuousCompoundInterest(
+                number(request, "principal"), number(request, "annualRate"), integer(request, "years"));
+            case "presentValue" -> FinancialCalculator.calculatePresentValue(
+                number(request, "futureValue"), number(request, "annualRate"), integer(request, "years"));
+            case "futureValue" -> FinancialCalculator.calculateFutureValue(
+                number(request, "presentValue"), number(request, "annualRate"), integer(request, "years"));
+            case "mortgage" -> {
+                FinancialCalculator.MortgageDetails details = FinancialCalculator.calculateMortgage(
+                    number(request, "principal"), number(request, "annualRate"),
+                    periods(request, "years", 12), number(request, "downPayment"));
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("monthlyPayment", details.monthlyPayment);
+                result.put("totalPayment", details.totalPayment);
+                result.put("totalInterest", details.totalInterest);
+                if (Boolean.TRUE.equals(request.get("includeSchedule"))) {
+                    result.put("schedule", details.amortizationSchedule);
+                }
+                yield result;
+            }
+            case "bond" -> {
+                int paymentsPerYear = integer(request, "paymentsPerYear");
+                FinancialCalculator.BondAnalysis bond = FinancialCalculator.analyzeBond(
+                    number(request, "faceValue"), number(request, "couponRate"), number(request, "marketRate"),
+                    periods(request, "yearsToMaturity", Math.max(1, paymentsPerYear)), paymentsPerYear);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("price", bond.price);
+                result.put("yield", bond.yield);
+                result.put("duration", bond.duration);
+                result.put("convexity", bond.convexity);
+                yield result;
+            }
+            case "investment" -> {
+                FinancialCalculator.InvestmentAnalysis analysis = FinancialCalculator.analyzeInvestment(
+                    number(request, "initialInvestment"), number(request, "finalValue"),
+                    date(request, "startDate"), date(request, "endDate"));
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("returnOnInvestment", analysis.returnOnInvestment);
+                result.put("annualizedReturn", analysis.annualizedReturn);
+                result.put("paybackPeriod", analysis.paybackPeriod);
+                yield result;
+            }
+            case "priceToEarnings" -> FinancialCalculator.calculatePriceToEarningsRatio(
+                number(request, "stockPrice"), number(request, "earningsPerShare"));
+            case "debtToEquity" -> FinancialCalculator.calculateDebtToEquityRatio(
+                number(request, "totalDebt"), number(request, "totalEquity"));
+            default -> throw new IllegalArgumentException("Unknown function: " + function);
+        };
+    }
+
+    // Request members
+
+    private static Map<String, Object> asObject(Object value) {
+        if (!(value instanceof Map<?, ?>)) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return castObject(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castObject(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    private static String string(Map<String, Object> request, String name) {
+        if (!(request.get(name) instanceof String value)) {
+            throw new IllegalArgumentException("Missing string member: " + name);
+        }
+        return value;
+    }
+
+    private static double number(Map<String, Object> request, String name) {
+        if (!(request.get(name) instanceof Double value)) {
+            throw new IllegalArgumentException("Missing number member: " + name);
+        }
+        return value;
+    }
+
+    private static int integer(Map<String, Object> request, String name) {
+        double value = number(request, name);
+        if (value != Math.rint(value) || Math.abs(value) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(name + " must be an integer");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a whole number of years, rejecting terms whose periods would exceed {@link #MAX_PERIODS}.
+     */
+    private static int periods(Map<String, Object> request, String name, int perYear) {
+        int years = integer(request, name);
+        if (years < 0 || (long) years * perYear > MAX_PERIODS) {
+            throw new IllegalArgumentException(name + " must be between 0 and " + MAX_PERIODS / perYear);
+        }
+        return years;
+    }
+
+    private static LocalDate date(Map<String, Object> request, String name) {
+        try {
+            return LocalDate.parse(string(request, name));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO date such as 2024-01-31");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        long budgetMillis = DEFAULT_BUDGET_MILLIS;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--budget-ms" -> budgetMillis = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        CalculatorServer server = new CalculatorServer(port, budgetMillis);
+        server.start();
+        OperationMetrics.registerMBean();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.err.printf("Calculator server listening on http://127.0.0.1:%d%n", server.getPort());
+    }
+}
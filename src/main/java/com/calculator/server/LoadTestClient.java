@@ -0,0 +1,185 @@
+package com.calculator.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for {@link CalculatorServer}.
+ *
+ * <p>Each client thread sends one request at a time over a kept-alive HTTP/1.1 connection
+ * and records its latency. After a warm-up phase the run reports throughput and the
+ * p50, p90, p99 and maximum latency. Without {@code --url} an in-process server on a free
+ * port is started and measured.
+ *
+ * <p>Usage: {@code LoadTestClient [--url http://127.0.0.1:8080/evaluate] [--body json]
+ * [--threads n] [--requests n] [--warmup n]}
+ */
+public final class LoadTestClient {
+    private static final String DEFAULT_BODY = "{\"expression\":\"3*(sin(30)+ln(2))^2\"}";
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final HttpRequest request;
+
+    public LoadTestClient(URI uri, String body) {
+        this.request = HttpRequest.newBuilder(uri)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    /**
+     * Latency percentiles and throughput of a run.
+     */
+    public static class Report {
+        private final long requests;
+        private final long errors;
+        private final long elapsedNanos;
+        private final long[] sortedLatencies;
+
+        Report(long requests, long errors, long elapsedNanos, long[] sortedLatencies) {
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getRequestsPerSecond() {
+            return requests * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        /**
+         * Returns the latency at or below which the given fraction of requests completed.
+         */
+        public long getPercentileNanos(double fraction) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(fraction * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d errors, %.0f req/s, p50 %.3f ms, p90 %.3f ms, "
+                    + "p99 %.3f ms, max %.3f ms",
+                requests, errors, getRequestsPerSecond(), getPercentileNanos(0.50) / 1e6,
+                getPercentileNanos(0.90) / 1e6, getPercentileNanos(0.99) / 1e6, getPercentileNanos(1.0) / 1e6);
+        }
+    }
+
+    /**
+     * Sends {@code warmup} unmeasured requests, then {@code requests} measured ones spread over
+     * {@code threads} client threads.
+     */
+    public Report run(int threads, int requests, int warmup) throws InterruptedException {
+        if (threads < 1 || requests < threads) {
+            throw new IllegalArgumentException("Need at least one thread and one request per thread");
+        }
+        runPhase(threads, warmup, null);
+        long[] latencies = new long[requests];
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        runPhase(threads, requests, new Recorder(latencies, errors));
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Report(requests, errors.get(), elapsed, latencies);
+    }
+
+    private static final class Recorder {
+        final long[] latencies;
+        final AtomicLong errors;
+
+        Recorder(long[] latencies, AtomicLong errors) {
+            this.latencies = latencies;
+            this.errors = errors;
+        }
+    }
+
+    private void runPhase(int threads, int requests, Recorder recorder) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            // Thread t owns the slots t, t + threads, t + 2 × threads, ... of the latency array
+            int first = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = first; i < requests; i += threads) {
+                        long begin = System.nanoTime();
+                        boolean ok = send();
+                        if (recorder != null) {
+                            recorder.latencies[i] = System.nanoTime() - begin;
+                            if (!ok) {
+                                recorder.errors.incrementAndGet();
+                            }
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + t);
+            thread.start();
+        }
+        done.await();
+    }
+
+    private boolean send() {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String url = null;
+        String body = DEFAULT_BODY;
+        int threads = 8;
+        int requests = 100_000;
+        int warmup = 10_000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url" -> url = args[i + 1];
+                case "--body" -> body = args[i + 1];
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--requests" -> requests = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmup = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        CalculatorServer server = null;
+        if (url == null) {
+            server = new CalculatorServer(0, 1000);
+            server.start();
+            url = "http://127.0.0.1:" + server.getPort() + "/evaluate";
+        }
+        try {
+            Report report = new LoadTestClient(URI.create(url), body).run(threads, requests, warmup);
+            System.out.println(url + ": " + report);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.calculator.server;
+
+import com.calculator.server.BinaryProtocol.Opcode;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Client for the {@link BinaryProtocol} over a Unix domain socket.
+ *
+ * <p>Simple calls such as {@link #call(Opcode, double...)} send one request and wait for
+ * its answer. For pipelining, build requests with {@link #request(Opcode)} and the put
+ * methods, finish each with {@link #send()}, then {@link #flush()} and read the answers in
+ * order with {@link #receive()}. The server stops reading while its answers are not being
+ * read, so bursts should stay within a few thousand requests. Instances are not thread-safe.
+ *
+ * <p>Running the class measures round-trip latency and pipelined throughput:
+ * {@code UnixSocketClient [<socket path>] [--requests n] [--pipeline depth]}. Without a
+ * path an in-process server on a temporary socket is measured.
+ */
+public final class UnixSocketClient implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final Response response = new Response();
+    private int nextId;
+    private int requestStart = -1;
+    private int outstanding;
+
+    public UnixSocketClient(Path path) throws IOException {
+        this.channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.connect(UnixDomainSocketAddress.of(path));
+        in.flip(); // Read mode, empty
+    }
+
+    /**
+     * View of the last received response, valid until the next call to {@link #receive()}.
+     */
+    public final class Response {
+        private int id;
+        private int status;
+        private int end;
+
+        public int getId() {
+            return id;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public boolean isOk() {
+            return status == BinaryProtocol.STATUS_OK;
+        }
+
+        public double getDouble() {
+            return in.getDouble();
+        }
+
+        public long getLong() {
+            return in.getLong();
+        }
+
+        public String getString() {
+            return BinaryProtocol.getString(in);
+        }
+
+        /**
+         * Returns the error message of a failed request.
+         */
+        public String getError() {
+            return isOk() ? null : BinaryProtocol.getString(in);
+        }
+
+        /**
+         * Throws the exception matching a failed request's status: ArithmeticException for
+         * calculation errors, IllegalArgumentException for malformed requests and
+         * IllegalStateException for server failures.
+         */
+        public Response check() {
+            if (status == BinaryProtocol.STATUS_ARITHMETIC_ERROR) {
+                throw new ArithmeticException(getError());
+            }
+            if (status == BinaryProtocol.STATUS_INTERNAL_ERROR) {
+                throw new IllegalStateException(getError());
+            }
+            if (status != BinaryProtocol.STATUS_OK) {
+                throw new IllegalArgumentException(getError());
+            }
+            return this;
+        }
+    }
+
+    // Pipelined requests
+
+    /**
+     * Starts a request; add its operands with the put methods and finish it with {@link #send()}.
+     */
+    public UnixSocketClient request(Opcode opcode) throws IOException {
+        if (requestStart >= 0) {
+            throw new IllegalStateException("The previous request was not sent");
+        }
+        if (out.remaining() < BinaryProtocol.HEADER_LENGTH + 1024) {
+            flush();
+        }
+        requestStart = out.position();
+        out.putInt(0);
+        out.putInt(nextId);
+        out.put((byte) opcode.getCode());
+        return this;
+    }
+
+    public UnixSocketClient putDouble(double value) {
+        out.putDouble(value);
+        return this;
+    }
+
+    public UnixSocketClient putLong(long value) {
+        out.putLong(value);
+        return this;
+    }
+
+    public UnixSocketClient putString(String value) {
+        BinaryProtocol.putString(out, value);
+        return this;
+    }
+
+    /**
+     * Completes the current request and queues it; it is written by {@link #flush()} or when
+     * the output buffer fills up.
+     * @return the request id, which the matching response carries
+     */
+    public int send() {
+        if (requestStart < 0) {
+            throw new IllegalStateException("No request was started");
+        }
+        out.putInt(requestStart, out.position() - requestStart - 4);
+        requestStart = -1;
+        outstanding++;
+        return nextId++;
+    }
+
+    /**
+     * Writes all queued requests.
+     */
+    public void flush() throws IOException {
+        if (requestStart >= 0) {
+            throw new IllegalStateException("A request is incomplete");
+        }
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Blocks until the next response arrives.
+     */
+    public Response receive() throws IOException {
+        if (outstanding == 0) {
+            throw new IllegalStateException("No request is awaiting a response");
+        }
+        in.position(Math.max(in.position(), response.end));
+        fill(4);
+        int length = in.getInt(in.position());
+        if (length < BinaryProtocol.HEADER_LENGTH - 4 || length > BinaryProtocol.MAX_FRAME_LENGTH) {
+            throw new IOException("Malformed response frame");
+        }
+        fill(4 + length);
+        response.end = in.position() + 4 + length;
+        in.position(in.position() + 4);
+        response.id = in.getInt();
+        response.status = Byte.toUnsignedInt(in.get());
+        outstanding--;
+        return response;
+    }
+
+    /**
+     * Reads until at least {@code count} unread bytes are buffered.
+     */
+    private void fill(int count) throws IOException {
+        if (in.remaining() >= count) {
+            return;
+        }
+        response.end = 0;
+        if (count > in.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(count).order(ByteOrder.LITTLE_ENDIAN);
+            grown.put(in);
+            in = grown;
+        } else {
+            in.compact();
+        }
+        while (in.position() < count) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+        in.flip();
+    }
+
+    // Single calls
+
+    /**
+     * Sends a request whose operands are all doubles and returns its double result.
+     * @throws ArithmeticException if the operation is outside its domain
+     */
+    public double call(Opcode opcode, double... operands) throws IOException {
+        request(opcode);
+        for (double operand : operands) {
+            out.putDouble(operand);
+        }
+        return exchange().getDouble();
+    }
+
+    /**
+     * Sends a request whose operands are all longs and returns its long result.
+     */
+    public long callLong(Opcode opcode, long... operands) throws IOException {
+        request(opcode);
+        for (long operand : operands) {
+            out.putLong(operand);
+        }
+        return exchange().getLong();
+    }
+
+    /**
+     * Evaluates an expression whose variables are named x0, x1, ...
+     */
+    public double evaluate(String expression, double... variables) throws IOException {
+        request(Opcode.EVALUATE).putString(expression);
+        out.putShort((short) variables.length);
+        for (double variable : variables) {
+            out.putDouble(variable);
+        }
+        return exchange().getDouble();
+    }
+
+    public double convertUnit(String category, double value, String from, String to) throws IOException {
+        return request(Opcode.CONVERT_UNIT).putString(category).putString(from).putString(to)
+            .putDouble(value).exchange().getDouble();
+    }
+
+    public String convertBase(String number, int fromBase, int toBase) throws IOException {
+        return request(Opcode.CONVERT_BASE).putLong(fromBase).putLong(toBase).putString(number)
+            .exchange().getString();
+    }
+
+    private Response exchange() throws IOException {
+        if (outstanding > 0) {
+            out.position(requestStart); // Drop the request that was being built
+            requestStart = -1;
+            throw new IllegalStateException("Receive the pipelined responses first");
+        }
+        send();
+        flush();
+        return receive().check();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path path = null;
+        int requests = 200_000;
+        int pipeline = 64;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--requests" -> requests = Integer.parseInt(args[++i]);
+                case "--pipeline" -> pipeline = Integer.parseInt(args[++i]);
+                default -> path = Paths.get(args[i]);
+            }
+        }
+
+        UnixSocketServer server = null;
+        if (path == null) {
+            path = Files.createTempDirectory("calculator").resolve("calculator.sock");
+            server = new UnixSocketServer(path);
+            server.start();
+        }
+        try (UnixSocketClient client = new UnixSocketClient(path)) {
+            // Round trips, one request in flight
+            long[] latencies = new long[requests];
+            for (int i = -requests / 4; i < requests; i++) {
+                long start = System.nanoTime();
+                client.call(Opcode.MULTIPLY, i, 1.5);
+                if (i >= 0) {
+                    latencies[i] = System.nanoTime() - start;
+                }
+            }
+            Arrays.sort(latencies);
+            System.out.printf("Round trip: p50 %.1f µs, p99 %.1f µs, max %.1f µs%n",
+                latencies[requests / 2] / 1e3, latencies[(int) (requests * 0.99)] / 1e3,
+                latencies[requests - 1] / 1e3);
+
+            // Pipelined bursts
+            long start = System.nanoTime();
+            double checksum = 0;
+            for (int sent = 0; sent < requests; sent += pipeline) {
+                int burst = Math.min(pipeline, requests - sent);
+                for (int i = 0; i < burst; i++) {
+                    client.request(Opcode.MULTIPLY).putDouble(sent + i).putDouble(1.5).send();
+                }
+                client.flush();
+                for (int i = 0; i < burst; i++) {
+                    checksum += client.receive().check().getDouble();
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Pipelined (depth %d): %.0f requests/s, %.2f µs per request (checksum %.0f)%n",
+                pipeline, requests * 1e9 / elapsed, elapsed / 1e3 / requests, checksum);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.calculator.server;
+
+import com.calculator.expression.BinaryOp;
+import com.calculator.expression.CompiledExpression;
+import com.calculator.expression.Expression;
+import com.calculator.expression.UnaryOp;
+import com.calculator.financial.FinancialCalculator;
+import com.calculator.metrics.OperationMetrics;
+import com.calculator.programmer.ProgrammerCalculator;
+import com.calculator.server.BinaryProtocol.Opcode;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the {@link BinaryProtocol} on a Unix domain socket for co-located processes.
+ *
+ * <p>Each connection is handled by its own thread with blocking I/O into direct buffers:
+ * a read picks up every request the client has pipelined so far, all of them are answered
+ * into one output buffer, and the answers go out in a single write. Requests are decoded
+ * in place and numeric operations allocate nothing.
+ *
+ * <p>Usage: {@code UnixSocketServer <socket path>}
+ */
+public final class UnixSocketServer implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Room kept free in the output buffer for one response
+    private static final int MAX_RESPONSE_LENGTH = 4096;
+    private static final int MAX_ERROR_LENGTH = 1024;
+    private static final int MAX_EXPRESSION_LENGTH = 10_000;
+    private static final int MAX_PERIODS = 12_000;
+    private static final int MAX_COMPILED_EXPRESSIONS = 10_000;
+
+    private final Path path;
+    private final ServerSocketChannel serverChannel;
+    private final Map<String, CompiledExpression> compiledExpressions = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Binds a new socket file at the given path, which must not exist yet.
+     */
+    public UnixSocketServer(Path path) throws IOException {
+        this.path = path;
+        this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        serverChannel.bind(UnixDomainSocketAddress.of(path));
+    }
+
+    /**
+     * Starts accepting connections on a background thread.
+     */
+    public void start() {
+        Thread acceptor = new Thread(this::acceptLoop, "calculator-uds-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Stops accepting connections and removes the socket file. Open connections are served
+     * until their clients disconnect.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverChannel.close();
+        Files.deleteIfExists(path);
+    }
+
+    private void acceptLoop() {
+        int count = 0;
+        while (!closed) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                Thread thread = new Thread(() -> serve(channel), "calculator-uds-" + ++count);
+                thread.setDaemon(true);
+                thread.start();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Error accepting connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (channel) {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= 4) {
+                    int length = in.getInt(in.position());
+                    if (length < BinaryProtocol.HEADER_LENGTH - 4 || length > BinaryProtocol.MAX_FRAME_LENGTH) {
+                        return; // Not our protocol, or out of sync; drop the connection
+                    }
+                    if (in.remaining() < 4 + length) {
+                        in = ensureCapacity(in, 4 + length);
+                        break;
+                    }
+                    if (out.remaining() < MAX_RESPONSE_LENGTH) {
+                        flush(channel, out);
+                    }
+                    handleFrame(in, length, out);
+                }
+                in.compact();
+                flush(channel, out);
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Error serving connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Makes room for a frame of the given size, keeping the unread bytes (the buffer is in
+     * read mode on entry and on return).
+     */
+    private static ByteBuffer ensureCapacity(ByteBuffer in, int frameSize) {
+        if (frameSize <= in.capacity()) {
+            return in;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(frameSize).order(ByteOrder.LITTLE_ENDIAN);
+        grown.put(in);
+        grown.flip();
+        return grown;
+    }
+
+    private static void flush(SocketChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void handleFrame(ByteBuffer in, int length, ByteBuffer out) {
+        int frameEnd = in.position() + 4 + length;
+        int limit = in.limit();
+        in.position(in.position() + 4);
+        int id = in.getInt();
+        int code = Byte.toUnsignedInt(in.get());
+
+        int start = out.position();
+        out.putInt(0);
+        out.putInt(id);
+        int statusPosition = out.position();
+        out.put((byte) BinaryProtocol.STATUS_OK);
+        // Operands may not be read past the end of their frame
+        in.limit(frameEnd);
+        try {
+            Opcode opcode = Opcode.forCode(code);
+            if (opcode == null) {
+                throw new IllegalArgumentException("Unknown opcode " + code);
+            }
+            dispatch(opcode, in, out);
+        } catch (ArithmeticException e) {
+            writeError(out, statusPosition, BinaryProtocol.STATUS_ARITHMETIC_ERROR, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            writeError(out, statusPosition, BinaryProtocol.STATUS_BAD_REQUEST, e.getMessage());
+        } catch (BufferUnderflowException e) {
+            writeError(out, statusPosition, BinaryProtocol.STATUS_BAD_REQUEST, "Missing operands");
+        } catch (RuntimeException | Error e) {
+            // Answer rather than let the connection thread die with the client waiting
+            writeError(out, statusPosition, BinaryProtocol.STATUS_INTERNAL_ERROR, "Internal error");
+        } finally {
+            in.limit(limit);
+            in.position(frameEnd);
+        }
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    private static void writeError(ByteBuffer out, int statusPosition, int status, String message) {
+        out.position(statusPosition);
+        out.put((byte) status);
+        String text = String.valueOf(message);
+        BinaryProtocol.putString(out, text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text);
+    }
+
+    private void dispatch(Opcode opcode, ByteBuffer in, ByteBuffer out) {
+        switch (opcode) {
+            case ADD -> out.putDouble(in.getDouble() + in.getDouble());
+            case SUBTRACT -> out.putDouble(in.getDouble() - in.getDouble());
+            case MULTIPLY -> out.putDouble(in.getDouble() * in.getDouble());
+            case DIVIDE -> out.putDouble(BinaryOp.DIVIDE.apply(in.getDouble(), in.getDouble()));
+            case MODULO -> out.putDouble(BinaryOp.MODULO.apply(in.getDouble(), in.getDouble()));
+            case POWER -> out.putDouble(BinaryOp.POWER.apply(in.getDouble(), in.getDouble()));
+            case SIN -> out.putDouble(UnaryOp.SIN.apply(in.getDouble()));
+            case COS -> out.putDouble(UnaryOp.COS.apply(in.getDouble()));
+            case TAN -> out.putDouble(UnaryOp.TAN.apply(in.getDouble()));
+            case LOG -> out.putDouble(UnaryOp.LOG.apply(in.getDouble()));
+            case LN -> out.putDouble(UnaryOp.LN.apply(in.getDouble()));
+            case SQRT -> out.putDouble(UnaryOp.SQRT.apply(in.getDouble()));
+            case SQUARE -> out.putDouble(UnaryOp.SQUARE.apply(in.getDouble()));
+            case CUBE -> out.putDouble(UnaryOp.CUBE.apply(in.getDouble()));
+            case RECIPROCAL -> out.putDouble(UnaryOp.RECIPROCAL.apply(in.getDouble()));
+            case FACTORIAL -> out.putDouble(UnaryOp.FACTORIAL.apply(in.getDouble()));
+            case EVALUATE -> out.putDouble(evaluate(in));
+            case CONVERT_UNIT -> {
+                String category = BinaryProtocol.getString(in);
+                String from = BinaryProtocol.getString(in);
+                String to = BinaryProtocol.getString(in);
+                out.putDouble(CalculatorServer.convertUnit(category, in.getDouble(), from, to));
+            }
+            case CONVERT_BASE -> {
+                long from = in.getLong();
+                long to = in.getLong();
+                String number = BinaryProtocol.getString(in);
+                BinaryProtocol.putString(out, ProgrammerCalculator.convertNumber(number,
+                    CalculatorServer.numberSystem(from), CalculatorServer.numberSystem(to)));
+            }
+            case AND -> out.putLong(ProgrammerCalculator.and(in.getLong(), in.getLong()));
+            case OR -> out.putLong(ProgrammerCalculator.or(in.getLong(), in.getLong()));
+            case XOR -> out.putLong(ProgrammerCalculator.xor(in.getLong(), in.getLong()));
+            case NOT -> out.putLong(ProgrammerCalculator.not(in.getLong()));
+            case LEFT_SHIFT -> out.putLong(ProgrammerCalculator.leftShift(in.getLong(), (int) in.getLong()));
+            case RIGHT_SHIFT -> out.putLong(ProgrammerCalculator.rightShift(in.getLong(), (int) in.getLong()));
+            case UNSIGNED_RIGHT_SHIFT ->
+                out.putLong(ProgrammerCalculator.unsignedRightShift(in.getLong(), (int) in.getLong()));
+            case LOAN_PAYMENT -> out.putDouble(FinancialCalculator.calculateLoanPayment(
+                in.getDouble(), in.getDouble(), periods(in.getLong(), 12)));
+            case COMPOUND_INTEREST -> {
+                double principal = in.getDouble();
+                double rate = in.getDouble();
+                long years = in.getLong();
+                int compounding = periods(in.getLong(), 1);
+                out.putDouble(FinancialCalculator.calculateCompoundInterest(
+                    principal, rate, periods(years, Math.max(1, compounding)), compounding));
+            }
+            case CONTINUOUS_INTEREST -> out.putDouble(FinancialCalculator.calculateContinuousCompoundInterest(
+                in.getDouble(), in.getDouble(), periods(in.getLong(), 1)));
+            case PRESENT_VALUE -> out.putDouble(FinancialCalculator.calculatePresentValue(
+                in.getDouble(), in.getDouble(), periods(in.getLong(), 1)));
+            case FUTURE_VALUE -> out.putDouble(FinancialCalculator.calculateFutureValue(
+                in.getDouble(), in.getDouble(), periods(in.getLong(), 1)));
+            case MORTGAGE -> {
+                FinancialCalculator.MortgageDetails details = FinancialCalculator.calculateMortgage(
+                    in.getDouble(), in.getDouble(), periods(in.getLong(), 12), in.getDouble());
+                out.putDouble(details.monthlyPayment);
+                out.putDouble(details.totalPayment);
+                out.putDouble(details.totalInterest);
+            }
+            case BOND -> {
+                double faceValue = in.getDouble();
+                double couponRate = in.getDouble();
+                double marketRate = in.getDouble();
+                long years = in.getLong();
+                int paymentsPerYear = periods(in.getLong(), 1);
+                FinancialCalculator.BondAnalysis bond = FinancialCalculator.analyzeBond(faceValue, couponRate,
+                    marketRate, periods(years, Math.max(1, paymentsPerYear)), paymentsPerYear);
+                out.putDouble(bond.price);
+                out.putDouble(bond.yield);
+                out.putDouble(bond.duration);
+                out.putDouble(bond.convexity);
+            }
+        }
+    }
+
+    private double evaluate(ByteBuffer in) {
+        String source = BinaryProtocol.getString(in);
+        if (source.length() > MAX_EXPRESSION_LENGTH) {
+            throw new IllegalArgumentException("Expression exceeds " + MAX_EXPRESSION_LENGTH + " characters");
+        }
+        int count = Short.toUnsignedInt(in.getShort());
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.getDouble();
+        }
+        String key = count + ";" + source;
+        CompiledExpression expression = compiledExpressions.get(key);
+        if (expression == null) {
+            String[] names = new String[count];
+            for (int i = 0; i < count; i++) {
+                names[i] = "x" + i;
+            }
+            expression = Expression.compile(source, names);
+            if (compiledExpressions.size() >= MAX_COMPILED_EXPRESSIONS) {
+                compiledExpressions.clear();
+            }
+            compiledExpressions.put(key, expression);
+        }
+        return expression.evaluate(values);
+    }
+
+    /**
+     * Checks a count of years (or periods per year) against {@link #MAX_PERIODS}.
+     */
+    private static int periods(long value, int perYear) {
+        if (value < 0 || value > MAX_PERIODS / perYear) {
+            throw new IllegalArgumentException("Term must be between 0 and " + MAX_PERIODS / perYear);
+        }
+        return (int) value;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: UnixSocketServer <socket path>");
+            System.exit(2);
+        }
+        UnixSocketServer server = new UnixSocketServer(Paths.get(args[0]));
+        server.start();
+        OperationMetrics.registerMBean();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.err.println("Error removing socket: " + e.getMessage());
+            }
+        }));
+        System.err.println("Calculator server listening on " + server.getPath());
+        // The acceptor is a daemon thread; keep the JVM alive until it is stopped
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.calculator.session;
+
+import com.calculator.CalculatorModel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An isolated calculator owned by a {@link SessionManager}.
+ *
+ * <p>Each session has its own {@link CalculatorModel}, which is only ever touched by the
+ * session's serial executor: operations run one at a time in the order they were submitted,
+ * on whichever pool thread is free. Methods may be called from any thread and return
+ * immediately with a future of the outcome.
+ */
+public final class CalculatorSession {
+    private final long id;
+    private final CalculatorModel model = new CalculatorModel();
+    private final Executor executor;
+    private volatile long lastAccessNanos = System.nanoTime();
+    private volatile boolean closed;
+
+    CalculatorSession(long id, Executor executor) {
+        this.id = id;
+        this.executor = new SerialExecutor(executor);
+    }
+
+    /**
+     * Snapshot of the values a client displays, taken right after an operation.
+     */
+    public static class State {
+        private final String display;
+        private final String lastCalculation;
+        private final String errorMessage;
+
+        State(String display, String lastCalculation, String errorMessage) {
+            this.display = display;
+            this.lastCalculation = lastCalculation;
+            this.errorMessage = errorMessage;
+        }
+
+        public String getDisplay() {
+            return display;
+        }
+
+        public String getLastCalculation() {
+            return lastCalculation;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        public boolean isError() {
+            return !errorMessage.isEmpty();
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Runs an operation against this session's model after all previously submitted ones.
+     * The model must not escape the operation.
+     * @return a future of the operation's result; it fails with IllegalStateException if the
+     *         session is closed
+     */
+    public <T> CompletableFuture<T> submit(Function<? super CalculatorModel, ? extends T> operation) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Session " + id + " is closed"));
+        }
+        lastAccessNanos = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> operation.apply(model), executor);
+    }
+
+    /**
+     * Runs an action against the model and returns the resulting state.
+     */
+    public CompletableFuture<State> execute(Consumer<? super CalculatorModel> action) {
+        return submit(model -> {
+            action.accept(model);
+            return snapshot(model);
+        });
+    }
+
+    public CompletableFuture<State> appendNumber(String number) {
+        return execute(model -> model.appendNumber(number));
+    }
+
+    public CompletableFuture<State> setOperator(String operator) {
+        return execute(model -> model.setOperator(operator));
+    }
+
+    public CompletableFuture<State> calculateResult() {
+        return execute(CalculatorModel::calculateResult);
+    }
+
+    public CompletableFuture<State> applyFunction(String function) {
+        return execute(model -> model.applyFunction(function));
+    }
+
+    public CompletableFuture<State> evaluateExpression(String expression) {
+        return execute(model -> model.evaluateExpression(expression));
+    }
+
+    public CompletableFuture<State> clear() {
+        return execute(CalculatorModel::clear);
+    }
+
+    /**
+     * Returns the state once all previously submitted operations have run.
+     */
+    public CompletableFuture<State> getState() {
+        return submit(CalculatorSession::snapshot);
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    /**
+     * Rejects further operations; those already submitted still run.
+     */
+    void close() {
+        closed = true;
+    }
+
+    private static State snapshot(CalculatorModel model) {
+        return new State(model.getCurrentDisplay(), model.getLastCalculation(), model.getErrorMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package com.calculator.session;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs tasks one at a time, in submission order, on a shared executor.
+ *
+ * <p>At most one drain task per instance is scheduled on the shared executor, so the tasks
+ * of one instance never overlap while many instances make progress in parallel. Submission
+ * is lock-free. After a batch of tasks the drain task yields its thread so a busy session
+ * cannot starve the others.
+ */
+final class SerialExecutor implements Executor {
+    private static final int MAX_BATCH = 64;
+
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < MAX_BATCH; i++) {
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    break;
+                }
+                task.run();
+            }
+        } finally {
+            scheduled.set(false);
+            // A task added after the last poll but before the flag was cleared would otherwise wait
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
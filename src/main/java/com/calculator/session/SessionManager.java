@@ -0,0 +1,113 @@
+package com.calculator.session;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out isolated {@link CalculatorSession}s for multi-user embedding.
+ *
+ * <p>Sessions share one thread pool but never a lock: each session serializes its own
+ * operations, so a thread is only occupied while a session actually has work queued and
+ * thousands of mostly idle sessions cost no more than their models. Lookups go through a
+ * ConcurrentHashMap. The only state shared between sessions is CalculatorModel's
+ * thread-safe result cache.
+ */
+public final class SessionManager implements AutoCloseable {
+    private final Map<Long, CalculatorSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Executor executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * Creates a manager with its own pool of one thread per processor.
+     */
+    public SessionManager() {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true), true);
+    }
+
+    /**
+     * Creates a manager that runs session operations on the given executor, which it does
+     * not shut down.
+     */
+    public SessionManager(Executor executor) {
+        this(executor, false);
+    }
+
+    private SessionManager(Executor executor, boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Opens a new session.
+     */
+    public CalculatorSession open() {
+        CalculatorSession session = new CalculatorSession(nextId.getAndIncrement(), executor);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Returns the open session with the given id, or null.
+     */
+    public CalculatorSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Closes a session. Returns false if no such session was open.
+     */
+    public boolean close(long id) {
+        CalculatorSession session = sessions.remove(id);
+        if (session == null) {
+            return false;
+        }
+        session.close();
+        return true;
+    }
+
+    /**
+     * Closes every session that has not been used for longer than maxIdle.
+     * @return the number of sessions closed
+     */
+    public int closeIdleSessions(Duration maxIdle) {
+        long now = System.nanoTime();
+        long limit = maxIdle.toNanos();
+        int closed = 0;
+        for (Iterator<CalculatorSession> it = sessions.values().iterator(); it.hasNext(); ) {
+            CalculatorSession session = it.next();
+            if (now - session.getLastAccessNanos() > limit) {
+                it.remove();
+                session.close();
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Closes all sessions and, if the manager created its own pool, shuts the pool down
+     * after the operations already submitted have run.
+     */
+    @Override
+    public void close() {
+        for (CalculatorSession session : sessions.values()) {
+            session.close();
+        }
+        sessions.clear();
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+}
@@ -1,180 +1,105 @@
 package com.calculator.utils;
 
-import javafx.animation.*;
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
 import javafx.scene.Node;
-import javafx.scene.Parent;
 import javafx.scene.control.Button;
 import javafx.scene.control.Tooltip;
 import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.Effect;
 import javafx.scene.effect.Glow;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.util.Duration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Utility class for handling animations and visual feedback in the calculator.
+ *
+ * <p>Animations do not allocate Transition objects. Each animated node gets one reusable
+ * animator, kept in its properties, with a channel for scale, opacity and horizontal
+ * translation. All running animators are advanced by a single shared {@link AnimationTimer}
+ * that stops when nothing moves. A new animation on a channel that is already running takes
+ * over from the node's current value instead of competing with it, so rapid clicks and hovers
+ * coalesce into one smooth motion. Must be called on the FX thread, except the setup methods
+ * for nodes that are not yet showing.
  */
 public class AnimationUtils {
     private static final Duration DEFAULT_DURATION = Duration.millis(150);
+    private static final Duration QUICK_DURATION = Duration.millis(100);
+    private static final Duration EFFECT_DURATION = Duration.millis(200);
+    private static final Duration SHAKE_DURATION = Duration.millis(50);
+    private static final Duration THEME_DURATION = Duration.millis(300);
+    private static final Duration RIPPLE_DURATION = Duration.millis(500);
     private static final double BUTTON_PRESS_SCALE = 0.95;
     private static final double BUTTON_HOVER_SCALE = 1.05;
+    private static final double RIPPLE_RADIUS = 100;
+    private static final Object ANIMATOR_KEY = NodeAnimator.class;
+
+    // Effects hold no per-node state, so one instance serves every node
+    private static final Glow GLOW = new Glow(0.5);
+    private static final Glow ERROR_GLOW = new Glow(0.8);
+    private static final DropShadow SUCCESS_GLOW = new DropShadow(20, Color.GREEN);
+
+    private static final List<NodeAnimator> RUNNING = new ArrayList<>();
+    private static AnimationTimer ticker;
     
     // Button press animation
     public static void playButtonPressAnimation(Button button) {
-        ScaleTransition scaleDown = new ScaleTransition(DEFAULT_DURATION, button);
-        scaleDown.setToX(BUTTON_PRESS_SCALE);
-        scaleDown.setToY(BUTTON_PRESS_SCALE);
-        
-        ScaleTransition scaleUp = new ScaleTransition(DEFAULT_DURATION, button);
-        scaleUp.setToX(1.0);
-        scaleUp.setToY(1.0);
-        
-        SequentialTransition sequence = new SequentialTransition(scaleDown, scaleUp);
-        sequence.play();
-        
-        // Add glow effect
-        Glow glow = new Glow(0.5);
-        button.setEffect(glow);
-        
-        // Remove glow after animation
-        sequence.setOnFinished(event -> button.setEffect(null));
+        animator(button).pulse(NodeAnimator.SCALE, BUTTON_PRESS_SCALE, DEFAULT_DURATION, 2, GLOW);
+    }
+    
+    // Button click animation: a short dip in size and opacity
+    public static void playButtonClickAnimation(Node button) {
+        NodeAnimator animator = animator(button);
+        animator.pulse(NodeAnimator.SCALE, BUTTON_PRESS_SCALE, QUICK_DURATION, 2, null);
+        animator.pulse(NodeAnimator.OPACITY, 0.8, QUICK_DURATION, 2, null);
     }
     
     // Button hover animation
     public static void setupButtonHoverAnimation(Button button) {
-        ScaleTransition scaleUp = new ScaleTransition(DEFAULT_DURATION, button);
-        scaleUp.setToX(BUTTON_HOVER_SCALE);
-        scaleUp.setToY(BUTTON_HOVER_SCALE);
-        
-        ScaleTransition scaleDown = new ScaleTransition(DEFAULT_DURATION, button);
-        scaleDown.setToX(1.0);
-        scaleDown.setToY(1.0);
-        
-        button.setOnMouseEntered(e -> scaleUp.play());
-        button.setOnMouseExited(e -> scaleDown.play());
+        button.setOnMouseEntered(e -> animator(button).hover(BUTTON_HOVER_SCALE, QUICK_DURATION));
+        button.setOnMouseExited(e -> animator(button).hover(1.0, QUICK_DURATION));
     }
     
     // Error shake animation
     public static void playErrorShakeAnimation(Node node) {
-        TranslateTransition shake = new TranslateTransition(Duration.millis(50), node);
-        shake.setFromX(0);
-        shake.setByX(10);
-        shake.setCycleCount(6);
-        shake.setAutoReverse(true);
-        
-        // Add red glow effect
-        Glow errorGlow = new Glow(0.8);
-        node.setEffect(errorGlow);
-        
-        shake.setOnFinished(event -> {
-            node.setEffect(null);
-            node.setTranslateX(0);
-        });
-        
-        shake.play();
+        animator(node).pulse(NodeAnimator.TRANSLATE_X, 10, SHAKE_DURATION, 6, ERROR_GLOW);
     }
     
     // Success animation
     public static void playSuccessAnimation(Node node) {
-        FadeTransition fade = new FadeTransition(Duration.millis(200), node);
-        fade.setFromValue(1.0);
-        fade.setToValue(0.5);
-        fade.setCycleCount(2);
-        fade.setAutoReverse(true);
-        
-        ScaleTransition scale = new ScaleTransition(Duration.millis(200), node);
-        scale.setToX(1.1);
-        scale.setToY(1.1);
-        scale.setCycleCount(2);
-        scale.setAutoReverse(true);
-        
-        // Add green glow effect
-        DropShadow glow = new DropShadow();
-        glow.setColor(Color.GREEN);
-        glow.setRadius(20);
-        node.setEffect(glow);
-        
-        ParallelTransition parallel = new ParallelTransition(fade, scale);
-        parallel.setOnFinished(event -> {
-            node.setEffect(null);
-            node.setScaleX(1.0);
-            node.setScaleY(1.0);
-        });
-        
-        parallel.play();
+        NodeAnimator animator = animator(node);
+        animator.pulse(NodeAnimator.OPACITY, 0.5, EFFECT_DURATION, 2, SUCCESS_GLOW);
+        animator.pulse(NodeAnimator.SCALE, 1.1, EFFECT_DURATION, 2, SUCCESS_GLOW);
     }
     
     // Number input animation
     public static void playNumberInputAnimation(Node display) {
-        ScaleTransition scale = new ScaleTransition(Duration.millis(100), display);
-        scale.setFromX(1.0);
-        scale.setFromY(1.0);
-        scale.setToX(1.02);
-        scale.setToY(1.02);
-        scale.setCycleCount(2);
-        scale.setAutoReverse(true);
-        scale.play();
+        animator(display).pulse(NodeAnimator.SCALE, 1.02, QUICK_DURATION, 2, null);
     }
     
     // Clear animation
     public static void playClearAnimation(Node display) {
-        FadeTransition fade = new FadeTransition(Duration.millis(200), display);
-        fade.setFromValue(1.0);
-        fade.setToValue(0.0);
-        fade.setOnFinished(event -> {
-            fade.setFromValue(0.0);
-            fade.setToValue(1.0);
-            fade.play();
-        });
-        fade.play();
+        animator(display).pulse(NodeAnimator.OPACITY, 0.0, EFFECT_DURATION, 2, null);
     }
     
     // Result animation
     public static void playResultAnimation(Node display) {
-        // Scale up
-        ScaleTransition scaleUp = new ScaleTransition(Duration.millis(200), display);
-        scaleUp.setToX(1.1);
-        scaleUp.setToY(1.1);
-        
-        // Glow effect
-        Glow glow = new Glow(0.5);
-        display.setEffect(glow);
-        
-        // Scale back down
-        ScaleTransition scaleDown = new ScaleTransition(Duration.millis(200), display);
-        scaleDown.setToX(1.0);
-        scaleDown.setToY(1.0);
-        
-        SequentialTransition sequence = new SequentialTransition(scaleUp, scaleDown);
-        sequence.setOnFinished(event -> display.setEffect(null));
-        sequence.play();
+        animator(display).pulse(NodeAnimator.SCALE, 1.1, EFFECT_DURATION, 2, GLOW);
     }
     
     // Memory operation animation
     public static void playMemoryOperationAnimation(Node memoryIndicator) {
-        FadeTransition fade = new FadeTransition(Duration.millis(200), memoryIndicator);
-        fade.setFromValue(0.3);
-        fade.setToValue(1.0);
-        fade.setCycleCount(2);
-        fade.setAutoReverse(true);
-        
-        // Add blue glow effect
-        Glow glow = new Glow(0.5);
-        memoryIndicator.setEffect(glow);
-        
-        fade.setOnFinished(event -> memoryIndicator.setEffect(null));
-        fade.play();
+        animator(memoryIndicator).pulse(NodeAnimator.OPACITY, 0.3, EFFECT_DURATION, 2, GLOW);
     }
     
     // Theme toggle animation
     public static void playThemeToggleAnimation(Node root) {
-        FadeTransition fade = new FadeTransition(Duration.millis(300), root);
-        fade.setFromValue(1.0);
-        fade.setToValue(0.7);
-        fade.setCycleCount(2);
-        fade.setAutoReverse(true);
-        fade.play();
+        animator(root).pulse(NodeAnimator.OPACITY, 0.7, THEME_DURATION, 2, null);
     }
     
     // Sound effects
@@ -197,40 +122,31 @@ public class AnimationUtils {
         System.out.println("Success sound");
     }
     
-    // Ripple effect for buttons
+    // Ripple effect for buttons, shown when the button sits in a StackPane. Each button
+    // reuses one circle, which is expanded from the press point and faded out.
     public static void addRippleEffect(Button button) {
-        if (!(button.getParent() instanceof StackPane)) {
-            StackPane wrapper = new StackPane(button);
-            if (button.getParent() != null) {
-                Parent parent = button.getParent();
-                int index = ((Parent) parent).getChildrenUnmodifiable().indexOf(button);
-                // Handle parent replacement here if needed
-            }
-        }
-        
         button.setStyle(button.getStyle() + "; -fx-background-radius: 5;");
         
         button.setOnMousePressed(event -> {
-            double x = event.getX();
-            double y = event.getY();
-            
-            Circle ripple = new Circle(x, y, 0, Color.WHITE);
-            ripple.setOpacity(0.5);
-            
-            if (button.getParent() instanceof StackPane) {
-                StackPane parent = (StackPane) button.getParent();
+            if (!(button.getParent() instanceof StackPane)) {
+                return;
+            }
+            StackPane parent = (StackPane) button.getParent();
+            NodeAnimator animator = animator(button);
+            Circle ripple = animator.ripple;
+            if (ripple == null || ripple.getParent() != parent) {
+                ripple = new Circle(RIPPLE_RADIUS, Color.WHITE);
+                ripple.setManaged(false);
+                ripple.setMouseTransparent(true);
                 parent.getChildren().add(ripple);
-                
-                Timeline timeline = new Timeline(
-                    new KeyFrame(Duration.ZERO, new KeyValue(ripple.radiusProperty(), 0)),
-                    new KeyFrame(Duration.millis(500), new KeyValue(ripple.radiusProperty(), 100)),
-                    new KeyFrame(Duration.ZERO, new KeyValue(ripple.opacityProperty(), 0.5)),
-                    new KeyFrame(Duration.millis(500), new KeyValue(ripple.opacityProperty(), 0))
-                );
-                
-                timeline.setOnFinished(e -> parent.getChildren().remove(ripple));
-                timeline.play();
+                animator.ripple = ripple;
             }
+            ripple.setCenterX(button.getLayoutX() + button.getTranslateX() + event.getX());
+            ripple.setCenterY(button.getLayoutY() + button.getTranslateY() + event.getY());
+            
+            NodeAnimator rippleAnimator = animator(ripple);
+            rippleAnimator.tween(NodeAnimator.SCALE, 0, 1, RIPPLE_DURATION);
+            rippleAnimator.tween(NodeAnimator.OPACITY, 0.5, 0, RIPPLE_DURATION);
         });
     }
     
@@ -242,19 +158,202 @@ public class AnimationUtils {
         Tooltip.install(node, tooltip);
         
         if (tooltip.getGraphic() != null) {
-            node.setOnMouseEntered(event -> {
-                ScaleTransition scale = new ScaleTransition(Duration.millis(200), tooltip.getGraphic());
-                scale.setToX(1.2);
-                scale.setToY(1.2);
-                scale.play();
-            });
-            
-            node.setOnMouseExited(event -> {
-                ScaleTransition scale = new ScaleTransition(Duration.millis(200), tooltip.getGraphic());
-                scale.setToX(1.0);
-                scale.setToY(1.0);
-                scale.play();
-            });
+            node.setOnMouseEntered(event -> animator(tooltip.getGraphic()).hover(1.2, EFFECT_DURATION));
+            node.setOnMouseExited(event -> animator(tooltip.getGraphic()).hover(1.0, EFFECT_DURATION));
+        }
+    }
+
+    private static NodeAnimator animator(Node node) {
+        Object animator = node.getProperties().get(ANIMATOR_KEY);
+        if (animator == null) {
+            animator = new NodeAnimator(node);
+            node.getProperties().put(ANIMATOR_KEY, animator);
+        }
+        return (NodeAnimator) animator;
+    }
+
+    private static void schedule(NodeAnimator animator) {
+        if (animator.scheduled) {
+            return;
+        }
+        animator.scheduled = true;
+        RUNNING.add(animator);
+        if (ticker == null) {
+            ticker = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    tick(now);
+                }
+            };
+        }
+        if (RUNNING.size() == 1) {
+            ticker.start();
+        }
+    }
+
+    private static void tick(long now) {
+        for (int i = RUNNING.size() - 1; i >= 0; i--) {
+            NodeAnimator animator = RUNNING.get(i);
+            if (!animator.update(now)) {
+                // Swap-remove; order does not matter
+                NodeAnimator last = RUNNING.remove(RUNNING.size() - 1);
+                if (i < RUNNING.size()) {
+                    RUNNING.set(i, last);
+                }
+                animator.scheduled = false;
+            }
+        }
+        if (RUNNING.isEmpty()) {
+            ticker.stop();
+        }
+    }
+
+    /**
+     * Reusable animation state of one node: a channel per animated property and the effect
+     * shown while any of them runs.
+     */
+    private static final class NodeAnimator {
+        static final int SCALE = 0;
+        static final int OPACITY = 1;
+        static final int TRANSLATE_X = 2;
+
+        final Node node;
+        final Channel[] channels = {new Channel(SCALE), new Channel(OPACITY), new Channel(TRANSLATE_X)};
+        // Scale the node settles at: larger while hovered
+        double restScale = 1.0;
+        Effect effect;
+        Circle ripple;
+        boolean scheduled;
+
+        NodeAnimator(Node node) {
+            this.node = node;
+        }
+
+        /**
+         * Moves a property from its current value to {@code target} and back to rest, for the
+         * given number of legs of {@code legDuration} each.
+         */
+        void pulse(int property, double target, Duration legDuration, int legs, Effect effect) {
+            channels[property].start(get(property), target, legDuration, legs);
+            if (effect != null) {
+                this.effect = effect;
+                node.setEffect(effect);
+            }
+            schedule(this);
+        }
+
+        /**
+         * Moves a property from {@code from} to {@code to} once.
+         */
+        void tween(int property, double from, double to, Duration duration) {
+            set(property, from);
+            channels[property].start(from, to, duration, 1);
+            schedule(this);
+        }
+
+        /**
+         * Changes the rest scale. A running pulse returns to the new value instead of being
+         * interrupted; a running hover is redirected from where it is.
+         */
+        void hover(double scale, Duration duration) {
+            restScale = scale;
+            Channel channel = channels[SCALE];
+            if (!channel.running || channel.legs == 1) {
+                channel.start(get(SCALE), scale, duration, 1);
+                schedule(this);
+            }
+        }
+
+        /**
+         * Advances every channel to the given pulse time. Returns false once all are idle.
+         */
+        boolean update(long now) {
+            boolean running = false;
+            for (Channel channel : channels) {
+                if (channel.running) {
+                    set(channel.property, channel.valueAt(now, rest(channel.property)));
+                    running |= channel.running;
+                }
+            }
+            if (!running && effect != null) {
+                if (node.getEffect() == effect) {
+                    node.setEffect(null);
+                }
+                effect = null;
+            }
+            return running;
+        }
+
+        private double rest(int property) {
+            return switch (property) {
+                case SCALE -> restScale;
+                case OPACITY -> 1.0;
+                default -> 0.0;
+            };
+        }
+
+        private double get(int property) {
+            return switch (property) {
+                case SCALE -> node.getScaleX();
+                case OPACITY -> node.getOpacity();
+                default -> node.getTranslateX();
+            };
+        }
+
+        private void set(int property, double value) {
+            switch (property) {
+                case SCALE -> {
+                    node.setScaleX(value);
+                    node.setScaleY(value);
+                }
+                case OPACITY -> node.setOpacity(value);
+                default -> node.setTranslateX(value);
+            }
+        }
+    }
+
+    /**
+     * One animated property. Even legs move towards the target, odd legs back to rest.
+     */
+    private static final class Channel {
+        final int property;
+        double from;
+        double target;
+        long legNanos;
+        int legs;
+        // Pulse time of the first frame, or -1 until the timer has seen it
+        long startNanos;
+        boolean running;
+
+        Channel(int property) {
+            this.property = property;
+        }
+
+        void start(double from, double target, Duration legDuration, int legs) {
+            this.from = from;
+            this.target = target;
+            this.legNanos = Math.max(1, (long) (legDuration.toMillis() * 1_000_000));
+            this.legs = legs;
+            this.startNanos = -1;
+            this.running = true;
+        }
+
+        double valueAt(long now, double rest) {
+            if (startNanos < 0) {
+                startNanos = now;
+            }
+            long elapsed = now - startNanos;
+            int leg = (int) Math.min(elapsed / legNanos, legs);
+            if (leg >= legs) {
+                running = false;
+                return legs % 2 == 0 ? rest : target;
+            }
+            double fraction = (double) (elapsed - leg * legNanos) / legNanos;
+            if (leg % 2 == 1) {
+                return Interpolator.EASE_BOTH.interpolate(target, rest, fraction);
+            }
+            double legStart = leg == 0 ? from : rest;
+            return Interpolator.EASE_BOTH.interpolate(legStart, target, fraction);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package com.calculator.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, after Dmitry Vyukov's
+ * array queue. Each slot carries a sequence number that tells producers whether it is free
+ * and the consumer whether it is filled, so neither side ever takes a lock.
+ */
+final class BoundedQueue<E> {
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Written by the consumer only; atomic so that size() can be read from any thread
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity The capacity, rounded up to a power of two
+     */
+    BoundedQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        size = Math.max(size, 1);
+        items = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Adds an element unless the queue is full. Safe to call from any thread.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.lazySet(index, element);
+                    sequences.set(index, position + 1); // publishes the element
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // the slot still holds an element from one lap ago
+            } else {
+                position = tail.get(); // another producer claimed the slot
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the oldest element, or null if the queue is empty. Must only be
+     * called from the consumer thread.
+     */
+    E poll() {
+        long position = head.get();
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = items.get(index);
+        items.lazySet(index, null);
+        sequences.set(index, position + mask + 1); // frees the slot for the next lap
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    /**
+     * Returns true if there is nothing to poll. Must only be called from the consumer thread.
+     */
+    boolean isEmpty() {
+        long position = head.get();
+        return sequences.get((int) position & mask) != position + 1;
+    }
+
+    /**
+     * Returns the number of elements, which may be stale by the time it is used.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
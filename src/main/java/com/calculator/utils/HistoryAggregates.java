@@ -0,0 +1,228 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import com.calculator.utils.HistoryManager.Category;
+import com.calculator.utils.HistoryManager.FunctionCount;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running aggregates of the history, updated as entries are added so that reading them does
+ * not depend on the length of the history.
+ *
+ * <p>Keeps a counter per category, the number of calculations per hour for the last week and
+ * per day for all time, and the most used functions. Functions are counted in a count-min
+ * sketch, whose estimates may exceed the true counts by a small fraction of the total but never
+ * fall below them, with a short list of the functions with the highest estimates.
+ *
+ * <p>Entries may be added from several threads at once, but not while the aggregates are
+ * cleared; reading is safe from any thread.
+ */
+final class HistoryAggregates {
+    private static final int HOURS_KEPT = 7 * 24;
+    private static final long MILLIS_PER_HOUR = 3_600_000;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 1024;
+    private static final int TOP_FUNCTIONS = 16;
+    // Function names of the expression language; other names are variables or exponents
+    private static final Set<String> FUNCTION_NAMES = Set.of(
+        "sin", "cos", "tan", "log", "ln", "sqrt", "sqr", "cube", "recip", "fact");
+
+    private final LongAdder total = new LongAdder();
+    private final Map<Category, LongAdder> categoryCounts = new EnumMap<>(Category.class);
+    private final ConcurrentSkipListMap<Long, LongAdder> hours = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, LongAdder> days = new ConcurrentSkipListMap<>();
+    private final FunctionSketch functions = new FunctionSketch();
+
+    HistoryAggregates() {
+        for (Category category : Category.values()) {
+            categoryCounts.put(category, new LongAdder());
+        }
+    }
+
+    void add(CalculationEntry entry) {
+        total.increment();
+        categoryCounts.get(Category.of(entry.getCategory())).increment();
+
+        long millis = entry.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long hour = Math.floorDiv(millis, MILLIS_PER_HOUR);
+        long oldestHour = oldestHour();
+        if (hour > oldestHour) {
+            LongAdder count = hours.get(hour);
+            if (count == null) {
+                count = hours.computeIfAbsent(hour, key -> new LongAdder());
+                hours.headMap(oldestHour, true).clear();
+            }
+            count.increment();
+        }
+        days.computeIfAbsent(entry.getTimestamp().toLocalDate().toEpochDay(), key -> new LongAdder())
+            .increment();
+
+        functions.addAll(entry.getExpression());
+    }
+
+    void clear() {
+        total.reset();
+        for (LongAdder count : categoryCounts.values()) {
+            count.reset();
+        }
+        hours.clear();
+        days.clear();
+        functions.clear();
+    }
+
+    long total() {
+        return total.sum();
+    }
+
+    long count(Category category) {
+        return categoryCounts.get(category).sum();
+    }
+
+    /**
+     * Returns the number of calculations per hour of the last week, by the start of the hour.
+     * Hours without calculations are left out.
+     */
+    NavigableMap<LocalDateTime, Long> perHour() {
+        NavigableMap<LocalDateTime, Long> counts = new TreeMap<>();
+        long oldestHour = oldestHour();
+        for (Map.Entry<Long, LongAdder> hour : hours.tailMap(oldestHour, false).entrySet()) {
+            counts.put(LocalDateTime.ofEpochSecond(hour.getKey() * 3600, 0, ZoneOffset.UTC),
+                hour.getValue().sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of calculations per day. Days without calculations are left out.
+     */
+    NavigableMap<LocalDate, Long> perDay() {
+        NavigableMap<LocalDate, Long> counts = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> day : days.entrySet()) {
+            counts.put(LocalDate.ofEpochDay(day.getKey()), day.getValue().sum());
+        }
+        return counts;
+    }
+
+    List<FunctionCount> mostUsedFunctions(int limit) {
+        return functions.top(limit);
+    }
+
+    /**
+     * Returns the hour before the oldest one kept, in local time like the timestamps.
+     */
+    private static long oldestHour() {
+        long now = LocalDateTime.now().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return Math.floorDiv(now, MILLIS_PER_HOUR) - HOURS_KEPT;
+    }
+
+    /**
+     * Count-min sketch of function names, with the names of the highest estimates.
+     */
+    private static final class FunctionSketch {
+        private final long[][] counts = new long[SKETCH_DEPTH][SKETCH_WIDTH];
+        private final String[] topNames = new String[TOP_FUNCTIONS];
+        private final long[] topCounts = new long[TOP_FUNCTIONS];
+        private int topSize;
+
+        /**
+         * Counts the function names and root, power and factorial operators in an expression.
+         * Names that are not functions, such as variables and the E of 1.5E10, are skipped.
+         */
+        synchronized void addAll(String expression) {
+            for (int i = 0; i < expression.length(); ) {
+                char c = expression.charAt(i);
+                if (Character.isLetter(c) && c != 'ʸ') {
+                    int start = i;
+                    while (i < expression.length() && (Character.isLetterOrDigit(expression.charAt(i))
+                            || expression.charAt(i) == '_')) {
+                        i++;
+                    }
+                    String name = expression.substring(start, i);
+                    if (FUNCTION_NAMES.contains(name)) {
+                        add(name);
+                    }
+                } else {
+                    switch (c) {
+                        case '√' -> add("√");
+                        case '∛' -> add("∛");
+                        case '²' -> add("x²");
+                        case '³' -> add("x³");
+                        case '^' -> add("xʸ");
+                        case '!' -> add("!");
+                        default -> {
+                            // Not a function
+                        }
+                    }
+                    i++;
+                }
+            }
+        }
+
+        private void add(String name) {
+            int hash = name.hashCode();
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < SKETCH_DEPTH; row++) {
+                int column = index(hash, row);
+                estimate = Math.min(estimate, ++counts[row][column]);
+            }
+
+            for (int i = 0; i < topSize; i++) {
+                if (topNames[i].equals(name)) {
+                    topCounts[i] = estimate;
+                    return;
+                }
+            }
+            if (topSize < TOP_FUNCTIONS) {
+                topNames[topSize] = name;
+                topCounts[topSize++] = estimate;
+                return;
+            }
+            int lowest = 0;
+            for (int i = 1; i < topSize; i++) {
+                if (topCounts[i] < topCounts[lowest]) {
+                    lowest = i;
+                }
+            }
+            if (estimate > topCounts[lowest]) {
+                topNames[lowest] = name;
+                topCounts[lowest] = estimate;
+            }
+        }
+
+        synchronized List<FunctionCount> top(int limit) {
+            List<FunctionCount> top = new ArrayList<>(topSize);
+            for (int i = 0; i < topSize; i++) {
+                top.add(new FunctionCount(topNames[i], topCounts[i]));
+            }
+            top.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+            return top.subList(0, Math.min(Math.max(limit, 0), top.size()));
+        }
+
+        synchronized void clear() {
+            for (long[] row : counts) {
+                Arrays.fill(row, 0);
+            }
+            Arrays.fill(topNames, null);
+            topSize = 0;
+        }
+
+        private static int index(int hash, int row) {
+            // A different multiplier per row gives independent-enough hash functions
+            int h = hash * (0x9E3779B1 + 2 * row);
+            return (h ^ h >>> 16) & (SKETCH_WIDTH - 1);
+        }
+    }
+}
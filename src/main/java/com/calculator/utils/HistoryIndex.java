@@ -0,0 +1,626 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Search index over the history, updated as entries are added.
+ *
+ * <p>Entries are identified by their position in the history, oldest first from 0. The index
+ * keeps
+ * <ul>
+ *   <li>a posting list per gram: the entries in which some character of the expression or the
+ *       result is preceded by the gram's first two characters. Text is padded at the start
+ *       with two marker characters, so every character has a gram;</li>
+ *   <li>a posting list per category;</li>
+ *   <li>the numeric value of each result, and for every full block of entries the order of
+ *       their values together with the block's minimum and maximum.</li>
+ * </ul>
+ * Posting lists hold ascending ids as varint-coded deltas, a byte or two per entry for the
+ * frequent grams, with a skip pointer every 64 ids for intersections. Terms of one or two
+ * characters are answered exactly by the union of the grams ending in them, and terms of three
+ * by one gram; candidates for longer terms are verified against the entries themselves.
+ *
+ * <p>Entries already in the store when the history is opened are indexed by
+ * {@link #build} on a background thread; queries wait until it has finished. All methods are
+ * thread-safe.
+ */
+final class HistoryIndex {
+    private static final int BLOCK_SIZE = 1024;
+    // Pad the start of expressions and results
+    private static final char EXPRESSION_START = '\u0002';
+    private static final char RESULT_START = '\u0003';
+    private static final int BUILD_CHUNK = 4096;
+
+    private final GramTable grams = new GramTable();
+    private final Map<String, PostingList> categories = new HashMap<>();
+    private final NumericScanner scanner = new NumericScanner();
+    private double[] values = new double[BLOCK_SIZE];
+    // Offsets within each full block, ordered by value
+    private short[] order = new short[BLOCK_SIZE];
+    private double[] blockMin = new double[1];
+    private double[] blockMax = new double[1];
+    private int size;
+    // Entries added while the stored entries are being indexed
+    private final List<CalculationEntry> pending = new ArrayList<>();
+    private boolean building;
+    private int generation;
+
+    /**
+     * Marks the index as waiting for the stored entries, which {@link #build} must then index.
+     */
+    synchronized void startBuild() {
+        building = true;
+    }
+
+    /**
+     * Indexes the entries of a generation of the store from {@code from}, the number of entries
+     * indexed so far, up to {@code to}, then the entries added in the meantime. Stops early if
+     * the history is cleared.
+     *
+     * @param visitor Also receives each stored entry, before a clear of the index returns
+     */
+    void build(HistoryStore.Generation stored, long from, long to, Consumer<CalculationEntry> visitor) {
+        int startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        try {
+            for (long next = from; next < to; ) {
+                long end = Math.min(to, next + BUILD_CHUNK);
+                synchronized (this) {
+                    if (generation != startGeneration) {
+                        return;
+                    }
+                    for (; next < end; next++) {
+                        CalculationEntry entry = stored.read(next);
+                        index(entry);
+                        visitor.accept(entry);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error indexing history: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                if (generation == startGeneration) {
+                    for (CalculationEntry entry : pending) {
+                        index(entry);
+                    }
+                    pending.clear();
+                    building = false;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes the entry added after all others.
+     */
+    synchronized void add(CalculationEntry entry) {
+        if (building) {
+            pending.add(entry);
+        } else {
+            index(entry);
+        }
+    }
+
+    synchronized void clear() {
+        grams.clear();
+        categories.clear();
+        values = new double[BLOCK_SIZE];
+        order = new short[BLOCK_SIZE];
+        blockMin = new double[1];
+        blockMax = new double[1];
+        size = 0;
+        pending.clear();
+        generation++;
+        if (building) {
+            building = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Returns the ids of entries whose expression, result or category contains the term,
+     * in ascending order.
+     *
+     * @param entries Looks up an entry by id, for verifying candidates
+     */
+    synchronized int[] search(String term, IntFunction<CalculationEntry> entries) {
+        awaitBuild();
+        if (term.isEmpty()) {
+            return all();
+        }
+        int[] matches;
+        if (term.length() < 3) {
+            matches = endingIn(term);
+        } else {
+            long[] keys = new long[term.length() - 2];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = key(term.charAt(i), term.charAt(i + 1), term.charAt(i + 2));
+            }
+            matches = intersect(keys);
+            if (term.length() > 3) {
+                // Each trigram occurs somewhere, but not necessarily together
+                matches = verify(matches, entries, entry -> entry.getExpression().contains(term)
+                    || entry.getResult().contains(term));
+            }
+        }
+        for (Map.Entry<String, PostingList> category : categories.entrySet()) {
+            if (category.getKey().contains(term)) {
+                matches = union(matches, category.getValue().toArray());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the ids of entries whose expression starts with the prefix, in ascending order.
+     */
+    synchronized int[] searchPrefix(String prefix, IntFunction<CalculationEntry> entries) {
+        awaitBuild();
+        if (prefix.isEmpty()) {
+            return all();
+        }
+        if (prefix.length() == 1) {
+            return intersect(new long[] {key(EXPRESSION_START, EXPRESSION_START, prefix.charAt(0))});
+        }
+        long[] keys = new long[prefix.length() - 1];
+        keys[0] = key(EXPRESSION_START, prefix.charAt(0), prefix.charAt(1));
+        for (int i = 1; i < keys.length; i++) {
+            keys[i] = key(prefix.charAt(i - 1), prefix.charAt(i), prefix.charAt(i + 1));
+        }
+        int[] matches = intersect(keys);
+        return prefix.length() == 2 ? matches
+            : verify(matches, entries, entry -> entry.getExpression().startsWith(prefix));
+    }
+
+    /**
+     * Returns the ids of entries with a numeric result between min and max inclusive, in
+     * ascending order.
+     */
+    synchronized int[] searchRange(double min, double max) {
+        awaitBuild();
+        int[] matches = new int[16];
+        int count = 0;
+        for (int block = 0; block * BLOCK_SIZE < size; block++) {
+            if (blockMax[block] < min || blockMin[block] > max) {
+                continue;
+            }
+            int start = block * BLOCK_SIZE;
+            int end = Math.min(size, start + BLOCK_SIZE);
+            if (end - start == BLOCK_SIZE) {
+                // Binary search for the first value not below min, then take values up to max
+                int low = start;
+                int high = end;
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    if (values[start + order[middle]] < min) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                for (int i = low; i < end && values[start + order[i]] <= max; i++) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    }
+                    matches[count++] = start + order[i];
+                }
+            } else {
+                for (int id = start; id < end; id++) {
+                    double value = values[id];
+                    if (value >= min && value <= max) {
+                        if (count == matches.length) {
+                            matches = Arrays.copyOf(matches, count * 2);
+                        }
+                        matches[count++] = id;
+                    }
+                }
+            }
+        }
+        matches = Arrays.copyOf(matches, count);
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    /**
+     * Returns the ids of entries in the category, in ascending order.
+     */
+    synchronized int[] filterByCategory(String category) {
+        awaitBuild();
+        PostingList postings = categories.get(category);
+        return postings == null ? new int[0] : postings.toArray();
+    }
+
+    /**
+     * Waits until a build has indexed the stored entries.
+     */
+    synchronized void awaitBuild() {
+        boolean interrupted = false;
+        while (building) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void index(CalculationEntry entry) {
+        int id = size++;
+        addGrams(entry.getExpression(), EXPRESSION_START, id);
+        addGrams(entry.getResult(), RESULT_START, id);
+        categories.computeIfAbsent(entry.getCategory(), category -> new PostingList()).add(id);
+
+        if (id == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+            order = Arrays.copyOf(order, order.length * 2);
+        }
+        double value = scanner.scanDecimal(entry.getResult()) == NumericScanner.Status.OK
+            ? scanner.doubleValue() : Double.NaN;
+        values[id] = value;
+        int block = id / BLOCK_SIZE;
+        if (block == blockMin.length) {
+            blockMin = Arrays.copyOf(blockMin, block * 2);
+            blockMax = Arrays.copyOf(blockMax, block * 2);
+        }
+        if (id % BLOCK_SIZE == 0) {
+            blockMin[block] = Double.POSITIVE_INFINITY;
+            blockMax[block] = Double.NEGATIVE_INFINITY;
+        }
+        if (!Double.isNaN(value)) {
+            blockMin[block] = Math.min(blockMin[block], value);
+            blockMax[block] = Math.max(blockMax[block], value);
+        }
+        if (id % BLOCK_SIZE == BLOCK_SIZE - 1) {
+            sortBlock(block * BLOCK_SIZE);
+        }
+    }
+
+    private void addGrams(String text, char start, int id) {
+        char first = start;
+        char second = start;
+        for (int i = 0; i < text.length(); i++) {
+            char third = text.charAt(i);
+            grams.get(key(first, second, third)).add(id);
+            first = second;
+            second = third;
+        }
+    }
+
+    /**
+     * Orders the offsets of a full block by value, NaN last.
+     */
+    private void sortBlock(int start) {
+        int[] offsets = new int[BLOCK_SIZE];
+        int[] buffer = new int[BLOCK_SIZE];
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            offsets[i] = i;
+        }
+        // Bottom-up merge sort, stable so equal values stay in id order
+        for (int width = 1; width < BLOCK_SIZE; width *= 2) {
+            for (int low = 0; low < BLOCK_SIZE; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, BLOCK_SIZE);
+                int i = low;
+                int j = middle;
+                for (int k = low; k < high; k++) {
+                    if (j >= high || i < middle
+                            && Double.compare(values[start + offsets[i]], values[start + offsets[j]]) <= 0) {
+                        buffer[k] = offsets[i++];
+                    } else {
+                        buffer[k] = offsets[j++];
+                    }
+                }
+            }
+            int[] swap = offsets;
+            offsets = buffer;
+            buffer = swap;
+        }
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            order[start + i] = (short) offsets[i];
+        }
+    }
+
+    private int[] intersect(long[] keys) {
+        PostingList[] lists = new PostingList[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = grams.find(keys[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        // Start from the shortest list so every step can only shrink the result
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.count, b.count));
+        int[] result = lists[0].toArray();
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            if (lists[i] != lists[i - 1]) {
+                result = lists[i].retain(result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the entries containing a term of one or two characters, which are those with a
+     * gram ending in it.
+     */
+    private int[] endingIn(String term) {
+        long[] bits = new long[(size + 63) >>> 6];
+        long mask = term.length() == 1 ? 0xFFFFL : 0xFFFF_FFFFL;
+        long suffix = term.length() == 1 ? term.charAt(0) : (long) term.charAt(0) << 16 | term.charAt(1);
+        grams.forEach((key, postings) -> {
+            if ((key & mask) == suffix) {
+                postings.setBits(bits);
+            }
+        });
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        int[] ids = new int[count];
+        int next = 0;
+        for (int word = 0; word < bits.length; word++) {
+            for (long remaining = bits[word]; remaining != 0; remaining &= remaining - 1) {
+                ids[next++] = word << 6 | Long.numberOfTrailingZeros(remaining);
+            }
+        }
+        return ids;
+    }
+
+    private static int[] verify(int[] ids, IntFunction<CalculationEntry> entries,
+                                Predicate<CalculationEntry> matches) {
+        int count = 0;
+        for (int id : ids) {
+            if (matches.test(entries.apply(id))) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || i < a.length && a[i] < b[j]) {
+                result[count++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[count++] = b[j++];
+            } else {
+                result[count++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private int[] all() {
+        int[] ids = new int[size];
+        for (int id = 0; id < size; id++) {
+            ids[id] = id;
+        }
+        return ids;
+    }
+
+    private static long key(char a, char b, char c) {
+        return (long) a << 32 | (long) b << 16 | c;
+    }
+
+    /**
+     * Open-addressing map from gram keys to posting lists, without boxing the keys.
+     */
+    private static final class GramTable {
+        private long[] keys = new long[1024];
+        private PostingList[] lists = new PostingList[1024];
+        private int count;
+
+        interface Visitor {
+            void visit(long key, PostingList postings);
+        }
+
+        PostingList find(long key) {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; lists[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return lists[slot];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the posting list of the key, adding an empty one if there is none.
+         */
+        PostingList get(long key) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            for (; lists[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return lists[slot];
+                }
+            }
+            PostingList postings = new PostingList();
+            keys[slot] = key;
+            lists[slot] = postings;
+            if (++count * 2 > keys.length) {
+                grow();
+            }
+            return postings;
+        }
+
+        void forEach(Visitor visitor) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (lists[slot] != null) {
+                    visitor.visit(keys[slot], lists[slot]);
+                }
+            }
+        }
+
+        void clear() {
+            keys = new long[1024];
+            lists = new PostingList[1024];
+            count = 0;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            PostingList[] oldLists = lists;
+            keys = new long[oldKeys.length * 2];
+            lists = new PostingList[oldLists.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldLists[i] != null) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (lists[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    lists[slot] = oldLists[i];
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ h >>> 32);
+        }
+    }
+
+    /**
+     * Ascending ids stored as varint-coded differences, with the position of every 64th id so
+     * that an intersection can skip runs of ids.
+     */
+    private static final class PostingList {
+        private static final int SKIP_INTERVAL = 64;
+
+        private byte[] data = new byte[4];
+        private int length;
+        private int last = -1;
+        int count;
+        // For every 64th id: the id before it and its position in data
+        private int[] skipBases = new int[1];
+        private int[] skipPositions = new int[1];
+
+        void add(int id) {
+            if (id == last) {
+                return; // the gram occurs more than once in the entry
+            }
+            if (count % SKIP_INTERVAL == 0) {
+                int skip = count / SKIP_INTERVAL;
+                if (skip == skipBases.length) {
+                    skipBases = Arrays.copyOf(skipBases, skip * 2);
+                    skipPositions = Arrays.copyOf(skipPositions, skip * 2);
+                }
+                skipBases[skip] = last;
+                skipPositions[skip] = length;
+            }
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            int delta = id - last;
+            while ((delta & ~0x7F) != 0) {
+                data[length++] = (byte) (delta & 0x7F | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+            last = id;
+            count++;
+        }
+
+        int[] toArray() {
+            int[] ids = new int[count];
+            int id = -1;
+            int position = 0;
+            for (int i = 0; i < count; i++) {
+                int delta = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = data[position++];
+                    delta |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                id += delta;
+                ids[i] = id;
+            }
+            return ids;
+        }
+
+        void setBits(long[] bits) {
+            int id = -1;
+            int position = 0;
+            for (int i = 0; i < count; i++) {
+                int delta = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = data[position++];
+                    delta |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                id += delta;
+                bits[id >>> 6] |= 1L << id;
+            }
+        }
+
+        /**
+         * Returns the given ascending ids that are also in this list.
+         */
+        int[] retain(int[] ids) {
+            int[] result = new int[Math.min(ids.length, count)];
+            int found = 0;
+            int skips = (count + SKIP_INTERVAL - 1) / SKIP_INTERVAL;
+            int decoded = 0;
+            int position = 0;
+            int id = -1;
+            for (int target : ids) {
+                // Jump over the runs that end before the target
+                int run = decoded / SKIP_INTERVAL;
+                int jump = run;
+                while (jump + 1 < skips && skipBases[jump + 1] < target) {
+                    jump++;
+                }
+                if (jump > run) {
+                    decoded = jump * SKIP_INTERVAL;
+                    position = skipPositions[jump];
+                    id = skipBases[jump];
+                }
+                while (id < target && decoded < count) {
+                    int delta = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        byte b = data[position++];
+                        delta |= (b & 0x7F) << shift;
+                        if (b >= 0) {
+                            break;
+                        }
+                    }
+                    id += delta;
+                    decoded++;
+                }
+                if (id == target) {
+                    result[found++] = target;
+                } else if (id < target) {
+                    break; // the list is exhausted
+                }
+            }
+            return Arrays.copyOf(result, found);
+        }
+    }
+}
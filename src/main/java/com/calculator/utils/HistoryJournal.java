@@ -0,0 +1,108 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Reader for the append-only history journal of earlier versions, which is imported into the
+ * {@link HistoryStore}.
+ *
+ * <p>The file starts with the magic number {@code CHJ1}, followed by records of
+ * <pre>
+ *   int length, int crc32c, byte type, body
+ * </pre>
+ * where the checksum covers the type and body. An entry body is the timestamp as
+ * milliseconds of local time since the epoch, followed by expression, result and category as
+ * UTF-8 strings prefixed with their varint length; a clear record has no body. Reading stops at
+ * the first truncated or corrupt record, which is where a crash during an append leaves the
+ * file.
+ */
+final class HistoryJournal {
+    static final int MAGIC = 0x43484A31; // "CHJ1"
+    static final int HEADER_SIZE = 4;
+    static final byte ENTRY = 1;
+    static final byte CLEAR = 2;
+    // Length and checksum before the record's type and body
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private HistoryJournal() {
+    }
+
+    /**
+     * Reads a journal and returns the entries after the last clear record, oldest first.
+     */
+    static List<CalculationEntry> read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        List<CalculationEntry> entries = new ArrayList<>();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a history journal: " + file);
+        }
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 1 || length > MAX_RECORD_SIZE || length > buffer.remaining()) {
+                break;
+            }
+            ByteBuffer record = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            try {
+                byte type = record.get();
+                if (type == CLEAR) {
+                    entries.clear();
+                } else if (type == ENTRY) {
+                    entries.add(decodeEntry(record));
+                } else {
+                    break;
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                break;
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return entries;
+    }
+
+    private static CalculationEntry decodeEntry(ByteBuffer record) {
+        long millis = record.getLong();
+        String expression = getString(record);
+        String result = getString(record);
+        String category = getString(record);
+        return new CalculationEntry(expression, result, category, HistorySegment.toDateTime(millis));
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift > 28) {
+                throw new IllegalArgumentException("Malformed string length");
+            }
+            byte b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Malformed string length");
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+            StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
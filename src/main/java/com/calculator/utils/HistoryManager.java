@@ -1,29 +1,149 @@
 package com.calculator.utils;
 
+import com.calculator.metrics.LatencyHistogram;
+import com.calculator.metrics.OperationMetrics;
+
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Optional;
-import javafx.collections.FXCollections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongFunction;
 import javafx.collections.ObservableList;
 
 /**
  * Manages calculation history and logging for the calculator application.
+ *
+ * <p>History is kept without a size limit in a memory-mapped {@link HistoryStore}, written by a
+ * {@link HistoryWriter} on its own thread, so adding a calculation never waits for disk I/O.
+ * Opening the store maps only its newest segment, and entries are decoded when read, so the
+ * history is ready to show right away. A journal or text history file of earlier versions is
+ * imported on first use. Call {@link #flush()} for a durability barrier and {@link #close()}
+ * when done; a shutdown hook closes the history otherwise.
+ *
+ * <p>Searches and category filters are answered from a {@link HistoryIndex}, and statistics
+ * from running {@link HistoryAggregates}, both updated with every change. The stored entries
+ * are indexed and counted on a background thread after loading; the first query or statistic
+ * waits for it to finish. That thread maps and decodes every segment, which takes a few seconds
+ * per million entries, and the index keeps about 64 bytes of heap per entry, so both the
+ * background work at startup and the heap grow linearly with the history.
+ *
+ * <p>The history can be exported to and imported from any stream as CSV, JSON Lines or a
+ * compact binary format, optionally compressed; see {@link #exportHistory} and
+ * {@link #importHistory}.
  */
-public class HistoryManager {
-    private static final int MAX_HISTORY_SIZE = 100;
+public class HistoryManager implements AutoCloseable {
+    private static final String HISTORY_DIRECTORY = "calculator_history";
     private static final String HISTORY_FILE = "calculator_history.txt";
-    private final ObservableList<CalculationEntry> history;
+    private static final String JOURNAL_FILE = "calculator_history.journal";
+    private static final LatencyHistogram LOAD_METRICS = OperationMetrics.histogram("history.load");
+    private static final LatencyHistogram APPEND_METRICS = OperationMetrics.histogram("history.append");
+    // Imported blocks waiting for the writer
+    private static final int IMPORT_WINDOW = 4;
+    private HistoryView history;
+    private final HistoryIndex index = new HistoryIndex();
+    private final HistoryAggregates aggregates = new HistoryAggregates();
+    // Number of clears, to detect search results that outlived the entries they refer to
+    private int clears;
     private final DateTimeFormatter formatter;
+    private final Path directory;
+    private HistoryStore store;
+    private HistoryWriter writer;
     
     public HistoryManager() {
-        history = FXCollections.observableArrayList();
+        this(Paths.get(HISTORY_DIRECTORY));
+    }
+
+    /**
+     * Creates a history kept in the given directory. If it holds no history yet, a journal
+     * named calculator_history.journal or a text history file named calculator_history.txt
+     * next to the directory is imported.
+     */
+    public HistoryManager(Path directory) {
         formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        this.directory = directory;
         loadHistory();
     }
     
+    /**
+     * Category of a calculation, recorded in the history by its label.
+     */
+    public enum Category {
+        BASIC("Basic"),
+        SCIENTIFIC("Scientific"),
+        FINANCIAL("Financial"),
+        CONVERSION("Conversion"),
+        OTHER("Other");
+
+        private final String label;
+
+        Category(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Returns the category with the given label, or OTHER if there is none.
+         */
+        public static Category of(String label) {
+            switch (label) {
+                case "Basic":
+                    return BASIC;
+                case "Scientific":
+                    return SCIENTIFIC;
+                case "Financial":
+                    return FINANCIAL;
+                case "Conversion":
+                    return CONVERSION;
+                default:
+                    return OTHER;
+            }
+        }
+    }
+
+    /**
+     * Format of history exports and imports.
+     */
+    public enum Format {
+        /** Comma-separated values with a header row; timestamps to the second. */
+        CSV,
+        /** One JSON object per line with timestamp, expression, result and category fields. */
+        JSON_LINES,
+        /** Compact binary blocks; timestamps to the millisecond. */
+        BINARY
+    }
+
+    /**
+     * Compression of history exports and imports.
+     */
+    public enum Compression {
+        NONE,
+        GZIP,
+        DEFLATE
+    }
+
     /**
      * Represents a single calculation entry in the history.
      */
@@ -34,9 +154,13 @@ public class HistoryManager {
         private final String category;
         
         public CalculationEntry(String expression, String result, String category) {
+            this(expression, result, category, LocalDateTime.now());
+        }
+
+        public CalculationEntry(String expression, String result, String category, LocalDateTime timestamp) {
             this.expression = expression;
             this.result = result;
-            this.timestamp = LocalDateTime.now();
+            this.timestamp = timestamp;
             this.category = category;
         }
         
@@ -68,20 +192,28 @@ public class HistoryManager {
      * Adds a new calculation to the history.
      */
     public void addCalculation(String expression, String result, String category) {
-        CalculationEntry entry = new CalculationEntry(expression, result, category);
-        history.add(0, entry); // Add to the beginning of the list
-        
-        // Maintain maximum history size
-        if (history.size() > MAX_HISTORY_SIZE) {
-            history.remove(MAX_HISTORY_SIZE);
+        add(new CalculationEntry(expression, result, category));
+    }
+
+    private void add(CalculationEntry entry) {
+        history.push(entry); // Add to the beginning of the list
+        index.add(entry);
+        aggregates.add(entry);
+
+        // Queue for the store
+        long start = OperationMetrics.start();
+        try {
+            if (writer != null) {
+                writer.append(entry);
+            }
+        } finally {
+            OperationMetrics.stop(APPEND_METRICS, start);
         }
-        
-        // Save to file
-        saveHistory();
     }
     
     /**
-     * Returns the complete history list.
+     * Returns the complete history list, newest first. The list is read-only and must be
+     * used from the thread that changes the history.
      */
     public ObservableList<CalculationEntry> getHistory() {
         return history;
@@ -91,38 +223,106 @@ public class HistoryManager {
      * Clears the entire history.
      */
     public void clearHistory() {
-        history.clear();
-        saveHistory();
+        history.reset();
+        index.clear();
+        aggregates.clear();
+        clears++;
+        if (writer != null) {
+            writer.clear();
+        }
     }
-    
+
     /**
-     * Searches the history for entries matching the given criteria.
+     * Waits until every calculation added so far is on disk.
+     *
+     * @throws IOException if writing the store failed since the previous flush
      */
-    public List<CalculationEntry> searchHistory(String searchTerm) {
-        List<CalculationEntry> results = new ArrayList<>();
-        for (CalculationEntry entry : history) {
-            if (entry.getExpression().contains(searchTerm) ||
-                entry.getResult().contains(searchTerm) ||
-                entry.getCategory().contains(searchTerm)) {
-                results.add(entry);
-            }
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Flushes the history and stops its writer thread. Later changes are kept in memory only.
+     */
+    @Override
+    public void close() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * Registers the management bean of the history writer, which reports its queue depth,
+     * with the platform MBean server.
+     */
+    public void registerMBean() {
+        if (writer != null) {
+            writer.registerMBean();
         }
-        return results;
     }
     
+    /**
+     * Searches the history for entries whose expression, result or category contains the
+     * term. The entries are returned newest first and decoded when read; the list must not
+     * be used after the history is cleared.
+     */
+    public List<CalculationEntry> searchHistory(String searchTerm) {
+        return results(index.search(searchTerm, this::entry));
+    }
+
+    /**
+     * Returns the entries whose expression starts with the prefix, newest first, for example
+     * to complete an expression as it is typed.
+     */
+    public List<CalculationEntry> searchByPrefix(String prefix) {
+        return results(index.searchPrefix(prefix, this::entry));
+    }
+
+    /**
+     * Returns the entries with a numeric result between min and max inclusive, newest first.
+     */
+    public List<CalculationEntry> searchByResultRange(double min, double max) {
+        return results(index.searchRange(min, max));
+    }
+
     /**
      * Filters history by category.
      */
     public List<CalculationEntry> filterByCategory(String category) {
-        List<CalculationEntry> filtered = new ArrayList<>();
-        for (CalculationEntry entry : history) {
-            if (entry.getCategory().equals(category)) {
-                filtered.add(entry);
+        return results(index.filterByCategory(category));
+    }
+
+    /**
+     * Returns the entry with the given index, oldest first.
+     */
+    private CalculationEntry entry(int id) {
+        return history.get(history.size() - 1 - id);
+    }
+
+    /**
+     * Returns the entries with the given ascending ids, newest first.
+     */
+    private List<CalculationEntry> results(int[] ids) {
+        int resultClears = clears;
+        return new AbstractList<>() {
+            @Override
+            public CalculationEntry get(int i) {
+                if (clears != resultClears) {
+                    throw new ConcurrentModificationException("History cleared");
+                }
+                return entry(ids[ids.length - 1 - Objects.checkIndex(i, ids.length)]);
             }
-        }
-        return filtered;
+
+            @Override
+            public int size() {
+                return ids.length;
+            }
+        };
     }
-    
+
     /**
      * Returns the most recent calculation result.
      */
@@ -134,94 +334,328 @@ public class HistoryManager {
     }
     
     /**
-     * Exports the history to a CSV file.
+     * Exports the history to a CSV file, newest first, waiting until it is written.
      */
     public void exportToCSV(String filename) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            writer.println("Timestamp,Expression,Result,Category");
-            for (CalculationEntry entry : history) {
-                writer.printf("%s,\"%s\",\"%s\",%s%n",
-                    entry.getTimestamp().format(formatter),
-                    entry.getExpression().replace("\"", "\"\""),
-                    entry.getResult().replace("\"", "\"\""),
-                    entry.getCategory());
+        HistoryWriter.await(exportToCSVAsync(filename));
+    }
+
+    /**
+     * Exports the history to a CSV file, newest first, on a background thread. Entries added
+     * after this method returns are not exported.
+     */
+    public CompletableFuture<Void> exportToCSVAsync(String filename) {
+        return snapshot().thenAcceptAsync(snapshot -> {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filename)))) {
+                HistoryTransfer.write(position -> snapshot.entries.apply(snapshot.size - 1 - position),
+                    snapshot.size, out, Format.CSV, Compression.NONE);
+            } catch (IOException e) {
+                throw new CompletionException(e);
             }
+        });
+    }
+
+    /**
+     * Exports the history, oldest first, to a stream that is flushed but not closed. Entries
+     * are formatted in parallel and written in order, without holding the history in memory.
+     */
+    public void exportHistory(OutputStream out, Format format, Compression compression) throws IOException {
+        Snapshot snapshot = HistoryWriter.await(snapshot());
+        HistoryTransfer.write(snapshot.entries, snapshot.size, out, format, compression);
+    }
+
+    /**
+     * Exports the history, oldest first, to a channel that is not closed.
+     */
+    public void exportHistory(WritableByteChannel channel, Format format, Compression compression)
+            throws IOException {
+        exportHistory(Channels.newOutputStream(channel), format, compression);
+    }
+
+    /**
+     * Adds the entries of an export to the history, after the entries already in it, and
+     * returns their number. Entries are parsed in parallel and appended to the store in blocks;
+     * they are then indexed and counted in the statistics on a background thread. The stream
+     * is not closed.
+     *
+     * @throws IOException if reading fails or the input is malformed; entries before the
+     *                     malformed block have been added
+     */
+    public long importHistory(InputStream in, Format format, Compression compression) throws IOException {
+        if (writer == null) {
+            return HistoryTransfer.read(in, format, compression, block -> block.forEach(this::add));
         }
+        // Imported entries are indexed after all others
+        index.awaitBuild();
+        long from = history.size();
+        ArrayDeque<CompletableFuture<Void>> appending = new ArrayDeque<>();
+        Exception failure = null;
+        try {
+            HistoryTransfer.read(in, format, compression, block -> {
+                appending.add(writer.appendAll(block));
+                if (appending.size() > IMPORT_WINDOW) {
+                    HistoryWriter.await(appending.poll());
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        }
+
+        // The store holds the entries appended before any failure
+        HistoryStore.Generation stored = store.generation();
+        int added = (int) Math.min(stored.size() - from, Integer.MAX_VALUE - from);
+        history.addStored(added);
+        startIndexing(stored, from, from + added);
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        return added;
     }
-    
+
+    /**
+     * Imports the entries of an export from a channel that is not closed.
+     */
+    public long importHistory(ReadableByteChannel channel, Format format, Compression compression)
+            throws IOException {
+        return importHistory(Channels.newInputStream(channel), format, compression);
+    }
+
+    /**
+     * Takes a snapshot of the history that other threads can read. With a writer, it is taken
+     * on the writer thread once everything added before has been published to the store.
+     */
+    private CompletableFuture<Snapshot> snapshot() {
+        if (writer == null) {
+            List<CalculationEntry> entries = new ArrayList<>(history);
+            int size = entries.size();
+            return CompletableFuture.completedFuture(
+                new Snapshot(position -> entries.get(size - 1 - (int) position), size));
+        }
+        HistoryStore source = store;
+        Snapshot[] taken = new Snapshot[1];
+        return writer.submit(() -> {
+            HistoryStore.Generation stored = source.generation();
+            taken[0] = new Snapshot(stored::read, stored.size());
+        }).thenApply(done -> taken[0]);
+    }
+
     /**
-     * Loads history from file.
+     * The entries of the history at some point, oldest first.
+     */
+    private static final class Snapshot {
+        final LongFunction<CalculationEntry> entries;
+        final long size;
+
+        Snapshot(LongFunction<CalculationEntry> entries, long size) {
+            this.entries = entries;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Opens the history store, importing the journal or text history file into a new store,
+     * and starts the writer.
      */
     private void loadHistory() {
-        File file = new File(HISTORY_FILE);
-        if (!file.exists()) {
+        HistoryPersistenceEvent event = new HistoryPersistenceEvent();
+        event.begin();
+        long start = OperationMetrics.start();
+        try {
+            boolean imported = !HistoryStore.exists(directory);
+            store = HistoryStore.open(directory);
+            if (imported) {
+                importLegacyHistory();
+            }
+            history = new HistoryView(store);
+            writer = new HistoryWriter(store);
+            startIndexing(store.generation(), 0, history.size());
+        } catch (IOException | RuntimeException e) {
+            event.error = e.getMessage();
+            System.err.println("Error loading history: " + e.getMessage());
+            // Keep the history in memory only
+            store = null;
+            history = new HistoryView(null);
+        } finally {
+            OperationMetrics.stop(LOAD_METRICS, start);
+            commit(event, "load");
+        }
+    }
+
+    /**
+     * Indexes and counts stored entries on a background thread, so that loading and imports do
+     * not wait for it.
+     */
+    private void startIndexing(HistoryStore.Generation stored, long from, long to) {
+        if (from >= to) {
             return;
         }
-        
+        index.startBuild();
+        Thread indexer = new Thread(() -> index.build(stored, from, to, aggregates::add), "history-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    private void importLegacyHistory() throws IOException {
+        Path journalFile = directory.resolveSibling(JOURNAL_FILE);
+        List<CalculationEntry> entries = Files.exists(journalFile)
+            ? HistoryJournal.read(journalFile) : loadTextHistory();
+        for (CalculationEntry entry : entries) {
+            store.append(entry);
+        }
+        store.publish();
+        store.sync();
+    }
+
+    /**
+     * Reads the text history file, newest entry first, and returns its entries oldest first.
+     * Malformed lines are skipped.
+     */
+    private List<CalculationEntry> loadTextHistory() throws IOException {
+        List<CalculationEntry> entries = new ArrayList<>();
+        File file = directory.resolveSibling(HISTORY_FILE).toFile();
+        if (!file.exists()) {
+            return entries;
+        }
+
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length == 4) {
-                    LocalDateTime timestamp = LocalDateTime.parse(parts[0].trim(), formatter);
-                    String[] calculation = parts[1].trim().split("=");
-                    String expression = calculation[0].trim();
-                    String result = calculation[1].trim();
-                    String category = parts[2].trim();
-                    
-                    CalculationEntry entry = new CalculationEntry(expression, result, category);
-                    history.add(entry);
+                CalculationEntry entry = parseTextEntry(line);
+                if (entry != null) {
+                    entries.add(entry);
                 }
             }
-        } catch (IOException e) {
-            System.err.println("Error loading history: " + e.getMessage());
         }
+        Collections.reverse(entries);
+        return entries;
     }
-    
+
     /**
-     * Saves history to file.
+     * Parses a line of the text history file, or returns null if it is malformed.
      */
-    private void saveHistory() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(HISTORY_FILE))) {
-            for (CalculationEntry entry : history) {
-                writer.println(entry.toString());
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving history: " + e.getMessage());
+    private CalculationEntry parseTextEntry(String line) {
+        String[] parts = line.split("\\|");
+        if (parts.length != 4) {
+            return null;
+        }
+        String[] calculation = parts[1].trim().split("=");
+        if (calculation.length < 2) {
+            return null;
+        }
+        LocalDateTime timestamp;
+        try {
+            timestamp = LocalDateTime.parse(parts[0].trim(), formatter);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        String expression = calculation[0].trim();
+        String result = calculation[1].trim();
+        String category = parts[2].trim();
+        return new CalculationEntry(expression, result, category, timestamp);
+    }
+
+    /**
+     * Commits a persistence event if the operation exceeded its recording threshold.
+     */
+    private void commit(HistoryPersistenceEvent event, String operation) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.entries = history.size();
+            event.bytes = store == null ? 0 : store.usedBytes();
+            event.status = event.error == null ? "OK" : "ERROR";
+            event.commit();
         }
     }
     
     /**
-     * Returns statistics about the calculation history.
+     * Returns statistics about the calculation history. Waits for the stored entries to be
+     * counted after loading, then takes constant time, whatever the length of the history.
      */
     public HistoryStatistics getStatistics() {
-        int totalCalculations = history.size();
-        int basicOperations = 0;
-        int scientificOperations = 0;
-        int financialCalculations = 0;
-        int unitConversions = 0;
-        
-        for (CalculationEntry entry : history) {
-            switch (entry.getCategory()) {
-                case "Basic":
-                    basicOperations++;
-                    break;
-                case "Scientific":
-                    scientificOperations++;
-                    break;
-                case "Financial":
-                    financialCalculations++;
-                    break;
-                case "Conversion":
-                    unitConversions++;
-                    break;
-            }
+        index.awaitBuild();
+        return new HistoryStatistics(count(aggregates.total()),
+            count(aggregates.count(Category.BASIC)),
+            count(aggregates.count(Category.SCIENTIFIC)),
+            count(aggregates.count(Category.FINANCIAL)),
+            count(aggregates.count(Category.CONVERSION)));
+    }
+
+    private static int count(long count) {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of calculations in each category.
+     */
+    public Map<Category, Long> getCategoryCounts() {
+        index.awaitBuild();
+        Map<Category, Long> counts = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            counts.put(category, aggregates.count(category));
         }
-        
-        return new HistoryStatistics(totalCalculations, basicOperations,
-            scientificOperations, financialCalculations, unitConversions);
+        return counts;
     }
-    
+
+    /**
+     * Returns the number of calculations per hour over the last week, keyed by the start of
+     * the hour. Hours without calculations are left out.
+     */
+    public NavigableMap<LocalDateTime, Long> getOperationsPerHour() {
+        index.awaitBuild();
+        return aggregates.perHour();
+    }
+
+    /**
+     * Returns the number of calculations per day. Days without calculations are left out.
+     */
+    public NavigableMap<LocalDate, Long> getOperationsPerDay() {
+        index.awaitBuild();
+        return aggregates.perDay();
+    }
+
+    /**
+     * Returns the most used functions and operators, most used first, with estimated counts
+     * that may slightly exceed the true ones. At most 16 are tracked.
+     */
+    public List<FunctionCount> getMostUsedFunctions(int limit) {
+        index.awaitBuild();
+        return aggregates.mostUsedFunctions(limit);
+    }
+
+    /**
+     * A function or operator and its estimated number of uses.
+     */
+    public static class FunctionCount {
+        private final String name;
+        private final long count;
+
+        public FunctionCount(String name, long count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
     /**
      * Statistics about the calculation history.
      */
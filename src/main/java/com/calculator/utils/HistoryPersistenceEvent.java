@@ -0,0 +1,42 @@
+package com.calculator.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for loading the history in {@link HistoryManager} or writing its
+ * store in {@link HistoryWriter}.
+ *
+ * <p>Only operations slower than the threshold are committed; the settings in
+ * {@code calculator.jfc} at the project root record every one.
+ */
+@Name("com.calculator.HistoryPersistence")
+@Label("History Persistence")
+@Category({"Calculator", "Persistence"})
+@Description("History loaded, or store written or synced")
+@StackTrace(false)
+@Threshold("1 ms")
+final class HistoryPersistenceEvent extends Event {
+    @Label("Operation")
+    @Description("load, write or sync")
+    String operation;
+
+    @Label("Entries")
+    int entries;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Status")
+    String status;
+
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,312 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One memory-mapped file of the {@link HistoryStore}, holding the entries of a stretch of
+ * time within one calendar month.
+ *
+ * <p>The file has three fixed regions: a header with the segment's base time, counts and the
+ * category dictionary; an array of fixed-width records; and a heap of UTF-8 strings.
+ * <pre>
+ *   header  magic, version, base millis, record count, heap bytes used, category count,
+ *           record capacity, heap capacity, then (heap offset, length) per category
+ *   record  int   milliseconds since the base time, unsigned
+ *           int   heap offset of the expression, followed directly by the result
+ *           short expression length in bytes, unsigned
+ *           short result length in bytes, unsigned
+ *           byte  category code
+ *           3 bytes reserved
+ * </pre>
+ * Timestamps are milliseconds of local time since the epoch. Strings longer than 65535 bytes
+ * are truncated.
+ *
+ * <p>A single writer thread appends and publishes; any thread may read the records below
+ * {@link #count()}.
+ */
+final class HistorySegment {
+    static final int MAGIC = 0x43485331; // "CHS1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4096;
+    static final int RECORD_SIZE = 16;
+    static final int MAX_CATEGORIES = 255;
+    static final int MAX_STRING_BYTES = 0xFFFF;
+    private static final int DICTIONARY_OFFSET = 64;
+
+    private final Path file;
+    private final long baseMillis;
+    private final int recordCapacity;
+    private final int heapCapacity;
+    private final MappedByteBuffer buffer;
+    private final String[] categories = new String[MAX_CATEGORIES];
+    // Written by the writer thread only
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    private int categoryCount;
+    private int heapUsed;
+    private int appended;
+    // Records readable by other threads
+    private volatile int count;
+    private int syncedCount;
+    private int syncedHeap;
+
+    private HistorySegment(Path file, MappedByteBuffer buffer, long baseMillis, int recordCapacity,
+                           int heapCapacity) {
+        this.file = file;
+        this.buffer = buffer;
+        this.baseMillis = baseMillis;
+        this.recordCapacity = recordCapacity;
+        this.heapCapacity = heapCapacity;
+    }
+
+    /**
+     * Creates a segment file whose records start at the given time.
+     */
+    static HistorySegment create(Path file, long baseMillis, int recordCapacity, int heapCapacity)
+            throws IOException {
+        long size = HEADER_SIZE + (long) recordCapacity * RECORD_SIZE + heapCapacity;
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, baseMillis);
+        buffer.putInt(28, recordCapacity);
+        buffer.putInt(32, heapCapacity);
+        HistorySegment segment = new HistorySegment(file, buffer, baseMillis, recordCapacity, heapCapacity);
+        segment.publish();
+        buffer.force(0, HEADER_SIZE);
+        return segment;
+    }
+
+    /**
+     * Maps an existing segment file. Records that the header counts but that do not check out,
+     * as after a power loss between syncs, are dropped.
+     *
+     * @param writable Whether the segment will be appended to
+     */
+    static HistorySegment open(Path file, boolean writable) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a history segment: " + file);
+        }
+        int recordCapacity = buffer.getInt(28);
+        int heapCapacity = buffer.getInt(32);
+        if (recordCapacity < 0 || heapCapacity < 0
+                || HEADER_SIZE + (long) recordCapacity * RECORD_SIZE + heapCapacity > buffer.capacity()) {
+            throw new IOException("Corrupt history segment header: " + file);
+        }
+        HistorySegment segment = new HistorySegment(file, buffer, buffer.getLong(8), recordCapacity, heapCapacity);
+        segment.recover();
+        return segment;
+    }
+
+    private void recover() {
+        int categoryTotal = Math.min(Math.max(buffer.getInt(24), 0), MAX_CATEGORIES);
+        int heap = Math.min(Math.max(buffer.getInt(20), 0), heapCapacity);
+        for (int code = 0; code < categoryTotal; code++) {
+            int offset = buffer.getInt(DICTIONARY_OFFSET + code * 8);
+            int length = buffer.getInt(DICTIONARY_OFFSET + code * 8 + 4);
+            if (offset < 0 || length < 0 || (long) offset + length > heap) {
+                categoryTotal = code;
+                break;
+            }
+            categories[code] = string(offset, length);
+            categoryCodes.put(categories[code], code);
+        }
+        int records = Math.min(Math.max(buffer.getInt(16), 0), recordCapacity);
+        long expectedOffset = 0;
+        for (int i = 0; i < records; i++) {
+            int position = recordPosition(i);
+            long offset = Integer.toUnsignedLong(buffer.getInt(position + 4));
+            int length = Short.toUnsignedInt(buffer.getShort(position + 8))
+                + Short.toUnsignedInt(buffer.getShort(position + 10));
+            int code = Byte.toUnsignedInt(buffer.get(position + 12));
+            // Strings are appended in record order, so each record's strings follow the previous ones
+            if (offset < expectedOffset || offset + length > heap || code >= categoryTotal) {
+                records = i;
+                break;
+            }
+            expectedOffset = offset + length;
+        }
+        categoryCount = categoryTotal;
+        heapUsed = heap;
+        appended = records;
+        syncedCount = records;
+        syncedHeap = heap;
+        count = records;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long baseMillis() {
+        return baseMillis;
+    }
+
+    /**
+     * Returns the number of published records.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns the bytes used by published records and their strings.
+     */
+    long usedBytes() {
+        return HEADER_SIZE + (long) count * RECORD_SIZE + heapUsed;
+    }
+
+    /**
+     * Appends an entry unless it does not fit: the segment is full, its dictionary is full or
+     * the timestamp is outside the 49 days after the base time. Not visible to readers until
+     * {@link #publish()}.
+     */
+    boolean append(long millis, String expression, String result, String category) {
+        long delta = millis - baseMillis;
+        if (delta < 0 || delta > 0xFFFF_FFFFL || appended >= recordCapacity) {
+            return false;
+        }
+        byte[] expressionBytes = truncate(expression.getBytes(StandardCharsets.UTF_8));
+        byte[] resultBytes = truncate(result.getBytes(StandardCharsets.UTF_8));
+        Integer code = categoryCodes.get(category);
+        byte[] categoryBytes = code == null ? truncate(category.getBytes(StandardCharsets.UTF_8)) : null;
+        long heapNeeded = (long) expressionBytes.length + resultBytes.length
+            + (categoryBytes == null ? 0 : categoryBytes.length);
+        if (heapUsed + heapNeeded > heapCapacity || code == null && categoryCount >= MAX_CATEGORIES) {
+            return false;
+        }
+
+        if (code == null) {
+            code = categoryCount;
+            int dictionaryEntry = DICTIONARY_OFFSET + code * 8;
+            buffer.putInt(dictionaryEntry, heapUsed);
+            buffer.putInt(dictionaryEntry + 4, categoryBytes.length);
+            putHeap(categoryBytes);
+            categories[code] = category;
+            categoryCodes.put(category, code);
+            categoryCount++;
+        }
+        int position = recordPosition(appended);
+        buffer.putInt(position, (int) delta);
+        buffer.putInt(position + 4, heapUsed);
+        buffer.putShort(position + 8, (short) expressionBytes.length);
+        buffer.putShort(position + 10, (short) resultBytes.length);
+        buffer.put(position + 12, (byte) (int) code);
+        putHeap(expressionBytes);
+        putHeap(resultBytes);
+        appended++;
+        return true;
+    }
+
+    /**
+     * Makes appended records visible to readers and records the counts in the header, where
+     * they survive a crash of the process.
+     */
+    void publish() {
+        buffer.putInt(16, appended);
+        buffer.putInt(20, heapUsed);
+        buffer.putInt(24, categoryCount);
+        count = appended;
+    }
+
+    /**
+     * Forces published records to disk: first the records and strings, then the header that
+     * counts them, so a power loss never leaves the header counting unwritten records.
+     */
+    void sync() {
+        int records = count;
+        int heap = heapUsed;
+        if (records == syncedCount && heap == syncedHeap) {
+            return;
+        }
+        buffer.force(recordPosition(syncedCount), (records - syncedCount) * RECORD_SIZE);
+        buffer.force(heapPosition(syncedHeap), heap - syncedHeap);
+        buffer.force(0, HEADER_SIZE);
+        syncedCount = records;
+        syncedHeap = heap;
+    }
+
+    long millisAt(int index) {
+        return baseMillis + Integer.toUnsignedLong(buffer.getInt(recordPosition(index)));
+    }
+
+    String categoryAt(int index) {
+        return categories[Byte.toUnsignedInt(buffer.get(recordPosition(index) + 12))];
+    }
+
+    /**
+     * Decodes the record at the given index, which must be below {@link #count()}.
+     */
+    CalculationEntry read(int index) {
+        int position = recordPosition(index);
+        long millis = baseMillis + Integer.toUnsignedLong(buffer.getInt(position));
+        int offset = buffer.getInt(position + 4);
+        int expressionLength = Short.toUnsignedInt(buffer.getShort(position + 8));
+        int resultLength = Short.toUnsignedInt(buffer.getShort(position + 10));
+        String category = categories[Byte.toUnsignedInt(buffer.get(position + 12))];
+        return new CalculationEntry(string(offset, expressionLength),
+            string(offset + expressionLength, resultLength), category, toDateTime(millis));
+    }
+
+    static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+            Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(heapPosition(offset), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void putHeap(byte[] bytes) {
+        buffer.put(heapPosition(heapUsed), bytes);
+        heapUsed += bytes.length;
+    }
+
+    private int recordPosition(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private int heapPosition(int offset) {
+        return HEADER_SIZE + recordCapacity * RECORD_SIZE + offset;
+    }
+
+    private static byte[] truncate(byte[] bytes) {
+        if (bytes.length <= MAX_STRING_BYTES) {
+            return bytes;
+        }
+        // Cut at a character boundary
+        int length = MAX_STRING_BYTES;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+}
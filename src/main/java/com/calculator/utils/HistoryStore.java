@@ -0,0 +1,377 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary history store: a directory of memory-mapped {@link HistorySegment} files, each
+ * covering part of one calendar month, listed oldest first in the manifest {@code segments.idx}.
+ *
+ * <p>Opening the store reads the manifest and maps only the newest segment; older segments are
+ * mapped the first time one of their entries is read, and entries are decoded only when read.
+ * Startup time and heap use therefore do not grow with the length of the history.
+ *
+ * <p>Entries are numbered oldest first from 0. Clearing the history starts a new, empty
+ * {@link Generation}; the files of the old one stay readable until the store is next opened,
+ * when files missing from the manifest are deleted.
+ *
+ * <p>A single writer thread appends, publishes, syncs and clears; any thread may read the
+ * published entries of a generation. Segment capacities can be set with the system properties
+ * {@code calculator.history.segmentRecords} (default 65536) and
+ * {@code calculator.history.segmentHeapBytes} (default 4 MiB).
+ */
+final class HistoryStore implements AutoCloseable {
+    static final String MANIFEST = "segments.idx";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int SEGMENT_RECORDS =
+        Math.max(1, Integer.getInteger("calculator.history.segmentRecords", 65536));
+    // Room for at least one entry with the longest expression, result and category
+    private static final int SEGMENT_HEAP_BYTES = Math.max(3 * HistorySegment.MAX_STRING_BYTES,
+        Integer.getInteger("calculator.history.segmentHeapBytes", 4 << 20));
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final Path directory;
+    private volatile Generation generation;
+    // Owned by the writer thread
+    private HistorySegment tail;
+    private long tailMonthEnd;
+    private int sequence;
+
+    private HistoryStore(Path directory) {
+        this.directory = directory;
+    }
+
+    static boolean exists(Path directory) {
+        return Files.exists(directory.resolve(MANIFEST));
+    }
+
+    /**
+     * Opens the store in the given directory, creating it if needed.
+     */
+    static HistoryStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        HistoryStore store = new HistoryStore(directory);
+        store.load();
+        return store;
+    }
+
+    private void load() throws IOException {
+        List<Slot> slots = new ArrayList<>();
+        Path manifest = directory.resolve(MANIFEST);
+        if (Files.exists(manifest)) {
+            try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.trim().split(" ");
+                    if (parts.length != 3) {
+                        continue;
+                    }
+                    try {
+                        slots.add(new Slot(directory.resolve(parts[0]), Integer.parseInt(parts[1]),
+                            Long.parseLong(parts[2])));
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Corrupt history manifest: " + manifest);
+                    }
+                }
+            }
+        }
+        deleteOrphans(slots);
+
+        // The newest segment is appended to; its counts come from its own header
+        if (!slots.isEmpty()) {
+            Slot last = slots.remove(slots.size() - 1);
+            tail = HistorySegment.open(last.file, true);
+            tailMonthEnd = monthEnd(tail.baseMillis());
+            sequence = sequenceOf(last.file);
+            slots.add(new Slot(tail));
+        }
+        Generation loaded = new Generation(0);
+        loaded.setSlots(slots.toArray(new Slot[0]));
+        generation = loaded;
+    }
+
+    private void deleteOrphans(List<Slot> slots) {
+        Set<Path> listed = new HashSet<>();
+        for (Slot slot : slots) {
+            listed.add(slot.file.getFileName());
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                if (!listed.contains(file.getFileName())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error deleting cleared history: " + e.getMessage());
+        }
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    /**
+     * Returns the current generation.
+     */
+    Generation generation() {
+        return generation;
+    }
+
+    /**
+     * Appends an entry to the newest segment, starting a new one when it is full or the entry
+     * belongs to another month. Not visible to readers until {@link #publish()}.
+     */
+    void append(CalculationEntry entry) throws IOException {
+        long millis = HistorySegment.toMillis(entry.getTimestamp());
+        if (tail == null || millis >= tailMonthEnd
+                || !tail.append(millis, entry.getExpression(), entry.getResult(), entry.getCategory())) {
+            roll(millis);
+            if (!tail.append(millis, entry.getExpression(), entry.getResult(), entry.getCategory())) {
+                throw new IllegalStateException("Entry does not fit in an empty history segment");
+            }
+        }
+    }
+
+    /**
+     * Makes the appended entries visible to readers.
+     */
+    void publish() {
+        if (tail != null) {
+            tail.publish();
+            generation.publish();
+        }
+    }
+
+    /**
+     * Forces the published entries to disk.
+     */
+    void sync() {
+        if (tail != null) {
+            tail.sync();
+        }
+    }
+
+    /**
+     * Starts a new, empty generation. The old files are deleted when the store is next opened.
+     */
+    void clear() throws IOException {
+        publish();
+        sync();
+        Generation cleared = new Generation(generation.number + 1);
+        cleared.setSlots(new Slot[0]);
+        writeManifest(cleared.table.slots);
+        tail = null;
+        generation = cleared;
+    }
+
+    @Override
+    public void close() {
+        publish();
+        sync();
+    }
+
+    /**
+     * Returns the bytes used by the current generation's segments.
+     */
+    long usedBytes() {
+        long bytes = 0;
+        for (Slot slot : generation.table.slots) {
+            bytes += slot.usedBytes();
+        }
+        return bytes;
+    }
+
+    private void roll(long millis) throws IOException {
+        publish();
+        sync();
+        sequence++;
+        String name = MONTH.format(HistorySegment.toDateTime(millis))
+            + String.format("-%06d", sequence) + SEGMENT_SUFFIX;
+        // Based at the start of the month, so that entries out of time order still fit
+        HistorySegment segment = HistorySegment.create(directory.resolve(name), monthStart(millis),
+            SEGMENT_RECORDS, SEGMENT_HEAP_BYTES);
+
+        Generation current = generation;
+        Slot[] slots = Arrays.copyOf(current.table.slots, current.table.slots.length + 1);
+        if (slots.length > 1) {
+            slots[slots.length - 2] = slots[slots.length - 2].seal();
+        }
+        slots[slots.length - 1] = new Slot(segment);
+        // A crash before the manifest is written leaves only an empty orphan segment
+        writeManifest(slots);
+        tail = segment;
+        tailMonthEnd = monthEnd(millis);
+        current.setSlots(slots);
+    }
+
+    private void writeManifest(Slot[] slots) throws IOException {
+        Path manifest = directory.resolve(MANIFEST);
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Slot slot : slots) {
+                out.write(slot.file.getFileName() + " " + slot.count() + " " + slot.usedBytes());
+                out.newLine();
+            }
+        }
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long monthStart(long millis) {
+        return HistorySegment.toMillis(HistorySegment.toDateTime(millis).toLocalDate().withDayOfMonth(1).atStartOfDay());
+    }
+
+    private static long monthEnd(long millis) {
+        return HistorySegment.toMillis(HistorySegment.toDateTime(monthStart(millis)).plusMonths(1));
+    }
+
+    private static int sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        int end = name.length() - SEGMENT_SUFFIX.length();
+        try {
+            return Integer.parseInt(name.substring(name.lastIndexOf('-', end) + 1, end));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * The entries between two clears. Readers keep a generation to read its entries after a
+     * later clear.
+     */
+    static final class Generation {
+        final int number;
+        private volatile Table table;
+        private volatile long size;
+
+        Generation(int number) {
+            this.number = number;
+        }
+
+        private void setSlots(Slot[] slots) {
+            table = new Table(slots);
+            publish();
+        }
+
+        private void publish() {
+            Table current = table;
+            int last = current.slots.length - 1;
+            size = last < 0 ? 0 : current.starts[last] + current.slots[last].count();
+        }
+
+        /**
+         * Returns the number of published entries.
+         */
+        long size() {
+            return size;
+        }
+
+        /**
+         * Reads the entry with the given index, oldest first.
+         *
+         * @throws UncheckedIOException if its segment cannot be mapped
+         */
+        CalculationEntry read(long index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            Table current = table;
+            int slot = Arrays.binarySearch(current.starts, index);
+            if (slot < 0) {
+                slot = -slot - 2;
+            }
+            // Empty segments share their first index with the next one
+            while (slot + 1 < current.starts.length && current.starts[slot + 1] <= index) {
+                slot++;
+            }
+            return current.slots[slot].segment().read((int) (index - current.starts[slot]));
+        }
+    }
+
+    /**
+     * The segments of a generation and the index of each one's first entry.
+     */
+    private static final class Table {
+        final Slot[] slots;
+        final long[] starts;
+
+        Table(Slot[] slots) {
+            this.slots = slots;
+            starts = new long[slots.length];
+            long total = 0;
+            for (int i = 0; i < slots.length; i++) {
+                starts[i] = total;
+                total += slots[i].count();
+            }
+        }
+    }
+
+    /**
+     * A segment listed in the manifest, mapped on first use unless it is the newest.
+     */
+    private static final class Slot {
+        final Path file;
+        private final int sealedCount;
+        private final long sealedBytes;
+        private volatile HistorySegment segment;
+
+        Slot(Path file, int count, long bytes) {
+            this.file = file;
+            this.sealedCount = count;
+            this.sealedBytes = bytes;
+        }
+
+        Slot(HistorySegment segment) {
+            this.file = segment.file();
+            this.sealedCount = -1;
+            this.sealedBytes = -1;
+            this.segment = segment;
+        }
+
+        Slot seal() {
+            Slot sealed = new Slot(file, segment.count(), segment.usedBytes());
+            sealed.segment = segment;
+            return sealed;
+        }
+
+        int count() {
+            return sealedCount >= 0 ? sealedCount : segment.count();
+        }
+
+        long usedBytes() {
+            return sealedBytes >= 0 ? sealedBytes : segment.usedBytes();
+        }
+
+        HistorySegment segment() {
+            HistorySegment mapped = segment;
+            if (mapped == null) {
+                synchronized (this) {
+                    mapped = segment;
+                    if (mapped == null) {
+                        try {
+                            mapped = HistorySegment.open(file, false);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        segment = mapped;
+                    }
+                }
+            }
+            return mapped;
+        }
+    }
+}
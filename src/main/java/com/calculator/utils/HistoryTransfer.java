@@ -0,0 +1,858 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import com.calculator.utils.HistoryManager.Compression;
+import com.calculator.utils.HistoryManager.Format;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongFunction;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Streaming export and import of history entries as CSV, JSON Lines or a compact binary format,
+ * optionally compressed.
+ *
+ * <p>Entries are formatted and parsed in blocks on a pool of worker threads, while the calling
+ * thread writes finished blocks, or hands parsed ones on, in their original order. Only a few
+ * blocks are in flight at a time, so memory use does not depend on the number of entries. With
+ * gzip, the workers also compress each block into a member of a multi-member gzip file, which
+ * gzip tools read as one; deflate output is a single zlib stream.
+ *
+ * <p>CSV rows are {@code timestamp,"expression","result",category} after a header row, with
+ * timestamps to the second. JSON Lines objects have the string fields {@code timestamp} (ISO-8601
+ * local time to the millisecond), {@code expression}, {@code result} and {@code category}. The
+ * binary format starts with the magic number {@code CHX1}, followed by blocks of
+ * <pre>
+ *   varint payload length, varint row count, rows
+ * </pre>
+ * and an empty block at the end. A row is the timestamp as a zigzag varint difference in
+ * milliseconds of local time from the previous row of its block, a varint category code that is
+ * followed by the category's name the first time the block uses it, and the expression and
+ * result; strings are UTF-8 with a varint length.
+ */
+final class HistoryTransfer {
+    static final int MAGIC = 0x43485831; // "CHX1"
+    static final String CSV_HEADER = "Timestamp,Expression,Result,Category";
+    private static final int BLOCK_ROWS = 8192;
+    // Text is split into chunks of about this many bytes for parsing
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final int MAX_BLOCK_BYTES = 1 << 30;
+    private static final int WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int WINDOW = 2 * WORKERS + 1;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(WORKERS, runnable -> {
+        Thread thread = new Thread(runnable, "history-transfer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private HistoryTransfer() {
+    }
+
+    /**
+     * Receives the parsed entries block by block, in input order.
+     */
+    interface BlockConsumer {
+        void accept(List<CalculationEntry> block) throws IOException;
+    }
+
+    /**
+     * Writes entries to a stream, which is flushed but not closed.
+     *
+     * @param entries Returns the entry with an index below count; called from worker threads
+     */
+    static void write(LongFunction<CalculationEntry> entries, long count, OutputStream out,
+                      Format format, Compression compression) throws IOException {
+        // Gzip blocks are compressed by the workers, as members of a multi-member gzip file
+        DeflaterOutputStream deflater = compression == Compression.DEFLATE
+            ? new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), 1 << 16) : null;
+        OutputStream target = deflater != null ? deflater : out;
+
+        if (format == Format.CSV) {
+            Buffer header = new Buffer(CSV_HEADER.length() + LINE_SEPARATOR.length);
+            header.ascii(CSV_HEADER);
+            header.bytes(LINE_SEPARATOR, LINE_SEPARATOR.length);
+            target.write(pack(header.toArray(), compression));
+        } else if (format == Format.BINARY) {
+            target.write(pack(new byte[] {(byte) (MAGIC >>> 24), (byte) (MAGIC >>> 16), (byte) (MAGIC >>> 8),
+                (byte) MAGIC}, compression));
+        }
+        ArrayDeque<CompletableFuture<byte[]>> inFlight = new ArrayDeque<>();
+        for (long start = 0; start < count; start += BLOCK_ROWS) {
+            long from = start;
+            long to = Math.min(count, start + BLOCK_ROWS);
+            inFlight.add(CompletableFuture.supplyAsync(() -> pack(format(entries, from, to, format), compression),
+                POOL));
+            if (inFlight.size() >= WINDOW) {
+                target.write(join(inFlight.poll()));
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            target.write(join(inFlight.poll()));
+        }
+        if (format == Format.BINARY) {
+            target.write(pack(new byte[] {0}, compression)); // empty block
+        } else if (format == Format.JSON_LINES && count == 0 && compression == Compression.GZIP) {
+            target.write(pack(new byte[0], compression)); // a gzip file needs a member
+        }
+
+        if (deflater != null) {
+            deflater.finish();
+        }
+        target.flush();
+    }
+
+    /**
+     * Compresses a gzip block as a gzip member; other blocks are returned as they are.
+     */
+    private static byte[] pack(byte[] block, Compression compression) {
+        if (compression != Compression.GZIP) {
+            return block;
+        }
+        ByteArrayOutputStream member = new ByteArrayOutputStream(block.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(member, 1 << 16) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        }) {
+            gzip.write(block);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by a byte array
+        }
+        return member.toByteArray();
+    }
+
+    /**
+     * Reads entries from a stream, which is not closed, and returns their number.
+     *
+     * @throws IOException if reading fails or the input is malformed; blocks before the
+     *                     malformed one have been passed on
+     */
+    static long read(InputStream in, Format format, Compression compression, BlockConsumer consumer)
+            throws IOException {
+        InputStream source;
+        if (compression == Compression.GZIP) {
+            source = new GZIPInputStream(in, 1 << 16);
+        } else if (compression == Compression.DEFLATE) {
+            source = new InflaterInputStream(in, new Inflater(), 1 << 16);
+        } else {
+            source = in;
+        }
+        source = new BufferedInputStream(source, 1 << 16);
+
+        ArrayDeque<CompletableFuture<List<CalculationEntry>>> inFlight = new ArrayDeque<>();
+        long total = 0;
+        ChunkReader chunks = format == Format.BINARY ? new BlockReader(source) : new LineReader(source,
+            format == Format.CSV);
+        byte[] chunk;
+        while ((chunk = chunks.next()) != null) {
+            byte[] bytes = chunk;
+            inFlight.add(CompletableFuture.supplyAsync(() -> parse(bytes, format), POOL));
+            if (inFlight.size() >= WINDOW) {
+                total += pass(inFlight.poll(), consumer);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            total += pass(inFlight.poll(), consumer);
+        }
+        return total;
+    }
+
+    private static long pass(CompletableFuture<List<CalculationEntry>> parsed, BlockConsumer consumer)
+            throws IOException {
+        List<CalculationEntry> block = join(parsed);
+        consumer.accept(block);
+        return block.size();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw e;
+        }
+    }
+
+    // Formatting
+
+    private static byte[] format(LongFunction<CalculationEntry> entries, long from, long to, Format format) {
+        Buffer buffer = new Buffer(64 * (int) (to - from));
+        if (format == Format.BINARY) {
+            Map<String, Integer> categories = new HashMap<>();
+            long previous = 0;
+            for (long i = from; i < to; i++) {
+                CalculationEntry entry = entries.apply(i);
+                long millis = HistorySegment.toMillis(entry.getTimestamp());
+                long delta = millis - previous;
+                buffer.varint(delta << 1 ^ delta >> 63);
+                previous = millis;
+                Integer code = categories.get(entry.getCategory());
+                if (code == null) {
+                    code = categories.size();
+                    categories.put(entry.getCategory(), code);
+                    buffer.varint(code);
+                    buffer.string(entry.getCategory());
+                } else {
+                    buffer.varint(code);
+                }
+                buffer.string(entry.getExpression());
+                buffer.string(entry.getResult());
+            }
+            Buffer framed = new Buffer(buffer.length + 10);
+            framed.varint(buffer.length);
+            framed.varint(to - from);
+            framed.bytes(buffer.data, buffer.length);
+            return framed.toArray();
+        }
+        for (long i = from; i < to; i++) {
+            CalculationEntry entry = entries.apply(i);
+            if (format == Format.CSV) {
+                buffer.timestamp(entry.getTimestamp(), ' ', false);
+                buffer.ascii(',');
+                buffer.csv(entry.getExpression(), true);
+                buffer.ascii(',');
+                buffer.csv(entry.getResult(), true);
+                buffer.ascii(',');
+                buffer.csv(entry.getCategory(), false);
+                buffer.bytes(LINE_SEPARATOR, LINE_SEPARATOR.length);
+            } else {
+                buffer.ascii("{\"timestamp\":\"");
+                buffer.timestamp(entry.getTimestamp(), 'T', true);
+                buffer.ascii("\",\"expression\":");
+                buffer.json(entry.getExpression());
+                buffer.ascii(",\"result\":");
+                buffer.json(entry.getResult());
+                buffer.ascii(",\"category\":");
+                buffer.json(entry.getCategory());
+                buffer.ascii("}\n");
+            }
+        }
+        return buffer.toArray();
+    }
+
+    /**
+     * Growable byte array with encoders for the export formats.
+     */
+    private static final class Buffer {
+        byte[] data;
+        int length;
+
+        Buffer(int capacity) {
+            data = new byte[Math.max(16, capacity)];
+        }
+
+        private void reserve(int bytes) {
+            if (length + bytes > data.length) {
+                data = Arrays.copyOf(data, Math.max(length + bytes, data.length * 2));
+            }
+        }
+
+        void ascii(char c) {
+            reserve(1);
+            data[length++] = (byte) c;
+        }
+
+        void ascii(String text) {
+            reserve(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                data[length++] = (byte) text.charAt(i);
+            }
+        }
+
+        void bytes(byte[] bytes, int count) {
+            reserve(count);
+            System.arraycopy(bytes, 0, data, length, count);
+            length += count;
+        }
+
+        void varint(long value) {
+            reserve(10);
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+
+        void string(String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            bytes(bytes, bytes.length);
+        }
+
+        private void utf8(String text, int from, int to) {
+            if (from < to) {
+                byte[] bytes = text.substring(from, to).getBytes(StandardCharsets.UTF_8);
+                bytes(bytes, bytes.length);
+            }
+        }
+
+        /**
+         * Writes a CSV field, quoting it if asked or if it needs quotes.
+         */
+        void csv(String text, boolean quote) {
+            if (!quote) {
+                for (int i = 0; i < text.length() && !quote; i++) {
+                    char c = text.charAt(i);
+                    quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+                }
+            }
+            if (quote) {
+                ascii('"');
+            }
+            int start = 0;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '"') {
+                    utf8(text, start, i + 1);
+                    start = i; // the quote is written twice
+                }
+            }
+            utf8(text, start, text.length());
+            if (quote) {
+                ascii('"');
+            }
+        }
+
+        void json(String text) {
+            ascii('"');
+            int start = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"' || c == '\\' || c < 0x20) {
+                    utf8(text, start, i);
+                    start = i + 1;
+                    switch (c) {
+                        case '"' -> ascii("\\\"");
+                        case '\\' -> ascii("\\\\");
+                        case '\n' -> ascii("\\n");
+                        case '\r' -> ascii("\\r");
+                        case '\t' -> ascii("\\t");
+                        default -> ascii(String.format("\\u%04x", (int) c));
+                    }
+                }
+            }
+            utf8(text, start, text.length());
+            ascii('"');
+        }
+
+        void timestamp(LocalDateTime timestamp, char separator, boolean millis) {
+            digits(timestamp.getYear(), 4);
+            ascii('-');
+            digits(timestamp.getMonthValue(), 2);
+            ascii('-');
+            digits(timestamp.getDayOfMonth(), 2);
+            ascii(separator);
+            digits(timestamp.getHour(), 2);
+            ascii(':');
+            digits(timestamp.getMinute(), 2);
+            ascii(':');
+            digits(timestamp.getSecond(), 2);
+            if (millis) {
+                ascii('.');
+                digits(timestamp.getNano() / 1_000_000, 3);
+            }
+        }
+
+        private void digits(int value, int width) {
+            if (value < 0 || value >= 10_000 && width == 4) {
+                ascii(Integer.toString(value)); // years outside 0000-9999
+                return;
+            }
+            reserve(width);
+            for (int i = width - 1; i >= 0; i--) {
+                data[length + i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            length += width;
+        }
+
+        byte[] toArray() {
+            return length == data.length ? data : Arrays.copyOf(data, length);
+        }
+    }
+
+    // Splitting input into chunks
+
+    private interface ChunkReader {
+        /**
+         * Returns the next chunk that can be parsed on its own, or null at the end.
+         */
+        byte[] next() throws IOException;
+    }
+
+    /**
+     * Splits text into chunks of whole lines. In CSV, line breaks inside quotes do not end a
+     * line.
+     */
+    private static final class LineReader implements ChunkReader {
+        private final InputStream in;
+        private final boolean quotes;
+        private byte[] carry = new byte[0];
+        private boolean end;
+
+        LineReader(InputStream in, boolean quotes) {
+            this.in = in;
+            this.quotes = quotes;
+        }
+
+        @Override
+        public byte[] next() throws IOException {
+            if (end) {
+                return null;
+            }
+            byte[] buffer = Arrays.copyOf(carry, Math.max(CHUNK_BYTES, carry.length * 2));
+            int length = carry.length;
+            while (length < buffer.length) {
+                int read = in.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    end = true;
+                    break;
+                }
+                length += read;
+            }
+            if (end) {
+                carry = new byte[0];
+                return length == 0 ? null : Arrays.copyOf(buffer, length);
+            }
+            // Cut after the last line break outside quotes
+            int cut = -1;
+            boolean quoted = false;
+            for (int i = 0; i < length; i++) {
+                byte b = buffer[i];
+                if (quotes && b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    cut = i + 1;
+                }
+            }
+            if (cut < 0) {
+                // A single line longer than the buffer: read on
+                carry = Arrays.copyOf(buffer, length);
+                return next();
+            }
+            carry = Arrays.copyOfRange(buffer, cut, length);
+            return Arrays.copyOf(buffer, cut);
+        }
+    }
+
+    /**
+     * Returns the blocks of the binary format, each with its row count.
+     */
+    private static final class BlockReader implements ChunkReader {
+        private final InputStream in;
+        private boolean started;
+
+        BlockReader(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public byte[] next() throws IOException {
+            if (!started) {
+                int magic = 0;
+                for (int i = 0; i < 4; i++) {
+                    magic = magic << 8 | readByte();
+                }
+                if (magic != MAGIC) {
+                    throw new IOException("Not a binary history export");
+                }
+                started = true;
+            }
+            long length = readVarint();
+            if (length == 0) {
+                return null;
+            }
+            if (length > MAX_BLOCK_BYTES) {
+                throw new IOException("Malformed binary history export: block of " + length + " bytes");
+            }
+            long rows = readVarint();
+            if (rows > length) {
+                throw new IOException("Malformed binary history export: " + rows + " rows");
+            }
+            Buffer block = new Buffer((int) length + 5);
+            block.varint(rows);
+            int payloadStart = block.length;
+            block.length += (int) length;
+            readFully(block.data, payloadStart, (int) length);
+            return block.toArray();
+        }
+
+        private int readByte() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated binary history export");
+            }
+            return b;
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed binary history export: varint too long");
+        }
+
+        private void readFully(byte[] buffer, int offset, int length) throws IOException {
+            while (length > 0) {
+                int read = in.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new EOFException("Truncated binary history export");
+                }
+                offset += read;
+                length -= read;
+            }
+        }
+    }
+
+    // Parsing
+
+    private static List<CalculationEntry> parse(byte[] chunk, Format format) {
+        try {
+            if (format == Format.BINARY) {
+                return parseBinary(chunk);
+            }
+            return new TextParser(new String(chunk, StandardCharsets.UTF_8), format == Format.CSV).parse();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<CalculationEntry> parseBinary(byte[] block) throws IOException {
+        int[] position = {0};
+        long rows = binaryVarint(block, position);
+        List<CalculationEntry> entries = new ArrayList<>((int) rows);
+        List<String> categories = new ArrayList<>();
+        long millis = 0;
+        for (long i = 0; i < rows; i++) {
+            long delta = binaryVarint(block, position);
+            millis += delta >>> 1 ^ -(delta & 1);
+            long code = binaryVarint(block, position);
+            if (code == categories.size()) {
+                categories.add(binaryString(block, position));
+            } else if (code > categories.size()) {
+                throw new IOException("Malformed binary history export: category " + code);
+            }
+            String category = categories.get((int) code);
+            String expression = binaryString(block, position);
+            String result = binaryString(block, position);
+            entries.add(new CalculationEntry(expression, result, category, HistorySegment.toDateTime(millis)));
+        }
+        if (position[0] != block.length) {
+            throw new IOException("Malformed binary history export: block length");
+        }
+        return entries;
+    }
+
+    private static long binaryVarint(byte[] block, int[] position) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= block.length) {
+                throw new IOException("Malformed binary history export: truncated row");
+            }
+            byte b = block[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed binary history export: varint too long");
+    }
+
+    private static String binaryString(byte[] block, int[] position) throws IOException {
+        long length = binaryVarint(block, position);
+        if (length > block.length - position[0]) {
+            throw new IOException("Malformed binary history export: truncated string");
+        }
+        String value = new String(block, position[0], (int) length, StandardCharsets.UTF_8);
+        position[0] += (int) length;
+        return value;
+    }
+
+    /**
+     * Parses the CSV rows or JSON Lines objects in a chunk of whole lines.
+     */
+    private static final class TextParser {
+        private static final String[] FIELDS = {"\"timestamp\"", "\"expression\"", "\"result\"", "\"category\""};
+        private final String text;
+        private final boolean csv;
+        private int position;
+        private final StringBuilder field = new StringBuilder();
+
+        TextParser(String text, boolean csv) {
+            this.text = text;
+            this.csv = csv;
+        }
+
+        List<CalculationEntry> parse() throws IOException {
+            List<CalculationEntry> entries = new ArrayList<>();
+            while (position < text.length()) {
+                int lineStart = position;
+                int lineEnd = text.indexOf('\n', position);
+                if (lineEnd < 0) {
+                    lineEnd = text.length();
+                }
+                boolean blank = true;
+                for (int i = lineStart; i < lineEnd && blank; i++) {
+                    blank = Character.isWhitespace(text.charAt(i));
+                }
+                if (blank || csv && text.startsWith(CSV_HEADER, lineStart)) {
+                    position = lineEnd + 1;
+                    continue;
+                }
+                try {
+                    entries.add(csv ? csvRow() : jsonObject());
+                } catch (IOException | DateTimeException | StringIndexOutOfBoundsException e) {
+                    int end = text.indexOf('\n', lineStart);
+                    throw new IOException("Malformed history record: "
+                        + text.substring(lineStart, end < 0 ? text.length() : end).strip(), e);
+                }
+            }
+            return entries;
+        }
+
+        private CalculationEntry csvRow() throws IOException {
+            String timestamp = csvField();
+            expect(',');
+            String expression = csvField();
+            expect(',');
+            String result = csvField();
+            expect(',');
+            String category = csvField();
+            endOfLine();
+            return new CalculationEntry(expression, result, category, parseTimestamp(timestamp));
+        }
+
+        private String csvField() {
+            field.setLength(0);
+            if (position < text.length() && text.charAt(position) == '"') {
+                position++;
+                while (true) {
+                    int quote = text.indexOf('"', position);
+                    if (quote < 0) {
+                        throw new StringIndexOutOfBoundsException("Unterminated quote");
+                    }
+                    field.append(text, position, quote);
+                    position = quote + 1;
+                    if (position < text.length() && text.charAt(position) == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        return field.toString();
+                    }
+                }
+            }
+            int start = position;
+            while (position < text.length() && text.charAt(position) != ','
+                    && text.charAt(position) != '\n' && text.charAt(position) != '\r') {
+                position++;
+            }
+            return text.substring(start, position);
+        }
+
+        private CalculationEntry jsonObject() throws IOException {
+            String timestamp = null;
+            String expression = null;
+            String result = null;
+            String category = null;
+            skipSpaces();
+            expect('{');
+            skipSpaces();
+            if (peek() != '}') {
+                do {
+                    skipSpaces();
+                    int name = jsonName();
+                    skipSpaces();
+                    expect(':');
+                    skipSpaces();
+                    String value = jsonString();
+                    switch (name) {
+                        case 0 -> timestamp = value;
+                        case 1 -> expression = value;
+                        case 2 -> result = value;
+                        case 3 -> category = value;
+                        default -> {
+                            // Ignore unknown fields
+                        }
+                    }
+                    skipSpaces();
+                } while (accept(','));
+            }
+            expect('}');
+            endOfLine();
+            if (timestamp == null || expression == null || result == null || category == null) {
+                throw new IOException("Missing field");
+            }
+            return new CalculationEntry(expression, result, category, parseTimestamp(timestamp));
+        }
+
+        /**
+         * Reads a field name and returns its index in {@link #FIELDS}, or -1 for other names.
+         */
+        private int jsonName() throws IOException {
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (text.startsWith(FIELDS[i], position)) {
+                    position += FIELDS[i].length();
+                    return i;
+                }
+            }
+            jsonString();
+            return -1;
+        }
+
+        private String jsonString() throws IOException {
+            expect('"');
+            int start = position;
+            char first;
+            while ((first = text.charAt(position)) != '"' && first != '\\') {
+                position++;
+            }
+            if (first == '"') {
+                return text.substring(start, position++); // no escapes
+            }
+            field.setLength(0);
+            field.append(text, start, position);
+            while (true) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return field.toString();
+                }
+                if (c != '\\') {
+                    field.append(c);
+                    continue;
+                }
+                char escape = text.charAt(position++);
+                switch (escape) {
+                    case '"', '\\', '/' -> field.append(escape);
+                    case 'b' -> field.append('\b');
+                    case 'f' -> field.append('\f');
+                    case 'n' -> field.append('\n');
+                    case 'r' -> field.append('\r');
+                    case 't' -> field.append('\t');
+                    case 'u' -> {
+                        try {
+                            field.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IOException("Bad escape");
+                        }
+                        position += 4;
+                    }
+                    default -> throw new IOException("Bad escape");
+                }
+            }
+        }
+
+        private char peek() {
+            return position < text.length() ? text.charAt(position) : '\n';
+        }
+
+        private boolean accept(char c) {
+            if (peek() == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) throws IOException {
+            if (!accept(c)) {
+                throw new IOException("Expected " + c);
+            }
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && (text.charAt(position) == ' ' || text.charAt(position) == '\t')) {
+                position++;
+            }
+        }
+
+        private void endOfLine() throws IOException {
+            skipSpaces();
+            accept('\r');
+            if (position < text.length() && !accept('\n')) {
+                throw new IOException("Unexpected text at end of line");
+            }
+        }
+    }
+
+    /**
+     * Parses a timestamp such as {@code 2024-01-31 12:30:00} or {@code 2024-01-31T12:30:00.250}.
+     */
+    static LocalDateTime parseTimestamp(String text) {
+        int length = text.length();
+        if (length >= 19 && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && (text.charAt(10) == ' ' || text.charAt(10) == 'T')
+                && text.charAt(13) == ':' && text.charAt(16) == ':') {
+            int nanos = 0;
+            boolean valid = length == 19;
+            if (length > 20 && length <= 29 && text.charAt(19) == '.') {
+                valid = true;
+                for (int i = 20; i < 29; i++) {
+                    int digit = i < length ? text.charAt(i) - '0' : 0;
+                    if (digit < 0 || digit > 9) {
+                        valid = false;
+                        break;
+                    }
+                    nanos = nanos * 10 + digit;
+                }
+            }
+            int year = number(text, 0, 4);
+            int month = number(text, 5, 7);
+            int day = number(text, 8, 10);
+            int hour = number(text, 11, 13);
+            int minute = number(text, 14, 16);
+            int second = number(text, 17, 19);
+            if (valid && year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+            }
+        }
+        return LocalDateTime.parse(text.replace(' ', 'T'));
+    }
+
+    private static int number(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
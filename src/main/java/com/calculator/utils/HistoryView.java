@@ -0,0 +1,159 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import javafx.collections.ObservableListBase;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Read-only list of the history, newest entry first, backed by a {@link HistoryStore}.
+ *
+ * <p>Entries added through this list are kept in memory until the writer thread has published
+ * them to the store, and afterwards as long as they are among the most recent ones; all older
+ * entries are decoded from the store on each access. Must be used from a single thread.
+ */
+final class HistoryView extends ObservableListBase<CalculationEntry> {
+    private static final int RECENT_CAPACITY = 1024;
+
+    private final HistoryStore store;
+    // Newest entries, newest at head
+    private CalculationEntry[] recent = new CalculationEntry[RECENT_CAPACITY];
+    private int head = -1;
+    private int recentCount;
+    private int size;
+    // Number of the store generation this list shows
+    private int generation;
+
+    /**
+     * @param store The store holding the history, or null to keep it in memory only
+     */
+    HistoryView(HistoryStore store) {
+        this.store = store;
+        if (store != null) {
+            HistoryStore.Generation loaded = store.generation();
+            generation = loaded.number;
+            size = (int) Math.min(loaded.size(), Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public CalculationEntry get(int index) {
+        Objects.checkIndex(index, size);
+        if (index < recentCount) {
+            return recent[Math.floorMod(head - index, recent.length)];
+        }
+        // Entries leave memory only once they are in the store
+        return store.generation().read(size - 1 - index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an entry at the start of the list.
+     */
+    void push(CalculationEntry entry) {
+        if (recentCount == recent.length) {
+            trim();
+        }
+        if (recentCount == recent.length) {
+            // The writer has not caught up with the oldest entries in memory
+            CalculationEntry[] grown = new CalculationEntry[recent.length * 2];
+            for (int i = 0; i < recentCount; i++) {
+                grown[recentCount - 1 - i] = recent[Math.floorMod(head - i, recent.length)];
+            }
+            recent = grown;
+            head = recentCount - 1;
+        }
+        head = (head + 1) % recent.length;
+        recent[head] = entry;
+        recentCount++;
+        size++;
+
+        beginChange();
+        nextAdd(0, 1);
+        endChange();
+    }
+
+    /**
+     * Adds entries that were appended to the store directly, after all entries in memory have
+     * been published to it.
+     */
+    void addStored(int count) {
+        if (count <= 0) {
+            return;
+        }
+        // All entries in memory are older than the new ones and can be read from the store
+        Arrays.fill(recent, null);
+        head = -1;
+        recentCount = 0;
+        size += count;
+
+        beginChange();
+        nextAdd(0, count);
+        endChange();
+    }
+
+    /**
+     * Removes all entries. The removed entries reported to listeners stay readable.
+     */
+    void reset() {
+        if (size == 0) {
+            return;
+        }
+        CalculationEntry[] removedRecent = new CalculationEntry[recentCount];
+        for (int i = 0; i < recentCount; i++) {
+            removedRecent[i] = recent[Math.floorMod(head - i, recent.length)];
+        }
+        HistoryStore.Generation removedStored = store != null && store.generation().number == generation
+            ? store.generation() : null;
+        int removedSize = size;
+        List<CalculationEntry> removed = new AbstractList<>() {
+            @Override
+            public CalculationEntry get(int index) {
+                Objects.checkIndex(index, removedSize);
+                return index < removedRecent.length
+                    ? removedRecent[index] : removedStored.read(removedSize - 1 - index);
+            }
+
+            @Override
+            public int size() {
+                return removedSize;
+            }
+        };
+
+        Arrays.fill(recent, null);
+        head = -1;
+        recentCount = 0;
+        size = 0;
+        generation++;
+
+        beginChange();
+        nextRemove(0, removed);
+        endChange();
+    }
+
+    /**
+     * Drops the oldest entries in memory that the store has published.
+     */
+    private void trim() {
+        if (store == null) {
+            return;
+        }
+        HistoryStore.Generation stored = store.generation();
+        if (stored.number != generation) {
+            return;
+        }
+        long published = stored.size();
+        int keep = RECENT_CAPACITY / 2;
+        while (recentCount > keep && size - recentCount < published) {
+            recent[Math.floorMod(head - recentCount + 1, recent.length)] = null;
+            recentCount--;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.calculator.utils;
+
+import com.calculator.metrics.LatencyHistogram;
+import com.calculator.metrics.OperationMetrics;
+import com.calculator.utils.HistoryManager.CalculationEntry;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes history changes to a {@link HistoryStore} on a dedicated thread.
+ *
+ * <p>Callers enqueue entries on a bounded lock-free queue and return at once; when the queue
+ * is full they wait for the writer to catch up rather than lose entries. The writer thread
+ * drains the queue in batches, appends each batch to the mapped store and publishes it, and
+ * forces the store to disk at most once per sync interval (group commit), so a power loss loses
+ * at most that interval of history. {@link #flush()} is a durability barrier for everything
+ * enqueued before it.
+ *
+ * <p>The sync interval and the queue capacity can be set with the system properties
+ * {@code calculator.history.syncIntervalMillis} (default 100; 0 syncs every batch) and
+ * {@code calculator.history.queueCapacity} (default 8192).
+ */
+final class HistoryWriter implements AutoCloseable {
+    private static final int QUEUE_CAPACITY = Integer.getInteger("calculator.history.queueCapacity", 8192);
+    private static final long SYNC_INTERVAL_MILLIS = Long.getLong("calculator.history.syncIntervalMillis", 100);
+    private static final int MAX_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = 1_000_000_000L;
+
+    private static final LatencyHistogram WRITE_METRICS = OperationMetrics.histogram("history.write");
+    private static final LatencyHistogram SYNC_METRICS = OperationMetrics.histogram("history.sync");
+
+    private static final Object CLEAR = new Object();
+
+    private final HistoryStore store;
+    private final long syncIntervalNanos = Math.max(0, SYNC_INTERVAL_MILLIS) * 1_000_000;
+    private final BoundedQueue<Object> queue = new BoundedQueue<>(Math.max(16, QUEUE_CAPACITY));
+    private final Thread thread;
+    private final Thread shutdownHook;
+    private volatile boolean idle;
+    private volatile boolean closed;
+    private ObjectName objectName;
+
+    // Owned by the writer thread
+    private boolean unpublished;
+    private long writeStart;
+    private boolean unsynced;
+    private long lastSyncNanos = System.nanoTime();
+    private IOException pendingError;
+
+    private final LongAdder recordsWritten = new LongAdder();
+    private final LongAdder queueFullStalls = new LongAdder();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    /**
+     * Starts a writer thread that owns all changes to the store from now on.
+     */
+    HistoryWriter(HistoryStore store) {
+        this.store = store;
+        thread = new Thread(this::run, "history-writer");
+        thread.setDaemon(true);
+        thread.start();
+        shutdownHook = new Thread(this::close, "history-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    void append(CalculationEntry entry) {
+        enqueue(entry);
+    }
+
+    /**
+     * Enqueues a block of entries, for bulk imports. The returned future completes once they
+     * are appended to the store.
+     */
+    CompletableFuture<Void> appendAll(List<CalculationEntry> entries) {
+        Block block = new Block(entries);
+        enqueue(block);
+        return block;
+    }
+
+    void clear() {
+        enqueue(CLEAR);
+    }
+
+    /**
+     * Waits until everything enqueued so far is on disk.
+     *
+     * @throws IOException if a write or sync since the previous flush failed
+     */
+    void flush() throws IOException {
+        await(submit(this::sync));
+    }
+
+    /**
+     * Runs an I/O action on the writer thread, after everything enqueued before it has been
+     * published to the store.
+     */
+    CompletableFuture<Void> submit(Action action) {
+        Task task = new Task(action);
+        enqueue(task);
+        return task;
+    }
+
+    static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Flushes and stops the writer. Entries enqueued concurrently with closing may be lost.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                System.err.println("Error flushing history: " + e.getMessage());
+            }
+            closed = true;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down
+        }
+        unregisterMBean();
+    }
+
+    private void enqueue(Object operation) {
+        if (closed) {
+            throw new IllegalStateException("History writer is closed");
+        }
+        while (!queue.offer(operation)) {
+            // Back-pressure: wait for the writer rather than drop entries
+            queueFullStalls.increment();
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, 100_000);
+        }
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                drain();
+                if (unsynced && System.nanoTime() - lastSyncNanos >= syncIntervalNanos) {
+                    sync();
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error writing history: " + e.getMessage());
+                pendingError = e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+            if (queue.isEmpty()) {
+                if (closed) {
+                    break;
+                }
+                idle = true;
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.parkNanos(this, parkNanos());
+                }
+                idle = false;
+            }
+        }
+        store.close();
+    }
+
+    private long parkNanos() {
+        if (unsynced) {
+            return Math.max(1000, lastSyncNanos + syncIntervalNanos - System.nanoTime());
+        }
+        return IDLE_PARK_NANOS;
+    }
+
+    private void drain() throws IOException {
+        Object operation;
+        for (int i = 0; i < MAX_BATCH && (operation = queue.poll()) != null; i++) {
+            if (operation instanceof CalculationEntry) {
+                if (!unpublished) {
+                    writeStart = OperationMetrics.start();
+                }
+                store.append((CalculationEntry) operation);
+                unpublished = true;
+                recordsWritten.increment();
+            } else if (operation instanceof Block) {
+                if (!unpublished) {
+                    writeStart = OperationMetrics.start();
+                }
+                ((Block) operation).run();
+                unpublished = true;
+            } else if (operation == CLEAR) {
+                publish();
+                store.clear();
+                unsynced = false;
+                recordsWritten.increment();
+            } else {
+                publish();
+                ((Task) operation).run();
+            }
+        }
+        publish();
+    }
+
+    /**
+     * Makes the appended entries visible to readers of the store.
+     */
+    private void publish() {
+        if (!unpublished) {
+            return;
+        }
+        HistoryPersistenceEvent event = new HistoryPersistenceEvent();
+        event.begin();
+        store.publish();
+        unpublished = false;
+        unsynced = true;
+        OperationMetrics.stop(WRITE_METRICS, writeStart);
+        commit(event, "write");
+    }
+
+    private void sync() throws IOException {
+        publish();
+        if (pendingError != null) {
+            IOException error = pendingError;
+            pendingError = null;
+            throw error;
+        }
+        if (!unsynced) {
+            return;
+        }
+        HistoryPersistenceEvent event = new HistoryPersistenceEvent();
+        event.begin();
+        long start = OperationMetrics.start();
+        try {
+            store.sync();
+            unsynced = false;
+            lastSyncNanos = System.nanoTime();
+        } catch (UncheckedIOException e) {
+            event.error = e.getMessage();
+            throw e.getCause();
+        } finally {
+            OperationMetrics.stop(SYNC_METRICS, start);
+            commit(event, "sync");
+        }
+    }
+
+    private void commit(HistoryPersistenceEvent event, String operation) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.entries = (int) Math.min(store.generation().size(), Integer.MAX_VALUE);
+            event.bytes = store.usedBytes();
+            event.status = event.error == null ? "OK" : "ERROR";
+            event.commit();
+        }
+    }
+
+    /**
+     * Registers the writer's management bean with the platform MBean server.
+     */
+    synchronized void registerMBean() {
+        if (objectName != null || closed) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName("com.calculator:type=HistoryWriter,name="
+                + ObjectName.quote(store.directory().toAbsolutePath().toString()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), name);
+            objectName = name;
+        } catch (InstanceAlreadyExistsException e) {
+            // Another writer for the same store is registered
+        } catch (JMException e) {
+            System.err.println("Error registering history writer: " + e.getMessage());
+        }
+    }
+
+    private synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            System.err.println("Error unregistering history writer: " + e.getMessage());
+        }
+        objectName = null;
+    }
+
+    /**
+     * An I/O action run on the writer thread.
+     */
+    interface Action {
+        void run() throws IOException;
+    }
+
+    private static final class Task extends CompletableFuture<Void> {
+        private final Action action;
+
+        Task(Action action) {
+            this.action = action;
+        }
+
+        void run() {
+            try {
+                action.run();
+                complete(null);
+            } catch (IOException | RuntimeException e) {
+                completeExceptionally(e);
+            }
+        }
+    }
+
+    private final class Block extends CompletableFuture<Void> {
+        private final List<CalculationEntry> entries;
+
+        Block(List<CalculationEntry> entries) {
+            this.entries = entries;
+        }
+
+        void run() throws IOException {
+            try {
+                for (CalculationEntry entry : entries) {
+                    store.append(entry);
+                }
+                recordsWritten.add(entries.size());
+                complete(null);
+            } catch (IOException | RuntimeException e) {
+                completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private final class Bean implements HistoryWriterMXBean {
+        @Override
+        public int getQueueDepth() {
+            return queue.size();
+        }
+
+        @Override
+        public int getMaxQueueDepth() {
+            return maxQueueDepth.get();
+        }
+
+        @Override
+        public int getQueueCapacity() {
+            return queue.capacity();
+        }
+
+        @Override
+        public long getQueueFullStalls() {
+            return queueFullStalls.sum();
+        }
+
+        @Override
+        public long getRecordsWritten() {
+            return recordsWritten.sum();
+        }
+
+        @Override
+        public long getSyncIntervalMillis() {
+            return SYNC_INTERVAL_MILLIS;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.calculator.utils;
+
+/**
+ * Management interface of a history writer, registered as
+ * {@code com.calculator:type=HistoryWriter,name="<store directory>"}. Write and sync latencies
+ * are reported by the {@code com.calculator:type=OperationMetrics} bean as
+ * {@code history.write} and {@code history.sync}.
+ */
+public interface HistoryWriterMXBean {
+    /**
+     * Returns the number of records waiting to be written.
+     */
+    int getQueueDepth();
+
+    int getMaxQueueDepth();
+
+    int getQueueCapacity();
+
+    /**
+     * Returns how many times a caller had to wait because the queue was full.
+     */
+    long getQueueFullStalls();
+
+    long getRecordsWritten();
+
+    long getSyncIntervalMillis();
+}
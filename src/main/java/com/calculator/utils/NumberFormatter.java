@@ -0,0 +1,453 @@
+package com.calculator.utils;
+
+import java.math.BigInteger;
+
+/**
+ * Formats doubles without String.format or regular expressions.
+ *
+ * <p>Each value is first converted to the shortest decimal that rounds back to the same
+ * double, using the Schubfach algorithm by Raffaello Giulietti. The digits are then
+ * rounded and laid out directly in a reusable char buffer:
+ * <ul>
+ *   <li>{@link #formatShortest} uses the layout of {@link Double#toString(double)}.</li>
+ *   <li>{@link #formatFixed} matches {@code String.format("%.nf")} with trailing zeros
+ *       and a trailing decimal point removed.</li>
+ *   <li>{@link #formatDisplay} follows the calculator display format that
+ *       {@link ValidationUtils#formatOutput(double)} used to build with String.format,
+ *       except where that version garbled the digits; see the method.</li>
+ * </ul>
+ * Rounding is half-up on the shortest digits, as done by {@link java.util.Formatter}.
+ *
+ * <p>Instances are not thread-safe; the static methods use one instance per thread.
+ */
+public final class NumberFormatter {
+    /**
+     * Upper bound on the number of chars written by any format method.
+     */
+    public static final int MAX_LENGTH = 340;
+    /**
+     * Largest number of fraction digits accepted by {@link #formatFixed}.
+     */
+    public static final int MAX_FRACTION_DIGITS = 20;
+
+    private static final ThreadLocal<NumberFormatter> LOCAL = ThreadLocal.withInitial(NumberFormatter::new);
+
+    // Binary64 layout
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long T_MASK = C_MIN - 1;
+    private static final int BQ_MASK = 0x7FF;
+    // Subnormal significands below this need one extra digit of precision
+    private static final long C_TINY = 3;
+
+    // Range of k for which 10^-k is tabulated
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long[] G = powersOfTen();
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final char[] buffer = new char[MAX_LENGTH];
+    private final char[] digitChars = new char[20];
+    private int length;
+
+    // Decoded value: 0.d1d2...dn × 10^pointPosition, with no trailing zero digits
+    private boolean negative;
+    private long digits;
+    private int digitCount;
+    private int pointPosition;
+
+    /**
+     * Returns the shortest round-tripping representation in the layout of Double.toString.
+     */
+    public static String toShortestString(double value) {
+        NumberFormatter formatter = LOCAL.get();
+        return new String(formatter.buffer, 0, formatter.formatShortest(value));
+    }
+
+    /**
+     * Returns the value rounded to at most {@code maxFractionDigits} decimals, without
+     * trailing zeros.
+     */
+    public static String toFixedString(double value, int maxFractionDigits) {
+        NumberFormatter formatter = LOCAL.get();
+        return new String(formatter.buffer, 0, formatter.formatFixed(value, maxFractionDigits));
+    }
+
+    /**
+     * Returns the value as shown on the calculator display.
+     */
+    public static String toDisplayString(double value) {
+        NumberFormatter formatter = LOCAL.get();
+        return new String(formatter.buffer, 0, formatter.formatDisplay(value));
+    }
+
+    /**
+     * Returns the buffer the format methods write to; its first n chars are the result
+     * of the last call that returned n.
+     */
+    public char[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Writes the shortest round-tripping representation in the layout of Double.toString:
+     * plain notation for magnitudes in [10^-3, 10^7), otherwise computerized scientific
+     * notation such as 1.0E10.
+     * @return the number of chars written
+     */
+    public int formatShortest(double value) {
+        length = 0;
+        if (!Double.isFinite(value)) {
+            return writeNonFinite(value, "NaN", "Infinity", "-Infinity");
+        }
+        decode(value);
+        writeSign();
+        if (digitCount == 0) {
+            write("0.0");
+        } else if (pointPosition > -3 && pointPosition <= 7) {
+            writePlain(true);
+        } else {
+            writeScientific(2, 'E', false);
+        }
+        return length;
+    }
+
+    /**
+     * Writes the value rounded half-up to {@code maxFractionDigits} decimals, dropping
+     * trailing zeros and a trailing decimal point. Negative values that round to zero are
+     * written as -0, as String.format does.
+     * @return the number of chars written
+     */
+    public int formatFixed(double value, int maxFractionDigits) {
+        if (maxFractionDigits < 0 || maxFractionDigits > MAX_FRACTION_DIGITS) {
+            throw new IllegalArgumentException("Fraction digits must be between 0 and " + MAX_FRACTION_DIGITS);
+        }
+        length = 0;
+        if (!Double.isFinite(value)) {
+            return writeNonFinite(value, "NaN", "Infinity", "-Infinity");
+        }
+        decode(value);
+        round(pointPosition + maxFractionDigits);
+        writeSign();
+        writePlain(false);
+        return length;
+    }
+
+    /**
+     * Writes the value as the calculator display shows it: whole numbers in full,
+     * magnitudes of at least 10^12 or below 10^-6 as %.6E, and anything else with
+     * ten significant digits as %.10g, with trailing fraction zeros removed.
+     * NaN is written as Error and infinities as ∞ or -∞.
+     *
+     * <p>The String.format version stripped trailing zeros with a regular expression
+     * that also hit integer digits and exponents. This method deliberately differs from it:
+     * <ul>
+     *   <li>Zeros before the decimal point are kept: 3884201859.553076 shows as
+     *       3884201860, not 388420186.</li>
+     *   <li>Exponents are kept whole and zeros are removed from the mantissa instead:
+     *       12345678901.5 shows as 1.23456789e+10, not 1.234567890e+1, and 0.0000123
+     *       as 1.23e-05, not 1.230000000e-05.</li>
+     *   <li>Whole numbers of 2^53 and above show their shortest digits padded with
+     *       zeros, where %.0f used the 17 digits of Double.toString on JDK 17:
+     *       2^60 shows as 1152921504606847000, not 1152921504606846980.</li>
+     * </ul>
+     * @return the number of chars written
+     */
+    public int formatDisplay(double value) {
+        length = 0;
+        if (!Double.isFinite(value)) {
+            return writeNonFinite(value, "Error", "∞", "-∞");
+        }
+        if (Math.floor(value) == value) {
+            return formatFixed(value, 0);
+        }
+        decode(value);
+        writeSign();
+        double magnitude = Math.abs(value);
+        if (magnitude >= 1e12 || magnitude < 1e-6) {
+            round(7);
+            writeScientific(7, 'E', true);
+        } else {
+            round(10);
+            // %g switches to scientific notation when the rounded value leaves [10^-4, 10^10)
+            if (pointPosition > -4 && pointPosition <= 10) {
+                writePlain(false);
+            } else {
+                writeScientific(1, 'e', true);
+            }
+        }
+        return length;
+    }
+
+    private int writeNonFinite(double value, String nan, String positive, String negative) {
+        write(Double.isNaN(value) ? nan : value > 0 ? positive : negative);
+        return length;
+    }
+
+    /**
+     * Converts a finite value to its shortest decimal.
+     */
+    private void decode(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        negative = bits < 0;
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            // Integers below 2^53 are their own shortest decimal
+            if (0 < mq && mq < P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    setDigits(f, 0);
+                    return;
+                }
+            }
+            toDecimal(-mq, c, 0);
+        } else if (t == 0) {
+            setDigits(0, 0);
+        } else if (t < C_TINY) {
+            toDecimal(Q_MIN, 10 * t, -1);
+        } else {
+            toDecimal(Q_MIN, t, 0);
+        }
+    }
+
+    /**
+     * Finds the shortest decimal in the rounding interval of c × 2^q.
+     */
+    private void toDecimal(int q, long c, int dk) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN | q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // The interval is asymmetric at powers of two
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        long g1 = G[(k - K_MIN) << 1];
+        long g0 = G[(k - K_MIN) << 1 | 1];
+        long vb = roundOdd(g1, g0, cb << h);
+        long vbl = roundOdd(g1, g0, cbl << h);
+        long vbr = roundOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // Try one digit less first: s' = floor(s / 10) × 10
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                setDigits(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            setDigits(uin ? s : t, k + dk);
+            return;
+        }
+        // Both candidates are in the interval; pick the closer one, ties to even
+        long cmp = vb - (s + t << 1);
+        setDigits(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    /**
+     * Multiplies by the tabulated power of ten and rounds to odd.
+     */
+    private static long roundOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * Sets the decoded value to f × 10^e.
+     */
+    private void setDigits(long f, int e) {
+        if (f == 0) {
+            digits = 0;
+            digitCount = 0;
+            pointPosition = 0;
+            return;
+        }
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int count = 1;
+        while (count < POWERS_OF_TEN.length && f >= POWERS_OF_TEN[count]) {
+            count++;
+        }
+        digits = f;
+        digitCount = count;
+        pointPosition = e + count;
+    }
+
+    /**
+     * Rounds half-up to the given number of significant digits.
+     */
+    private void round(int keep) {
+        if (keep >= digitCount) {
+            return;
+        }
+        if (keep < 0) {
+            setDigits(0, 0);
+            return;
+        }
+        long scale = POWERS_OF_TEN[digitCount - keep];
+        long kept = digits / scale;
+        if (digits % scale >= scale / 2) {
+            kept++;
+        }
+        setDigits(kept, pointPosition - keep);
+    }
+
+    private void writeSign() {
+        if (negative) {
+            buffer[length++] = '-';
+        }
+    }
+
+    /**
+     * Writes the digits in plain notation, optionally with a ".0" for whole numbers.
+     */
+    private void writePlain(boolean forceFraction) {
+        fillDigitChars();
+        if (pointPosition <= 0) {
+            buffer[length++] = '0';
+        } else {
+            int integerDigits = Math.min(pointPosition, digitCount);
+            System.arraycopy(digitChars, 0, buffer, length, integerDigits);
+            length += integerDigits;
+            for (int i = digitCount; i < pointPosition; i++) {
+                buffer[length++] = '0';
+            }
+        }
+        if (digitCount > pointPosition) {
+            buffer[length++] = '.';
+            for (int i = pointPosition; i < 0; i++) {
+                buffer[length++] = '0';
+            }
+            int start = Math.max(pointPosition, 0);
+            System.arraycopy(digitChars, start, buffer, length, digitCount - start);
+            length += digitCount - start;
+        } else if (forceFraction) {
+            buffer[length++] = '.';
+            buffer[length++] = '0';
+        }
+    }
+
+    /**
+     * Writes d.ddd followed by the exponent. The mantissa is padded with zeros to
+     * {@code minDigits} digits; a Formatter-style exponent has a sign and at least two digits.
+     */
+    private void writeScientific(int minDigits, char marker, boolean formatterExponent) {
+        int exponent;
+        if (digitCount == 0) {
+            exponent = 0;
+            buffer[length++] = '0';
+        } else {
+            fillDigitChars();
+            exponent = pointPosition - 1;
+            buffer[length++] = digitChars[0];
+        }
+        int mantissaDigits = Math.max(minDigits, digitCount);
+        if (mantissaDigits > 1) {
+            buffer[length++] = '.';
+            for (int i = 1; i < mantissaDigits; i++) {
+                buffer[length++] = i < digitCount ? digitChars[i] : '0';
+            }
+        }
+        buffer[length++] = marker;
+        if (exponent < 0) {
+            buffer[length++] = '-';
+            exponent = -exponent;
+        } else if (formatterExponent) {
+            buffer[length++] = '+';
+        }
+        if (formatterExponent && exponent < 10) {
+            buffer[length++] = '0';
+        }
+        if (exponent >= 100) {
+            buffer[length++] = (char) ('0' + exponent / 100);
+        }
+        if (exponent >= 10) {
+            buffer[length++] = (char) ('0' + exponent / 10 % 10);
+        }
+        buffer[length++] = (char) ('0' + exponent % 10);
+    }
+
+    private void fillDigitChars() {
+        long remaining = digits;
+        for (int i = digitCount - 1; i >= 0; i--) {
+            digitChars[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    private void write(String text) {
+        text.getChars(0, text.length(), buffer, length);
+        length += text.length();
+    }
+
+    // floor(e × log10(2))
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    // floor(log10(3/4 × 2^e))
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    // floor(e × log2(10))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * Tabulates 10^-k for K_MIN <= k <= K_MAX as 126-bit values g = floor(10^-k × 2^(125 -
+     * flog2pow10(-k))) + 1, split into a high and a low 63-bit half.
+     */
+    private static long[] powersOfTen() {
+        long[] table = new long[(K_MAX - K_MIN + 1) << 1];
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int shift = 125 - flog2pow10(-k);
+            BigInteger numerator = k < 0 ? BigInteger.TEN.pow(-k) : BigInteger.ONE;
+            BigInteger denominator = k > 0 ? BigInteger.TEN.pow(k) : BigInteger.ONE;
+            if (shift >= 0) {
+                numerator = numerator.shiftLeft(shift);
+            } else {
+                denominator = denominator.shiftLeft(-shift);
+            }
+            BigInteger g = numerator.divide(denominator).add(BigInteger.ONE);
+            table[(k - K_MIN) << 1] = g.shiftRight(63).longValueExact();
+            table[(k - K_MIN) << 1 | 1] = g.longValue() & MASK_63;
+        }
+        return table;
+    }
+}
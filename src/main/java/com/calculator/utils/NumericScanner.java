@@ -0,0 +1,253 @@
+package com.calculator.utils;
+
+/**
+ * Hand-written single-pass scanner for numeric literals.
+ *
+ * <p>A scan validates the text and computes its value in the same pass, without
+ * regular expressions and without allocating. The outcome is left in the scanner:
+ * a {@link Status}, the position of the first offending character, and the value as
+ * a double (decimal and scientific literals) or a long (hexadecimal, binary and octal).
+ *
+ * <p>Instances are reusable but not thread-safe.
+ */
+public final class NumericScanner {
+
+    /**
+     * Outcome of the last scan.
+     */
+    public enum Status {
+        /** The text is a well-formed literal and its value is available. */
+        OK,
+        /** The text is null, or empty where a digit is required. */
+        EMPTY,
+        /** The text is well-formed but has no mantissa digits, e.g. "-", "." or "e5". */
+        NO_DIGITS,
+        /** The text contains a character that is not allowed at that position. */
+        INVALID_CHARACTER,
+        /** An exponent marker is not followed by exponent digits. */
+        MISSING_EXPONENT,
+        /** The literal is well-formed but its value does not fit the result type. */
+        OUT_OF_RANGE
+    }
+
+    /** Integers up to this value are exact doubles. */
+    public static final long MAX_EXACT_MANTISSA = 1L << 53;
+    /** Powers of ten up to 10 to this exponent are exact doubles. */
+    public static final int MAX_EXACT_POWER_OF_TEN = 22;
+    /** Up to this many decimal digits always fit in a long. */
+    public static final int MAX_MANTISSA_DIGITS = 18;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // Exponents beyond this are clamped; the value is zero or infinite long before
+    private static final int MAX_EXPONENT = 100_000;
+
+    private Status status = Status.EMPTY;
+    private int errorPosition = -1;
+    private double doubleValue;
+    private long longValue;
+
+    /**
+     * Scans an optionally signed decimal literal with an optional exponent, such as
+     * {@code -12.5}, {@code .5} or {@code 6.02e23}. Digits on either side of the
+     * decimal point are optional.
+     * @return the status, also available from {@link #status()}
+     */
+    public Status scanDecimal(CharSequence text) {
+        reset();
+        if (text == null || text.length() == 0) {
+            // An empty entry counts as a number that has not been typed yet
+            return finish(text == null ? Status.EMPTY : Status.NO_DIGITS, -1);
+        }
+        int length = text.length();
+        int i = 0;
+        boolean negative = text.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int scale = 0; // value = mantissa × 10^scale before the exponent
+        boolean truncated = false;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (significantDigits == 0 && c == '0') {
+                    if (point) {
+                        scale--;
+                    }
+                } else if (significantDigits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    significantDigits++;
+                    if (point) {
+                        scale--;
+                    }
+                } else {
+                    truncated = true;
+                    if (!point) {
+                        scale++;
+                    }
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+
+        int exponent = 0;
+        if (i < length) {
+            char c = text.charAt(i);
+            if (c != 'e' && c != 'E') {
+                return finish(Status.INVALID_CHARACTER, i);
+            }
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                negativeExponent = text.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            for (; i < length; i++) {
+                c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return finish(Status.INVALID_CHARACTER, i);
+                }
+                exponent = Math.min(exponent * 10 + (c - '0'), MAX_EXPONENT);
+            }
+            if (i == exponentStart) {
+                return finish(Status.MISSING_EXPONENT, i);
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (digits == 0) {
+            return finish(Status.NO_DIGITS, -1);
+        }
+
+        doubleValue = toDouble(text, mantissa, scale + exponent, truncated);
+        if (negative) {
+            doubleValue = -doubleValue;
+        }
+        return finish(Double.isInfinite(doubleValue) ? Status.OUT_OF_RANGE : Status.OK, -1);
+    }
+
+    /**
+     * Scans an unsigned integer literal in base 2, 8 or 16 (hexadecimal digits in
+     * either case). Literals longer than 64 bits are reported as
+     * {@link Status#OUT_OF_RANGE}; shorter ones are returned as the bit pattern they denote.
+     * @return the status, also available from {@link #status()}
+     */
+    public Status scanInteger(CharSequence text, int radix) {
+        if (radix != 2 && radix != 8 && radix != 16) {
+            throw new IllegalArgumentException("Unsupported radix: " + radix);
+        }
+        reset();
+        if (text == null || text.length() == 0) {
+            return finish(Status.EMPTY, -1);
+        }
+        int bitsPerDigit = Integer.numberOfTrailingZeros(radix);
+        int bits = 0;
+        long value = 0;
+        boolean overflow = false;
+        for (int i = 0; i < text.length(); i++) {
+            int digit = digit(text.charAt(i));
+            if (digit < 0 || digit >= radix) {
+                return finish(Status.INVALID_CHARACTER, i);
+            }
+            if (bits == 0 && digit == 0) {
+                continue; // Leading zeros do not count against the width
+            }
+            bits = bits == 0 ? 64 - Long.numberOfLeadingZeros(digit) : bits + bitsPerDigit;
+            overflow |= bits > 64;
+            value = value << bitsPerDigit | digit;
+        }
+        longValue = value;
+        doubleValue = value;
+        return finish(overflow ? Status.OUT_OF_RANGE : Status.OK, -1);
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+
+    /**
+     * Returns the index of the character that made the last scan fail, or -1.
+     */
+    public int errorPosition() {
+        return errorPosition;
+    }
+
+    /**
+     * Returns the value of the last successful decimal scan, or the integer value as a double.
+     */
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * Returns the value of the last successful integer scan.
+     */
+    public long longValue() {
+        return longValue;
+    }
+
+    private void reset() {
+        doubleValue = 0;
+        longValue = 0;
+    }
+
+    private Status finish(Status status, int errorPosition) {
+        this.status = status;
+        this.errorPosition = errorPosition;
+        return status;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns 10 to the given exponent, which must be between 0 and
+     * {@link #MAX_EXACT_POWER_OF_TEN}, exactly.
+     */
+    public static double exactPowerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    private static double toDouble(CharSequence text, long mantissa, int exponent, boolean truncated) {
+        if (mantissa == 0) {
+            return 0.0;
+        }
+        if (!truncated && mantissa <= MAX_EXACT_MANTISSA) {
+            // Both operands are exact, so the single operation is correctly rounded
+            if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+                return mantissa * POWERS_OF_TEN[exponent];
+            }
+            if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+                return mantissa / POWERS_OF_TEN[-exponent];
+            }
+        }
+        // Rare: too many digits or a large exponent, leave the rounding to the JDK
+        return Math.abs(Double.parseDouble(text.toString()));
+    }
+}
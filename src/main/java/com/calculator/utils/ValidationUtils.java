@@ -1,53 +1,54 @@
 package com.calculator.utils;
 
-import java.util.regex.Pattern;
+import com.calculator.scientific.GammaFunction;
 
 /**
  * Utility class for input validation and error handling.
  */
 public class ValidationUtils {
-    // Regular expressions for validation
-    private static final Pattern NUMERIC_PATTERN = Pattern.compile("^-?\\d*\\.?\\d*$");
-    private static final Pattern OPERATOR_PATTERN = Pattern.compile("[+\\-*/^%]");
-    private static final Pattern SCIENTIFIC_PATTERN = Pattern.compile("^-?\\d*\\.?\\d*[Ee][+-]?\\d+$");
-    private static final Pattern HEXADECIMAL_PATTERN = Pattern.compile("^[0-9A-Fa-f]+$");
-    private static final Pattern BINARY_PATTERN = Pattern.compile("^[01]+$");
-    private static final Pattern OCTAL_PATTERN = Pattern.compile("^[0-7]+$");
+    // Scanners are reused per thread so validation does not allocate
+    private static final ThreadLocal<NumericScanner> SCANNER = ThreadLocal.withInitial(NumericScanner::new);
     
     /**
-     * Validates numeric input.
+     * Validates numeric input. Partial entries such as "", "-" or "." are accepted.
      */
     public static boolean isValidNumericInput(String input) {
-        return input != null && (NUMERIC_PATTERN.matcher(input).matches() || 
-                               SCIENTIFIC_PATTERN.matcher(input).matches());
+        return isWellFormed(SCANNER.get().scanDecimal(input));
     }
     
     /**
      * Validates operator input.
      */
     public static boolean isValidOperator(String operator) {
-        return operator != null && OPERATOR_PATTERN.matcher(operator).matches();
+        return operator != null && operator.length() == 1 && isOperator(operator.charAt(0));
     }
     
     /**
      * Validates hexadecimal input.
      */
     public static boolean isValidHexadecimal(String input) {
-        return input != null && HEXADECIMAL_PATTERN.matcher(input).matches();
+        return isWellFormed(SCANNER.get().scanInteger(input, 16));
     }
     
     /**
      * Validates binary input.
      */
     public static boolean isValidBinary(String input) {
-        return input != null && BINARY_PATTERN.matcher(input).matches();
+        return isWellFormed(SCANNER.get().scanInteger(input, 2));
     }
     
     /**
      * Validates octal input.
      */
     public static boolean isValidOctal(String input) {
-        return input != null && OCTAL_PATTERN.matcher(input).matches();
+        return isWellFormed(SCANNER.get().scanInteger(input, 8));
+    }
+    
+    private static boolean isWellFormed(NumericScanner.Status status) {
+        return switch (status) {
+            case OK, NO_DIGITS, OUT_OF_RANGE -> true;
+            default -> false;
+        };
     }
     
     /**
@@ -105,10 +106,11 @@ public class ValidationUtils {
     }
     
     /**
-     * Validates factorial input.
+     * Validates factorial input: any real number except negative integers, as long as
+     * the result does not overflow.
      */
     public static boolean isValidFactorialInput(double value) {
-        return value >= 0 && value <= 170 && isWholeNumber(value);
+        return GammaFunction.isFactorialDefined(value);
     }
     
     /**
@@ -143,7 +145,7 @@ public class ValidationUtils {
             case INVALID_POWER:
                 return "Invalid base or exponent for power operation";
             case INVALID_FACTORIAL:
-                return "Factorial is only defined for positive integers up to 170";
+                return "Factorial is undefined for negative integers and too large above 170";
             case OVERFLOW:
                 return "Result is too large to display";
             case UNDERFLOW:
@@ -190,23 +192,13 @@ public class ValidationUtils {
     
     /**
      * Validates and formats display output.
+     * Whole numbers are shown in full, very large or small numbers in scientific
+     * notation, and anything else with up to 10 significant digits. See
+     * {@link NumberFormatter#formatDisplay} for where this differs from the earlier
+     * String.format version.
      */
     public static String formatOutput(double value) {
-        if (Double.isNaN(value)) {
-            return "Error";
-        }
-        if (Double.isInfinite(value)) {
-            return value > 0 ? "∞" : "-∞";
-        }
-        if (isWholeNumber(value)) {
-            return String.format("%.0f", value);
-        }
-        // Use scientific notation for very large or small numbers
-        if (Math.abs(value) >= 1e12 || (Math.abs(value) < 1e-6 && value != 0)) {
-            return String.format("%.6E", value);
-        }
-        // Regular decimal format with up to 10 decimal places
-        return String.format("%.10g", value).replaceAll("\\.?0+$", "");
+        return NumberFormatter.toDisplayString(value);
     }
     
     /**
@@ -217,9 +209,17 @@ public class ValidationUtils {
             return false;
         }
         
-        // Check for balanced parentheses
+        // Check for valid start
+        char first = expression.charAt(0);
+        if (isOperator(first) && first != '+' && first != '-') {
+            return false;
+        }
+        
+        // Single pass for balanced parentheses and invalid operator combinations
         int parenthesesCount = 0;
-        for (char c : expression.toCharArray()) {
+        char previous = 0;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
             if (c == '(') {
                 parenthesesCount++;
             } else if (c == ')') {
@@ -227,19 +227,14 @@ public class ValidationUtils {
                 if (parenthesesCount < 0) {
                     return false;
                 }
+            } else if (isOperator(c) && c != '-' && isOperator(previous)) {
+                return false; // A minus may follow another operator as a sign
             }
-        }
-        if (parenthesesCount != 0) {
-            return false;
+            previous = c;
         }
         
-        // Check for invalid operator combinations
-        if (expression.matches(".*[+\\-*/^%][+*/^%].*")) {
-            return false;
-        }
-        
-        // Check for valid start and end
-        return !expression.matches("^[*/^%].*") && !expression.matches(".*[+\\-*/^%]$");
+        // Check for valid end
+        return parenthesesCount == 0 && !isOperator(previous);
     }
     
     /**
@@ -250,6 +245,32 @@ public class ValidationUtils {
             return "";
         }
         // Remove any characters that aren't digits, operators, decimal points, or parentheses
-        return input.replaceAll("[^0-9+\\-*/^%().Ee]", "");
+        int firstInvalid = 0;
+        while (firstInvalid < input.length() && isAllowed(input.charAt(firstInvalid))) {
+            firstInvalid++;
+        }
+        if (firstInvalid == input.length()) {
+            return input; // Nothing to remove
+        }
+        StringBuilder sanitized = new StringBuilder(input.length()).append(input, 0, firstInvalid);
+        for (int i = firstInvalid + 1; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (isAllowed(c)) {
+                sanitized.append(c);
+            }
+        }
+        return sanitized.toString();
+    }
+    
+    private static boolean isOperator(char c) {
+        return switch (c) {
+            case '+', '-', '*', '/', '^', '%' -> true;
+            default -> false;
+        };
+    }
+    
+    private static boolean isAllowed(char c) {
+        return (c >= '0' && c <= '9') || isOperator(c) || c == '(' || c == ')' || c == '.'
+            || c == 'E' || c == 'e';
     }
 } 
\ No newline at end of file
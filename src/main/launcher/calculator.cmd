@@ -0,0 +1,7 @@
+@echo off
+rem Starts the calculator with the class-data sharing archive built next to it by the package
+rem phase. The archive only matches the JDK that built it and the JAR at its build-time path;
+rem otherwise the JVM ignores it and starts normally.
+set "JAVA=java"
+if defined JAVA_HOME set "JAVA=%JAVA_HOME%\bin\java"
+"%JAVA%" -XX:SharedArchiveFile="%~dp0${cds.archiveName}" --add-modules jdk.incubator.vector -cp "%~dp0${cds.jarName}" com.calculator.Launcher %*
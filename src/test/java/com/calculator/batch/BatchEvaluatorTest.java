@@ -0,0 +1,81 @@
+package com.calculator.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchEvaluatorTest {
+    private static final int LINES = 20_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesResultsInInputOrderAcrossChunkBoundaries() throws IOException {
+        StringBuilder input = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        int errors = 0;
+        for (int i = 0; i < LINES; i++) {
+            if (i % 1000 == 7) {
+                input.append("\n");
+                expected.add("");
+            } else if (i % 1000 == 13) {
+                input.append("((").append(i).append("\n");
+                expected.add(null);
+                errors++;
+            } else {
+                // Some lines end in CRLF, and lines vary in length so chunks split everywhere
+                input.append(i).append("*3+0.25").append(" ".repeat(i % 5)).append(i % 3 == 0 ? "\r\n" : "\n");
+                expected.add(Double.toString(i * 3 + 0.25));
+            }
+        }
+        Path in = directory.resolve("input.txt");
+        Files.writeString(in, input, StandardCharsets.UTF_8);
+
+        for (int chunkSize : new int[] {1, 7, 100, 4096, 1 << 20}) {
+            Path out = directory.resolve("output-" + chunkSize + ".txt");
+            BatchEvaluator evaluator = new BatchEvaluator(4, chunkSize);
+            BatchEvaluator.BatchStatistics statistics;
+            try {
+                statistics = evaluator.run(in, out);
+            } finally {
+                evaluator.close();
+            }
+
+            List<String> lines = Files.readAllLines(out, StandardCharsets.UTF_8);
+            assertEquals(LINES, lines.size(), "chunk size " + chunkSize);
+            for (int i = 0; i < LINES; i++) {
+                if (expected.get(i) == null) {
+                    assertTrue(lines.get(i).startsWith("Error: "), lines.get(i));
+                } else {
+                    assertEquals(expected.get(i), lines.get(i), "line " + i + ", chunk size " + chunkSize);
+                }
+            }
+            assertEquals(LINES - LINES / 1000, statistics.getExpressions());
+            assertEquals(errors, statistics.getErrors());
+        }
+    }
+
+    @Test
+    void handlesALastLineWithoutNewline() throws IOException {
+        Path in = directory.resolve("input.txt");
+        Path out = directory.resolve("output.txt");
+        Files.writeString(in, "1+1\n2*3", StandardCharsets.UTF_8);
+        BatchEvaluator evaluator = new BatchEvaluator(2, 2);
+        try {
+            evaluator.run(in, out);
+        } finally {
+            evaluator.close();
+        }
+        assertEquals("2.0\n6.0\n", Files.readString(out, StandardCharsets.UTF_8));
+    }
+}
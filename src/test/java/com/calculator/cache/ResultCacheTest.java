@@ -0,0 +1,95 @@
+package com.calculator.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void returnsCachedValuesUntilTheyExpire() throws InterruptedException {
+        ResultCache cache = new ResultCache(16, Duration.ofMillis(100));
+        ResultCache.Key key = ResultCache.key("sin", 30);
+        assertEquals(0.5, load(cache, key, 0.5));
+        assertEquals(0.5, load(cache, key, 0.7));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        Thread.sleep(200);
+        assertEquals(0.7, load(cache, key, 0.7));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntries() {
+        ResultCache cache = new ResultCache(32, Duration.ofHours(1));
+        ResultCache.Key kept = ResultCache.key("sqrt", 2);
+        load(cache, kept, 1.41);
+        for (int i = 0; i < 10_000; i++) {
+            load(cache, ResultCache.key("sqrt", i + 0.5), i);
+            // Touching the entry keeps it the most recently used of its segment
+            load(cache, kept, -1);
+        }
+        assertTrue(cache.size() <= 32, () -> "size " + cache.size());
+        assertEquals(10_001 - cache.size(), cache.getEvictionCount());
+        assertEquals(10_001, cache.getMissCount());
+        assertEquals(1.41, load(cache, kept, -1));
+    }
+
+    @Test
+    void sizeZeroDisablesCaching() {
+        ResultCache cache = new ResultCache(0, Duration.ofHours(1));
+        ResultCache.Key key = ResultCache.key("ln", 2);
+        for (int i = 0; i < 3; i++) {
+            assertEquals((double) i, load(cache, key, i));
+        }
+        assertEquals(3, loads.get());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(0.0, cache.getHitRate());
+    }
+
+    @Test
+    void failedLoadsAreNotCached() {
+        ResultCache cache = new ResultCache(16, Duration.ofHours(1));
+        ResultCache.Key key = ResultCache.key("÷", 1, 0);
+        assertThrows(ArithmeticException.class, () -> cache.get(key, () -> {
+            throw new ArithmeticException("Division by zero");
+        }));
+        assertEquals(0, cache.size());
+        assertEquals(2.0, load(cache, key, 2));
+    }
+
+    @Test
+    void keysCompareOperandBits() {
+        assertEquals(ResultCache.key("sin", 30), ResultCache.key("sin", 30));
+        assertEquals(ResultCache.key("sin", Double.NaN), ResultCache.key("sin", 0.0 / 0.0));
+        assertNotEquals(ResultCache.key("sin", 0.0), ResultCache.key("sin", -0.0));
+        assertNotEquals(ResultCache.key("sin", 30), ResultCache.key("cos", 30));
+        assertNotEquals(ResultCache.key("xʸ", 2, 3), ResultCache.key("xʸ", 3, 2));
+    }
+
+    @Test
+    void rejectsNegativeLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(-1, Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(16, Duration.ofSeconds(-1)));
+    }
+
+    private double load(ResultCache cache, ResultCache.Key key, double value) {
+        return cache.get(key, () -> {
+            loads.incrementAndGet();
+            return value;
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.calculator.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnEvaluatorTest {
+    // Around the vector width and the block size of 1024
+    private static final int[] LENGTHS = {0, 1, 3, 5, 8, 13, 1023, 1024, 1025, 2051};
+    private static final String[] EXPRESSIONS = {"x*2.5+1", "-x+3-x", "x²/(x+7)", "√(x*x+1)", "1/(x+100)",
+        "(x+1)*(x+1)+(x+1)", "sin(x)+cos(x)*tan(x/3)", "x^3%7", "ln(x+100)+log(x+100)", "5"};
+
+    private final Random random = new Random(1);
+
+    @Test
+    void vectorKernelsAreInUse() {
+        // Surefire enables jdk.incubator.vector, so the tests exercise the SIMD kernels
+        assertTrue(ColumnEvaluator.isVectorized());
+    }
+
+    @Test
+    void columnsMatchTheScalarEvaluator() {
+        for (boolean fastMath : new boolean[] {false, true}) {
+            for (String source : EXPRESSIONS) {
+                CompiledExpression expression = Expression.compile(source, fastMath, "x");
+                for (int length : LENGTHS) {
+                    double[] x = column(length);
+                    double[] out = new double[length];
+                    ColumnEvaluator.evaluateColumn(expression, x, out);
+                    for (int i = 0; i < length; i++) {
+                        assertEquals(expression.evaluate(x[i]), out[i], source + " at row " + i + " of " + length);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void multipleColumnsMatchTheScalarEvaluator() {
+        CompiledExpression expression = Expression.compile("x*y-y/(x+50)+x", "x", "y");
+        for (int length : LENGTHS) {
+            double[] x = column(length);
+            double[] y = column(length);
+            double[] out = new double[length];
+            ColumnEvaluator.evaluateColumns(expression, new double[][] {x, y}, out);
+            for (int i = 0; i < length; i++) {
+                assertEquals(expression.evaluate(x[i], y[i]), out[i]);
+            }
+        }
+    }
+
+    @Test
+    void directBuffersMatchArrays() {
+        CompiledExpression expression = Expression.compile("√(x*x+1)*3-x", "x");
+        for (int length : LENGTHS) {
+            double[] x = column(length);
+            double[] expected = new double[length];
+            ColumnEvaluator.evaluateColumn(expression, x, expected);
+
+            DoubleBuffer in = ByteBuffer.allocateDirect(length * Double.BYTES).order(ByteOrder.nativeOrder())
+                .asDoubleBuffer().put(x);
+            DoubleBuffer out = ByteBuffer.allocateDirect(length * Double.BYTES).order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+            ColumnEvaluator.evaluateColumn(expression, in, out);
+            for (int i = 0; i < length; i++) {
+                assertEquals(expected[i], out.get(i));
+            }
+        }
+    }
+
+    @Test
+    void domainErrorsInTheTailAreReported() {
+        CompiledExpression expression = Expression.compile("√x", "x");
+        double[] x = new double[1027];
+        x[1026] = -1;
+        assertThrows(ArithmeticException.class, () -> ColumnEvaluator.evaluateColumn(expression, x, new double[1027]));
+        assertThrows(IllegalArgumentException.class,
+            () -> ColumnEvaluator.evaluateColumn(expression, new double[3], new double[4]));
+    }
+
+    private double[] column(int length) {
+        double[] column = new double[length];
+        for (int i = 0; i < length; i++) {
+            column[i] = random.nextDouble() * 40 - 20;
+        }
+        return column;
+    }
+}
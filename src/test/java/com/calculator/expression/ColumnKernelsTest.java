@@ -0,0 +1,129 @@
+package com.calculator.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the SIMD kernels against the plain loops, for every length up to a few vectors so
+ * that tails shorter than a vector, and inputs with no full vector at all, are covered.
+ */
+class ColumnKernelsTest {
+    private static final int MAX_LENGTH = 67;
+    private static final double SENTINEL = 12345.678;
+    private static final double[] SPECIAL = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY,
+        Double.NEGATIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE, 1e-310};
+
+    private final ColumnKernels vector = new VectorColumnKernels();
+    private final ColumnKernels scalar = new ScalarColumnKernels();
+    private final Random random = new Random(1);
+
+    private interface Binary {
+        void apply(ColumnKernels kernels, double[] a, double[] b, double[] out, int n);
+    }
+
+    private interface Unary {
+        void apply(ColumnKernels kernels, double[] a, double[] out, int n);
+    }
+
+    @Test
+    void binaryKernelsMatchScalarLoops() {
+        for (int n = 0; n <= MAX_LENGTH; n++) {
+            double[] a = values(n, true);
+            double[] b = values(n, true);
+            assertBinary(ColumnKernels::add, a, b, n);
+            assertBinary(ColumnKernels::subtract, a, b, n);
+            assertBinary(ColumnKernels::multiply, a, b, n);
+            assertBinary((kernels, x, y, out, length) -> kernels.addScalar(x, 0.1, out, length), a, b, n);
+            assertBinary((kernels, x, y, out, length) -> kernels.multiplyScalar(x, -3.5, out, length), a, b, n);
+            assertBinary(ColumnKernels::divide, a, values(n, false), n);
+            assertUnary(ColumnKernels::negate, a, n);
+            assertUnary(ColumnKernels::sqrt, abs(values(n, false)), n);
+            assertUnary(ColumnKernels::reciprocal, values(n, false), n);
+        }
+    }
+
+    @Test
+    void kernelsWorkInPlace() {
+        for (int n = 0; n <= MAX_LENGTH; n++) {
+            double[] a = values(n, true);
+            double[] b = values(n, true);
+            double[] vectorOut = a.clone();
+            double[] scalarOut = a.clone();
+            vector.multiply(vectorOut, b, vectorOut, n);
+            scalar.multiply(scalarOut, b, scalarOut, n);
+            assertArrayEquals(scalarOut, vectorOut);
+            vector.negate(vectorOut, vectorOut, n);
+            scalar.negate(scalarOut, scalarOut, n);
+            assertArrayEquals(scalarOut, vectorOut);
+        }
+    }
+
+    @Test
+    void domainErrorsAreFoundInVectorsAndTails() {
+        for (int n = 1; n <= MAX_LENGTH; n++) {
+            for (int bad = 0; bad < n; bad++) {
+                double[] a = abs(values(n, false));
+                double[] zeros = a.clone();
+                zeros[bad] = 0;
+                double[] negatives = a.clone();
+                negatives[bad] = -1;
+                double[] out = new double[n];
+                assertThrows(ArithmeticException.class, () -> vector.divide(a, zeros, out, zeros.length));
+                assertThrows(ArithmeticException.class, () -> vector.reciprocal(zeros, out, zeros.length));
+                assertThrows(ArithmeticException.class, () -> vector.sqrt(negatives, out, negatives.length));
+            }
+        }
+    }
+
+    private void assertBinary(Binary kernel, double[] a, double[] b, int n) {
+        double[] vectorOut = sentinels(n);
+        double[] scalarOut = sentinels(n);
+        kernel.apply(vector, a, b, vectorOut, n);
+        kernel.apply(scalar, a, b, scalarOut, n);
+        // Also checks that nothing is written past n
+        assertArrayEquals(scalarOut, vectorOut, "n = " + n);
+    }
+
+    private void assertUnary(Unary kernel, double[] a, int n) {
+        double[] vectorOut = sentinels(n);
+        double[] scalarOut = sentinels(n);
+        kernel.apply(vector, a, vectorOut, n);
+        kernel.apply(scalar, a, scalarOut, n);
+        assertArrayEquals(scalarOut, vectorOut, "n = " + n);
+    }
+
+    /**
+     * Random values, with special values mixed in unless they must be non-zero.
+     */
+    private double[] values(int n, boolean special) {
+        // Longer than n, as the kernels must ignore the rest
+        double[] values = new double[n + 8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = special && random.nextInt(4) == 0
+                ? SPECIAL[random.nextInt(SPECIAL.length)]
+                : (random.nextDouble() - 0.25) * Math.pow(10, random.nextInt(20) - 10);
+            if (!special && values[i] == 0) {
+                values[i] = 1;
+            }
+        }
+        return values;
+    }
+
+    private static double[] abs(double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.abs(values[i]);
+        }
+        return values;
+    }
+
+    private static double[] sentinels(int n) {
+        double[] out = new double[n + 8];
+        Arrays.fill(out, SENTINEL);
+        return out;
+    }
+}
@@ -0,0 +1,53 @@
+package com.calculator.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpressionOptimizerTest {
+
+    @Test
+    void sharesIdenticalSubexpressions() {
+        Node tree = Expression.compile("(x+1)*(x+1)", "x").getTree();
+        Node.Binary product = (Node.Binary) tree;
+        assertSame(product.left(), product.right());
+        assertEquals(1, ExpressionOptimizer.sharedSubexpressions(tree).size());
+    }
+
+    @Test
+    void foldsConstantsButKeepsFailingSubtrees() {
+        assertEquals(new Node.Constant(7), Expression.compile("1+2*3").getTree());
+        assertThrows(ArithmeticException.class, () -> Expression.evaluate("(1/0)²"));
+    }
+
+    @Test
+    void rewritesLongChainsOfSquaresInLinearTime() {
+        int squares = 1000;
+        CompiledExpression expression = assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> Expression.compile("x" + "²".repeat(squares), "x"));
+
+        // Each square multiplies the node below it by itself, so all but the outermost are shared
+        assertEquals(squares - 1, ExpressionOptimizer.sharedSubexpressions(expression.getTree()).size());
+        assertEquals(1, expression.evaluate(1));
+        assertEquals(1, expression.evaluate(-1));
+        assertEquals(Math.pow(1.5, 8), Expression.compile("x²²²", "x").evaluate(1.5), 1e-12);
+        assertTrue(expression.toString().length() <= Node.MAX_STRING_LENGTH + 1);
+
+        double[] out = new double[3];
+        ColumnEvaluator.evaluateColumn(expression, new double[] {1, -1, 0}, out);
+        assertEquals(1, out[0]);
+        assertEquals(1, out[1]);
+        assertEquals(0, out[2]);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> assertThrows(ArithmeticException.class, () -> Expression.evaluate("(1/0)" + "²".repeat(squares))));
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> Expression.compile("x" + "³".repeat(squares), "x").evaluate(1));
+    }
+}
@@ -0,0 +1,34 @@
+package com.calculator.expression;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParserTest {
+
+    @Test
+    void parsesNestingUpToTheLimit() {
+        int depth = Parser.MAX_NESTING;
+        assertEquals(1, Expression.evaluate("(".repeat(depth) + "1" + ")".repeat(depth)));
+        assertEquals(1, Expression.evaluate("-".repeat(depth) + "1"));
+    }
+
+    @Test
+    void rejectsDeepNestingWithoutOverflowingTheStack() {
+        assertThrows(IllegalArgumentException.class,
+            () -> Expression.compile("(".repeat(3000) + "1" + ")".repeat(3000)));
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile("-".repeat(3000) + "1"));
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile("+".repeat(3000) + "1"));
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile("2^".repeat(3000) + "1"));
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile("√".repeat(3000) + "4"));
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile("sin ".repeat(3000) + "1"));
+    }
+
+    @Test
+    void rejectsTreesHigherThanTheLimit() {
+        assertEquals(Parser.MAX_HEIGHT, Expression.evaluate("1" + "+1".repeat(Parser.MAX_HEIGHT - 1)));
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile("1" + "+1".repeat(5000)));
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile("x" + "!".repeat(5000), "x"));
+    }
+}
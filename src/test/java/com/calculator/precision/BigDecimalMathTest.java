@@ -0,0 +1,151 @@
+package com.calculator.precision;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BigDecimalMathTest {
+    private static final MathContext MC = new MathContext(40);
+    private static final String PI = "3.14159265358979323846264338327950288419716939937510582097494";
+    private static final String SQRT_2 = "1.41421356237309504880168872420969807856967187537694807317668";
+
+    @Test
+    void integerFastPathsMatchBigDecimal() {
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal a = BigDecimal.valueOf(randomInteger(random));
+            BigDecimal b = BigDecimal.valueOf(randomInteger(random));
+            assertEquals(a.add(b, MC), BigDecimalMath.add(a, b, MC), a + " + " + b);
+            assertEquals(a.subtract(b, MC), BigDecimalMath.subtract(a, b, MC), a + " - " + b);
+            assertEquals(a.multiply(b, MC), BigDecimalMath.multiply(a, b, MC), a + " × " + b);
+            if (b.signum() != 0) {
+                assertEquals(0, a.divide(b, MC).compareTo(BigDecimalMath.divide(a, b, MC)), a + " ÷ " + b);
+                assertEquals(a.remainder(b, MC), BigDecimalMath.remainder(a, b, MC), a + " % " + b);
+            }
+        }
+    }
+
+    @Test
+    void fastPathKeepsFullPrecisionBeyondDoubles() {
+        BigDecimal big = new BigDecimal("999999999999999");
+        assertEquals(new BigDecimal("999999999999998000000000000001"), BigDecimalMath.multiply(big, big, MC));
+        assertEquals(new BigDecimal("0.3333333333333333333333333333333333333333"),
+            BigDecimalMath.divide(BigDecimal.ONE, BigDecimal.valueOf(3), MC));
+        assertEquals(0, new BigDecimal("0.2").compareTo(BigDecimalMath.divide(BigDecimal.ONE, BigDecimal.valueOf(5), MC)));
+        assertEquals(new BigDecimal("0.25"), BigDecimalMath.divide(BigDecimal.ONE, BigDecimal.valueOf(4), MC));
+        assertEquals(new BigDecimal("0.3"), BigDecimalMath.add(new BigDecimal("0.1"), new BigDecimal("0.2"), MC));
+        assertEquals(BigDecimal.valueOf(-1), BigDecimalMath.remainder(BigDecimal.valueOf(-7), BigDecimal.valueOf(3), MC));
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.divide(BigDecimal.ONE, BigDecimal.ZERO, MC));
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.remainder(BigDecimal.ONE, BigDecimal.ZERO, MC));
+    }
+
+    @Test
+    void powersAndRoots() {
+        assertDigits(SQRT_2, BigDecimalMath.sqrt(BigDecimal.valueOf(2), MC));
+        assertDigits(SQRT_2, BigDecimalMath.pow(BigDecimal.valueOf(2), new BigDecimal("0.5"), MC));
+        assertDigits("2.75567596063107536047194458404412781596169091573875389448679",
+            BigDecimalMath.pow(new BigDecimal("1.5"), new BigDecimal("2.5"), MC));
+        assertEquals(new BigDecimal("1.5").pow(100).round(MC),
+            BigDecimalMath.pow(new BigDecimal("1.5"), BigDecimal.valueOf(100), MC));
+        assertEquals(0, new BigDecimal("0.0009765625").compareTo(
+            BigDecimalMath.pow(BigDecimal.valueOf(2), BigDecimal.valueOf(-10), MC)));
+        assertEquals(BigDecimal.valueOf(-8), BigDecimalMath.pow(BigDecimal.valueOf(-2), new BigDecimal("3.0"), MC));
+        assertEquals(BigDecimal.ZERO, BigDecimalMath.pow(BigDecimal.ZERO, BigDecimal.valueOf(2), MC));
+
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.sqrt(BigDecimal.valueOf(-1), MC));
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.pow(BigDecimal.ZERO, BigDecimal.ZERO, MC));
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.pow(BigDecimal.ZERO, BigDecimal.valueOf(-1), MC));
+        assertThrows(ArithmeticException.class,
+            () -> BigDecimalMath.pow(BigDecimal.valueOf(-2), new BigDecimal("0.5"), MC));
+    }
+
+    @Test
+    void exponentialsAndLogarithms() {
+        assertDigits("2.71828182845904523536028747135266249775724709369995957496697", BigDecimalMath.e(MC));
+        assertDigits("2.71828182845904523536028747135266249775724709369995957496697",
+            BigDecimalMath.exp(BigDecimal.ONE, MC));
+        assertDigits("5184705528587072464087.45332293348538482746910058384640190406",
+            BigDecimalMath.exp(BigDecimal.valueOf(50), MC));
+        assertDigits("0.0000453999297624848515355915155605506102379180888665649692590713",
+            BigDecimalMath.exp(BigDecimal.valueOf(-10), MC));
+        assertEquals(BigDecimal.ONE, BigDecimalMath.exp(BigDecimal.ZERO, MC));
+
+        assertDigits("0.693147180559945309417232121458176568075500134360255254120680",
+            BigDecimalMath.ln(BigDecimal.valueOf(2), MC));
+        assertDigits("2.30258509299404568401799145468436420760110148862877297603333",
+            BigDecimalMath.ln(BigDecimal.TEN, MC));
+        assertDigits("-6.90775527898213705205397436405309262280330446588631892809998",
+            BigDecimalMath.ln(new BigDecimal("0.001"), MC));
+        assertEquals(BigDecimal.ZERO, BigDecimalMath.ln(BigDecimal.ONE, MC));
+
+        assertDigits("0.845098040014256830712216258592636193483572396323965406503635",
+            BigDecimalMath.log10(BigDecimal.valueOf(7), MC));
+        assertEquals(BigDecimal.valueOf(3), BigDecimalMath.log10(new BigDecimal("1000"), MC));
+        assertEquals(BigDecimal.valueOf(-2), BigDecimalMath.log10(new BigDecimal("0.010"), MC));
+
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.ln(BigDecimal.ZERO, MC));
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.log10(BigDecimal.valueOf(-1), MC));
+    }
+
+    @Test
+    void trigonometryIsExactAtSpecialAngles() {
+        assertEquals(BigDecimal.ZERO, BigDecimalMath.sinDegrees(BigDecimal.valueOf(180), MC));
+        assertEquals(new BigDecimal("0.5"), BigDecimalMath.sinDegrees(BigDecimal.valueOf(30), MC));
+        assertEquals(new BigDecimal("-0.5"), BigDecimalMath.sinDegrees(BigDecimal.valueOf(-30), MC));
+        assertEquals(BigDecimal.ONE, BigDecimalMath.sinDegrees(BigDecimal.valueOf(450), MC));
+        assertEquals(new BigDecimal("0.5"), BigDecimalMath.cosDegrees(BigDecimal.valueOf(60), MC));
+        assertEquals(BigDecimal.ZERO, BigDecimalMath.cosDegrees(BigDecimal.valueOf(90), MC));
+        assertEquals(BigDecimal.ONE, BigDecimalMath.tanDegrees(BigDecimal.valueOf(225), MC));
+        assertEquals(BigDecimal.ONE.negate(), BigDecimalMath.tanDegrees(BigDecimal.valueOf(-45), MC));
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.tanDegrees(BigDecimal.valueOf(270), MC));
+    }
+
+    @Test
+    void trigonometryAtOtherAngles() {
+        assertDigits("0.70710678118654752440084436210484903928483593768847403658834",
+            BigDecimalMath.sinDegrees(BigDecimal.valueOf(45), MC));
+        assertDigits("0.866025403784438646763723170752936183471402626905190314027905",
+            BigDecimalMath.sinDegrees(BigDecimal.valueOf(120), MC));
+        assertDigits("-0.866025403784438646763723170752936183471402626905190314027905",
+            BigDecimalMath.cosDegrees(BigDecimal.valueOf(150), MC));
+        assertDigits("0.577350269189625764509148780501957455647601751270126876018601",
+            BigDecimalMath.tanDegrees(BigDecimal.valueOf(30), MC));
+        assertDigits(PI, BigDecimalMath.pi(MC));
+    }
+
+    @Test
+    void factorialIsExact() {
+        assertEquals(BigDecimal.ONE, BigDecimalMath.factorial(BigDecimal.ZERO));
+        assertEquals(new BigDecimal("2432902008176640000"), BigDecimalMath.factorial(BigDecimal.valueOf(20)));
+        assertEquals(new BigDecimal("51090942171709440000"), BigDecimalMath.factorial(new BigDecimal("21.0")));
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.factorial(new BigDecimal("2.5")));
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.factorial(BigDecimal.valueOf(-1)));
+        assertThrows(ArithmeticException.class, () -> BigDecimalMath.factorial(BigDecimal.valueOf(100_001)));
+    }
+
+    private static long randomInteger(Random random) {
+        // Mostly the sizes people type, sometimes up to the 15 digits of the fast path and beyond
+        long bound = switch (random.nextInt(4)) {
+            case 0 -> 100;
+            case 1 -> 1_000_000;
+            case 2 -> 999_999_999_999_999L;
+            default -> Long.MAX_VALUE / 2;
+        };
+        return random.nextLong() % bound;
+    }
+
+    /**
+     * Checks that the result has the 40 digits of MC and is within one unit in the last of them.
+     */
+    private static void assertDigits(String expected, BigDecimal actual) {
+        assertTrue(actual.precision() <= MC.getPrecision(), actual::toString);
+        BigDecimal error = new BigDecimal(expected).subtract(actual).abs();
+        assertTrue(error.compareTo(actual.ulp()) <= 0, () -> actual + " differs from " + expected);
+    }
+}
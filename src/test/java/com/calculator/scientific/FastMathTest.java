@@ -0,0 +1,120 @@
+package com.calculator.scientific;
+
+import com.calculator.expression.BinaryOp;
+import com.calculator.expression.UnaryOp;
+import com.calculator.utils.NumberFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FastMathTest {
+    private static final MathContext REFERENCE = new MathContext(60);
+
+    @Test
+    void sinIsExactAtMultiplesOfNinetyDegrees() {
+        assertEquals(0.0, FastMath.sinDegrees(0));
+        assertEquals(1.0, FastMath.sinDegrees(90));
+        assertEquals(0.0, FastMath.sinDegrees(180));
+        assertEquals(-1.0, FastMath.sinDegrees(270));
+        assertEquals(0.0, FastMath.sinDegrees(360));
+        assertEquals(0.0, FastMath.sinDegrees(-180));
+        assertEquals(0.0, FastMath.sinDegrees(540));
+        assertEquals(0.5, FastMath.sinDegrees(30));
+    }
+
+    @Test
+    void cosIsExactAtMultiplesOfNinetyDegrees() {
+        assertEquals(1.0, FastMath.cosDegrees(0));
+        assertEquals(0.0, FastMath.cosDegrees(90));
+        assertEquals(-1.0, FastMath.cosDegrees(180));
+        assertEquals(0.0, FastMath.cosDegrees(270));
+        assertEquals(1.0, FastMath.cosDegrees(360));
+        assertEquals(0.0, FastMath.cosDegrees(-90));
+        assertEquals(0.0, FastMath.cosDegrees(450));
+        assertEquals(0.5, FastMath.cosDegrees(60));
+    }
+
+    @Test
+    void zerosAreNotNegative() {
+        // assertEquals tells 0.0 and -0.0 apart, but check the display text too
+        assertEquals("0", NumberFormatter.toFixedString(FastMath.sinDegrees(180), 10));
+        assertEquals("0", NumberFormatter.toFixedString(FastMath.cosDegrees(90), 10));
+        // sin keeps the sign of a zero argument, like Math.sin
+        assertEquals(-0.0, FastMath.sinDegrees(-0.0));
+    }
+
+    @Test
+    void expStaysWithinItsDocumentedError() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            double x = -700 + 1400 * random.nextDouble();
+            assertWithinUlps(0.53, expReference(x), FastMath.exp(x), "exp(" + x + ")");
+        }
+    }
+
+    @Test
+    void integerPowersAreCorrectlyRounded() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            double x = 0.5 + 2 * random.nextDouble();
+            int n = random.nextInt(129) - 64;
+            BigDecimal power = new BigDecimal(x).pow(Math.abs(n));
+            BigDecimal expected = n >= 0 ? power : BigDecimal.ONE.divide(power, REFERENCE);
+            assertWithinUlps(0.5, expected, FastMath.pow(x, n), "pow(" + x + ", " + n + ")");
+        }
+    }
+
+    @Test
+    void overflowAndSubnormalResultsMatchMath() {
+        assertEquals(Double.POSITIVE_INFINITY, FastMath.pow(2, 1024));
+        assertEquals(Double.POSITIVE_INFINITY, FastMath.pow(1.5, 2000.5));
+        assertEquals(Double.POSITIVE_INFINITY, FastMath.exp(710));
+        assertEquals(Math.pow(2, -1022.5), FastMath.pow(2, -1022.5));
+        assertEquals(Double.MIN_VALUE, FastMath.pow(2, -1074));
+        assertEquals(Math.pow(1e-10, 32), FastMath.pow(1e-10, 32));
+        assertEquals(Math.pow(1e10, -32), FastMath.pow(1e10, -32));
+        assertEquals(Math.exp(-720), FastMath.exp(-720));
+        assertEquals(0.0, FastMath.exp(-746));
+    }
+
+    @Test
+    void logarithmsAndRealPowersUseMath() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            double x = Math.scalb(1 + random.nextDouble(), random.nextInt(200) - 100);
+            double y = 100 * random.nextDouble() - 50;
+            assertEquals(Math.log(x), UnaryOp.LN.applyFast(x));
+            assertEquals(Math.log10(x), UnaryOp.LOG.applyFast(x));
+            assertEquals(Math.pow(x, y), BinaryOp.POWER.applyFast(x, y));
+        }
+    }
+
+    /**
+     * e^x to about 55 digits: a Taylor series at x / 2^10, squared ten times.
+     */
+    private static BigDecimal expReference(double x) {
+        BigDecimal r = new BigDecimal(x).divide(BigDecimal.valueOf(1024), REFERENCE);
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal term = BigDecimal.ONE;
+        for (int k = 1; k < 40; k++) {
+            term = term.multiply(r, REFERENCE).divide(BigDecimal.valueOf(k), REFERENCE);
+            sum = sum.add(term, REFERENCE);
+        }
+        for (int i = 0; i < 10; i++) {
+            sum = sum.multiply(sum, REFERENCE);
+        }
+        return sum;
+    }
+
+    private static void assertWithinUlps(double bound, BigDecimal expected, double actual, String message) {
+        double ulp = Math.ulp(expected.doubleValue());
+        double error = new BigDecimal(actual).subtract(expected).abs()
+                .divide(new BigDecimal(ulp), MathContext.DECIMAL64).doubleValue();
+        assertTrue(error <= bound, message + " is off by " + error + " ulp");
+    }
+}
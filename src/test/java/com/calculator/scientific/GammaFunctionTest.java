@@ -0,0 +1,100 @@
+package com.calculator.scientific;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GammaFunctionTest {
+    private static final double SQRT_PI = Math.sqrt(Math.PI);
+
+    @Test
+    void exactFactorialMatchesNaiveProduct() {
+        BigInteger naive = BigInteger.ONE;
+        for (int n = 0; n <= 20_100; n++) {
+            if (n > 0) {
+                naive = naive.multiply(BigInteger.valueOf(n));
+            }
+            // Every small n, then around the parallel threshold of 20000
+            if (n <= 500 || n >= 19_990) {
+                assertEquals(naive, GammaFunction.exactFactorial(n), "n = " + n);
+            }
+        }
+    }
+
+    @Test
+    void exactFactorialRejectsInvalidInput() {
+        assertThrows(ArithmeticException.class, () -> GammaFunction.exactFactorial(-1));
+        assertThrows(ArithmeticException.class,
+            () -> GammaFunction.exactFactorial(GammaFunction.MAX_EXACT_FACTORIAL + 1));
+    }
+
+    @Test
+    void gammaMatchesReferenceValues() {
+        assertRelative(SQRT_PI, GammaFunction.gamma(0.5));
+        assertRelative(SQRT_PI / 2, GammaFunction.gamma(1.5));
+        assertRelative(4.170651783796603, GammaFunction.gamma(3.7));
+        assertRelative(1133278.3889487854, GammaFunction.gamma(10.5));
+        assertRelative(9.483367566824801e307, GammaFunction.gamma(171.5));
+        assertEquals(Double.POSITIVE_INFINITY, GammaFunction.gamma(172.5));
+        assertEquals(362880.0, GammaFunction.gamma(10));
+    }
+
+    @Test
+    void gammaUsesReflectionBelowOneHalf() {
+        assertRelative(9.513507698668732, GammaFunction.gamma(0.1));
+        assertRelative(99999.42279422554, GammaFunction.gamma(1e-5));
+        assertRelative(-2 * SQRT_PI, GammaFunction.gamma(-0.5));
+        assertRelative(4 * SQRT_PI / 3, GammaFunction.gamma(-1.5));
+        assertRelative(-8 * SQRT_PI / 15, GammaFunction.gamma(-2.5));
+        assertRelative(-0.1019807888834333, GammaFunction.gamma(-4.3));
+        assertTrue(Double.isNaN(GammaFunction.gamma(0)));
+        assertTrue(Double.isNaN(GammaFunction.gamma(-3)));
+        assertTrue(Double.isNaN(GammaFunction.gamma(Double.NEGATIVE_INFINITY)));
+    }
+
+    @Test
+    void lnGammaMatchesReferenceValues() {
+        assertRelative(0.5723649429247004, GammaFunction.lnGamma(0.5));
+        assertRelative(2.2527126517342055, GammaFunction.lnGamma(0.1));
+        // Either side of the switch to the Stirling series at 30
+        assertRelative(71.257038967168, GammaFunction.lnGamma(30));
+        assertRelative(90.35493026581838, GammaFunction.lnGamma(35.5));
+        assertRelative(359.1342053695754, GammaFunction.lnGamma(100));
+        assertRelative(5905.220423209181, GammaFunction.lnGamma(1000));
+        assertRelative(12815504.569147611, GammaFunction.lnGamma(1e6));
+        assertTrue(Double.isNaN(GammaFunction.lnGamma(0)));
+        assertTrue(Double.isNaN(GammaFunction.lnGamma(-1.5)));
+    }
+
+    @Test
+    void factorialOfIntegersIsCorrectlyRounded() {
+        for (int n = 0; n <= GammaFunction.MAX_DOUBLE_FACTORIAL; n++) {
+            assertEquals(GammaFunction.exactFactorial(n).doubleValue(), GammaFunction.factorial(n), "n = " + n);
+        }
+        assertThrows(ArithmeticException.class, () -> GammaFunction.factorial(171));
+        assertThrows(ArithmeticException.class, () -> GammaFunction.factorial(-1));
+        assertThrows(ArithmeticException.class, () -> GammaFunction.factorial(Double.NaN));
+    }
+
+    @Test
+    void factorialOfFractionsIsGammaOfTheNextNumber() {
+        assertRelative(SQRT_PI / 2, GammaFunction.factorial(0.5));
+        assertRelative(SQRT_PI, GammaFunction.factorial(-0.5));
+        assertRelative(-2 * SQRT_PI, GammaFunction.factorial(-1.5));
+        assertTrue(GammaFunction.isFactorialDefined(170.5));
+        assertFalse(GammaFunction.isFactorialDefined(171.5));
+        assertFalse(GammaFunction.isFactorialDefined(-2));
+    }
+
+    /**
+     * Within the documented accuracy of about 1e-13 relative error.
+     */
+    private static void assertRelative(double expected, double actual) {
+        assertEquals(expected, actual, Math.abs(expected) * 2e-13);
+    }
+}
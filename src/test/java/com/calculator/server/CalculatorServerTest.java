@@ -0,0 +1,68 @@
+package com.calculator.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalculatorServerTest {
+    private CalculatorServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new CalculatorServer(0, 1000);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    @Test
+    void evaluatesExpressions() throws Exception {
+        HttpResponse<String> response = post("{\"expression\":\"x^2+1\",\"variables\":{\"x\":3}}");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"result\":10}", response.body());
+    }
+
+    @Test
+    void repeatedSquaresStayWithinTheBudget() {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            String squares = "²".repeat(27);
+            HttpResponse<String> response = post("{\"expression\":\"x" + squares + "\",\"variables\":{\"x\":1}}");
+            assertEquals(200, response.statusCode());
+            assertEquals(422, post("{\"expression\":\"(1/0)" + squares + "\"}").statusCode());
+        });
+    }
+
+    @Test
+    void rejectsDeeplyNestedExpressions() throws Exception {
+        HttpResponse<String> response = post("{\"expression\":\"" + "(".repeat(3000) + "1" + ")".repeat(3000) + "\"}");
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("nested"), response.body());
+
+        response = post("[{\"expression\":\"" + "-".repeat(3000) + "1\"},{\"expression\":\"2\"}]");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().endsWith("{\"result\":2}]}"), response.body());
+    }
+
+    private HttpResponse<String> post(String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/evaluate"))
+            .header("X-Compute-Budget-Ms", "10")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,51 @@
+package com.calculator.server;
+
+import com.calculator.server.BinaryProtocol.Opcode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UnixSocketServerTest {
+    @TempDir
+    Path directory;
+    private UnixSocketServer server;
+    private UnixSocketClient client;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new UnixSocketServer(directory.resolve("calculator.sock"));
+        server.start();
+        client = new UnixSocketClient(server.getPath());
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    void rejectsDeeplyNestedExpressionsAndKeepsServing() throws IOException {
+        assertThrows(IllegalArgumentException.class,
+            () -> client.evaluate("(".repeat(3000) + "1" + ")".repeat(3000)));
+        assertThrows(IllegalArgumentException.class, () -> client.evaluate("1" + "+1".repeat(5000)));
+        assertEquals(10, client.evaluate("x0^2+1", 3));
+    }
+
+    @Test
+    void convertsBasesGivenAsLongs() throws IOException {
+        assertEquals("11111111", client.convertBase("FF", 16, 2));
+        // Bases are compared as longs, not rounded to double first
+        client.request(Opcode.CONVERT_BASE).putLong((1L << 53) + 1).putLong(2).putString("1").send();
+        client.flush();
+        assertEquals(BinaryProtocol.STATUS_BAD_REQUEST, client.receive().getStatus());
+        assertEquals("377", client.convertBase("255", 10, 8));
+    }
+}
@@ -0,0 +1,95 @@
+package com.calculator.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerialExecutorTest {
+
+    @Test
+    void runsTasksInOrderWithoutOverlapOnAMultiThreadedPool() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            int executors = 16;
+            int tasks = 5000;
+            List<List<Integer>> order = new ArrayList<>();
+            AtomicInteger overlaps = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(executors * tasks);
+            for (int e = 0; e < executors; e++) {
+                SerialExecutor serial = new SerialExecutor(pool);
+                List<Integer> ran = new ArrayList<>();
+                order.add(ran);
+                AtomicInteger running = new AtomicInteger();
+                for (int i = 0; i < tasks; i++) {
+                    int task = i;
+                    serial.execute(() -> {
+                        if (running.incrementAndGet() != 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        // Not synchronized: the serial executor must order the tasks itself
+                        ran.add(task);
+                        running.decrementAndGet();
+                        done.countDown();
+                    });
+                }
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            assertEquals(0, overlaps.get());
+            for (List<Integer> ran : order) {
+                assertEquals(tasks, ran.size());
+                for (int i = 0; i < tasks; i++) {
+                    assertEquals(i, ran.get(i));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void yieldsAfterABatchAndReschedulesTheRest() {
+        Queue<Runnable> scheduled = new ArrayDeque<>();
+        SerialExecutor serial = new SerialExecutor(scheduled::add);
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 150; i++) {
+            serial.execute(ran::incrementAndGet);
+        }
+        // One drain task, however many tasks are queued
+        assertEquals(1, scheduled.size());
+
+        scheduled.poll().run();
+        assertEquals(64, ran.get());
+        assertEquals(1, scheduled.size());
+        scheduled.poll().run();
+        assertEquals(128, ran.get());
+        scheduled.poll().run();
+        assertEquals(150, ran.get());
+        assertTrue(scheduled.isEmpty());
+
+        serial.execute(ran::incrementAndGet);
+        assertEquals(1, scheduled.size());
+    }
+
+    @Test
+    void rejectsTasksWhenThePoolIsShutDown() {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        pool.shutdown();
+        SerialExecutor serial = new SerialExecutor(pool);
+        assertThrows(RejectedExecutionException.class, () -> serial.execute(() -> { }));
+        // The drain was not left marked as scheduled, so later tasks are rejected too
+        assertThrows(RejectedExecutionException.class, () -> serial.execute(() -> { }));
+    }
+}
@@ -0,0 +1,85 @@
+package com.calculator.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionManagerTest {
+
+    @Test
+    void sessionsRunTheirOperationsInOrder() throws Exception {
+        try (SessionManager manager = new SessionManager()) {
+            List<CalculatorSession> sessions = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                sessions.add(manager.open());
+            }
+            List<CompletableFuture<CalculatorSession.State>> results = new ArrayList<>();
+            for (int i = 0; i < sessions.size(); i++) {
+                CalculatorSession session = sessions.get(i);
+                session.appendNumber(String.valueOf(i + 1));
+                session.setOperator("+");
+                session.appendNumber("1");
+                results.add(session.calculateResult());
+            }
+            for (int i = 0; i < sessions.size(); i++) {
+                assertEquals(String.valueOf(i + 2.0), results.get(i).get().getDisplay());
+            }
+        }
+    }
+
+    @Test
+    void rejectsOperationsAfterClose() throws Exception {
+        SessionManager manager = new SessionManager();
+        CalculatorSession session = manager.open();
+        CalculatorSession other = manager.open();
+        CompletableFuture<CalculatorSession.State> before = session.appendNumber("7");
+
+        assertTrue(manager.close(session.getId()));
+        assertFalse(manager.close(session.getId()));
+        assertTrue(session.isClosed());
+        assertNull(manager.get(session.getId()));
+        assertEquals("7", before.get().getDisplay());
+        assertClosed(session.appendNumber("8"));
+
+        assertSame(other, manager.get(other.getId()));
+        manager.close();
+        assertTrue(other.isClosed());
+        assertClosed(other.getState());
+        assertEquals(0, manager.getSessionCount());
+    }
+
+    @Test
+    void closesOnlyIdleSessions() throws Exception {
+        try (SessionManager manager = new SessionManager()) {
+            CalculatorSession idle = manager.open();
+            CalculatorSession busy = manager.open();
+            assertEquals(0, manager.closeIdleSessions(Duration.ofHours(1)));
+
+            Thread.sleep(300);
+            busy.getState().get();
+            assertEquals(1, manager.closeIdleSessions(Duration.ofMillis(150)));
+            assertTrue(idle.isClosed());
+            assertFalse(busy.isClosed());
+            assertNull(manager.get(idle.getId()));
+            assertSame(busy, manager.get(busy.getId()));
+            assertEquals(1, manager.getSessionCount());
+        }
+    }
+
+    private static void assertClosed(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+}
@@ -0,0 +1,120 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import com.calculator.utils.HistoryManager.Category;
+import com.calculator.utils.HistoryManager.FunctionCount;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryAggregatesTest {
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 1, 12, 30);
+
+    private final HistoryAggregates aggregates = new HistoryAggregates();
+
+    @Test
+    void countsCategories() {
+        add("1+1", "Basic", TIME);
+        add("2+2", "Basic", TIME);
+        add("sin(30)", "Scientific", TIME);
+        add("PMT", "Financial", TIME);
+        add("?", "Unknown", TIME);
+
+        assertEquals(5, aggregates.total());
+        assertEquals(2, aggregates.count(Category.BASIC));
+        assertEquals(1, aggregates.count(Category.SCIENTIFIC));
+        assertEquals(1, aggregates.count(Category.FINANCIAL));
+        assertEquals(0, aggregates.count(Category.CONVERSION));
+        assertEquals(1, aggregates.count(Category.OTHER));
+    }
+
+    @Test
+    void countsOnlyFunctionNamesAndOperators() {
+        add("sin(x) + 1.5E10 * x0 - e", "Scientific", TIME);
+        add("sqrt(2)^3 + 5! + √4 + 2²", "Scientific", TIME);
+        add("sinh + cosine + log(ln(2))", "Scientific", TIME);
+
+        Map<String, Long> counts = counts(aggregates.mostUsedFunctions(16));
+        assertEquals(Map.of("sin", 1L, "sqrt", 1L, "xʸ", 1L, "!", 1L, "√", 1L, "x²", 1L, "log", 1L, "ln", 1L),
+            counts);
+    }
+
+    @Test
+    void sketchNeverUnderestimatesAndRanksByCount() {
+        String[] names = {"sin", "cos", "tan", "log", "ln", "sqrt", "sqr", "cube", "recip", "fact"};
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 5000; i++) {
+            // Skewed so that the ranking is clear
+            String name = names[Math.min(names.length - 1, (int) (-Math.log(random.nextDouble()) * 2))];
+            add(name + "(1)", "Scientific", TIME);
+            expected.merge(name, 1L, Long::sum);
+        }
+
+        List<FunctionCount> top = aggregates.mostUsedFunctions(16);
+        assertEquals(expected.size(), top.size());
+        for (FunctionCount function : top) {
+            assertTrue(function.getCount() >= expected.get(function.getName()), function.getName());
+        }
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getCount() >= top.get(i).getCount());
+        }
+        assertEquals("sin", top.get(0).getName());
+
+        assertEquals(counts(top.subList(0, 3)), counts(aggregates.mostUsedFunctions(3)));
+        assertEquals(0, aggregates.mostUsedFunctions(-1).size());
+    }
+
+    @Test
+    void rollsUpByHourForTheLastWeekAndByDayForAllTime() {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        add("1+1", "Basic", hour.minusHours(2));
+        add("1+2", "Basic", hour.minusHours(2).plusMinutes(59));
+        add("1+3", "Basic", hour.minusDays(1));
+        add("1+4", "Basic", hour.minusDays(8));
+        add("1+5", "Basic", TIME);
+        add("1+6", "Basic", TIME.plusHours(1));
+
+        NavigableMap<LocalDateTime, Long> perHour = aggregates.perHour();
+        assertEquals(Map.of(hour.minusHours(2), 2L, hour.minusDays(1), 1L), perHour);
+
+        NavigableMap<LocalDate, Long> perDay = aggregates.perDay();
+        assertEquals(2, perDay.get(TIME.toLocalDate()));
+        assertEquals(1, perDay.get(hour.minusDays(8).toLocalDate()));
+        assertEquals(6, perDay.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void clearResetsEverything() {
+        add("sin(30)", "Scientific", LocalDateTime.now());
+        aggregates.clear();
+
+        assertEquals(0, aggregates.total());
+        assertEquals(0, aggregates.count(Category.SCIENTIFIC));
+        assertTrue(aggregates.perHour().isEmpty());
+        assertTrue(aggregates.perDay().isEmpty());
+        assertTrue(aggregates.mostUsedFunctions(16).isEmpty());
+    }
+
+    private void add(String expression, String category, LocalDateTime timestamp) {
+        aggregates.add(new CalculationEntry(expression, "0", category, timestamp));
+    }
+
+    private static Map<String, Long> counts(List<FunctionCount> functions) {
+        Map<String, Long> counts = new HashMap<>();
+        for (FunctionCount function : functions) {
+            counts.put(function.getName(), function.getCount());
+        }
+        return counts;
+    }
+}
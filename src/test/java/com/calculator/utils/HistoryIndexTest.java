@@ -0,0 +1,172 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HistoryIndexTest {
+    private static final String[] FUNCTIONS = {"sin", "cos", "tan", "log", "ln", "√", "x²"};
+    private static final String[] CATEGORIES = {"Basic", "Scientific", "Financial", "Conversion"};
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final Random random = new Random(1);
+    private final List<CalculationEntry> entries = new ArrayList<>();
+    private final HistoryIndex index = new HistoryIndex();
+
+    @BeforeEach
+    void addEntries() {
+        // A few full value blocks and a partial one
+        for (int i = 0; i < 5000; i++) {
+            add(randomEntry());
+        }
+    }
+
+    @Test
+    void searchMatchesLinearScan() {
+        List<String> terms = new ArrayList<>(List.of("", "1", "12", "123", "1234", "+", "(", "sin", "sin(1",
+            "√", "²", "Fin", "asic", "Error", "∞", ".5", "0.", "xyz", "s", "c", "n(", "Basic", "c1"));
+        for (int i = 0; i < 200; i++) {
+            terms.add(randomSubstring());
+        }
+        for (String term : terms) {
+            assertArrayEquals(linear(entry -> entry.getExpression().contains(term) || entry.getResult().contains(term)
+                || entry.getCategory().contains(term)), index.search(term, entries::get), term);
+        }
+    }
+
+    @Test
+    void prefixSearchMatchesLinearScan() {
+        List<String> prefixes = new ArrayList<>(List.of("", "1", "12", "123", "1234", "s", "si", "sin(", "sin(9",
+            "√", "x²(", "Error", "2+"));
+        for (int i = 0; i < 200; i++) {
+            String expression = entries.get(random.nextInt(entries.size())).getExpression();
+            prefixes.add(expression.substring(0, 1 + random.nextInt(expression.length())));
+        }
+        for (String prefix : prefixes) {
+            assertArrayEquals(linear(entry -> entry.getExpression().startsWith(prefix)),
+                index.searchPrefix(prefix, entries::get), prefix);
+        }
+    }
+
+    @Test
+    void rangeSearchMatchesLinearScan() {
+        double[][] ranges = {{0, 1}, {100, 101}, {-50, 50}, {1e9, 1e10}, {5, 5}, {-1e300, 1e300},
+            {10, -10}, {Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}};
+        for (double[] range : ranges) {
+            assertRange(range[0], range[1]);
+        }
+        for (int i = 0; i < 100; i++) {
+            double min = random.nextInt(20000) / 10.0 - 1000;
+            assertRange(min, min + random.nextInt(500));
+        }
+    }
+
+    @Test
+    void categoryFilterMatchesLinearScan() {
+        for (String category : CATEGORIES) {
+            assertArrayEquals(linear(entry -> entry.getCategory().equals(category)), index.filterByCategory(category));
+        }
+        assertEquals(0, index.filterByCategory("basic").length);
+    }
+
+    @Test
+    void indexesStoredEntriesBeforeLaterOnes(@TempDir Path directory) throws IOException {
+        HistoryStore store = HistoryStore.open(directory);
+        for (CalculationEntry entry : entries) {
+            store.append(entry);
+        }
+        store.publish();
+        int stored = entries.size();
+
+        HistoryIndex built = new HistoryIndex();
+        built.startBuild();
+        // Added while the stored entries are being indexed
+        CalculationEntry later = new CalculationEntry("sin(12345)", "-0.5", "Scientific", TIME);
+        built.add(later);
+        List<CalculationEntry> visited = new ArrayList<>();
+        built.build(store.generation(), 0, stored, visited::add);
+        add(later);
+
+        assertEquals(stored, visited.size());
+        assertArrayEquals(index.search("123", entries::get), built.search("123", entries::get));
+        assertArrayEquals(index.searchPrefix("sin(12", entries::get), built.searchPrefix("sin(12", entries::get));
+        assertArrayEquals(index.searchRange(-1, 0), built.searchRange(-1, 0));
+        assertArrayEquals(index.filterByCategory("Scientific"), built.filterByCategory("Scientific"));
+        store.close();
+    }
+
+    @Test
+    void clearEmptiesTheIndex() {
+        index.clear();
+        entries.clear();
+        assertEquals(0, index.search("1", entries::get).length);
+        assertEquals(0, index.searchRange(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY).length);
+        assertEquals(0, index.filterByCategory("Basic").length);
+
+        add(new CalculationEntry("1+1", "2", "Basic", TIME));
+        assertArrayEquals(new int[] {0}, index.search("1+1", entries::get));
+        assertArrayEquals(new int[] {0}, index.searchRange(2, 2));
+    }
+
+    private void assertRange(double min, double max) {
+        assertArrayEquals(linear(entry -> {
+            double value = value(entry.getResult());
+            return value >= min && value <= max;
+        }), index.searchRange(min, max), min + ".." + max);
+    }
+
+    private void add(CalculationEntry entry) {
+        entries.add(entry);
+        index.add(entry);
+    }
+
+    private CalculationEntry randomEntry() {
+        String expression = switch (random.nextInt(3)) {
+            case 0 -> FUNCTIONS[random.nextInt(FUNCTIONS.length)] + "(" + random.nextInt(1000) + ")";
+            case 1 -> random.nextInt(100_000) + "+" + random.nextInt(1000);
+            default -> random.nextInt(1000) + "/" + (random.nextInt(99) + 1);
+        };
+        String result = switch (random.nextInt(20)) {
+            case 0 -> "Error";
+            case 1 -> "∞";
+            case 2 -> String.valueOf(random.nextLong());
+            default -> String.valueOf((random.nextInt(400_000) - 200_000) / 8.0);
+        };
+        return new CalculationEntry(expression, result, CATEGORIES[random.nextInt(CATEGORIES.length)],
+            TIME.plusSeconds(entries.size()));
+    }
+
+    private String randomSubstring() {
+        CalculationEntry entry = entries.get(random.nextInt(entries.size()));
+        String text = random.nextBoolean() ? entry.getExpression() : entry.getResult();
+        int start = random.nextInt(text.length());
+        return text.substring(start, start + 1 + random.nextInt(text.length() - start));
+    }
+
+    private int[] linear(Predicate<CalculationEntry> matches) {
+        return IntStream.range(0, entries.size())
+            .filter(id -> matches.test(entries.get(id)))
+            .toArray();
+    }
+
+    private static double value(String result) {
+        try {
+            return Double.parseDouble(result);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
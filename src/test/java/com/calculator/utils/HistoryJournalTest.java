@@ -0,0 +1,156 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HistoryJournalTest {
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123_000_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsEntriesOldestFirst() throws IOException {
+        Journal journal = new Journal()
+            .entry(TIME, "1+1", "2", "Basic")
+            .entry(TIME.plusSeconds(1), "sin(30)", "0.5", "Scientific")
+            .entry(TIME.plusSeconds(2), "√2 ≈ π/2", "1.414", "Other");
+        List<CalculationEntry> entries = HistoryJournal.read(journal.write());
+
+        assertEquals(3, entries.size());
+        assertEntry(entries.get(0), TIME, "1+1", "2", "Basic");
+        assertEntry(entries.get(1), TIME.plusSeconds(1), "sin(30)", "0.5", "Scientific");
+        assertEntry(entries.get(2), TIME.plusSeconds(2), "√2 ≈ π/2", "1.414", "Other");
+    }
+
+    @Test
+    void keepsOnlyEntriesAfterTheLastClear() throws IOException {
+        Journal journal = new Journal()
+            .entry(TIME, "1+1", "2", "Basic")
+            .clear()
+            .entry(TIME.plusSeconds(1), "2+2", "4", "Basic")
+            .clear()
+            .entry(TIME.plusSeconds(2), "3+3", "6", "Basic");
+        List<CalculationEntry> entries = HistoryJournal.read(journal.write());
+
+        assertEquals(1, entries.size());
+        assertEquals("3+3", entries.get(0).getExpression());
+    }
+
+    @Test
+    void stopsAtATornTail() throws IOException {
+        Journal journal = new Journal()
+            .entry(TIME, "1+1", "2", "Basic")
+            .entry(TIME.plusSeconds(1), "2+2", "4", "Basic");
+        byte[] bytes = journal.bytes();
+        // Every cut inside the last record leaves the first one
+        int secondRecord = bytes.length - journal.lastRecordSize;
+        for (int cut = secondRecord; cut < bytes.length; cut++) {
+            Path file = directory.resolve("torn-" + cut);
+            Files.write(file, Arrays.copyOf(bytes, cut));
+            List<CalculationEntry> entries = HistoryJournal.read(file);
+            assertEquals(1, entries.size(), "cut at " + cut);
+            assertEquals("1+1", entries.get(0).getExpression());
+        }
+    }
+
+    @Test
+    void stopsAtACorruptRecord() throws IOException {
+        Journal journal = new Journal()
+            .entry(TIME, "1+1", "2", "Basic")
+            .entry(TIME.plusSeconds(1), "2+2", "4", "Basic")
+            .entry(TIME.plusSeconds(2), "3+3", "6", "Basic");
+        byte[] bytes = journal.bytes();
+        bytes[bytes.length - 2 * journal.lastRecordSize + 12] ^= 1; // In the second record's body
+        Path file = directory.resolve("corrupt");
+        Files.write(file, bytes);
+
+        List<CalculationEntry> entries = HistoryJournal.read(file);
+        assertEquals(1, entries.size());
+        assertEquals("1+1", entries.get(0).getExpression());
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("other");
+        Files.writeString(file, "2024-01-01 10:00:00 | 1+1 = 2 | Basic | x");
+        assertThrows(IOException.class, () -> HistoryJournal.read(file));
+    }
+
+    private static void assertEntry(CalculationEntry entry, LocalDateTime timestamp, String expression,
+                                    String result, String category) {
+        assertEquals(timestamp, entry.getTimestamp());
+        assertEquals(expression, entry.getExpression());
+        assertEquals(result, entry.getResult());
+        assertEquals(category, entry.getCategory());
+    }
+
+    /**
+     * Builds a journal in the format of earlier versions.
+     */
+    private final class Journal {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int lastRecordSize;
+
+        Journal() {
+            out.writeBytes(ByteBuffer.allocate(HistoryJournal.HEADER_SIZE).putInt(HistoryJournal.MAGIC).array());
+        }
+
+        Journal entry(LocalDateTime timestamp, String expression, String result, String category) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            body.write(HistoryJournal.ENTRY);
+            body.writeBytes(ByteBuffer.allocate(8).putLong(HistorySegment.toMillis(timestamp)).array());
+            putString(body, expression);
+            putString(body, result);
+            putString(body, category);
+            return record(body.toByteArray());
+        }
+
+        Journal clear() {
+            return record(new byte[] {HistoryJournal.CLEAR});
+        }
+
+        private Journal record(byte[] body) {
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            out.writeBytes(ByteBuffer.allocate(8).putInt(body.length).putInt((int) crc.getValue()).array());
+            out.writeBytes(body);
+            lastRecordSize = 8 + body.length;
+            return this;
+        }
+
+        private void putString(ByteArrayOutputStream body, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = bytes.length;
+            while (length >= 0x80) {
+                body.write(length & 0x7F | 0x80);
+                length >>>= 7;
+            }
+            body.write(length);
+            body.writeBytes(bytes);
+        }
+
+        byte[] bytes() {
+            return out.toByteArray();
+        }
+
+        Path write() throws IOException {
+            return Files.write(directory.resolve("calculator_history.journal"), bytes());
+        }
+    }
+}
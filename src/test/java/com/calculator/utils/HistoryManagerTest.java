@@ -0,0 +1,106 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryManagerTest {
+    @TempDir
+    Path root;
+
+    @Test
+    void importsTextHistorySkippingMalformedLines() throws IOException {
+        Files.writeString(root.resolve("calculator_history.txt"), String.join("\n",
+            "2024-01-01 10:00:03 | 3*3 = 9 | Basic | x",
+            "2024-01-01 10:00:00 | broken | Basic | x",
+            "2024-13-01 10:00:00 | 1/0 = ∞ | Basic | x",
+            "not a history line",
+            "2024-01-01 10:00:02 | sin(30) = 0.5 | Scientific | x",
+            "",
+            "2024-01-01 10:00:01 | 1+1 = 2 | Basic | x") + "\n");
+        Path directory = root.resolve("calculator_history");
+
+        HistoryManager manager = new HistoryManager(directory);
+        try {
+            assertExpressions(manager.getHistory(), "3*3", "sin(30)", "1+1");
+            CalculationEntry newest = manager.getHistory().get(0);
+            assertEquals("9", newest.getResult());
+            assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0, 3), newest.getTimestamp());
+            assertEquals("Scientific", manager.getHistory().get(1).getCategory());
+        } finally {
+            manager.close();
+        }
+        // The import went to the store rather than being abandoned for memory only
+        assertTrue(Files.exists(directory.resolve(HistoryStore.MANIFEST)));
+        manager = new HistoryManager(directory);
+        try {
+            assertExpressions(manager.getHistory(), "3*3", "sin(30)", "1+1");
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void reopensWithTheEntriesAddedAfterAClear() throws IOException {
+        Path directory = root.resolve("calculator_history");
+        HistoryManager manager = new HistoryManager(directory);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                manager.addCalculation(i + "*2", String.valueOf(i * 2), "Basic");
+            }
+            manager.flush();
+            manager.clearHistory();
+            manager.addCalculation("1+1", "2", "Basic");
+            manager.addCalculation("sin(30)", "0.5", "Scientific");
+        } finally {
+            manager.close();
+        }
+
+        manager = new HistoryManager(directory);
+        try {
+            assertExpressions(manager.getHistory(), "sin(30)", "1+1");
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void statisticsCoverTheStoredEntriesRightAfterLoading() throws IOException {
+        Path directory = root.resolve("calculator_history");
+        HistoryManager manager = new HistoryManager(directory);
+        try {
+            for (int i = 0; i < 50_000; i++) {
+                manager.addCalculation("sin(" + i + ")", "0", i % 5 == 0 ? "Basic" : "Scientific");
+            }
+        } finally {
+            manager.close();
+        }
+
+        manager = new HistoryManager(directory);
+        try {
+            HistoryManager.HistoryStatistics statistics = manager.getStatistics();
+            assertEquals(50_000, statistics.getTotalCalculations());
+            assertEquals(10_000, statistics.getBasicOperations());
+            assertEquals(40_000, statistics.getScientificOperations());
+            assertEquals(50_000, manager.getMostUsedFunctions(1).get(0).getCount());
+        } finally {
+            manager.close();
+        }
+    }
+
+    static void assertExpressions(List<CalculationEntry> entries, String... expressions) {
+        assertEquals(expressions.length, entries.size(), entries::toString);
+        for (int i = 0; i < expressions.length; i++) {
+            assertEquals(expressions[i], entries.get(i).getExpression());
+        }
+    }
+}
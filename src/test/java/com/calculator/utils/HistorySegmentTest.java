@@ -0,0 +1,143 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistorySegmentTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final long BASE_MILLIS = HistorySegment.toMillis(BASE);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEntries() throws IOException {
+        Path file = directory.resolve("a.seg");
+        HistorySegment segment = HistorySegment.create(file, BASE_MILLIS, 16, 4096);
+        assertTrue(segment.append(BASE_MILLIS + 1234, "1+1", "2", "Basic"));
+        assertTrue(segment.append(BASE_MILLIS, "√2 ≈ π/2", "1.414", "Scientific"));
+        assertTrue(segment.append(BASE_MILLIS + 86_400_000, "", "", "Basic"));
+        assertEquals(0, segment.count());
+        segment.publish();
+        segment.sync();
+
+        assertEquals(3, segment.count());
+        assertEntry(segment.read(0), BASE.plusNanos(1_234_000_000), "1+1", "2", "Basic");
+        assertEntry(segment.read(1), BASE, "√2 ≈ π/2", "1.414", "Scientific");
+        assertEntry(segment.read(2), BASE.plusDays(1), "", "", "Basic");
+
+        HistorySegment reopened = HistorySegment.open(file, false);
+        assertEquals(3, reopened.count());
+        assertEquals(segment.usedBytes(), reopened.usedBytes());
+        assertEntry(reopened.read(1), BASE, "√2 ≈ π/2", "1.414", "Scientific");
+        assertEquals("Basic", reopened.categoryAt(2));
+        assertEquals(BASE_MILLIS + 86_400_000, reopened.millisAt(2));
+    }
+
+    @Test
+    void keepsAppendingAfterReopen() throws IOException {
+        Path file = directory.resolve("a.seg");
+        HistorySegment segment = HistorySegment.create(file, BASE_MILLIS, 16, 4096);
+        segment.append(BASE_MILLIS, "1+1", "2", "Basic");
+        segment.publish();
+        segment.sync();
+
+        HistorySegment reopened = HistorySegment.open(file, true);
+        assertTrue(reopened.append(BASE_MILLIS + 1, "2+2", "4", "Basic"));
+        assertTrue(reopened.append(BASE_MILLIS + 2, "ln(1)", "0", "Scientific"));
+        reopened.publish();
+        reopened.sync();
+
+        HistorySegment again = HistorySegment.open(file, false);
+        assertEquals(3, again.count());
+        assertEntry(again.read(0), BASE, "1+1", "2", "Basic");
+        assertEntry(again.read(2), BASE.plusNanos(2_000_000), "ln(1)", "0", "Scientific");
+    }
+
+    @Test
+    void dropsUnpublishedAppends() throws IOException {
+        Path file = directory.resolve("a.seg");
+        HistorySegment segment = HistorySegment.create(file, BASE_MILLIS, 16, 4096);
+        segment.append(BASE_MILLIS, "1+1", "2", "Basic");
+        segment.publish();
+        segment.append(BASE_MILLIS + 1, "2+2", "4", "Basic");
+
+        assertEquals(1, HistorySegment.open(file, false).count());
+    }
+
+    @Test
+    void dropsRecordsTheHeaderCountsButThatDoNotCheckOut() throws IOException {
+        Path file = directory.resolve("a.seg");
+        HistorySegment segment = HistorySegment.create(file, BASE_MILLIS, 16, 4096);
+        segment.append(BASE_MILLIS, "1+1", "2", "Basic");
+        segment.append(BASE_MILLIS + 1, "2+2", "4", "Basic");
+        segment.append(BASE_MILLIS + 2, "3+3", "6", "Basic");
+        segment.publish();
+        segment.sync();
+        int heapUsed = (int) (segment.usedBytes() - HistorySegment.HEADER_SIZE - 3 * HistorySegment.RECORD_SIZE);
+
+        // A record count past the written records, whose zeroed strings overlap earlier ones
+        putHeaderInt(file, 16, 5);
+        assertEquals(3, HistorySegment.open(file, false).count());
+
+        // Heap bytes short of the last record's strings, as if they never reached the disk
+        putHeaderInt(file, 16, 3);
+        putHeaderInt(file, 20, heapUsed - 1);
+        HistorySegment recovered = HistorySegment.open(file, true);
+        assertEquals(2, recovered.count());
+        assertEntry(recovered.read(1), BASE.plusNanos(1_000_000), "2+2", "4", "Basic");
+
+        // Appends continue after the recovered records
+        assertTrue(recovered.append(BASE_MILLIS + 3, "4+4", "8", "Basic"));
+        recovered.publish();
+        recovered.sync();
+        HistorySegment reopened = HistorySegment.open(file, false);
+        assertEquals(3, reopened.count());
+        assertEntry(reopened.read(2), BASE.plusNanos(3_000_000), "4+4", "8", "Basic");
+    }
+
+    @Test
+    void refusesEntriesThatDoNotFit() throws IOException {
+        HistorySegment segment = HistorySegment.create(directory.resolve("a.seg"), BASE_MILLIS, 2, 16);
+        assertFalse(segment.append(BASE_MILLIS - 1, "1", "1", "Basic"), "before the base time");
+        assertFalse(segment.append(BASE_MILLIS + (1L << 32), "1", "1", "Basic"), "past 49 days");
+        assertFalse(segment.append(BASE_MILLIS, "12345678901", "1", "Basic"), "heap full");
+        assertTrue(segment.append(BASE_MILLIS, "1", "1", "Basic"));
+        assertTrue(segment.append(BASE_MILLIS, "2", "2", "Basic"));
+        assertFalse(segment.append(BASE_MILLIS, "3", "3", "Basic"), "records full");
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = Files.write(directory.resolve("other.seg"), new byte[HistorySegment.HEADER_SIZE]);
+        assertThrows(IOException.class, () -> HistorySegment.open(file, false));
+    }
+
+    private static void putHeaderInt(Path file, int position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+        }
+    }
+
+    static void assertEntry(CalculationEntry entry, LocalDateTime timestamp, String expression,
+                            String result, String category) {
+        assertEquals(timestamp, entry.getTimestamp());
+        assertEquals(expression, entry.getExpression());
+        assertEquals(result, entry.getResult());
+        assertEquals(category, entry.getCategory());
+    }
+}
@@ -0,0 +1,136 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.calculator.utils.HistorySegmentTest.assertEntry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryStoreTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 30, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEntriesAcrossMonths() throws IOException {
+        List<CalculationEntry> written = entries(200);
+        HistoryStore store = HistoryStore.open(directory);
+        assertFalse(HistoryStore.exists(directory));
+        for (CalculationEntry entry : written) {
+            store.append(entry);
+        }
+        store.publish();
+        assertEntries(written, store.generation());
+        store.close();
+
+        assertTrue(HistoryStore.exists(directory));
+        assertTrue(segmentFiles() > 1, "entries span several months");
+        HistoryStore reopened = HistoryStore.open(directory);
+        assertEntries(written, reopened.generation());
+        assertEquals(store.usedBytes(), reopened.usedBytes());
+
+        // The newest segment is appended to after reopening
+        CalculationEntry next = new CalculationEntry("next", "1", "Basic", written.get(199).getTimestamp());
+        reopened.append(next);
+        reopened.close();
+        written.add(next);
+        assertEntries(written, HistoryStore.open(directory).generation());
+    }
+
+    @Test
+    void acceptsEntriesOutOfTimeOrder() throws IOException {
+        HistoryStore store = HistoryStore.open(directory);
+        store.append(new CalculationEntry("later", "1", "Basic", START));
+        store.append(new CalculationEntry("earlier", "2", "Basic", START.minusDays(20)));
+        store.append(new CalculationEntry("last month", "3", "Basic", START.minusMonths(1)));
+        store.close();
+
+        HistoryStore.Generation reopened = HistoryStore.open(directory).generation();
+        assertEquals(3, reopened.size());
+        assertEntry(reopened.read(1), START.minusDays(20), "earlier", "2", "Basic");
+        assertEntry(reopened.read(2), START.minusMonths(1), "last month", "3", "Basic");
+        assertEquals(2, segmentFiles());
+    }
+
+    @Test
+    void reopensEmptyAfterClear() throws IOException {
+        HistoryStore store = HistoryStore.open(directory);
+        List<CalculationEntry> written = entries(50);
+        for (CalculationEntry entry : written) {
+            store.append(entry);
+        }
+        store.publish();
+        HistoryStore.Generation old = store.generation();
+        store.clear();
+
+        assertEquals(0, store.generation().size());
+        assertEquals(0, store.usedBytes());
+        // Readers of the old generation keep their entries
+        assertEntries(written, old);
+        store.close();
+
+        HistoryStore reopened = HistoryStore.open(directory);
+        assertEquals(0, reopened.generation().size());
+        assertEquals(0, segmentFiles(), "cleared segments are deleted on reopen");
+
+        CalculationEntry entry = new CalculationEntry("1+1", "2", "Basic", START);
+        reopened.append(entry);
+        reopened.clear();
+        reopened.append(entry);
+        reopened.close();
+        HistoryStore.Generation last = HistoryStore.open(directory).generation();
+        assertEquals(1, last.size());
+        assertEntry(last.read(0), START, "1+1", "2", "Basic");
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void dropsUnpublishedEntries() throws IOException {
+        HistoryStore store = HistoryStore.open(directory);
+        store.append(new CalculationEntry("1+1", "2", "Basic", START));
+        store.publish();
+        store.sync();
+        store.append(new CalculationEntry("2+2", "4", "Basic", START));
+        // Not closed, as after a crash
+
+        HistoryStore.Generation reopened = HistoryStore.open(directory).generation();
+        assertEquals(1, reopened.size());
+        assertEquals("1+1", reopened.read(0).getExpression());
+    }
+
+    private static List<CalculationEntry> entries(int count) {
+        List<CalculationEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String category = i % 3 == 0 ? "Scientific" : "Basic";
+            entries.add(new CalculationEntry(i + "*2", String.valueOf(i * 2), category, START.plusHours(i)));
+        }
+        return entries;
+    }
+
+    private static void assertEntries(List<CalculationEntry> expected, HistoryStore.Generation generation) {
+        assertEquals(expected.size(), generation.size());
+        for (int i = 0; i < expected.size(); i++) {
+            CalculationEntry entry = expected.get(i);
+            assertEntry(generation.read(i), entry.getTimestamp(), entry.getExpression(), entry.getResult(),
+                entry.getCategory());
+        }
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.calculator.utils;
+
+import com.calculator.utils.HistoryManager.CalculationEntry;
+import com.calculator.utils.HistoryManager.Compression;
+import com.calculator.utils.HistoryManager.Format;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryTransferTest {
+    private static final String[] CATEGORIES = {"Basic", "Scientific", "Financial", "Conversion", "Odd, \"one\""};
+    private static final String CSV_HEADER_LINE = HistoryTransfer.CSV_HEADER + "\n";
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 30, 10, 0, 0, 123_000_000);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void roundTripsEveryFormatAndCompression() throws IOException {
+        // Several blocks, the last one partial
+        List<CalculationEntry> entries = entries(20_000);
+        for (Format format : Format.values()) {
+            for (Compression compression : Compression.values()) {
+                byte[] exported = write(entries, format, compression);
+                List<CalculationEntry> imported = new ArrayList<>();
+                long count = HistoryTransfer.read(new ByteArrayInputStream(exported), format, compression,
+                    imported::addAll);
+
+                assertEquals(entries.size(), count, format + " " + compression);
+                assertEntries(entries, imported, format);
+            }
+        }
+    }
+
+    @Test
+    void roundTripsAnEmptyHistory() throws IOException {
+        for (Format format : Format.values()) {
+            for (Compression compression : Compression.values()) {
+                byte[] exported = write(List.of(), format, compression);
+                long count = HistoryTransfer.read(new ByteArrayInputStream(exported), format, compression,
+                    block -> assertEquals(0, block.size()));
+                assertEquals(0, count, format + " " + compression);
+            }
+        }
+    }
+
+    @Test
+    void compressedExportsAreStandardStreams() throws IOException {
+        List<CalculationEntry> entries = entries(20_000);
+        for (Format format : Format.values()) {
+            byte[] plain = write(entries, format, Compression.NONE);
+            byte[] gzip = write(entries, format, Compression.GZIP);
+            byte[] deflate = write(entries, format, Compression.DEFLATE);
+            // Multi-member gzip reads as one file
+            assertArrayEquals(plain, readAll(new GZIPInputStream(new ByteArrayInputStream(gzip))), format.name());
+            assertArrayEquals(plain, readAll(new InflaterInputStream(new ByteArrayInputStream(deflate))),
+                format.name());
+        }
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertMalformed(Format.JSON_LINES, "{\"timestamp\":\"yesterday\",\"expression\":\"1\",\"result\":\"1\","
+            + "\"category\":\"Basic\"}\n");
+        assertMalformed(Format.JSON_LINES, "{\"timestamp\":\"2024-01-01T10:00:00.000\",\"expression\":\"1\"\n");
+        assertMalformed(Format.JSON_LINES, "not json\n");
+        // Well-formed timestamps of dates that do not exist
+        assertMalformed(Format.JSON_LINES, "{\"timestamp\":\"2024-13-01T00:00:00.000\",\"expression\":\"1\","
+            + "\"result\":\"1\",\"category\":\"Basic\"}\n");
+        assertMalformed(Format.CSV, CSV_HEADER_LINE + "2024-13-01 00:00:00,\"1\",\"1\",Basic\n");
+        assertMalformed(Format.CSV, CSV_HEADER_LINE + "2024-02-30 10:00:00,\"1\",\"1\",Basic\n");
+        assertMalformed(Format.BINARY, "CHX0");
+        byte[] binary = write(entries(10), Format.BINARY, Compression.NONE);
+        for (int cut = 4; cut < binary.length; cut++) {
+            byte[] truncated = Arrays.copyOf(binary, cut);
+            assertThrows(IOException.class, () -> HistoryTransfer.read(new ByteArrayInputStream(truncated),
+                Format.BINARY, Compression.NONE, block -> { }), "cut at " + cut);
+        }
+        assertThrows(IOException.class, () -> HistoryTransfer.read(
+            new ByteArrayInputStream("not gzip".getBytes(StandardCharsets.US_ASCII)), Format.CSV, Compression.GZIP,
+            block -> { }));
+    }
+
+    @Test
+    void passesOnTheBlocksBeforeAMalformedOne() throws IOException {
+        List<CalculationEntry> entries = entries(10_000);
+        String valid = new String(write(entries, Format.JSON_LINES, Compression.NONE), StandardCharsets.UTF_8);
+        byte[] input = (valid + "not json\n").getBytes(StandardCharsets.UTF_8);
+        List<CalculationEntry> imported = new ArrayList<>();
+        assertThrows(IOException.class, () -> HistoryTransfer.read(new ByteArrayInputStream(input),
+            Format.JSON_LINES, Compression.NONE, imported::addAll));
+        assertEntries(entries.subList(0, imported.size()), imported, Format.JSON_LINES);
+    }
+
+    @Test
+    void managerExportsAndImportsTheHistory() throws IOException {
+        List<CalculationEntry> entries = entries(20_000);
+        byte[] exported;
+        HistoryManager source = new HistoryManager(root.resolve("source"));
+        try {
+            assertEquals(entries.size(), source.importHistory(
+                new ByteArrayInputStream(write(entries, Format.BINARY, Compression.NONE)), Format.BINARY,
+                Compression.NONE));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            source.exportHistory(out, Format.JSON_LINES, Compression.GZIP);
+            exported = out.toByteArray();
+        } finally {
+            source.close();
+        }
+
+        HistoryManager target = new HistoryManager(root.resolve("target"));
+        try {
+            target.addCalculation("1+1", "2", "Basic");
+            assertEquals(entries.size(), target.importHistory(new ByteArrayInputStream(exported),
+                Format.JSON_LINES, Compression.GZIP));
+            List<CalculationEntry> history = target.getHistory();
+            assertEquals(entries.size() + 1, history.size());
+            // Imported entries follow the ones already there, in export order
+            assertEquals("1+1", history.get(history.size() - 1).getExpression());
+            List<CalculationEntry> imported = new ArrayList<>(history.subList(0, entries.size()));
+            Collections.reverse(imported);
+            assertEntries(entries, imported, Format.JSON_LINES);
+            assertEquals(entries.size() / CATEGORIES.length, target.filterByCategory("Financial").size());
+        } finally {
+            target.close();
+        }
+    }
+
+    @Test
+    void managerReportsImpossibleDatesAsMalformed() {
+        HistoryManager manager = new HistoryManager(root.resolve("history"));
+        try {
+            byte[] input = (CSV_HEADER_LINE + "2024-02-30 10:00:00,\"1+1\",\"2\",Basic\n")
+                .getBytes(StandardCharsets.UTF_8);
+            IOException e = assertThrows(IOException.class,
+                () -> manager.importHistory(new ByteArrayInputStream(input), Format.CSV, Compression.NONE));
+            assertTrue(e.getMessage().startsWith("Malformed history record"), e.getMessage());
+        } finally {
+            manager.close();
+        }
+    }
+
+    private static List<CalculationEntry> entries(int count) {
+        List<CalculationEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String expression = switch (i % 5) {
+                case 0 -> "sin(" + i + ") \"quoted\", ü\\x\ny";
+                case 1 -> "";
+                default -> i + "+" + i % 13 + "×√" + i % 7;
+            };
+            // Out of time order now and then, and to the millisecond
+            LocalDateTime timestamp = START.plusSeconds(i % 50 == 0 ? -i * 60L : i * 7L)
+                .plusNanos(i % 1000 * 1_000_000L);
+            entries.add(new CalculationEntry(expression, Integer.toString(i - 5000), CATEGORIES[i % CATEGORIES.length],
+                timestamp));
+        }
+        return entries;
+    }
+
+    private static byte[] write(List<CalculationEntry> entries, Format format, Compression compression) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            HistoryTransfer.write(i -> entries.get((int) i), entries.size(), out, format, compression);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void assertMalformed(Format format, String input) {
+        assertThrows(IOException.class, () -> HistoryTransfer.read(
+            new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format, Compression.NONE, block -> { }),
+            input);
+    }
+
+    private static void assertEntries(List<CalculationEntry> expected, List<CalculationEntry> actual, Format format) {
+        assertEquals(expected.size(), actual.size(), format.name());
+        for (int i = 0; i < expected.size(); i++) {
+            CalculationEntry entry = expected.get(i);
+            // CSV keeps whole seconds
+            LocalDateTime timestamp = format == Format.CSV ? entry.getTimestamp().withNano(0) : entry.getTimestamp();
+            HistorySegmentTest.assertEntry(actual.get(i), timestamp, entry.getExpression(), entry.getResult(),
+                entry.getCategory());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.calculator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NumberFormatterTest {
+
+    @Test
+    void shortestStringRoundTripsRandomDoubles() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isFinite(value)) {
+                assertShortest(value);
+            }
+        }
+    }
+
+    @Test
+    void shortestStringRoundTripsSubnormals() {
+        double[] values = {
+            Double.MIN_VALUE, 2 * Double.MIN_VALUE, 3 * Double.MIN_VALUE,
+            Double.MIN_NORMAL, Math.nextDown(Double.MIN_NORMAL), Math.nextUp(Double.MIN_NORMAL),
+            Double.MIN_NORMAL / 2, Double.MIN_NORMAL / 3, 1e-310, 1e-320
+        };
+        for (double value : values) {
+            assertShortest(value);
+            assertShortest(-value);
+        }
+        assertEquals("4.9E-324", NumberFormatter.toShortestString(Double.MIN_VALUE));
+        assertEquals("2.2250738585072014E-308", NumberFormatter.toShortestString(Double.MIN_NORMAL));
+    }
+
+    @Test
+    void shortestStringOfPowersOfTen() {
+        for (int exponent = -323; exponent <= 308; exponent++) {
+            double value = Double.parseDouble("1e" + exponent);
+            assertShortest(value);
+            if (value >= Double.MIN_NORMAL) {
+                assertEquals(powerOfTen(exponent), NumberFormatter.toShortestString(value));
+            }
+        }
+        // Double.toString gives 9.999999999999999E22 on JDK 17
+        assertEquals("1.0E23", NumberFormatter.toShortestString(1e23));
+        // Two digits at least, so the closest of them rather than the shorter 1.0E-323
+        assertEquals("9.9E-324", NumberFormatter.toShortestString(1e-323));
+    }
+
+    @Test
+    void shortestStringOfSpecialValues() {
+        assertEquals("0.0", NumberFormatter.toShortestString(0.0));
+        assertEquals("-0.0", NumberFormatter.toShortestString(-0.0));
+        assertEquals("NaN", NumberFormatter.toShortestString(Double.NaN));
+        assertEquals("Infinity", NumberFormatter.toShortestString(Double.POSITIVE_INFINITY));
+        assertEquals("-Infinity", NumberFormatter.toShortestString(Double.NEGATIVE_INFINITY));
+        assertEquals("1.7976931348623157E308", NumberFormatter.toShortestString(Double.MAX_VALUE));
+    }
+
+    @Test
+    void fixedStringMatchesTrimmedFormat() {
+        // The display text of CalculatorModel.formatNumber before it used the formatter
+        double[] values = {
+            0.1 + 0.2, 1.0 / 3, 2.0 / 3, -1.0 / 7, 123.456, 100, -42, 0.5, 1e-10, 5e-11,
+            12345678.87654321, Math.PI, Math.E, Math.sqrt(2), 1e15, 0.000123
+        };
+        for (double value : values) {
+            String formatted = String.format("%.10f", value).replaceAll("0*$", "").replaceAll("\\.$", "");
+            assertEquals(formatted, NumberFormatter.toFixedString(value, 10), () -> "for " + value);
+        }
+    }
+
+    @Test
+    void fixedStringRoundsShortestDigitsHalfUp() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(24) - 8);
+            String expected = new BigDecimal(Double.toString(value)).setScale(10, RoundingMode.HALF_UP)
+                .stripTrailingZeros().toPlainString();
+            if (new BigDecimal(expected).signum() == 0) {
+                expected = value < 0 ? "-0" : "0";
+            }
+            assertEquals(expected, NumberFormatter.toFixedString(value, 10), "for " + value);
+        }
+    }
+
+    @Test
+    void displayStringMatchesStringFormatWithTheRegexBugsFixed() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 12);
+            if (random.nextInt(4) == 0) {
+                value = Math.rint(value);
+            }
+            assertEquals(fixedFormatOutput(value), NumberFormatter.toDisplayString(value), "for " + value);
+        }
+    }
+
+    @Test
+    void displayStringDiffersFromStringFormatOnlyWhereItWasWrong() {
+        // The old regex also stripped zeros from the integer part...
+        assertEquals("3884201860", NumberFormatter.toDisplayString(3.884201859553076E9));
+        // ...and from exponents, while leaving them in the mantissa
+        assertEquals("1.23456789e+10", NumberFormatter.toDisplayString(12345678901.5));
+        assertEquals("2e+10", NumberFormatter.toDisplayString(20000000000.5));
+        assertEquals("1.23e-05", NumberFormatter.toDisplayString(0.0000123));
+        // %.0f padded the digits of Double.toString, which before JDK 19 are not always the shortest
+        assertEquals("1152921504606847000", NumberFormatter.toDisplayString(0x1p60));
+        assertEquals("18014398509481984", NumberFormatter.toDisplayString(0x1p54));
+
+        // Unchanged
+        assertEquals("0.00012", NumberFormatter.toDisplayString(0.00012));
+        assertEquals("2.5", NumberFormatter.toDisplayString(2.5));
+        assertEquals("-100", NumberFormatter.toDisplayString(-100));
+        assertEquals("1.000000E-07", NumberFormatter.toDisplayString(1e-7));
+        assertEquals("1.500000E+12", NumberFormatter.toDisplayString(1.5e12 + 0.5));
+        assertEquals("Error", NumberFormatter.toDisplayString(Double.NaN));
+        assertEquals("∞", NumberFormatter.toDisplayString(Double.POSITIVE_INFINITY));
+        assertEquals("-∞", NumberFormatter.toDisplayString(Double.NEGATIVE_INFINITY));
+    }
+
+    /**
+     * The original ValidationUtils.formatOutput, with trailing zeros removed only from the
+     * fraction of the mantissa, and whole numbers from 2^53 written with their shortest digits.
+     */
+    private static String fixedFormatOutput(double value) {
+        if (Math.floor(value) == value) {
+            return Math.abs(value) < 0x1p53
+                ? String.format("%.0f", value)
+                : new BigDecimal(NumberFormatter.toShortestString(value)).toPlainString();
+        }
+        if (Math.abs(value) >= 1e12 || (Math.abs(value) < 1e-6 && value != 0)) {
+            return String.format("%.6E", value);
+        }
+        String formatted = String.format("%.10g", value);
+        int exponent = formatted.indexOf('e');
+        String mantissa = exponent < 0 ? formatted : formatted.substring(0, exponent);
+        if (mantissa.indexOf('.') >= 0) {
+            mantissa = mantissa.replaceAll("\\.?0+$", "");
+        }
+        return exponent < 0 ? mantissa : mantissa + formatted.substring(exponent);
+    }
+
+    private static String powerOfTen(int exponent) {
+        if (exponent >= 0 && exponent < 7) {
+            return "1" + "0".repeat(exponent) + ".0";
+        }
+        if (exponent < 0 && exponent >= -3) {
+            return "0." + "0".repeat(-exponent - 1) + "1";
+        }
+        return "1.0E" + exponent;
+    }
+
+    private static void assertShortest(double value) {
+        String text = NumberFormatter.toShortestString(value);
+        assertEquals(value, Double.parseDouble(text), text);
+        assertTrue(text.length() <= Double.toString(value).length(),
+            () -> text + " is longer than " + Double.toString(value));
+    }
+}
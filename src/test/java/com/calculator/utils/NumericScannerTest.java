@@ -0,0 +1,110 @@
+package com.calculator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NumericScannerTest {
+    private final NumericScanner scanner = new NumericScanner();
+    private final Random random = new Random(1);
+
+    @Test
+    void decimalValuesMatchParseDouble() {
+        String[] literals = {"0", "-0", "12.5", ".5", "5.", "-.5e3", "6.02e23", "1E-5", "1e+5", "007",
+            "123456789012345678901234567890", "0.1", "0.30000000000000004", "9007199254740993",
+            "1.7976931348623157e308", "4.9e-324", "2e-324", "1e-400",
+            "2.2250738585072011e-308", "0.000000000000000000000000000001234"};
+        for (String literal : literals) {
+            assertEquals(NumericScanner.Status.OK, scanner.scanDecimal(literal), literal);
+            assertEquals(Double.parseDouble(literal), scanner.doubleValue(), literal);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            String literal = randomDecimal();
+            double expected = Double.parseDouble(literal);
+            assertEquals(Double.isInfinite(expected) ? NumericScanner.Status.OUT_OF_RANGE : NumericScanner.Status.OK,
+                scanner.scanDecimal(literal), literal);
+            assertEquals(expected, scanner.doubleValue(), literal);
+        }
+    }
+
+    @Test
+    void overflowIsOutOfRange() {
+        for (String literal : new String[] {"1.8e308", "-1e309", "1e100000000", "9".repeat(400)}) {
+            assertEquals(NumericScanner.Status.OUT_OF_RANGE, scanner.scanDecimal(literal), literal);
+            assertEquals(Double.parseDouble(literal), scanner.doubleValue(), literal);
+        }
+    }
+
+    @Test
+    void reportsMalformedDecimals() {
+        assertEquals(NumericScanner.Status.EMPTY, scanner.scanDecimal(null));
+        assertEquals(NumericScanner.Status.NO_DIGITS, scanner.scanDecimal(""));
+        assertEquals(NumericScanner.Status.NO_DIGITS, scanner.scanDecimal("-."));
+        assertEquals(NumericScanner.Status.NO_DIGITS, scanner.scanDecimal("e5"));
+        assertEquals(NumericScanner.Status.MISSING_EXPONENT, scanner.scanDecimal("1e"));
+        assertEquals(NumericScanner.Status.MISSING_EXPONENT, scanner.scanDecimal("1e+"));
+        assertEquals(NumericScanner.Status.INVALID_CHARACTER, scanner.scanDecimal("1.2.3"));
+        assertEquals(3, scanner.errorPosition());
+        assertEquals(NumericScanner.Status.INVALID_CHARACTER, scanner.scanDecimal("--1"));
+        assertEquals(1, scanner.errorPosition());
+        assertEquals(NumericScanner.Status.INVALID_CHARACTER, scanner.scanDecimal("1e5x"));
+        assertEquals(3, scanner.errorPosition());
+    }
+
+    @Test
+    void integerValuesMatchParseUnsignedLong() {
+        for (int radix : new int[] {2, 8, 16}) {
+            for (int i = 0; i < 5_000; i++) {
+                long value = random.nextLong() >>> random.nextInt(64);
+                String literal = "0".repeat(random.nextInt(3)) + Long.toUnsignedString(value, radix);
+                if (random.nextBoolean()) {
+                    literal = literal.toUpperCase();
+                }
+                assertEquals(NumericScanner.Status.OK, scanner.scanInteger(literal, radix), literal);
+                assertEquals(value, scanner.longValue(), literal);
+            }
+        }
+        String tooLong = new BigInteger("1" + "0".repeat(64), 2).toString(16);
+        assertEquals(NumericScanner.Status.OUT_OF_RANGE, scanner.scanInteger(tooLong, 16));
+        assertEquals(NumericScanner.Status.OK, scanner.scanInteger("000" + "f".repeat(16), 16));
+        assertEquals(-1, scanner.longValue());
+        assertEquals(NumericScanner.Status.INVALID_CHARACTER, scanner.scanInteger("102", 2));
+        assertEquals(2, scanner.errorPosition());
+        assertEquals(NumericScanner.Status.EMPTY, scanner.scanInteger("", 8));
+        assertThrows(IllegalArgumentException.class, () -> scanner.scanInteger("1", 10));
+    }
+
+    private String randomDecimal() {
+        StringBuilder literal = new StringBuilder();
+        if (random.nextBoolean()) {
+            literal.append('-');
+        }
+        int before = random.nextInt(22);
+        int after = random.nextInt(22);
+        if (before + after == 0) {
+            before = 1;
+        }
+        for (int i = 0; i < before; i++) {
+            literal.append((char) ('0' + random.nextInt(10)));
+        }
+        if (after > 0 || random.nextBoolean()) {
+            literal.append('.');
+        }
+        for (int i = 0; i < after; i++) {
+            literal.append((char) ('0' + random.nextInt(10)));
+        }
+        if (random.nextInt(3) == 0) {
+            literal.append(random.nextBoolean() ? 'e' : 'E');
+            int sign = random.nextInt(3);
+            if (sign > 0) {
+                literal.append(sign == 1 ? '+' : '-');
+            }
+            literal.append(random.nextInt(340));
+        }
+        return literal.toString();
+    }
+}
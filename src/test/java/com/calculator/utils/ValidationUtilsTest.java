@@ -0,0 +1,110 @@
+package com.calculator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the hand-written validation with the regular expressions it replaced.
+ */
+class ValidationUtilsTest {
+    private static final Pattern NUMERIC_PATTERN = Pattern.compile("^-?\\d*\\.?\\d*$");
+    private static final Pattern OPERATOR_PATTERN = Pattern.compile("[+\\-*/^%]");
+    private static final Pattern SCIENTIFIC_PATTERN = Pattern.compile("^-?\\d*\\.?\\d*[Ee][+-]?\\d+$");
+    private static final Pattern HEXADECIMAL_PATTERN = Pattern.compile("^[0-9A-Fa-f]+$");
+    private static final Pattern BINARY_PATTERN = Pattern.compile("^[01]+$");
+    private static final Pattern OCTAL_PATTERN = Pattern.compile("^[0-7]+$");
+    // Line terminators are left out: the old patterns used '.', which does not match them
+    private static final String ALPHABET = "0123456789.-+eE*/^%()xAaFfg 7";
+
+    private final Random random = new Random(1);
+
+    @Test
+    void numericInputMatchesTheOldPatterns() {
+        for (String input : inputs("0123456789.-+eE x")) {
+            assertEquals(NUMERIC_PATTERN.matcher(input).matches() || SCIENTIFIC_PATTERN.matcher(input).matches(),
+                ValidationUtils.isValidNumericInput(input), input);
+        }
+        assertFalse(ValidationUtils.isValidNumericInput(null));
+    }
+
+    @Test
+    void integerInputMatchesTheOldPatterns() {
+        for (String input : inputs("0123456789AaFfGg-.")) {
+            assertEquals(HEXADECIMAL_PATTERN.matcher(input).matches(), ValidationUtils.isValidHexadecimal(input), input);
+            assertEquals(BINARY_PATTERN.matcher(input).matches(), ValidationUtils.isValidBinary(input), input);
+            assertEquals(OCTAL_PATTERN.matcher(input).matches(), ValidationUtils.isValidOctal(input), input);
+        }
+        // Longer than 64 bits is still well-formed
+        assertTrue(ValidationUtils.isValidHexadecimal("f".repeat(40)));
+        assertFalse(ValidationUtils.isValidBinary(null));
+    }
+
+    @Test
+    void operatorsMatchTheOldPattern() {
+        for (String input : inputs(ALPHABET)) {
+            assertEquals(OPERATOR_PATTERN.matcher(input).matches(), ValidationUtils.isValidOperator(input), input);
+        }
+        assertFalse(ValidationUtils.isValidOperator(null));
+    }
+
+    @Test
+    void expressionsMatchTheOldRules() {
+        for (String input : inputs(ALPHABET)) {
+            assertEquals(oldIsValidExpression(input), ValidationUtils.isValidExpression(input), input);
+        }
+        assertFalse(ValidationUtils.isValidExpression(null));
+    }
+
+    @Test
+    void sanitizingMatchesTheOldPattern() {
+        for (String input : inputs(ALPHABET + "é∞\t")) {
+            assertEquals(input.replaceAll("[^0-9+\\-*/^%().Ee]", ""), ValidationUtils.sanitizeInput(input), input);
+        }
+        assertEquals("", ValidationUtils.sanitizeInput(null));
+    }
+
+    /**
+     * Short random strings, which hit the edge cases far more often than long ones.
+     */
+    private String[] inputs(String alphabet) {
+        String[] inputs = new String[50_000];
+        for (int i = 0; i < inputs.length; i++) {
+            char[] chars = new char[random.nextInt(7)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            inputs[i] = new String(chars);
+        }
+        return inputs;
+    }
+
+    private static boolean oldIsValidExpression(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return false;
+        }
+        int parenthesesCount = 0;
+        for (char c : expression.toCharArray()) {
+            if (c == '(') {
+                parenthesesCount++;
+            } else if (c == ')') {
+                parenthesesCount--;
+                if (parenthesesCount < 0) {
+                    return false;
+                }
+            }
+        }
+        if (parenthesesCount != 0) {
+            return false;
+        }
+        if (expression.matches(".*[+\\-*/^%][+*/^%].*")) {
+            return false;
+        }
+        return !expression.matches("^[*/^%].*") && !expression.matches(".*[+\\-*/^%]$");
+    }
+}